@@ -11,8 +11,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A utility class to help with {@link CompletableFuture completable futures}.
@@ -100,4 +103,56 @@ public class FutureHelper {
         return ret;
     }
 
+    /**
+     * Returns a future completed with the result of the specified future, whose dependent
+     * actions run on the specified executor, usually the
+     * {@link me.lokka30.treasury.api.economy.EconomyProvider#preferredExecutor() preferred executor}
+     * of an economy provider.
+     * <p>If there is no executor, or the future has already completed, the future itself is
+     * returned, so that no thread hop happens.
+     *
+     * @param future   the future to continue
+     * @param executor the executor to continue on, or null to continue wherever the future
+     *                 completes
+     * @return future continuing on the executor
+     * @param <T> type parameter
+     * @since 2.1.0
+     */
+    @NotNull
+    public static <T> CompletableFuture<T> continueOn(
+            @NotNull CompletableFuture<T> future, @Nullable Executor executor
+    ) {
+        Objects.requireNonNull(future, "future");
+
+        if (executor == null || future.isDone()) {
+            return future;
+        }
+        return future.thenApplyAsync(Function.identity(), executor);
+    }
+
+    /**
+     * Chains the specified function to the specified future, running it on the specified
+     * executor, as per {@link #continueOn(CompletableFuture, Executor)}. This lets a pipeline of
+     * calls to an economy provider stay on the provider's threads.
+     *
+     * @param future   the future to chain to
+     * @param executor the executor to run the function on, or null to run it wherever the
+     *                 future completes
+     * @param function the function returning the next stage
+     * @return future completed with the result of the next stage
+     * @param <T> type parameter of the future
+     * @param <R> type parameter of the next stage
+     * @since 2.1.0
+     */
+    @NotNull
+    public static <T, R> CompletableFuture<R> thenComposeOn(
+            @NotNull CompletableFuture<T> future,
+            @Nullable Executor executor,
+            @NotNull Function<? super T, ? extends CompletionStage<R>> function
+    ) {
+        Objects.requireNonNull(function, "function");
+
+        return continueOn(future, executor).thenCompose(function);
+    }
+
 }
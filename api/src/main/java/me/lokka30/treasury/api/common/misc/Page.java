@@ -0,0 +1,373 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.common.misc;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a single page of a bigger result set, retrieved incrementally.
+ * <p>A page holds its items and, if there are more items to retrieve, a continuation token.
+ * The continuation token is opaque to the consumer: it shall only be passed back to the same
+ * method which returned the page, in order to retrieve the next page.
+ *
+ * <p>Example of processing every item with bounded memory:
+ * <pre>
+ * Page.forEachPage(
+ *   token -&gt; provider.retrievePlayerAccountIds(500, token),
+ *   ids -&gt; {
+ *     // process the ids of this page
+ *     return CompletableFuture.completedFuture(null);
+ *   }
+ * );
+ * </pre>
+ *
+ * @param <T> type of the items held
+ * @since 2.1.0
+ */
+public final class Page<T> {
+
+    /**
+     * The page size Treasury uses whenever it pages through results on its own.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    /**
+     * Creates a new {@code Page}.
+     *
+     * @param items             the items of the page
+     * @param continuationToken the token to retrieve the next page with, or null if this is the
+     *                          last page
+     * @param <T>               type of the items held
+     * @return new page
+     */
+    @NotNull
+    public static <T> Page<T> of(
+            @NotNull Collection<T> items, @Nullable String continuationToken
+    ) {
+        Objects.requireNonNull(items, "items");
+        return new Page<>(Collections.unmodifiableList(new ArrayList<>(items)), continuationToken);
+    }
+
+    /**
+     * Creates a new {@code Page}, which is the last page of the result set.
+     *
+     * @param items the items of the page
+     * @param <T>   type of the items held
+     * @return new page
+     */
+    @NotNull
+    public static <T> Page<T> last(@NotNull Collection<T> items) {
+        return of(items, null);
+    }
+
+    /**
+     * Returns the page of the specified {@code all} collection, described by the specified
+     * {@code continuationToken}, which is an offset in the collection.
+     * <p>This relies on {@code all} being iterated in the same order each time it is
+     * retrieved, and on no items being added or removed in between, otherwise items are
+     * skipped or repeated. Use {@link #after(Collection, Function, int, String)} for
+     * collections which may change between pages.
+     *
+     * @param all               the whole collection
+     * @param pageSize          maximum amount of items in the page
+     * @param continuationToken token returned by a previous page of this method, or null for
+     *                          the first page
+     * @param <T>               type of the items held
+     * @return page
+     * @throws IllegalArgumentException if the page size is not positive or if the continuation
+     *                                  token was not generated by this method
+     */
+    @NotNull
+    public static <T> Page<T> slice(
+            @NotNull Collection<T> all, int pageSize, @Nullable String continuationToken
+    ) {
+        Objects.requireNonNull(all, "all");
+        validatePageSize(pageSize);
+        int offset = parseOffset(continuationToken);
+        if (offset >= all.size()) {
+            return last(Collections.emptyList());
+        }
+
+        List<T> items;
+        if (all instanceof List && all instanceof RandomAccess) {
+            items = new ArrayList<>(((List<T>) all).subList(offset,
+                    Math.min(all.size(), offset + pageSize)
+            ));
+        } else {
+            items = new ArrayList<>(Math.min(pageSize, all.size() - offset));
+            Iterator<T> iterator = all.iterator();
+            for (int i = 0; i < offset; i++) {
+                iterator.next();
+            }
+            while (iterator.hasNext() && items.size() < pageSize) {
+                items.add(iterator.next());
+            }
+        }
+
+        int nextOffset = offset + items.size();
+        return new Page<>(
+                Collections.unmodifiableList(items),
+                nextOffset < all.size() ? Integer.toString(nextOffset) : null
+        );
+    }
+
+    /**
+     * Returns the page of the specified {@code all} collection, which holds the items with the
+     * lowest keys greater than the specified {@code continuationToken}, the key of the last
+     * item of the previous page. Keys are produced by the specified {@code keyFunction} and
+     * compared as strings, hence they have to be unique.
+     * <p>Unlike {@link #slice(Collection, int, String)}, this neither relies on the iteration
+     * order of {@code all}, nor skips or repeats items present on every retrieval, when items
+     * are added or removed between pages. Selecting a page takes O(n log(pageSize)).
+     *
+     * @param all               the whole collection
+     * @param keyFunction       function producing the unique key of an item
+     * @param pageSize          maximum amount of items in the page
+     * @param continuationToken token returned by a previous page of this method, or null for
+     *                          the first page
+     * @param <T>               type of the items held
+     * @return page, ordered by key
+     * @throws IllegalArgumentException if the page size is not positive
+     */
+    @NotNull
+    public static <T> Page<T> after(
+            @NotNull Collection<T> all,
+            @NotNull Function<? super T, String> keyFunction,
+            int pageSize,
+            @Nullable String continuationToken
+    ) {
+        Objects.requireNonNull(all, "all");
+        Objects.requireNonNull(keyFunction, "keyFunction");
+        validatePageSize(pageSize);
+
+        // max-heap of the lowest keys found so far, holding at most one item beyond the page
+        PriorityQueue<Map.Entry<String, T>> lowest = new PriorityQueue<>(
+                Math.min(pageSize + 1, Math.max(1, all.size())),
+                Map.Entry.<String, T>comparingByKey().reversed()
+        );
+        for (T item : all) {
+            String key = keyFunction.apply(item);
+            if (continuationToken != null && key.compareTo(continuationToken) <= 0) {
+                continue;
+            }
+            if (lowest.size() <= pageSize) {
+                lowest.add(new AbstractMap.SimpleImmutableEntry<>(key, item));
+            } else if (key.compareTo(lowest.peek().getKey()) < 0) {
+                lowest.poll();
+                lowest.add(new AbstractMap.SimpleImmutableEntry<>(key, item));
+            }
+        }
+
+        boolean hasNext = lowest.size() > pageSize;
+        if (hasNext) {
+            lowest.poll();
+        }
+        List<Map.Entry<String, T>> sorted = new ArrayList<>(lowest);
+        sorted.sort(Map.Entry.comparingByKey());
+        List<T> items = new ArrayList<>(sorted.size());
+        for (Map.Entry<String, T> entry : sorted) {
+            items.add(entry.getValue());
+        }
+        return new Page<>(
+                Collections.unmodifiableList(items),
+                hasNext ? sorted.get(sorted.size() - 1).getKey() : null
+        );
+    }
+
+    /**
+     * Retrieves all the pages, one after another, via the specified {@code pageFetcher} and runs
+     * the specified {@code pageAction} on the items of each of them. The next page is only
+     * requested after the future returned by the {@code pageAction} for the current page
+     * completes, hence at most one page is held in memory at a time. Pages are processed in a
+     * loop, so that futures completing right away do not deepen the stack.
+     *
+     * @param pageFetcher function retrieving a page by its continuation token. A {@code null}
+     *                    token requests the first page.
+     * @param pageAction  action to run on the items of each page
+     * @param <T>         type of the items held
+     * @return future, completed when all the pages have been processed, or failed with the
+     *         first error the fetcher or the action completed with
+     */
+    @NotNull
+    public static <T> CompletableFuture<Void> forEachPage(
+            @NotNull Function<String, CompletableFuture<Page<T>>> pageFetcher,
+            @NotNull Function<Collection<T>, CompletableFuture<?>> pageAction
+    ) {
+        Objects.requireNonNull(pageFetcher, "pageFetcher");
+        Objects.requireNonNull(pageAction, "pageAction");
+
+        PageLoop<T> loop = new PageLoop<>(pageFetcher, pageAction);
+        loop.run(null);
+        return loop.result;
+    }
+
+    /**
+     * Splits the specified, already retrieved, collection into pages of the specified size
+     * and runs the specified {@code pageAction} on each of them, one after another, as
+     * {@link #forEachPage(Function, Function)} does.
+     *
+     * @param all        the whole collection
+     * @param pageSize   maximum amount of items in a page
+     * @param pageAction action to run on the items of each page
+     * @param <T>        type of the items held
+     * @return future, completed when all the pages have been processed, or failed with the
+     *         first error the action completed with
+     * @throws IllegalArgumentException if the page size is not positive
+     */
+    @NotNull
+    public static <T> CompletableFuture<Void> forEachPage(
+            @NotNull Collection<T> all,
+            int pageSize,
+            @NotNull Function<Collection<T>, CompletableFuture<?>> pageAction
+    ) {
+        Objects.requireNonNull(all, "all");
+        validatePageSize(pageSize);
+
+        List<T> list = new ArrayList<>(all);
+        return forEachPage(token -> CompletableFuture.completedFuture(slice(list,
+                pageSize,
+                token
+        )), pageAction);
+    }
+
+    private static void validatePageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive, got " + pageSize);
+        }
+    }
+
+    private static int parseOffset(@Nullable String continuationToken) {
+        if (continuationToken == null) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(continuationToken);
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid continuation token " + continuationToken);
+            }
+            return offset;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid continuation token " + continuationToken, e);
+        }
+    }
+
+    private static final class PageLoop<T> {
+
+        private final Function<String, CompletableFuture<Page<T>>> pageFetcher;
+        private final Function<Collection<T>, CompletableFuture<?>> pageAction;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        PageLoop(
+                @NotNull Function<String, CompletableFuture<Page<T>>> pageFetcher,
+                @NotNull Function<Collection<T>, CompletableFuture<?>> pageAction
+        ) {
+            this.pageFetcher = pageFetcher;
+            this.pageAction = pageAction;
+        }
+
+        void run(@Nullable String continuationToken) {
+            String token = continuationToken;
+            while (true) {
+                CompletableFuture<Page<T>> processed;
+                try {
+                    processed = pageFetcher.apply(token).thenCompose(page -> pageAction
+                            .apply(page.getItems())
+                            .thenApply($ -> page));
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                    return;
+                }
+                if (!processed.isDone()) {
+                    // continue the loop once the page has been processed
+                    processed.whenComplete((page, error) -> {
+                        if (error != null) {
+                            result.completeExceptionally(error instanceof CompletionException
+                                    && error.getCause() != null ? error.getCause() : error);
+                        } else if (page.hasNext()) {
+                            run(page.continuationToken);
+                        } else {
+                            result.complete(null);
+                        }
+                    });
+                    return;
+                }
+                Page<T> page;
+                try {
+                    page = processed.join();
+                } catch (CompletionException e) {
+                    result.completeExceptionally(e.getCause());
+                    return;
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                    return;
+                }
+                if (!page.hasNext()) {
+                    result.complete(null);
+                    return;
+                }
+                token = page.continuationToken;
+            }
+        }
+
+    }
+
+    private final List<T> items;
+    private final String continuationToken;
+
+    private Page(@NotNull List<T> items, @Nullable String continuationToken) {
+        this.items = items;
+        this.continuationToken = continuationToken;
+    }
+
+    /**
+     * Returns the items of this page.
+     *
+     * @return immutable list of the items
+     */
+    @NotNull
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the token with which the next page can be retrieved, if there is a next page.
+     *
+     * @return continuation token or empty optional if this is the last page
+     */
+    @NotNull
+    public Optional<String> getContinuationToken() {
+        return Optional.ofNullable(continuationToken);
+    }
+
+    /**
+     * Returns whether there is a page after this one.
+     *
+     * @return whether there are more items to retrieve
+     */
+    public boolean hasNext() {
+        return continuationToken != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{items=" + items + ", continuationToken='" + continuationToken + "'}";
+    }
+
+}
@@ -4,24 +4,50 @@
 
 package me.lokka30.treasury.api.economy;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import me.lokka30.treasury.api.common.Cause;
 import me.lokka30.treasury.api.common.NamespacedKey;
 import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.misc.Page;
 import me.lokka30.treasury.api.common.misc.TriState;
+import me.lokka30.treasury.api.common.service.Service;
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
 import me.lokka30.treasury.api.economy.account.Account;
 import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.account.AccountExistenceFilter;
 import me.lokka30.treasury.api.economy.account.AccountPermission;
+import me.lokka30.treasury.api.economy.account.MembershipIndex;
 import me.lokka30.treasury.api.economy.account.NonPlayerAccount;
 import me.lokka30.treasury.api.economy.account.PlayerAccount;
 import me.lokka30.treasury.api.economy.account.accessor.AccountAccessor;
+import me.lokka30.treasury.api.economy.balance.BalanceChange;
+import me.lokka30.treasury.api.economy.balance.BalanceChangeListener;
+import me.lokka30.treasury.api.economy.balance.BalanceFunction;
+import me.lokka30.treasury.api.economy.balance.BalanceHoldLedger;
+import me.lokka30.treasury.api.economy.balance.BalanceRanking;
+import me.lokka30.treasury.api.economy.balance.BalanceSubscription;
+import me.lokka30.treasury.api.economy.balance.BulkApply;
+import me.lokka30.treasury.api.economy.balance.BulkApplyResult;
+import me.lokka30.treasury.api.economy.balance.EconomyStatistics;
+import me.lokka30.treasury.api.economy.balance.RankedBalance;
 import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.transaction.TransactionActivity;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Implementors providing and managing economy data create a class which implements this
@@ -77,6 +103,161 @@ public interface EconomyProvider {
      */
     @NotNull CompletableFuture<Collection<NamespacedKey>> retrieveNonPlayerAccountIds();
 
+    /**
+     * Request a single {@link Page page} of the {@link UUID UUIDs} with associated
+     * {@link PlayerAccount PlayerAccounts}.
+     * <p>This allows consumers to process all player accounts incrementally. The first page is
+     * requested with a {@code null} {@code continuationToken}, every next page is requested
+     * with the {@link Page#getContinuationToken() continuation token} of the previous page.
+     * <p>The default implementation is <b>not bounded</b>: it retrieves all the ids via
+     * {@link #retrievePlayerAccountIds()} for every page, and returns the ones following the
+     * continuation token in the order of their string form, as done by
+     * {@link Page#after(Collection, Function, int, String)}. Paging through all the accounts
+     * this way takes O(n<sup>2</sup>/pageSize). Providers are encouraged to override this with
+     * a query which retrieves only the requested page, and to then return {@code true} from
+     * {@link #supportsAccountIdPaging()}. Consumers processing all the accounts should use
+     * {@link #forEachPlayerAccountIdPage(Function)}.
+     *
+     * @param pageSize          maximum amount of ids in the returned page
+     * @param continuationToken token of the previous page, or null to request the first page
+     * @return a page of player account uuids
+     * @see Page#forEachPage(Function, Function)
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Page<UUID>> retrievePlayerAccountIds(
+            int pageSize, @Nullable String continuationToken
+    ) {
+        return retrievePlayerAccountIds().thenApply(ids -> Page.after(ids,
+                UUID::toString,
+                pageSize,
+                continuationToken
+        ));
+    }
+
+    /**
+     * Request a single {@link Page page} of the {@link NamespacedKey identifiers} with associated
+     * {@link NonPlayerAccount NonPlayer Accounts}.
+     * <p>This allows consumers to process all non-player accounts incrementally. The first page
+     * is requested with a {@code null} {@code continuationToken}, every next page is requested
+     * with the {@link Page#getContinuationToken() continuation token} of the previous page.
+     * <p>The default implementation is <b>not bounded</b>: it retrieves all the identifiers via
+     * {@link #retrieveNonPlayerAccountIds()} for every page, and returns the ones following the
+     * continuation token in the order of their string form, as done by
+     * {@link Page#after(Collection, Function, int, String)}. Paging through all the accounts
+     * this way takes O(n<sup>2</sup>/pageSize). Providers are encouraged to override this with
+     * a query which retrieves only the requested page, and to then return {@code true} from
+     * {@link #supportsAccountIdPaging()}. Consumers processing all the accounts should use
+     * {@link #forEachNonPlayerAccountIdPage(Function)}.
+     *
+     * @param pageSize          maximum amount of identifiers in the returned page
+     * @param continuationToken token of the previous page, or null to request the first page
+     * @return a page of non-player account namespaced key identifiers
+     * @see Page#forEachPage(Function, Function)
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Page<NamespacedKey>> retrieveNonPlayerAccountIds(
+            int pageSize, @Nullable String continuationToken
+    ) {
+        return retrieveNonPlayerAccountIds().thenApply(ids -> Page.after(ids,
+                NamespacedKey::toString,
+                pageSize,
+                continuationToken
+        ));
+    }
+
+    /**
+     * Returns whether this provider overrides {@link #retrievePlayerAccountIds(int, String)}
+     * and {@link #retrieveNonPlayerAccountIds(int, String)} to retrieve only the requested
+     * page, with a continuation token which neither skips nor repeats accounts when accounts
+     * are created or deleted between pages.
+     * <p>The default implementation returns {@code false}.
+     *
+     * @return whether account ids can be retrieved page by page with bounded memory
+     * @since 2.1.0
+     */
+    default boolean supportsAccountIdPaging() {
+        return false;
+    }
+
+    /**
+     * Runs the specified {@code pageAction} on all the {@link UUID UUIDs} with associated
+     * {@link PlayerAccount PlayerAccounts}, {@link Page#DEFAULT_PAGE_SIZE one page} at a time.
+     * <p>If this provider {@link #supportsAccountIdPaging() supports paging}, the pages are
+     * retrieved one after another via {@link #retrievePlayerAccountIds(int, String)}, with
+     * bounded memory. Otherwise, all the ids are retrieved once via
+     * {@link #retrievePlayerAccountIds()} and split into pages.
+     *
+     * @param pageAction action to run on the ids of each page
+     * @return future, completed when all the pages have been processed
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Void> forEachPlayerAccountIdPage(
+            @NotNull Function<Collection<UUID>, CompletableFuture<?>> pageAction
+    ) {
+        Objects.requireNonNull(pageAction, "pageAction");
+
+        if (supportsAccountIdPaging()) {
+            return Page.forEachPage(token -> retrievePlayerAccountIds(Page.DEFAULT_PAGE_SIZE, token),
+                    pageAction
+            );
+        }
+        return retrievePlayerAccountIds().thenCompose(ids -> Page.forEachPage(ids,
+                Page.DEFAULT_PAGE_SIZE,
+                pageAction
+        ));
+    }
+
+    /**
+     * Runs the specified {@code pageAction} on all the {@link NamespacedKey identifiers} with
+     * associated {@link NonPlayerAccount NonPlayer Accounts},
+     * {@link Page#DEFAULT_PAGE_SIZE one page} at a time.
+     * <p>If this provider {@link #supportsAccountIdPaging() supports paging}, the pages are
+     * retrieved one after another via {@link #retrieveNonPlayerAccountIds(int, String)}, with
+     * bounded memory. Otherwise, all the identifiers are retrieved once via
+     * {@link #retrieveNonPlayerAccountIds()} and split into pages.
+     *
+     * @param pageAction action to run on the identifiers of each page
+     * @return future, completed when all the pages have been processed
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Void> forEachNonPlayerAccountIdPage(
+            @NotNull Function<Collection<NamespacedKey>, CompletableFuture<?>> pageAction
+    ) {
+        Objects.requireNonNull(pageAction, "pageAction");
+
+        if (supportsAccountIdPaging()) {
+            return Page.forEachPage(token -> retrieveNonPlayerAccountIds(Page.DEFAULT_PAGE_SIZE,
+                    token
+            ), pageAction);
+        }
+        return retrieveNonPlayerAccountIds().thenCompose(identifiers -> Page.forEachPage(identifiers,
+                Page.DEFAULT_PAGE_SIZE,
+                pageAction
+        ));
+    }
+
+    /**
+     * Returns whether this provider fires an
+     * {@link me.lokka30.treasury.api.economy.events.AccountPermissionsChangeEvent} for every
+     * change of the permissions of a player on a {@link NonPlayerAccount}, including the
+     * permissions given on creating an account, whether or not the change is made through
+     * Treasury, and a {@link me.lokka30.treasury.api.economy.events.NonPlayerAccountDeleteEvent}
+     * for every deleted {@link NonPlayerAccount}.
+     * <p>Treasury's {@link MembershipIndex membership index} is only used for providers
+     * returning {@code true}, as it would otherwise miss the memberships it is not told about.
+     * The default implementation returns {@code false}.
+     *
+     * @return whether permission changes are announced via events
+     * @since 2.1.0
+     */
+    default boolean firesAccountPermissionsChangeEvents() {
+        return false;
+    }
+
     /**
      * Request all {@link NonPlayerAccount non player accounts} the given player is a member of.
      *
@@ -88,24 +269,20 @@ public interface EconomyProvider {
     default CompletableFuture<Collection<NonPlayerAccount>> retrieveAllAccountsPlayerIsMemberOf(@NotNull UUID playerId) {
         Objects.requireNonNull(playerId, "playerId");
 
-        return retrieveNonPlayerAccountIds().thenCompose(identifiers -> {
-            Collection<CompletableFuture<NonPlayerAccount>> accountFutures = new ArrayList<>(
-                    identifiers.size());
-            for (NamespacedKey identifier : identifiers) {
-                accountFutures.add(this
-                        .accountAccessor()
-                        .nonPlayer()
-                        .withIdentifier(identifier)
-                        .get());
-            }
-            return FutureHelper.joinAndFilter(
-                    account -> account
-                            .isMember(playerId)
-                            .thenCompose(val -> CompletableFuture.completedFuture(TriState.fromBoolean(
-                                    val))),
-                    accountFutures
-            );
-        });
+        Function<NonPlayerAccount, CompletableFuture<TriState>> filter = account -> account
+                .isMember(playerId)
+                .thenApply(TriState::fromBoolean);
+        Optional<MembershipIndex> index = membershipIndex();
+        if (index.isPresent()) {
+            return index
+                    .get()
+                    .retrieveAccountIdsPlayerIsMemberOf(playerId)
+                    .thenCompose(identifiers -> MembershipIndex.retrieveAccounts(this,
+                            identifiers,
+                            filter
+                    ));
+        }
+        return filterNonPlayerAccounts(filter);
     }
 
     /**
@@ -124,9 +301,325 @@ public interface EconomyProvider {
         Objects.requireNonNull(playerId, "playerId");
         Objects.requireNonNull(permissions, "permissions");
 
-        return retrieveNonPlayerAccountIds().thenCompose(identifiers -> {
-            Collection<CompletableFuture<NonPlayerAccount>> accountFutures = new ArrayList<>(
-                    identifiers.size());
+        Function<NonPlayerAccount, CompletableFuture<TriState>> filter = account -> account.hasPermissions(
+                playerId,
+                permissions
+        );
+        Optional<MembershipIndex> index = membershipIndex();
+        if (index.isPresent()) {
+            return index
+                    .get()
+                    .retrieveAccountIdsPlayerHasPermissions(playerId, permissions)
+                    .thenCompose(identifiers -> MembershipIndex.retrieveAccounts(this,
+                            identifiers,
+                            filter
+                    ));
+        }
+        return filterNonPlayerAccounts(filter);
+    }
+
+    /**
+     * Subscribes the specified listener to the {@link BalanceChange balance changes} of all the
+     * accounts of this provider, so that consumers can keep balances up to date without
+     * polling. Providers supporting this deliver a change for every committed balance change,
+     * including the ones not made through Treasury, usually via a
+     * {@link me.lokka30.treasury.api.economy.balance.BalanceChangeBroadcaster}.
+     * <p>The default implementation does not support subscriptions and returns an empty
+     * optional, in which case consumers have to poll balances.
+     *
+     * @param listener the listener
+     * @return the subscription of the listener, or an empty optional if this provider does not
+     *         deliver balance changes
+     * @since 2.1.0
+     */
+    @NotNull
+    default Optional<BalanceSubscription> subscribeBalanceChanges(@NotNull BalanceChangeListener listener) {
+        Objects.requireNonNull(listener, "listener");
+
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the {@link Executor} this provider completes its futures on and prefers callers
+     * to continue on, e.g. the single thread owning its storage connection. Callers chaining
+     * several calls to this provider should continue on it via
+     * {@link FutureHelper#thenComposeOn(CompletableFuture, Executor, Function)},
+     * instead of hopping to other threads in between.
+     * <p>The default implementation returns an empty optional, which means this provider has no
+     * preference.
+     *
+     * @return preferred executor, or an empty optional if there is none
+     * @since 2.1.0
+     */
+    @NotNull
+    default Optional<Executor> preferredExecutor() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the service of the specified type Treasury maintains for this provider, i.e. the
+     * first one registered in the {@link ServiceRegistry}, which
+     * {@link EconomyProviderService#covers(EconomyProvider) covers} this provider. The default
+     * implementations of the service getters below, e.g. {@link #membershipIndex()}, use it.
+     *
+     * @param serviceType the type of the service
+     * @param <T>         service type
+     * @return service, or an empty optional if none covers this provider
+     * @since 2.1.0
+     */
+    @NotNull
+    default <T extends EconomyProviderService> Optional<T> providerService(@NotNull Class<T> serviceType) {
+        Objects.requireNonNull(serviceType, "serviceType");
+
+        for (Service<T> service : ServiceRegistry.INSTANCE.allServicesFor(serviceType)) {
+            if (service.get().covers(this)) {
+                return Optional.of(service.get());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the {@link BalanceHoldLedger} the default
+     * {@link Account#placeHold(BigDecimal, Currency, Duration) hold} implementation of the
+     * accounts of this provider keeps holds in.
+     * <p>The default implementation returns the ledger Treasury maintains for this provider,
+     * registered in the {@link ServiceRegistry}, if it
+     * {@link BalanceHoldLedger#covers(EconomyProvider) covers} this provider. Providers
+     * supporting holds natively override the hold methods of their accounts instead.
+     *
+     * @return balance hold ledger, or an empty optional if there is none
+     * @since 2.1.0
+     */
+    @NotNull
+    default Optional<BalanceHoldLedger> balanceHoldLedger() {
+        return providerService(BalanceHoldLedger.class);
+    }
+
+    /**
+     * Returns the {@link AccountExistenceFilter} the account accessors check before
+     * {@link #hasAccount(AccountData)}, so that accounts which certainly do not exist are
+     * reported missing without querying this provider.
+     * <p>The default implementation returns the filter Treasury maintains for this provider,
+     * registered in the {@link ServiceRegistry}, if it
+     * {@link AccountExistenceFilter#covers(EconomyProvider) covers} this provider. Providers,
+     * which answer {@link #hasAccount(AccountData)} from memory, may override this to return an
+     * empty optional.
+     *
+     * @return account existence filter, or an empty optional if {@link #hasAccount(AccountData)}
+     *         is to be queried directly
+     * @since 2.1.0
+     */
+    @NotNull
+    default Optional<AccountExistenceFilter> accountExistenceFilter() {
+        return providerService(AccountExistenceFilter.class);
+    }
+
+    /**
+     * Returns the {@link MembershipIndex} used by
+     * {@link #retrieveAllAccountsPlayerIsMemberOf(UUID)} and
+     * {@link #retrieveAllAccountsPlayerHasPermissions(UUID, AccountPermission...)} to find the
+     * accounts of a player without querying all the non-player accounts.
+     * <p>The default implementation returns the index Treasury maintains for this provider,
+     * registered in the {@link ServiceRegistry}, if it {@link MembershipIndex#covers(EconomyProvider)
+     * covers} this provider. Providers may override this to supply their own index, or to
+     * return an empty optional if they override the methods above themselves.
+     *
+     * @return membership index, or an empty optional if all the accounts have to be queried
+     * @since 2.1.0
+     */
+    @NotNull
+    default Optional<MembershipIndex> membershipIndex() {
+        return providerService(MembershipIndex.class);
+    }
+
+    /**
+     * Request the balances of the {@link PlayerAccount player accounts} ranked from
+     * {@code offset + 1} to {@code offset + limit} in the specified {@link Currency}, e.g. for
+     * a leaderboard. Balances are ranked from the highest to the lowest, players with equal
+     * balances are ordered by their {@link UUID}. Accounts not holding the currency are not
+     * ranked.
+     * <p>The default implementation queries the {@link #balanceRanking()}, if any, otherwise
+     * reads and sorts the balances of all the player accounts.
+     *
+     * @param currency the currency
+     * @param offset   the count of the highest balances to skip
+     * @param limit    the maximum count of balances to return
+     * @return ranked balances, from the highest to the lowest
+     * @throws IllegalArgumentException if the offset is negative or the limit is not positive
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<List<RankedBalance>> retrieveTopBalances(
+            @NotNull Currency currency, int offset, int limit
+    ) {
+        Objects.requireNonNull(currency, "currency");
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Invalid offset " + offset + " or limit " + limit);
+        }
+
+        Optional<BalanceRanking> ranking = balanceRanking();
+        if (ranking.isPresent()) {
+            return ranking.get().retrieveTopBalances(currency.getIdentifier(), offset, limit);
+        }
+        return BalanceRanking.rankAll(this, currency).thenApply(ranked -> ranked.size() <= offset
+                ? new ArrayList<>()
+                : new ArrayList<>(ranked.subList(offset, Math.min(ranked.size(), offset + limit))));
+    }
+
+    /**
+     * Request the rank of the balance of the specified player in the specified
+     * {@link Currency}, as ranked by {@link #retrieveTopBalances(Currency, int, int)}.
+     * <p>The default implementation queries the {@link #balanceRanking()}, if any, otherwise
+     * reads and sorts the balances of all the player accounts.
+     *
+     * @param playerId the player
+     * @param currency the currency
+     * @return ranked balance, or an empty optional if the player holds no balance in the
+     *         currency
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Optional<RankedBalance>> retrieveRank(
+            @NotNull UUID playerId, @NotNull Currency currency
+    ) {
+        Objects.requireNonNull(playerId, "playerId");
+        Objects.requireNonNull(currency, "currency");
+
+        Optional<BalanceRanking> ranking = balanceRanking();
+        if (ranking.isPresent()) {
+            return ranking.get().retrieveRank(playerId, currency.getIdentifier());
+        }
+        return BalanceRanking.rankAll(this, currency).thenApply(ranked -> ranked
+                .stream()
+                .filter(balance -> balance.getPlayerId().equals(playerId))
+                .findFirst());
+    }
+
+    /**
+     * Returns the {@link BalanceRanking} used by
+     * {@link #retrieveTopBalances(Currency, int, int)} and
+     * {@link #retrieveRank(UUID, Currency)} to rank balances without reading all the player
+     * accounts.
+     * <p>The default implementation returns the ranking Treasury maintains for this provider,
+     * registered in the {@link ServiceRegistry}, if it {@link BalanceRanking#covers(EconomyProvider)
+     * covers} this provider. Providers may override this to supply their own ranking, or to
+     * return an empty optional if they override the methods above themselves.
+     *
+     * @return balance ranking, or an empty optional if all the accounts have to be read
+     * @since 2.1.0
+     */
+    @NotNull
+    default Optional<BalanceRanking> balanceRanking() {
+        return providerService(BalanceRanking.class);
+    }
+
+    /**
+     * Returns the {@link EconomyStatistics} of the balances of all the accounts of this
+     * provider, e.g. the total supply of a currency.
+     * <p>The default implementation returns the statistics Treasury maintains for this
+     * provider, registered in the {@link ServiceRegistry}, if they
+     * {@link EconomyStatistics#covers(EconomyProvider) cover} this provider. Providers may
+     * override this to supply their own statistics.
+     *
+     * @return economy statistics, or an empty optional if none are maintained
+     * @since 2.1.0
+     */
+    @NotNull
+    default Optional<EconomyStatistics> economyStatistics() {
+        return providerService(EconomyStatistics.class);
+    }
+
+    /**
+     * Returns the {@link TransactionActivity} counting the recent transactions of the accounts
+     * of this provider, e.g. the deposits of a player in the last hour.
+     * <p>The default implementation returns the activity Treasury maintains for this provider,
+     * registered in the {@link ServiceRegistry}, if it
+     * {@link TransactionActivity#covers(EconomyProvider) covers} this provider. Providers may
+     * override this to supply their own activity.
+     *
+     * @return transaction activity, or an empty optional if none is maintained
+     * @since 2.1.0
+     */
+    @NotNull
+    default Optional<TransactionActivity> transactionActivity() {
+        return providerService(TransactionActivity.class);
+    }
+
+    /**
+     * Applies the specified {@link BalanceFunction} to the balance in the specified
+     * {@link Currency} of every account matching the specified filter, e.g. for interest,
+     * wealth taxes or season resets.
+     *
+     * @param currency the currency of the balances
+     * @param function the function computing the new balances
+     * @param cause    the cause of the resulting transactions
+     * @param filter   the filter accounts have to match
+     * @return future, completed with the result once all the accounts have been processed
+     * @see #applyToAll(Currency, BalanceFunction, Cause, Predicate, Consumer)
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<BulkApplyResult> applyToAll(
+            @NotNull Currency currency,
+            @NotNull BalanceFunction function,
+            @NotNull Cause<?> cause,
+            @NotNull Predicate<AccountData> filter
+    ) {
+        return applyToAll(currency, function, cause, filter, $ -> {});
+    }
+
+    /**
+     * Applies the specified {@link BalanceFunction} to the balance in the specified
+     * {@link Currency} of every account matching the specified filter, e.g. for interest,
+     * wealth taxes or season resets, reporting the progress to the specified listener.
+     * <p>Providers should override this to run the operation in their storage, as a single
+     * set-based update where possible. The default implementation processes the accounts page
+     * by page through {@link Account#doTransaction doTransaction}, with bounded concurrency, as
+     * described in {@link BulkApply}. Accounts the function can't be applied to are counted as
+     * failed, and do not stop the operation.
+     *
+     * @param currency         the currency of the balances
+     * @param function         the function computing the new balances
+     * @param cause            the cause of the resulting transactions
+     * @param filter           the filter accounts have to match
+     * @param progressListener the listener receiving the progress of the operation from time to
+     *                         time
+     * @return future, completed with the result once all the accounts have been processed
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<BulkApplyResult> applyToAll(
+            @NotNull Currency currency,
+            @NotNull BalanceFunction function,
+            @NotNull Cause<?> cause,
+            @NotNull Predicate<AccountData> filter,
+            @NotNull Consumer<BulkApplyResult> progressListener
+    ) {
+        return BulkApply.applyToAll(this, currency, function, cause, filter, progressListener);
+    }
+
+    /**
+     * Request all the {@link NonPlayerAccount non-player accounts} which match the specified
+     * {@code filter}. Accounts are retrieved and filtered in {@link Page pages}, so that only a
+     * single page of accounts is held in memory at a time.
+     * <p>The identifiers are retrieved via {@link #forEachNonPlayerAccountIdPage(Function)}.
+     *
+     * @param filter the filter accounts have to match
+     * @return a collection of all accounts for which the filter returned {@link TriState#TRUE}
+     * @see #forEachNonPlayerAccountIdPage(Function)
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Collection<NonPlayerAccount>> filterNonPlayerAccounts(
+            @NotNull Function<NonPlayerAccount, CompletableFuture<TriState>> filter
+    ) {
+        Objects.requireNonNull(filter, "filter");
+
+        Collection<NonPlayerAccount> result = new ConcurrentLinkedQueue<>();
+        return forEachNonPlayerAccountIdPage(identifiers -> {
+            Collection<CompletableFuture<NonPlayerAccount>> accountFutures =
+                    new ArrayList<>(identifiers.size());
             for (NamespacedKey identifier : identifiers) {
                 accountFutures.add(this
                         .accountAccessor()
@@ -134,11 +627,8 @@ public interface EconomyProvider {
                         .withIdentifier(identifier)
                         .get());
             }
-            return FutureHelper.joinAndFilter(account -> account.hasPermissions(
-                    playerId,
-                    permissions
-            ), accountFutures);
-        });
+            return FutureHelper.joinAndFilter(filter, accountFutures).thenAccept(result::addAll);
+        }).thenApply($ -> result);
     }
 
     /**
@@ -0,0 +1,29 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy;
+
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a service working on the accounts of an {@link EconomyProvider}, e.g. a
+ * {@link me.lokka30.treasury.api.economy.account.MembershipIndex}. Treasury registers these
+ * services in the {@link ServiceRegistry}, where {@link EconomyProvider#providerService(Class)}
+ * finds the one covering a provider.
+ *
+ * @since 2.1.0
+ */
+public interface EconomyProviderService {
+
+    /**
+     * Returns whether this service covers the accounts of the specified
+     * {@link EconomyProvider} and is ready to be used.
+     *
+     * @param provider economy provider
+     * @return whether this service can be used for the specified provider
+     */
+    boolean covers(@NotNull EconomyProvider provider);
+
+}
@@ -5,10 +5,16 @@
 package me.lokka30.treasury.api.economy.account;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.Temporal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -16,12 +22,22 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.misc.Page;
 import me.lokka30.treasury.api.common.misc.TriState;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.common.service.Service;
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
 import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.balance.BalanceHold;
+import me.lokka30.treasury.api.economy.balance.BalanceHoldLedger;
+import me.lokka30.treasury.api.economy.balance.VersionedBalance;
 import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.currency.FixedPointAmount;
 import me.lokka30.treasury.api.economy.transaction.EconomyTransaction;
 import me.lokka30.treasury.api.economy.transaction.EconomyTransactionImportance;
 import me.lokka30.treasury.api.economy.transaction.EconomyTransactionType;
+import me.lokka30.treasury.api.economy.transaction.TransactionHistoryQuery;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -52,6 +68,22 @@ public interface Account {
      */
     @NotNull Optional<String> getName();
 
+    /**
+     * Returns the {@link EconomyProvider} this {@code Account} belongs to, if known. The
+     * default implementations of e.g. {@link #placeHold(BigDecimal, Currency, Duration)} use
+     * it to find the services Treasury maintains for the accounts of that provider.
+     *
+     * <p>The default implementation returns an empty optional. Providers are encouraged to
+     * override this, returning themselves.
+     *
+     * @return economy provider, or an empty optional if unknown
+     * @since 2.1.0
+     */
+    @NotNull
+    default Optional<EconomyProvider> getProvider() {
+        return Optional.empty();
+    }
+
     /**
      * Sets a new name for this {@link Account}, which may be null.
      *
@@ -216,6 +248,90 @@ public interface Account {
                 .build());
     }
 
+    /**
+     * Request the balance of the {@code Account} as a count of minor units at the
+     * {@link Currency#getPrecision() precision} of the specified {@link Currency}.
+     *
+     * <p>The default implementation bridges to {@link #retrieveBalance(Currency)}. Providers
+     * storing balances as minor units are encouraged to override this, so that no
+     * {@link BigDecimal} is involved. Balances finer than the precision are rounded down, so
+     * that the account is never reported to have money it does not have.
+     *
+     * @param currency the {@link Currency} of the balance being requested
+     * @return the balance in minor units
+     * @see FixedPointAmount
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Long> retrieveMinorUnitBalance(@NotNull Currency currency) {
+        Objects.requireNonNull(currency, "currency");
+
+        return retrieveBalance(currency).thenApply(balance -> FixedPointAmount.toMinorUnits(balance,
+                currency.getPrecision(),
+                RoundingMode.FLOOR
+        ));
+    }
+
+    /**
+     * Withdraw an amount of minor units, at the {@link Currency#getPrecision() precision} of the
+     * specified {@link Currency}, from the {@code Account} balance.
+     *
+     * <p>The default implementation bridges to
+     * {@link #withdrawBalance(BigDecimal, Cause, Currency)}. Providers storing balances as minor
+     * units are encouraged to override this, so that no {@link BigDecimal} is involved. The
+     * new balance is rounded down, like in {@link #retrieveMinorUnitBalance(Currency)}.
+     *
+     * @param units    the minor units the balance will be reduced by
+     * @param cause    the one who caused the transaction
+     * @param currency the {@link Currency} of the balance being modified
+     * @return the new balance in minor units
+     * @see FixedPointAmount
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Long> withdrawMinorUnits(
+            long units, @NotNull Cause<?> cause, @NotNull Currency currency
+    ) {
+        Objects.requireNonNull(currency, "currency");
+
+        int precision = currency.getPrecision();
+        return withdrawBalance(FixedPointAmount.toBigDecimal(units, precision), cause, currency)
+                .thenApply(balance -> FixedPointAmount.toMinorUnits(balance,
+                        precision,
+                        RoundingMode.FLOOR
+                ));
+    }
+
+    /**
+     * Deposit an amount of minor units, at the {@link Currency#getPrecision() precision} of the
+     * specified {@link Currency}, into the {@code Account} balance.
+     *
+     * <p>The default implementation bridges to
+     * {@link #depositBalance(BigDecimal, Cause, Currency)}. Providers storing balances as minor
+     * units are encouraged to override this, so that no {@link BigDecimal} is involved. The
+     * new balance is rounded down, like in {@link #retrieveMinorUnitBalance(Currency)}.
+     *
+     * @param units    the minor units the balance will be increased by
+     * @param cause    the one who caused the transaction
+     * @param currency the {@link Currency} of the balance being modified
+     * @return the new balance in minor units
+     * @see FixedPointAmount
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Long> depositMinorUnits(
+            long units, @NotNull Cause<?> cause, @NotNull Currency currency
+    ) {
+        Objects.requireNonNull(currency, "currency");
+
+        int precision = currency.getPrecision();
+        return depositBalance(FixedPointAmount.toBigDecimal(units, precision), cause, currency)
+                .thenApply(balance -> FixedPointAmount.toMinorUnits(balance,
+                        precision,
+                        RoundingMode.FLOOR
+                ));
+    }
+
     /**
      * Does a {@link EconomyTransaction} on this account.
      *
@@ -225,6 +341,154 @@ public interface Account {
      */
     @NotNull CompletableFuture<BigDecimal> doTransaction(@NotNull EconomyTransaction economyTransaction);
 
+    /**
+     * Request the balance of the {@code Account} in the specified {@link Currency}, together
+     * with its version, so that it can later be changed only if it is still the same, via
+     * {@link #doTransactionIfUnchanged(VersionedBalance, EconomyTransaction)}.
+     *
+     * <p>The default implementation bridges to {@link #retrieveBalance(Currency)} and returns
+     * an {@link VersionedBalance#UNVERSIONED unversioned} balance, which is compared by value.
+     * Providers keeping balance versions are encouraged to override this.
+     *
+     * @param currency the {@link Currency} of the balance being requested
+     * @return the balance and its version
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<VersionedBalance> retrieveBalanceVersioned(@NotNull Currency currency) {
+        Objects.requireNonNull(currency, "currency");
+
+        return retrieveBalance(currency).thenApply(balance -> new VersionedBalance(currency,
+                balance,
+                VersionedBalance.UNVERSIONED
+        ));
+    }
+
+    /**
+     * Does a {@link EconomyTransaction} on this account, only if the balance in the currency of
+     * the transaction is unchanged since the specified balance was retrieved via
+     * {@link #retrieveBalanceVersioned(Currency)}. This lets callers e.g. withdraw only if the
+     * balance they displayed is still the actual one, without locking the account.
+     *
+     * <p>Comparing and doing the transaction has to be atomic, e.g. a single conditional update
+     * of the storage, which only the provider can guarantee. The default implementation
+     * therefore does not do the transaction and fails with a {@link TreasuryException};
+     * providers supporting conditional transactions override this.
+     *
+     * @param expected           the balance the transaction expects
+     * @param economyTransaction the transaction that should be done
+     * @return the new balance resulting from the transaction, or an empty optional if the
+     *         balance has changed and the transaction was not done, or completed exceptionally
+     *         with a {@link TreasuryException} if conditional transactions are not supported
+     * @throws IllegalArgumentException if the currencies of the balance and the transaction
+     *                                  differ
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Optional<BigDecimal>> doTransactionIfUnchanged(
+            @NotNull VersionedBalance expected, @NotNull EconomyTransaction economyTransaction
+    ) {
+        Objects.requireNonNull(expected, "expected");
+        Objects.requireNonNull(economyTransaction, "economyTransaction");
+        if (!expected.getCurrency().getIdentifier().equals(economyTransaction.getCurrencyId())) {
+            throw new IllegalArgumentException("Expected balance is in currency " + expected
+                    .getCurrency()
+                    .getIdentifier() + ", but the transaction is in currency " + economyTransaction.getCurrencyId());
+        }
+
+        return FutureHelper.failedFuture(new TreasuryException(
+                "Conditional transactions are not supported"));
+    }
+
+    /**
+     * Sets the balance of the {@code Account} in the currency of the specified balance, only
+     * if the balance is unchanged since it was retrieved via
+     * {@link #retrieveBalanceVersioned(Currency)}.
+     *
+     * <p>The default implementation bridges to
+     * {@link #doTransactionIfUnchanged(VersionedBalance, EconomyTransaction)}.
+     *
+     * @param expected   the balance expected to be replaced
+     * @param newBalance the new balance
+     * @param cause      the cause of the transaction
+     * @return whether the balance was set, which is false if the balance has changed, or
+     *         completed exceptionally with a {@link TreasuryException} if conditional
+     *         transactions are not supported
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Boolean> compareAndSetBalance(
+            @NotNull VersionedBalance expected,
+            @NotNull BigDecimal newBalance,
+            @NotNull Cause<?> cause
+    ) {
+        Objects.requireNonNull(expected, "expected");
+        Objects.requireNonNull(newBalance, "newBalance");
+        Objects.requireNonNull(cause, "cause");
+
+        return doTransactionIfUnchanged(expected, EconomyTransaction
+                .newBuilder()
+                .withCurrency(expected.getCurrency())
+                .withCause(cause)
+                .withAmount(newBalance)
+                .withImportance(EconomyTransactionImportance.NORMAL)
+                .withType(EconomyTransactionType.SET)
+                .build()).thenApply(Optional::isPresent);
+    }
+
+    /**
+     * Places a {@link BalanceHold hold} on the balance of this {@code Account}, reserving the
+     * specified amount until the hold is captured, released or expires. Unlike withdrawing and
+     * refunding, a hold, which is not captured, does no transaction.
+     *
+     * <p>The default implementation keeps the hold in the {@link BalanceHoldLedger} of
+     * {@link #getProvider() the provider of this account}, and fails if there is none. Such
+     * holds are advisory: only other holds respect them, while withdrawals and other
+     * transactions may still spend the held amount, in which case capturing the hold fails.
+     * Providers supporting holds natively are encouraged to override this and
+     * {@link #retrieveHeldBalance(Currency)}, enforcing the available balance atomically.
+     *
+     * @param amount   the amount to reserve, must be positive
+     * @param currency the currency of the amount
+     * @param ttl      the time after which the hold expires, must be positive
+     * @return future completed with the hold, or completed exceptionally with a
+     *         {@link TreasuryException} if the available
+     *         balance is insufficient or holds are not supported
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<BalanceHold> placeHold(
+            @NotNull BigDecimal amount, @NotNull Currency currency, @NotNull Duration ttl
+    ) {
+        Optional<BalanceHoldLedger> ledger = getProvider().flatMap(EconomyProvider::balanceHoldLedger);
+        if (!ledger.isPresent()) {
+            return FutureHelper.failedFuture(new TreasuryException("Balance holds are not supported"));
+        }
+        return ledger.get().placeHold(AccountData.forAccount(this), this, amount, currency, ttl);
+    }
+
+    /**
+     * Request the amount of the balance of this {@code Account}, which is currently reserved by
+     * {@link #placeHold(BigDecimal, Currency, Duration) holds}. The available balance is the
+     * balance minus this amount.
+     *
+     * <p>The default implementation queries the {@link BalanceHoldLedger} of
+     * {@link #getProvider() the provider of this account}, if any.
+     *
+     * @param currency the currency of the held amount
+     * @return the held amount
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<BigDecimal> retrieveHeldBalance(@NotNull Currency currency) {
+        Objects.requireNonNull(currency, "currency");
+
+        Optional<BalanceHoldLedger> ledger = getProvider().flatMap(EconomyProvider::balanceHoldLedger);
+        return CompletableFuture.completedFuture(ledger.isPresent()
+                ? ledger.get().getHeldBalance(AccountData.forAccount(this), currency.getIdentifier())
+                : BigDecimal.ZERO);
+    }
+
     /**
      * Reset the {@code Account} balance to its starting amount.
      *
@@ -299,6 +563,51 @@ public interface Account {
      */
     @NotNull CompletableFuture<Collection<String>> retrieveHeldCurrencies();
 
+    /**
+     * Request the balances of all the {@link Currency Currencies} this {@code Account} holds
+     * balance for, in one call.
+     *
+     * <p>The default implementation retrieves the {@link #retrieveHeldCurrencies() held currencies},
+     * resolves them via the {@link #getProvider() provider of this account}, falling back to the
+     * economy provider registered in the {@link ServiceRegistry} if unknown, and retrieves the
+     * balances in parallel. Currencies, which the provider does not know, are left out.
+     * Providers storing all the balances of an account together are encouraged to override
+     * this, so that they are read at once.
+     *
+     * @return future completed with an unmodifiable map of currency ids to balances, or
+     *         completed exceptionally with a {@link TreasuryException} if the provider of this
+     *         account is unknown and no economy provider is registered
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Map<String, BigDecimal>> retrieveBalances() {
+        Optional<EconomyProvider> provider = getProvider();
+        if (!provider.isPresent()) {
+            provider = ServiceRegistry.INSTANCE.serviceFor(EconomyProvider.class).map(Service::get);
+        }
+        if (!provider.isPresent()) {
+            return FutureHelper.failedFuture(new TreasuryException("No economy provider registered"));
+        }
+        EconomyProvider resolver = provider.get();
+        return retrieveHeldCurrencies().thenCompose(currencyIds -> {
+            Map<String, CompletableFuture<BigDecimal>> futures = new HashMap<>(currencyIds.size());
+            for (String currencyId : currencyIds) {
+                resolver.findCurrency(currencyId).ifPresent(currency -> futures.put(currencyId,
+                        retrieveBalance(currency)
+                ));
+            }
+            return CompletableFuture
+                    .allOf(futures.values().toArray(new CompletableFuture[0]))
+                    .thenApply($ -> {
+                        Map<String, BigDecimal> balances = new HashMap<>(futures.size());
+                        futures.forEach((currencyId, future) -> balances.put(currencyId,
+                                future.join()
+                        ));
+                        return Collections.unmodifiableMap(balances);
+                    });
+        });
+    }
+
     /**
      * Request the {@link EconomyTransaction} history, limited by the {@code transactionCount} and the {@link Temporal}
      * {@code from} and {@link Temporal} {@code to}, of this {@code Account}.
@@ -335,6 +644,51 @@ public interface Account {
         return retrieveTransactionHistory(transactionCount, Instant.EPOCH, Instant.now());
     }
 
+    /**
+     * Request a single {@link Page page} of the {@link EconomyTransaction} history of this
+     * {@code Account}, as described by the specified {@link TransactionHistoryQuery query}.
+     *
+     * <p>Transactions are returned in the {@link TransactionHistoryQuery#getOrder() order} of the
+     * query. The next page is requested via {@link TransactionHistoryQuery#next(Page)}. This
+     * allows consumers to scroll through the whole history, with bounded memory if the provider
+     * overrides this method.
+     *
+     * <p>The default implementation is <b>not bounded</b>: for every page, it retrieves the
+     * whole history of the query's time window via
+     * {@link #retrieveTransactionHistory(int, Temporal, Temporal)} and filters, sorts and slices
+     * it in memory, using an offset as continuation token. Providers are encouraged to override
+     * this, pushing the query down to their storage and using a continuation token which lets
+     * them resume from an index.
+     *
+     * @param query the query describing the requested page
+     * @return a page of transactions
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Page<EconomyTransaction>> retrieveTransactionHistory(
+            @NotNull TransactionHistoryQuery query
+    ) {
+        Objects.requireNonNull(query, "query");
+
+        return retrieveTransactionHistory(
+                Integer.MAX_VALUE,
+                query.getFrom(),
+                query.getTo()
+        ).thenApply(transactions -> {
+            List<EconomyTransaction> matching = new ArrayList<>(transactions.size());
+            for (EconomyTransaction transaction : transactions) {
+                if (query.matches(transaction)) {
+                    matching.add(transaction);
+                }
+            }
+            matching.sort(query.getOrder().comparator());
+            return Page.slice(matching,
+                    query.getPageSize(),
+                    query.getContinuationToken().orElse(null)
+            );
+        });
+    }
+
     /**
      * Request a listing of all member players of the account.
      *
@@ -410,6 +764,59 @@ public interface Account {
      */
     @NotNull CompletableFuture<Map<UUID, Map<AccountPermission, TriState>>> retrievePermissionsMap();
 
+    /**
+     * Modifies the permissions, specified in the inputted {@link PermissionSet}, for the
+     * specified {@link UUID} {@code player}. Permissions which are
+     * {@link TriState#UNSPECIFIED unspecified} in the set are left as they are.
+     * <p>The default implementation bridges to {@link #setPermissions(UUID, Map)}.
+     *
+     * @param player      the player id you want to modify the permissions of
+     * @param permissions the permissions to modify
+     * @return whether the permissions of the member were changed
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Boolean> setPermissions(
+            @NotNull UUID player, @NotNull PermissionSet permissions
+    ) {
+        Objects.requireNonNull(permissions, "permissions");
+
+        return setPermissions(player, permissions.toMap());
+    }
+
+    /**
+     * Request the permissions of the specified player as a compact {@link PermissionSet}.
+     * <p>The default implementation bridges to {@link #retrievePermissions(UUID)}. Providers
+     * storing permissions as bits are encouraged to override this.
+     *
+     * @param player the player {@link UUID} to get the permissions for
+     * @return the permissions of the specified member
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<PermissionSet> retrievePermissionSet(@NotNull UUID player) {
+        return retrievePermissions(player).thenApply(PermissionSet::fromMap);
+    }
+
+    /**
+     * Request the permissions of each account member as compact {@link PermissionSet}s.
+     * <p>The default implementation bridges to {@link #retrievePermissionsMap()}. Providers
+     * storing permissions as bits are encouraged to override this.
+     *
+     * @return a map of member {@link UUID}s (keys) and their permissions (values)
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<Map<UUID, PermissionSet>> retrievePermissionSets() {
+        return retrievePermissionsMap().thenApply(permissionsMap -> {
+            Map<UUID, PermissionSet> ret = new HashMap<>(permissionsMap.size());
+            for (Map.Entry<UUID, Map<AccountPermission, TriState>> entry : permissionsMap.entrySet()) {
+                ret.put(entry.getKey(), PermissionSet.fromMap(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(ret);
+        });
+    }
+
     /**
      * Checks whether given player has the given permissions on this account.
      *
@@ -434,4 +841,18 @@ public interface Account {
             @NotNull UUID player, @NotNull AccountPermission @NotNull ... permissions
     );
 
+    /**
+     * Returns the {@link SyncAccount synchronous view} of this {@code Account}, if the economy
+     * provider offers one. It lets main thread callers read balances and do simple transactions
+     * without any future involved.
+     * <p>The default implementation returns this account, if it implements {@link SyncAccount}.
+     *
+     * @return the synchronous view, or an empty optional if there is none
+     * @since 2.1.0
+     */
+    @NotNull
+    default Optional<SyncAccount> sync() {
+        return this instanceof SyncAccount ? Optional.of((SyncAccount) this) : Optional.empty();
+    }
+
 }
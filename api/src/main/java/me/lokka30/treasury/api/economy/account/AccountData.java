@@ -50,6 +50,28 @@ public final class AccountData {
         );
     }
 
+    /**
+     * Creates an {@link AccountData} object representing the identity of the specified
+     * {@link PlayerAccount player account} or {@link NonPlayerAccount non-player account}.
+     *
+     * @param account the account
+     * @return new account data instance
+     * @throws IllegalArgumentException if the account is neither a player nor a non-player
+     *                                  account
+     * @since 2.1.0
+     */
+    @NotNull
+    public static AccountData forAccount(@NotNull Account account) {
+        Objects.requireNonNull(account, "account");
+        if (account instanceof PlayerAccount) {
+            return forPlayerAccount(((PlayerAccount) account).identifier());
+        }
+        if (account instanceof NonPlayerAccount) {
+            return forNonPlayerAccount(((NonPlayerAccount) account).identifier());
+        }
+        throw new IllegalArgumentException("Account " + account + " is neither a player nor a non-player account");
+    }
+
     private final boolean player;
     private final Optional<NamespacedKey> identifier;
     private final Optional<UUID> uniqueId;
@@ -102,4 +124,29 @@ public final class AccountData {
         return this.uniqueId;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AccountData)) {
+            return false;
+        }
+        AccountData other = (AccountData) o;
+        return player == other.player && identifier.equals(other.identifier) && uniqueId.equals(
+                other.uniqueId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(player, identifier, uniqueId);
+    }
+
+    @Override
+    public String toString() {
+        return "AccountData{" + (player
+                ? "uniqueId=" + uniqueId.orElse(null)
+                : "identifier=" + identifier.orElse(null)) + '}';
+    }
+
 }
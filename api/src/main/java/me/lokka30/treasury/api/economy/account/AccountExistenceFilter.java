@@ -0,0 +1,420 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.account;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+import me.lokka30.treasury.api.common.NamespacedKey;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.EconomyProviderService;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Answers {@link EconomyProvider#hasAccount(AccountData)} for accounts which certainly do not
+ * exist without querying the {@link EconomyProvider}, so that checking many players which
+ * never used the economy does not cost a storage round trip each.
+ * <p>The filter combines a Bloom filter of all the account identifiers, read page by page by
+ * {@link #build()}, with a short-lived cache of the accounts the provider reported missing.
+ * An account absent from the Bloom filter or present in the negative cache is reported
+ * missing immediately, anything else is delegated to the provider. The Bloom filter never
+ * misses an account it has been told about, but it only learns about accounts from its
+ * builds, from {@link #created(AccountData)} (called by the account accessors whenever an
+ * account is retrieved or created through Treasury) and from positive provider answers.
+ * Accounts created by the provider behind Treasury's back are therefore reported missing
+ * until the next periodic rebuild, hence Treasury only maintains a filter when enabled in its
+ * settings, which it is not by default.
+ * <p>Treasury maintains a filter for the economy provider in use. Providers, which answer
+ * {@code hasAccount} from memory anyway, may opt out by overriding
+ * {@link EconomyProvider#accountExistenceFilter()}.
+ *
+ * @since 2.1.0
+ */
+public final class AccountExistenceFilter implements EconomyProviderService {
+
+    /**
+     * Creates a new {@link AccountExistenceFilter.Builder}
+     *
+     * @return new builder
+     */
+    @NotNull
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    private static final int MAX_NEGATIVE_ENTRIES = 100_000;
+
+    private final EconomyProvider provider;
+    private final double falsePositiveProbability;
+    private final long negativeTtlMillis;
+    private final long rebuildIntervalMillis;
+    private final Map<AccountData, Long> negative = new ConcurrentHashMap<>();
+    private volatile Bits bits;
+    private volatile long builtAt;
+    // hashes of the accounts learnt while building, which the scan may have missed
+    private LongList learntWhileBuilding;
+
+    private AccountExistenceFilter(@NotNull Builder builder, @NotNull EconomyProvider provider) {
+        this.provider = provider;
+        this.falsePositiveProbability = builder.falsePositiveProbability;
+        this.negativeTtlMillis = builder.negativeTtlMillis;
+        this.rebuildIntervalMillis = builder.rebuildIntervalMillis;
+    }
+
+    /**
+     * Returns the {@link EconomyProvider} whose accounts this filter holds.
+     *
+     * @return economy provider
+     */
+    @NotNull
+    public EconomyProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Returns whether this filter has been built.
+     *
+     * @return whether built
+     */
+    public boolean isReady() {
+        return bits != null;
+    }
+
+    /**
+     * Returns whether this filter covers the accounts of the specified {@link EconomyProvider}.
+     * A filter can be queried before being built, in which case only the negative cache is used.
+     *
+     * @param provider economy provider
+     * @return whether this filter can be used for the specified provider
+     */
+    @Override
+    public boolean covers(@NotNull EconomyProvider provider) {
+        return this.provider == provider;
+    }
+
+    /**
+     * (Re)builds the Bloom filter from the identifiers of all the player and non-player
+     * accounts of the {@link #getProvider() provider}, reading them page by page. The previous
+     * filter, if any, keeps answering until the new one is complete.
+     *
+     * @return future, completed when the filter has been built
+     */
+    @NotNull
+    public CompletableFuture<Void> build() {
+        synchronized (this) {
+            if (learntWhileBuilding != null) {
+                throw new IllegalStateException("Already building");
+            }
+            startBuilding();
+        }
+        return scan();
+    }
+
+    // guarded by this, so that checking for and starting a build cannot interleave
+    private void startBuilding() {
+        learntWhileBuilding = new LongList();
+        builtAt = System.currentTimeMillis();
+    }
+
+    @NotNull
+    private CompletableFuture<Void> scan() {
+        LongList scanned = new LongList();
+        CompletableFuture<Void> ret = provider.forEachPlayerAccountIdPage(
+                playerIds -> {
+                    synchronized (scanned) {
+                        playerIds.forEach(id -> scanned.add(hash(AccountData.forPlayerAccount(id))));
+                    }
+                    return CompletableFuture.completedFuture(null);
+                }
+        ).thenCompose($ -> provider.forEachNonPlayerAccountIdPage(
+                identifiers -> {
+                    synchronized (scanned) {
+                        identifiers.forEach(id -> scanned.add(hash(AccountData.forNonPlayerAccount(
+                                id))));
+                    }
+                    return CompletableFuture.completedFuture(null);
+                }
+        ));
+        return ret.whenComplete(($, ex) -> {
+            synchronized (this) {
+                LongList learnt = learntWhileBuilding;
+                learntWhileBuilding = null;
+                if (ex != null) {
+                    return;
+                }
+                Bits built = new Bits(scanned.size + learnt.size, falsePositiveProbability);
+                scanned.forEach(built::add);
+                learnt.forEach(built::add);
+                bits = built;
+            }
+        });
+    }
+
+    /**
+     * Checks whether the specified account exists, reporting accounts which certainly do not
+     * exist without querying the {@link #getProvider() provider}.
+     *
+     * @param accountData the account
+     * @return whether the account exists
+     * @see EconomyProvider#hasAccount(AccountData)
+     */
+    @NotNull
+    public CompletableFuture<Boolean> hasAccount(@NotNull AccountData accountData) {
+        Objects.requireNonNull(accountData, "accountData");
+
+        long now = System.currentTimeMillis();
+        if (rebuildIntervalMillis > 0 && now - builtAt >= rebuildIntervalMillis) {
+            rebuildInBackground();
+        }
+        Long expiresAt = negative.get(accountData);
+        if (expiresAt != null) {
+            if (expiresAt > now) {
+                return CompletableFuture.completedFuture(false);
+            }
+            negative.remove(accountData, expiresAt);
+        }
+        Bits bits = this.bits;
+        if (bits != null && !bits.mightContain(hash(accountData))) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return provider.hasAccount(accountData).thenApply(exists -> {
+            if (exists) {
+                created(accountData);
+            } else {
+                deleted(accountData);
+            }
+            return exists;
+        });
+    }
+
+    /**
+     * Records that the specified account exists, e.g. because it has just been created.
+     *
+     * @param accountData the account
+     */
+    public void created(@NotNull AccountData accountData) {
+        Objects.requireNonNull(accountData, "accountData");
+
+        negative.remove(accountData);
+        long hash = hash(accountData);
+        synchronized (this) {
+            if (learntWhileBuilding != null) {
+                learntWhileBuilding.add(hash);
+            }
+            Bits bits = this.bits;
+            if (bits != null) {
+                bits.add(hash);
+            }
+        }
+    }
+
+    /**
+     * Records that the specified account does not exist, e.g. because it has just been
+     * deleted. The account is reported missing for the negative cache duration, unless it is
+     * {@link #created(AccountData) created} meanwhile.
+     *
+     * @param accountData the account
+     */
+    public void deleted(@NotNull AccountData accountData) {
+        Objects.requireNonNull(accountData, "accountData");
+
+        if (negativeTtlMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (negative.size() >= MAX_NEGATIVE_ENTRIES) {
+            negative.values().removeIf(expiresAt -> expiresAt <= now);
+            if (negative.size() >= MAX_NEGATIVE_ENTRIES) {
+                negative.clear();
+            }
+        }
+        negative.put(accountData, now + negativeTtlMillis);
+    }
+
+    private void rebuildInBackground() {
+        synchronized (this) {
+            if (learntWhileBuilding != null) {
+                return;
+            }
+            startBuilding();
+        }
+        scan();
+    }
+
+    private static long hash(@NotNull AccountData accountData) {
+        if (accountData.isPlayerAccount()) {
+            UUID uuid = accountData.getPlayerIdentifier().get();
+            return mix(uuid.getMostSignificantBits() ^ mix(uuid.getLeastSignificantBits()));
+        }
+        NamespacedKey key = accountData.getNonPlayerIdentifier().get();
+        // distinct from any player account hash sequence
+        return mix(~(((long) key.getNamespace().hashCode() << 32) ^ key.getKey().hashCode()));
+    }
+
+    // finalizer of SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+
+        private Bits(long expectedInsertions, double falsePositiveProbability) {
+            long n = Math.max(expectedInsertions, 1024);
+            long m = (long) (-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min((m + 63) >>> 6, Integer.MAX_VALUE - 8);
+            this.words = new AtomicLongArray(words);
+            this.bitCount = (long) words << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        }
+
+        private void add(long hash) {
+            long h2 = mix(hash) | 1;
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(hash + i * h2);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                while (((current = words.get(word)) & mask) == 0) {
+                    if (words.compareAndSet(word, current, current | mask)) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        private boolean mightContain(long hash) {
+            long h2 = mix(hash) | 1;
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(hash + i * h2);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(long combined) {
+            return (combined & Long.MAX_VALUE) % bitCount;
+        }
+
+    }
+
+    private static final class LongList {
+
+        private long[] values = new long[16];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void forEach(@NotNull LongConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(values[i]);
+            }
+        }
+
+    }
+
+    /**
+     * Represents a builder of {@link AccountExistenceFilter}
+     *
+     * @since 2.1.0
+     */
+    public static final class Builder {
+
+        private double falsePositiveProbability = 0.01;
+        private long negativeTtlMillis = 30_000;
+        private long rebuildIntervalMillis = 600_000;
+
+        private Builder() {
+        }
+
+        /**
+         * Specify the probability of the Bloom filter reporting that a missing account might
+         * exist, in which case the provider is queried. Defaults to 1%.
+         *
+         * @param falsePositiveProbability false positive probability, between 0 and 1 exclusive
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withFalsePositiveProbability(double falsePositiveProbability) {
+            if (!(falsePositiveProbability > 0 && falsePositiveProbability < 1)) {
+                throw new IllegalArgumentException(
+                        "False positive probability must be between 0 and 1, got " + falsePositiveProbability);
+            }
+            this.falsePositiveProbability = falsePositiveProbability;
+            return this;
+        }
+
+        /**
+         * Specify how long accounts reported missing by the provider are remembered as
+         * missing. Defaults to 30 seconds, {@code 0} disables the negative cache.
+         *
+         * @param duration negative cache duration
+         * @param unit     unit of the duration
+         * @return this instance for chaining
+         */
+        @Contract("_, _ -> this")
+        public Builder withNegativeCacheDuration(long duration, @NotNull TimeUnit unit) {
+            long millis = Objects.requireNonNull(unit, "unit").toMillis(duration);
+            if (millis < 0) {
+                throw new IllegalArgumentException("Negative cache duration must not be negative");
+            }
+            this.negativeTtlMillis = millis;
+            return this;
+        }
+
+        /**
+         * Specify how often the Bloom filter is rebuilt from the provider, picking up the
+         * accounts created behind Treasury's back. Rebuilds are triggered by lookups and run in
+         * the background. Defaults to 10 minutes, {@code 0} disables periodic rebuilds.
+         *
+         * @param interval rebuild interval
+         * @param unit     unit of the interval
+         * @return this instance for chaining
+         */
+        @Contract("_, _ -> this")
+        public Builder withRebuildInterval(long interval, @NotNull TimeUnit unit) {
+            long millis = Objects.requireNonNull(unit, "unit").toMillis(interval);
+            if (millis < 0) {
+                throw new IllegalArgumentException("Rebuild interval must not be negative");
+            }
+            this.rebuildIntervalMillis = millis;
+            return this;
+        }
+
+        /**
+         * Builds the specified stuff into a new, empty {@link AccountExistenceFilter} of the
+         * specified provider. The filter only answers from its Bloom filter once
+         * {@link AccountExistenceFilter#build() built}.
+         *
+         * @param provider the provider whose accounts are to be filtered
+         * @return account existence filter
+         */
+        @NotNull
+        public AccountExistenceFilter build(@NotNull EconomyProvider provider) {
+            return new AccountExistenceFilter(this, Objects.requireNonNull(provider, "provider"));
+        }
+
+    }
+
+}
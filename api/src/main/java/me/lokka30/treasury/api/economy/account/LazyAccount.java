@@ -0,0 +1,279 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.account;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.misc.Page;
+import me.lokka30.treasury.api.common.misc.TriState;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.balance.BalanceHold;
+import me.lokka30.treasury.api.economy.balance.VersionedBalance;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransaction;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransactionImportance;
+import me.lokka30.treasury.api.economy.transaction.TransactionHistoryQuery;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Base of the lazy account handles, which load the account they stand for on their first
+ * operation and forward every operation to it.
+ *
+ * @param <T> type of the loaded account
+ * @see LazyPlayerAccount
+ * @see LazyNonPlayerAccount
+ * @since 2.1.0
+ */
+abstract class LazyAccount<T extends Account> implements Account {
+
+    private final Supplier<CompletableFuture<T>> loader;
+    private volatile CompletableFuture<T> loaded;
+
+    LazyAccount(@NotNull Supplier<CompletableFuture<T>> loader) {
+        this.loader = Objects.requireNonNull(loader, "loader");
+    }
+
+    /**
+     * Loads the account this handle stands for, unless it has been loaded already. A failed
+     * load is retried by the next operation.
+     *
+     * @return the loaded account
+     */
+    @NotNull
+    public CompletableFuture<T> load() {
+        CompletableFuture<T> loaded = this.loaded;
+        if (loaded != null && !loaded.isCompletedExceptionally()) {
+            return loaded;
+        }
+        synchronized (this) {
+            loaded = this.loaded;
+            if (loaded == null || loaded.isCompletedExceptionally()) {
+                loaded = loader.get();
+                this.loaded = loaded;
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * Returns whether the account this handle stands for has been loaded.
+     *
+     * @return whether loaded
+     */
+    public boolean isLoaded() {
+        CompletableFuture<T> loaded = this.loaded;
+        return loaded != null && loaded.isDone() && !loaded.isCompletedExceptionally();
+    }
+
+    @NotNull
+    private <R> CompletableFuture<R> then(@NotNull Function<T, CompletableFuture<R>> operation) {
+        return load().thenCompose(operation);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>As names are returned synchronously, this waits for the account to be loaded.
+     */
+    @Override
+    public @NotNull Optional<String> getName() {
+        return load().join().getName();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>As the provider is returned synchronously, this waits for the account to be loaded.
+     */
+    @Override
+    public @NotNull Optional<EconomyProvider> getProvider() {
+        return load().join().getProvider();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> setName(@Nullable String name) {
+        return then(account -> account.setName(name));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> retrieveBalance(@NotNull Currency currency) {
+        return then(account -> account.retrieveBalance(currency));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Long> retrieveMinorUnitBalance(@NotNull Currency currency) {
+        return then(account -> account.retrieveMinorUnitBalance(currency));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> withdrawBalance(
+            @NotNull BigDecimal amount,
+            @NotNull Cause<?> cause,
+            @NotNull Currency currency,
+            @NotNull EconomyTransactionImportance importance,
+            @Nullable String reason
+    ) {
+        return then(account -> account.withdrawBalance(amount, cause, currency, importance, reason));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> depositBalance(
+            @NotNull BigDecimal amount,
+            @NotNull Cause<?> cause,
+            @NotNull Currency currency,
+            @NotNull EconomyTransactionImportance importance,
+            @Nullable String reason
+    ) {
+        return then(account -> account.depositBalance(amount, cause, currency, importance, reason));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> doTransaction(@NotNull EconomyTransaction economyTransaction) {
+        return then(account -> account.doTransaction(economyTransaction));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<VersionedBalance> retrieveBalanceVersioned(@NotNull Currency currency) {
+        return then(account -> account.retrieveBalanceVersioned(currency));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Optional<BigDecimal>> doTransactionIfUnchanged(
+            @NotNull VersionedBalance expected, @NotNull EconomyTransaction economyTransaction
+    ) {
+        return then(account -> account.doTransactionIfUnchanged(expected, economyTransaction));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> compareAndSetBalance(
+            @NotNull VersionedBalance expected,
+            @NotNull BigDecimal newBalance,
+            @NotNull Cause<?> cause
+    ) {
+        return then(account -> account.compareAndSetBalance(expected, newBalance, cause));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BalanceHold> placeHold(
+            @NotNull BigDecimal amount, @NotNull Currency currency, @NotNull Duration ttl
+    ) {
+        return then(account -> account.placeHold(amount, currency, ttl));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> retrieveHeldBalance(@NotNull Currency currency) {
+        return then(account -> account.retrieveHeldBalance(currency));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> resetBalance(
+            @NotNull Cause<?> cause,
+            @NotNull Currency currency,
+            @NotNull EconomyTransactionImportance importance,
+            @Nullable String reason
+    ) {
+        return then(account -> account.resetBalance(cause, currency, importance, reason));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> deleteAccount() {
+        return then(Account::deleteAccount);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<String>> retrieveHeldCurrencies() {
+        return then(Account::retrieveHeldCurrencies);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Map<String, BigDecimal>> retrieveBalances() {
+        return then(Account::retrieveBalances);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<EconomyTransaction>> retrieveTransactionHistory(
+            int transactionCount, @NotNull Temporal from, @NotNull Temporal to
+    ) {
+        return then(account -> account.retrieveTransactionHistory(transactionCount, from, to));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Page<EconomyTransaction>> retrieveTransactionHistory(
+            @NotNull TransactionHistoryQuery query
+    ) {
+        return then(account -> account.retrieveTransactionHistory(query));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<UUID>> retrieveMemberIds() {
+        return then(Account::retrieveMemberIds);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> isMember(@NotNull UUID player) {
+        return then(account -> account.isMember(player));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> setPermissions(
+            @NotNull UUID player, @NotNull Map<AccountPermission, TriState> permissionsMap
+    ) {
+        return then(account -> account.setPermissions(player, permissionsMap));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Map<AccountPermission, TriState>> retrievePermissions(@NotNull UUID player) {
+        return then(account -> account.retrievePermissions(player));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Map<UUID, Map<AccountPermission, TriState>>> retrievePermissionsMap() {
+        return then(Account::retrievePermissionsMap);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> setPermissions(
+            @NotNull UUID player, @NotNull PermissionSet permissions
+    ) {
+        return then(account -> account.setPermissions(player, permissions));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<PermissionSet> retrievePermissionSet(@NotNull UUID player) {
+        return then(account -> account.retrievePermissionSet(player));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Map<UUID, PermissionSet>> retrievePermissionSets() {
+        return then(Account::retrievePermissionSets);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>As this never loads the account, the view is only available once the account has been
+     * loaded.
+     */
+    @Override
+    public @NotNull Optional<SyncAccount> sync() {
+        return isLoaded() ? load().join().sync() : Optional.empty();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TriState> hasPermissions(
+            @NotNull UUID player, @NotNull AccountPermission @NotNull ... permissions
+    ) {
+        return then(account -> account.hasPermissions(player, permissions));
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.account;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link PlayerAccount} handle, which is available right away without any I/O, and loads the
+ * account it stands for on its first operation. This saves a round trip to the economy
+ * provider for callers doing a single operation.
+ * <p>Instances are created by
+ * {@link me.lokka30.treasury.api.economy.account.accessor.PlayerAccountAccessor#lazy()}.
+ * Providers, which can fuse loading an account with an operation into a single call to their
+ * storage, may return their own handles from there instead.
+ *
+ * @since 2.1.0
+ */
+public final class LazyPlayerAccount extends LazyAccount<PlayerAccount> implements PlayerAccount {
+
+    private final UUID identifier;
+
+    /**
+     * Creates a new {@code LazyPlayerAccount}
+     *
+     * @param identifier the unique id of the player
+     * @param loader     the loader of the account, usually retrieving or creating it
+     */
+    public LazyPlayerAccount(
+            @NotNull UUID identifier, @NotNull Supplier<CompletableFuture<PlayerAccount>> loader
+    ) {
+        super(loader);
+        this.identifier = Objects.requireNonNull(identifier, "identifier");
+    }
+
+    @Override
+    public @NotNull UUID identifier() {
+        return identifier;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyPlayerAccount{" + "identifier=" + identifier + ", loaded=" + isLoaded() + '}';
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.account;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import me.lokka30.treasury.api.common.NamespacedKey;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.misc.TriState;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.EconomyProviderService;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a reverse index from players to the {@link NonPlayerAccount non-player accounts}
+ * they are members of, which lets {@link EconomyProvider#retrieveAllAccountsPlayerIsMemberOf(UUID)}
+ * and {@link EconomyProvider#retrieveAllAccountsPlayerHasPermissions(UUID, AccountPermission...)}
+ * answer without querying every non-player account.
+ * <p>Treasury maintains a {@link MemoryMembershipIndex} for the economy provider in use.
+ * Providers, which are able to answer these lookups with a single query, may supply their own
+ * index by overriding {@link EconomyProvider#membershipIndex()}.
+ * <p>An index may return identifiers of accounts, on which the player no longer has the
+ * requested permissions or which have been deleted meanwhile. Callers have to verify the
+ * returned accounts. An index must however never miss an account the player is a member of,
+ * hence it may only {@link #covers(EconomyProvider) cover} a provider it is kept complete for.
+ *
+ * @see MemoryMembershipIndex
+ * @since 2.1.0
+ */
+public interface MembershipIndex extends EconomyProviderService {
+
+    /**
+     * Retrieves the {@link NonPlayerAccount non-player accounts} with the specified identifiers,
+     * as returned by a {@code MembershipIndex}, from the specified {@link EconomyProvider}.
+     * As the index may be stale, accounts which no longer exist are skipped and the rest are
+     * checked with the specified {@code filter}.
+     *
+     * @param provider    the provider to retrieve the accounts from
+     * @param identifiers the identifiers of the accounts
+     * @param filter      the filter accounts have to match
+     * @return a collection of all the existing accounts for which the filter returned
+     *         {@link TriState#TRUE}
+     */
+    @NotNull
+    static CompletableFuture<Collection<NonPlayerAccount>> retrieveAccounts(
+            @NotNull EconomyProvider provider,
+            @NotNull Collection<NamespacedKey> identifiers,
+            @NotNull Function<NonPlayerAccount, CompletableFuture<TriState>> filter
+    ) {
+        Objects.requireNonNull(provider, "provider");
+        Objects.requireNonNull(identifiers, "identifiers");
+        Objects.requireNonNull(filter, "filter");
+
+        Collection<CompletableFuture<NonPlayerAccount>> accountFutures =
+                new ArrayList<>(identifiers.size());
+        for (NamespacedKey identifier : identifiers) {
+            accountFutures.add(provider
+                    .accountAccessor()
+                    .nonPlayer()
+                    .withIdentifier(identifier)
+                    .find()
+                    .thenApply(account -> account.orElse(null)));
+        }
+        return FutureHelper.joinAndFilter(
+                account -> account == null
+                        ? CompletableFuture.completedFuture(TriState.FALSE)
+                        : filter.apply(account),
+                accountFutures
+        );
+    }
+
+    /**
+     * Returns whether this index covers the non-player accounts of the specified
+     * {@link EconomyProvider} and is ready to be queried.
+     *
+     * @param provider economy provider
+     * @return whether this index can be used for the specified provider
+     */
+    @Override
+    boolean covers(@NotNull EconomyProvider provider);
+
+    /**
+     * Request the identifiers of all the {@link NonPlayerAccount non-player accounts} the
+     * specified player is a member of.
+     *
+     * @param playerId the player
+     * @return identifiers of the accounts the player is a member of
+     */
+    @NotNull CompletableFuture<Collection<NamespacedKey>> retrieveAccountIdsPlayerIsMemberOf(@NotNull UUID playerId);
+
+    /**
+     * Request the identifiers of all the {@link NonPlayerAccount non-player accounts}, on which
+     * the specified player has all the specified permissions allowed.
+     *
+     * @param playerId    the player
+     * @param permissions the permissions the player has to have
+     * @return identifiers of the accounts the player has all the permissions on
+     */
+    @NotNull CompletableFuture<Collection<NamespacedKey>> retrieveAccountIdsPlayerHasPermissions(
+            @NotNull UUID playerId, @NotNull AccountPermission @NotNull ... permissions
+    );
+
+}
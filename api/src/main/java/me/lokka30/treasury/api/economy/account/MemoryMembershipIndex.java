@@ -0,0 +1,272 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.account;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import me.lokka30.treasury.api.common.NamespacedKey;
+import me.lokka30.treasury.api.common.misc.TriState;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.events.AccountPermissionsChangeEvent;
+import me.lokka30.treasury.api.economy.events.NonPlayerAccountDeleteEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link MembershipIndex}, which holds the allowed permissions of every member of every
+ * {@link NonPlayerAccount} of an {@link EconomyProvider} in memory, as a {@link PermissionSet}
+ * per player and account.
+ * <p>The index is filled by {@link #build()}, which reads the permissions of all the non-player
+ * accounts once, and is kept up to date via {@link #update(NamespacedKey, UUID, Map)}, usually
+ * called from an {@link AccountPermissionsChangeEvent}, and {@link #remove(NamespacedKey)}, usually
+ * called from a {@link NonPlayerAccountDeleteEvent}. It only {@link #covers(EconomyProvider)
+ * covers} its provider once built, and only if the provider
+ * {@link EconomyProvider#firesAccountPermissionsChangeEvents() fires these events}, as the index
+ * could not be complete otherwise.
+ * <p>The players are additionally indexed per account, so that {@link #remove(NamespacedKey)}
+ * only visits the members of the removed account.
+ *
+ * @since 2.1.0
+ */
+public final class MemoryMembershipIndex implements MembershipIndex {
+
+    private final EconomyProvider provider;
+    private final Map<UUID, Map<NamespacedKey, PermissionSet>> index = new ConcurrentHashMap<>();
+    // the members of every account, guarded by this
+    private final Map<NamespacedKey, Set<UUID>> members = new HashMap<>();
+    // accounts updated while building, whose scanned permissions may be stale
+    private Set<NamespacedKey> updatedWhileBuilding;
+    private volatile boolean ready = false;
+
+    /**
+     * Creates a new, empty {@code MemoryMembershipIndex}
+     *
+     * @param provider the provider whose accounts are to be indexed
+     */
+    public MemoryMembershipIndex(@NotNull EconomyProvider provider) {
+        this.provider = Objects.requireNonNull(provider, "provider");
+    }
+
+    /**
+     * Returns the {@link EconomyProvider} whose accounts this index holds.
+     *
+     * @return economy provider
+     */
+    @NotNull
+    public EconomyProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Returns whether this index has been built.
+     *
+     * @return whether built
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Fills this index with the permissions of all the non-player accounts of the
+     * {@link #getProvider() provider}, reading them page by page. Updates received meanwhile
+     * take precedence over the read permissions.
+     *
+     * @return future, completed when the index has been built
+     */
+    @NotNull
+    public CompletableFuture<Void> build() {
+        synchronized (this) {
+            updatedWhileBuilding = new HashSet<>();
+        }
+        CompletableFuture<Void> ret = provider.forEachNonPlayerAccountIdPage(
+                identifiers -> {
+                    List<CompletableFuture<Void>> futures = new ArrayList<>(identifiers.size());
+                    for (NamespacedKey identifier : identifiers) {
+                        futures.add(provider
+                                .accountAccessor()
+                                .nonPlayer()
+                                .withIdentifier(identifier)
+                                .get()
+                                .thenCompose(Account::retrievePermissionSets)
+                                .thenAccept(permissionsMap -> scanned(identifier,
+                                        permissionsMap
+                                )));
+                    }
+                    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+                }
+        );
+        return ret.whenComplete(($, ex) -> {
+            synchronized (this) {
+                updatedWhileBuilding = null;
+            }
+            if (ex == null) {
+                ready = true;
+            }
+        });
+    }
+
+    private synchronized void scanned(
+            @NotNull NamespacedKey account,
+            @NotNull Map<UUID, PermissionSet> permissionsMap
+    ) {
+        if (updatedWhileBuilding != null && updatedWhileBuilding.contains(account)) {
+            return;
+        }
+        for (Map.Entry<UUID, PermissionSet> entry : permissionsMap.entrySet()) {
+            put(account, entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Sets the permissions of the specified player on the specified account.
+     *
+     * @param account     the identifier of the non-player account
+     * @param playerId    the player
+     * @param permissions all the permissions of the player on the account
+     */
+    public synchronized void update(
+            @NotNull NamespacedKey account,
+            @NotNull UUID playerId,
+            @NotNull Map<AccountPermission, TriState> permissions
+    ) {
+        Objects.requireNonNull(account, "account");
+        Objects.requireNonNull(playerId, "playerId");
+        Objects.requireNonNull(permissions, "permissions");
+
+        update(account, playerId, PermissionSet.fromMap(permissions));
+    }
+
+    /**
+     * Sets the permissions of the specified player on the specified account.
+     *
+     * @param account     the identifier of the non-player account
+     * @param playerId    the player
+     * @param permissions all the permissions of the player on the account
+     */
+    public synchronized void update(
+            @NotNull NamespacedKey account,
+            @NotNull UUID playerId,
+            @NotNull PermissionSet permissions
+    ) {
+        Objects.requireNonNull(account, "account");
+        Objects.requireNonNull(playerId, "playerId");
+        Objects.requireNonNull(permissions, "permissions");
+
+        if (updatedWhileBuilding != null) {
+            updatedWhileBuilding.add(account);
+        }
+        put(account, playerId, permissions);
+    }
+
+    /**
+     * Applies the specified {@link AccountPermissionsChangeEvent} to this index.
+     *
+     * @param event the permissions change event
+     */
+    public void update(@NotNull AccountPermissionsChangeEvent event) {
+        Objects.requireNonNull(event, "event");
+        update(event.getAccount().identifier(), event.getPlayerId(), event.getPermissions());
+    }
+
+    /**
+     * Applies the specified {@link NonPlayerAccountDeleteEvent} to this index.
+     *
+     * @param event the account deletion event
+     */
+    public void update(@NotNull NonPlayerAccountDeleteEvent event) {
+        Objects.requireNonNull(event, "event");
+        remove(event.getIdentifier());
+    }
+
+    /**
+     * Removes all the entries of the specified account, e.g. when it has been deleted.
+     *
+     * @param account the identifier of the non-player account
+     */
+    public synchronized void remove(@NotNull NamespacedKey account) {
+        Objects.requireNonNull(account, "account");
+
+        if (updatedWhileBuilding != null) {
+            updatedWhileBuilding.add(account);
+        }
+        Set<UUID> accountMembers = members.remove(account);
+        if (accountMembers == null) {
+            return;
+        }
+        for (UUID playerId : accountMembers) {
+            index.computeIfPresent(playerId, ($, accounts) -> {
+                accounts.remove(account);
+                return accounts.isEmpty() ? null : accounts;
+            });
+        }
+    }
+
+    private void put(
+            @NotNull NamespacedKey account,
+            @NotNull UUID playerId,
+            @NotNull PermissionSet permissions
+    ) {
+        if (!permissions.isMember()) {
+            index.computeIfPresent(playerId, ($, accounts) -> {
+                accounts.remove(account);
+                return accounts.isEmpty() ? null : accounts;
+            });
+            Set<UUID> accountMembers = members.get(account);
+            if (accountMembers != null && accountMembers.remove(playerId) && accountMembers.isEmpty()) {
+                members.remove(account);
+            }
+        } else {
+            index.computeIfAbsent(playerId, $ -> new ConcurrentHashMap<>()).put(account, permissions);
+            members.computeIfAbsent(account, $ -> new HashSet<>()).add(playerId);
+        }
+    }
+
+    @Override
+    public boolean covers(@NotNull EconomyProvider provider) {
+        return ready && this.provider == provider && provider.firesAccountPermissionsChangeEvents();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<NamespacedKey>> retrieveAccountIdsPlayerIsMemberOf(
+            @NotNull UUID playerId
+    ) {
+        Objects.requireNonNull(playerId, "playerId");
+
+        Map<NamespacedKey, PermissionSet> accounts = index.get(playerId);
+        return CompletableFuture.completedFuture(accounts == null
+                ? Collections.emptyList()
+                : new ArrayList<>(accounts.keySet()));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<NamespacedKey>> retrieveAccountIdsPlayerHasPermissions(
+            @NotNull UUID playerId, @NotNull AccountPermission @NotNull ... permissions
+    ) {
+        Objects.requireNonNull(playerId, "playerId");
+        Objects.requireNonNull(permissions, "permissions");
+
+        Map<NamespacedKey, PermissionSet> accounts = index.get(playerId);
+        if (accounts == null) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        List<NamespacedKey> ret = new ArrayList<>();
+        for (Map.Entry<NamespacedKey, PermissionSet> entry : accounts.entrySet()) {
+            if (entry.getValue().hasPermissions(permissions) == TriState.TRUE) {
+                ret.add(entry.getKey());
+            }
+        }
+        return CompletableFuture.completedFuture(ret);
+    }
+
+}
@@ -0,0 +1,287 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.account;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import me.lokka30.treasury.api.common.misc.TriState;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents an immutable set of {@link AccountPermission} values, which is the compact
+ * equivalent of a {@code Map<AccountPermission, TriState>}.
+ * <p>The {@link TriState} of each permission is encoded in two bits of a single {@code int}:
+ * the low bit marks {@link TriState#TRUE}, the high bit marks {@link TriState#FALSE} and
+ * neither of them marks {@link TriState#UNSPECIFIED}. As there are only few possible sets, all
+ * of them are cached, hence creating or modifying a set never allocates.
+ *
+ * @see Account#retrievePermissionSet(java.util.UUID)
+ * @since 2.1.0
+ */
+public final class PermissionSet {
+
+    private static final AccountPermission[] PERMISSIONS = AccountPermission.values();
+    // low bit of every permission
+    private static final int TRUE_MASK;
+    private static final PermissionSet[] CACHE;
+
+    static {
+        int trueMask = 0;
+        for (AccountPermission permission : PERMISSIONS) {
+            trueMask |= 1 << (permission.ordinal() << 1);
+        }
+        TRUE_MASK = trueMask;
+        CACHE = new PermissionSet[1 << (PERMISSIONS.length << 1)];
+        for (int bits = 0; bits < CACHE.length; bits++) {
+            CACHE[bits] = new PermissionSet(bits);
+        }
+    }
+
+    /**
+     * A {@code PermissionSet} with all permissions {@link TriState#UNSPECIFIED unspecified}.
+     */
+    public static final PermissionSet EMPTY = CACHE[0];
+
+    /**
+     * A {@code PermissionSet} with all permissions {@link TriState#TRUE allowed}.
+     */
+    public static final PermissionSet ALL = CACHE[TRUE_MASK];
+
+    /**
+     * Returns the {@code PermissionSet} with the specified value for all the specified
+     * permissions, and all the other permissions {@link TriState#UNSPECIFIED unspecified}.
+     *
+     * @param value       the value of the permissions
+     * @param permissions the permissions
+     * @return permission set
+     */
+    @NotNull
+    public static PermissionSet of(
+            @NotNull TriState value, @NotNull AccountPermission @NotNull ... permissions
+    ) {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(permissions, "permissions");
+
+        int bits = 0;
+        for (AccountPermission permission : permissions) {
+            bits = set(bits, permission, value);
+        }
+        return CACHE[bits];
+    }
+
+    /**
+     * Returns the {@code PermissionSet} equivalent to the specified map. Permissions missing
+     * from the map are {@link TriState#UNSPECIFIED unspecified}.
+     *
+     * @param permissions the permissions map
+     * @return permission set
+     */
+    @NotNull
+    public static PermissionSet fromMap(@NotNull Map<AccountPermission, TriState> permissions) {
+        Objects.requireNonNull(permissions, "permissions");
+
+        int bits = 0;
+        for (Map.Entry<AccountPermission, TriState> entry : permissions.entrySet()) {
+            bits = set(bits, entry.getKey(), entry.getValue());
+        }
+        return CACHE[bits];
+    }
+
+    /**
+     * Returns the {@code PermissionSet} with the specified {@link #toBits() bits}, as e.g.
+     * stored by an economy provider.
+     *
+     * @param bits the bits
+     * @return permission set
+     * @throws IllegalArgumentException if the bits are not valid
+     */
+    @NotNull
+    public static PermissionSet fromBits(int bits) {
+        if (bits < 0 || bits >= CACHE.length || ((bits >>> 1) & bits & TRUE_MASK) != 0) {
+            throw new IllegalArgumentException("Invalid permission set bits " + bits);
+        }
+        return CACHE[bits];
+    }
+
+    private static int set(int bits, @NotNull AccountPermission permission, @NotNull TriState value) {
+        int shift = permission.ordinal() << 1;
+        bits &= ~(0b11 << shift);
+        switch (value) {
+            case TRUE:
+                return bits | (0b01 << shift);
+            case FALSE:
+                return bits | (0b10 << shift);
+            default:
+                return bits;
+        }
+    }
+
+    private static int mask(@NotNull AccountPermission @NotNull ... permissions) {
+        int mask = 0;
+        for (AccountPermission permission : permissions) {
+            mask |= 1 << (permission.ordinal() << 1);
+        }
+        return mask;
+    }
+
+    private final int bits;
+
+    private PermissionSet(int bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Returns the value of the specified permission.
+     *
+     * @param permission the permission
+     * @return permission value
+     */
+    @NotNull
+    public TriState get(@NotNull AccountPermission permission) {
+        Objects.requireNonNull(permission, "permission");
+
+        switch ((bits >>> (permission.ordinal() << 1)) & 0b11) {
+            case 0b01:
+                return TriState.TRUE;
+            case 0b10:
+                return TriState.FALSE;
+            default:
+                return TriState.UNSPECIFIED;
+        }
+    }
+
+    /**
+     * Checks whether this set allows all the specified permissions, following the same rules
+     * as {@link Account#hasPermissions(java.util.UUID, AccountPermission...)}: if any of the
+     * permissions is {@link TriState#FALSE}, {@code FALSE} is returned, otherwise if any of them
+     * is {@link TriState#UNSPECIFIED}, {@code UNSPECIFIED} is returned, otherwise
+     * {@link TriState#TRUE}.
+     *
+     * @param permissions the permissions to check
+     * @return the permissions value
+     */
+    @NotNull
+    public TriState hasPermissions(@NotNull AccountPermission @NotNull ... permissions) {
+        Objects.requireNonNull(permissions, "permissions");
+
+        int mask = mask(permissions);
+        if (((bits >>> 1) & mask) != 0) {
+            return TriState.FALSE;
+        }
+        return (bits & mask) == mask ? TriState.TRUE : TriState.UNSPECIFIED;
+    }
+
+    /**
+     * Returns whether this set allows at least one permission, that is, whether the player
+     * holding it is a member of the account.
+     *
+     * @return whether any permission is allowed
+     */
+    public boolean isMember() {
+        return (bits & TRUE_MASK) != 0;
+    }
+
+    /**
+     * Returns whether all permissions are {@link TriState#UNSPECIFIED unspecified}.
+     *
+     * @return whether empty
+     */
+    public boolean isEmpty() {
+        return bits == 0;
+    }
+
+    /**
+     * Returns the {@code PermissionSet} with the specified permission set to the specified
+     * value, and all the other permissions as in this set.
+     *
+     * @param permission the permission
+     * @param value      the value
+     * @return permission set
+     */
+    @NotNull
+    @Contract(pure = true)
+    public PermissionSet with(@NotNull AccountPermission permission, @NotNull TriState value) {
+        Objects.requireNonNull(permission, "permission");
+        Objects.requireNonNull(value, "value");
+
+        return CACHE[set(bits, permission, value)];
+    }
+
+    /**
+     * Returns the {@code PermissionSet} with the permissions specified in {@code other} taken
+     * from {@code other}, and all the other permissions as in this set. This is how
+     * {@link Account#setPermissions(java.util.UUID, Map)} applies the permissions it is given.
+     *
+     * @param other the permissions to apply
+     * @return permission set
+     */
+    @NotNull
+    @Contract(pure = true)
+    public PermissionSet merge(@NotNull PermissionSet other) {
+        Objects.requireNonNull(other, "other");
+
+        int specified = other.bits | (other.bits >>> 1);
+        specified = (specified & TRUE_MASK) * 0b11;
+        return CACHE[(bits & ~specified) | other.bits];
+    }
+
+    /**
+     * Returns the bits encoding this set, for storage. Use {@link #fromBits(int)} to decode
+     * them.
+     *
+     * @return bits
+     */
+    public int toBits() {
+        return bits;
+    }
+
+    /**
+     * Returns this set as an immutable map, holding only the permissions which are not
+     * {@link TriState#UNSPECIFIED unspecified}.
+     *
+     * @return permissions map
+     */
+    @NotNull
+    public Map<AccountPermission, TriState> toMap() {
+        if (bits == 0) {
+            return Collections.emptyMap();
+        }
+        Map<AccountPermission, TriState> ret = new EnumMap<>(AccountPermission.class);
+        for (AccountPermission permission : PERMISSIONS) {
+            TriState value = get(permission);
+            if (value != TriState.UNSPECIFIED) {
+                ret.put(permission, value);
+            }
+        }
+        return Collections.unmodifiableMap(ret);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof PermissionSet && ((PermissionSet) o).bits == bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return bits;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "PermissionSet{", "}");
+        for (AccountPermission permission : PERMISSIONS) {
+            TriState value = get(permission);
+            if (value != TriState.UNSPECIFIED) {
+                joiner.add(permission + "=" + value);
+            }
+        }
+        return joiner.toString();
+    }
+
+}
@@ -4,14 +4,12 @@
 
 package me.lokka30.treasury.api.economy.account;
 
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 import me.lokka30.treasury.api.common.Cause;
 import me.lokka30.treasury.api.common.misc.TriState;
 import org.jetbrains.annotations.NotNull;
@@ -35,9 +33,7 @@ public interface PlayerAccount extends Account, Cause.Player {
      * Returns a map fulfilled with all {@link AccountPermission} with {@link TriState} values of
      * {@link TriState#TRUE}.
      */
-    Map<AccountPermission, TriState> ALL_PERMISSIONS_MAP = Collections.unmodifiableMap(Arrays
-            .stream(AccountPermission.values())
-            .collect(Collectors.toConcurrentMap(p -> p, $ -> TriState.TRUE)));
+    Map<AccountPermission, TriState> ALL_PERMISSIONS_MAP = PermissionSet.ALL.toMap();
 
     /**
      * {@inheritDoc}
@@ -108,6 +104,31 @@ public interface PlayerAccount extends Account, Cause.Player {
         ));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NotNull
+    default CompletableFuture<PermissionSet> retrievePermissionSet(@NotNull UUID player) {
+        Objects.requireNonNull(player, "player");
+
+        return CompletableFuture.completedFuture(this.identifier().equals(player)
+                ? PermissionSet.ALL
+                : PermissionSet.EMPTY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NotNull
+    default CompletableFuture<Map<UUID, PermissionSet>> retrievePermissionSets() {
+        return CompletableFuture.completedFuture(Collections.singletonMap(
+                this.identifier(),
+                PermissionSet.ALL
+        ));
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,69 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.account;
+
+import java.math.BigDecimal;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A synchronous view of an {@link Account}, offered by economy providers, which keep the
+ * balances of their accounts in memory. Its methods never do any I/O and never block, so they
+ * can be called from the main thread without the cost of a {@link
+ * java.util.concurrent.CompletableFuture}.
+ * <p>Economy providers advertise this capability by having their accounts implement this
+ * interface, or by overriding {@link Account#sync()}. Consumers shall always retrieve the view
+ * through {@link Account#sync()}, as decorators of accounts may not offer it:
+ * <pre>
+ * BigDecimal balance = account.sync()
+ *         .map(sync -&gt; sync.balanceNow(currency))
+ *         .orElseGet(() -&gt; account.retrieveBalance(currency).join());
+ * </pre>
+ * <p>Transactions done through this view fire the same events as their asynchronous
+ * counterparts.
+ *
+ * @since 2.1.0
+ */
+public interface SyncAccount {
+
+    /**
+     * Returns the current balance of the account in the specified {@link Currency}, being the
+     * same value {@link Account#retrieveBalance(Currency)} would complete with.
+     *
+     * @param currency the currency of the balance
+     * @return the balance
+     */
+    @NotNull BigDecimal balanceNow(@NotNull Currency currency);
+
+    /**
+     * Tries to deposit the specified amount into the account right away.
+     * <p>If the deposit can not be done without I/O or without blocking, e.g. because another
+     * thread is modifying the balance, or fails for any other reason, this returns {@code false}
+     * and the caller shall fall back to
+     * {@link Account#depositBalance(BigDecimal, Cause, Currency)}, which also tells why.
+     *
+     * @param amount   the amount to deposit, must be positive
+     * @param cause    the cause of the deposit
+     * @param currency the currency of the deposit
+     * @return whether the amount was deposited
+     */
+    boolean tryDeposit(@NotNull BigDecimal amount, @NotNull Cause<?> cause, @NotNull Currency currency);
+
+    /**
+     * Tries to withdraw the specified amount from the account right away.
+     * <p>If the withdrawal can not be done without I/O or without blocking, or fails for any
+     * other reason, e.g. insufficient balance, this returns {@code false} and the caller shall
+     * fall back to {@link Account#withdrawBalance(BigDecimal, Cause, Currency)}, which also
+     * tells why.
+     *
+     * @param amount   the amount to withdraw, must be positive
+     * @param cause    the cause of the withdrawal
+     * @param currency the currency of the withdrawal
+     * @return whether the amount was withdrawn
+     */
+    boolean tryWithdraw(@NotNull BigDecimal amount, @NotNull Cause<?> cause, @NotNull Currency currency);
+
+}
@@ -0,0 +1,571 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.account;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.misc.Page;
+import me.lokka30.treasury.api.common.misc.TriState;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.balance.BalanceHold;
+import me.lokka30.treasury.api.economy.balance.BalanceHoldLedger;
+import me.lokka30.treasury.api.economy.balance.VersionedBalance;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransaction;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransactionImportance;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransactionType;
+import me.lokka30.treasury.api.economy.transaction.TransactionHistoryQuery;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An {@link Account} decorator, which accumulates deposits and withdrawals in memory and writes
+ * them to the wrapped account later, as one net transaction per currency and cause.
+ * <p>Only the {@link EconomyTransactionImportance#LOW low} and
+ * {@link EconomyTransactionImportance#NORMAL normal} importance deposits and withdrawals are
+ * buffered. They complete immediately with the projected balance, which is the last known
+ * balance of the wrapped account plus all the pending transactions. Withdrawals, which would
+ * take the projected balance below zero, fail with a {@link TreasuryException}.
+ * <p>The results of buffered transactions are provisional: a transaction is durable only once
+ * a {@link #flush()}, or the periodic flush of the {@link WriteBehindBuffer}, has written it.
+ * Net transactions the wrapped account fails to do are reported to the
+ * {@link WriteBehindBuffer.Builder#withErrorHandler(java.util.function.Consumer) error handler}
+ * and kept pending, to be retried on the next flush, independently of the other causes. Once
+ * its {@link WriteBehindBuffer.Builder#withMaxAttempts(int) attempts} are exhausted, a net
+ * transaction is dropped and reported as lost.
+ * <p>Any other transaction first waits for the pending transactions of its currency to be
+ * written and is then done directly on the wrapped account.
+ * <p>Instances are created by {@link WriteBehindBuffer#wrap(Account)}, once per account and
+ * buffer.
+ *
+ * @see WriteBehindBuffer
+ * @since 2.1.0
+ */
+public final class WriteBehindAccount implements Account {
+
+    private final WriteBehindBuffer buffer;
+    private final Account delegate;
+    private final Map<String, CurrencyBuffer> currencies = new ConcurrentHashMap<>();
+
+    WriteBehindAccount(@NotNull WriteBehindBuffer buffer, @NotNull Account delegate) {
+        this.buffer = buffer;
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns the wrapped {@link Account}.
+     *
+     * @return wrapped account
+     */
+    @NotNull
+    public Account getDelegate() {
+        return delegate;
+    }
+
+    @NotNull
+    WriteBehindBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Writes all the pending transactions of this account. The transactions, which fail to be
+     * written, are kept pending.
+     *
+     * @return future, completed when the pending transactions have been tried to be written
+     */
+    @NotNull
+    public CompletableFuture<Void> flush() {
+        List<CompletableFuture<Void>> flushes = new ArrayList<>(currencies.size());
+        for (CurrencyBuffer currencyBuffer : currencies.values()) {
+            flushes.add(currencyBuffer.flush());
+        }
+        return CompletableFuture.allOf(flushes.toArray(new CompletableFuture[0]));
+    }
+
+    @NotNull
+    private CompletableFuture<Void> flush(@NotNull String currencyId) {
+        CurrencyBuffer currencyBuffer = currencies.get(currencyId);
+        return currencyBuffer == null
+                ? CompletableFuture.completedFuture(null)
+                : currencyBuffer.flush();
+    }
+
+    @NotNull
+    private CompletableFuture<BigDecimal> buffer(
+            @NotNull BigDecimal amount,
+            @NotNull Cause<?> cause,
+            @NotNull Currency currency,
+            @NotNull EconomyTransactionImportance importance,
+            @Nullable String reason,
+            @NotNull EconomyTransactionType type
+    ) {
+        Objects.requireNonNull(amount, "amount");
+        Objects.requireNonNull(cause, "cause");
+        Objects.requireNonNull(currency, "currency");
+        Objects.requireNonNull(importance, "importance");
+
+        if (importance == EconomyTransactionImportance.HIGH || buffer.isShutdown()) {
+            return doTransaction(EconomyTransaction
+                    .newBuilder()
+                    .withCurrency(currency)
+                    .withCause(cause)
+                    .withReason(reason)
+                    .withImportance(importance)
+                    .withType(type)
+                    .withAmount(amount)
+                    .build());
+        }
+
+        BigDecimal signed = type == EconomyTransactionType.WITHDRAWAL ? amount.negate() : amount;
+        return currencies
+                .computeIfAbsent(currency.getIdentifier(), $ -> new CurrencyBuffer(currency))
+                .add(signed, cause, importance, reason);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> withdrawBalance(
+            @NotNull BigDecimal amount,
+            @NotNull Cause<?> cause,
+            @NotNull Currency currency,
+            @NotNull EconomyTransactionImportance importance,
+            @Nullable String reason
+    ) {
+        return buffer(amount, cause, currency, importance, reason, EconomyTransactionType.WITHDRAWAL);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> depositBalance(
+            @NotNull BigDecimal amount,
+            @NotNull Cause<?> cause,
+            @NotNull Currency currency,
+            @NotNull EconomyTransactionImportance importance,
+            @Nullable String reason
+    ) {
+        return buffer(amount, cause, currency, importance, reason, EconomyTransactionType.DEPOSIT);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> doTransaction(@NotNull EconomyTransaction economyTransaction) {
+        Objects.requireNonNull(economyTransaction, "economyTransaction");
+        String currencyId = economyTransaction.getCurrencyId();
+        return flush(currencyId)
+                .thenCompose($ -> delegate.doTransaction(economyTransaction))
+                .whenComplete(($, ex) -> {
+                    CurrencyBuffer currencyBuffer = currencies.get(currencyId);
+                    if (currencyBuffer != null) {
+                        currencyBuffer.forgetBalance();
+                    }
+                });
+    }
+
+    @Override
+    public @NotNull CompletableFuture<VersionedBalance> retrieveBalanceVersioned(@NotNull Currency currency) {
+        Objects.requireNonNull(currency, "currency");
+        // versions are only known to the wrapped account, so the pending transactions go first
+        return flush(currency.getIdentifier()).thenCompose($ -> delegate.retrieveBalanceVersioned(
+                currency));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Optional<BigDecimal>> doTransactionIfUnchanged(
+            @NotNull VersionedBalance expected, @NotNull EconomyTransaction economyTransaction
+    ) {
+        Objects.requireNonNull(expected, "expected");
+        Objects.requireNonNull(economyTransaction, "economyTransaction");
+        String currencyId = economyTransaction.getCurrencyId();
+        return flush(currencyId)
+                .thenCompose($ -> delegate.doTransactionIfUnchanged(expected, economyTransaction))
+                .whenComplete(($, ex) -> {
+                    CurrencyBuffer currencyBuffer = currencies.get(currencyId);
+                    if (currencyBuffer != null) {
+                        currencyBuffer.forgetBalance();
+                    }
+                });
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BalanceHold> placeHold(
+            @NotNull BigDecimal amount, @NotNull Currency currency, @NotNull Duration ttl
+    ) {
+        Optional<BalanceHoldLedger> ledger = getProvider().flatMap(EconomyProvider::balanceHoldLedger);
+        if (!ledger.isPresent()) {
+            return flush(currency.getIdentifier()).thenCompose($ -> delegate.placeHold(amount,
+                    currency,
+                    ttl
+            ));
+        }
+        // held against the projected balance and captured through the buffer
+        return ledger.get().placeHold(AccountData.forAccount(delegate),
+                this,
+                amount,
+                currency,
+                ttl
+        );
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> retrieveHeldBalance(@NotNull Currency currency) {
+        Objects.requireNonNull(currency, "currency");
+        Optional<BalanceHoldLedger> ledger = getProvider().flatMap(EconomyProvider::balanceHoldLedger);
+        return ledger.isPresent()
+                ? CompletableFuture.completedFuture(ledger
+                        .get()
+                        .getHeldBalance(AccountData.forAccount(delegate), currency.getIdentifier()))
+                : delegate.retrieveHeldBalance(currency);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> retrieveBalance(@NotNull Currency currency) {
+        Objects.requireNonNull(currency, "currency");
+        CurrencyBuffer currencyBuffer = currencies.get(currency.getIdentifier());
+        return currencyBuffer == null
+                ? delegate.retrieveBalance(currency)
+                : currencyBuffer.projected();
+    }
+
+    @Override
+    public @NotNull Optional<String> getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> setName(@Nullable String name) {
+        return delegate.setName(name);
+    }
+
+    @Override
+    public @NotNull Optional<EconomyProvider> getProvider() {
+        return delegate.getProvider();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> deleteAccount() {
+        return flush().thenCompose($ -> delegate.deleteAccount());
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<String>> retrieveHeldCurrencies() {
+        return flush().thenCompose($ -> delegate.retrieveHeldCurrencies());
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Map<String, BigDecimal>> retrieveBalances() {
+        return flush().thenCompose($ -> delegate.retrieveBalances());
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<EconomyTransaction>> retrieveTransactionHistory(
+            int transactionCount, @NotNull Temporal from, @NotNull Temporal to
+    ) {
+        return flush().thenCompose($ -> delegate.retrieveTransactionHistory(transactionCount,
+                from,
+                to
+        ));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Page<EconomyTransaction>> retrieveTransactionHistory(
+            @NotNull TransactionHistoryQuery query
+    ) {
+        return flush().thenCompose($ -> delegate.retrieveTransactionHistory(query));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<UUID>> retrieveMemberIds() {
+        return delegate.retrieveMemberIds();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> isMember(@NotNull UUID player) {
+        return delegate.isMember(player);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> setPermissions(
+            @NotNull UUID player, @NotNull Map<AccountPermission, TriState> permissionsMap
+    ) {
+        return delegate.setPermissions(player, permissionsMap);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Map<AccountPermission, TriState>> retrievePermissions(@NotNull UUID player) {
+        return delegate.retrievePermissions(player);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Map<UUID, Map<AccountPermission, TriState>>> retrievePermissionsMap() {
+        return delegate.retrievePermissionsMap();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> setPermissions(
+            @NotNull UUID player, @NotNull PermissionSet permissions
+    ) {
+        return delegate.setPermissions(player, permissions);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<PermissionSet> retrievePermissionSet(@NotNull UUID player) {
+        return delegate.retrievePermissionSet(player);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Map<UUID, PermissionSet>> retrievePermissionSets() {
+        return delegate.retrievePermissionSets();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TriState> hasPermissions(
+            @NotNull UUID player, @NotNull AccountPermission @NotNull ... permissions
+    ) {
+        return delegate.hasPermissions(player, permissions);
+    }
+
+    @Override
+    public String toString() {
+        return "WriteBehindAccount{" + delegate + '}';
+    }
+
+    /**
+     * The pending transactions of a single currency. Guarded by its own monitor.
+     */
+    private final class CurrencyBuffer {
+
+        private final Currency currency;
+        // last known balance plus all the pending and in-flight transactions, null if unknown
+        private BigDecimal projected;
+        private CompletableFuture<BigDecimal> loading;
+        private Map<Cause<?>, Pending> pending = new LinkedHashMap<>();
+        private BigDecimal pendingSum = BigDecimal.ZERO;
+        private int operations = 0;
+        private CompletableFuture<Void> flushing = CompletableFuture.completedFuture(null);
+
+        private CurrencyBuffer(@NotNull Currency currency) {
+            this.currency = currency;
+        }
+
+        @NotNull
+        private CompletableFuture<BigDecimal> projected() {
+            synchronized (this) {
+                if (projected != null) {
+                    return CompletableFuture.completedFuture(projected);
+                }
+                if (loading == null) {
+                    // loaded only once the in-flight transactions have been written
+                    CompletableFuture<BigDecimal> load = flushing
+                            .thenCompose($ -> delegate.retrieveBalance(currency))
+                            .thenApply(balance -> {
+                                synchronized (this) {
+                                    loading = null;
+                                    if (projected == null) {
+                                        projected = balance.add(pendingSum);
+                                    }
+                                    return projected;
+                                }
+                            });
+                    load.whenComplete(($, ex) -> {
+                        if (ex != null) {
+                            synchronized (this) {
+                                loading = null;
+                            }
+                        }
+                    });
+                    if (load.isDone()) {
+                        // completed synchronously, nothing to share
+                        return load;
+                    }
+                    loading = load;
+                }
+                return loading;
+            }
+        }
+
+        private void forgetBalance() {
+            synchronized (this) {
+                projected = null;
+            }
+        }
+
+        @NotNull
+        private CompletableFuture<BigDecimal> add(
+                @NotNull BigDecimal signed,
+                @NotNull Cause<?> cause,
+                @NotNull EconomyTransactionImportance importance,
+                @Nullable String reason
+        ) {
+            return projected().thenCompose($ -> {
+                boolean flushNow;
+                BigDecimal result;
+                synchronized (this) {
+                    BigDecimal base = projected;
+                    if (base == null) {
+                        // forgotten meanwhile, retry with the reloaded balance
+                        return add(signed, cause, importance, reason);
+                    }
+                    result = base.add(signed);
+                    if (signed.signum() < 0 && result.signum() < 0) {
+                        return FutureHelper.failedFuture(new TreasuryException(
+                                "Insufficient balance"));
+                    }
+                    projected = result;
+                    pendingSum = pendingSum.add(signed);
+                    pending.computeIfAbsent(cause, c -> new Pending(reason)).add(signed, importance, reason);
+                    flushNow = ++operations >= buffer.getMaxPendingOperations();
+                }
+                if (flushNow) {
+                    flush();
+                } else {
+                    buffer.markDirty(WriteBehindAccount.this);
+                }
+                return CompletableFuture.completedFuture(result);
+            });
+        }
+
+        @NotNull
+        private CompletableFuture<Void> flush() {
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return flushing;
+                }
+                Map<Cause<?>, Pending> toWrite = pending;
+                pending = new LinkedHashMap<>();
+                pendingSum = BigDecimal.ZERO;
+                operations = 0;
+
+                CompletableFuture<Void> flush = flushing
+                        .thenCompose($ -> write(toWrite))
+                        .handle((balance, ex) -> {
+                            synchronized (this) {
+                                if (ex != null) {
+                                    projected = null;
+                                } else if (balance != null) {
+                                    // the balance after the last written cause, the failed ones are pending again
+                                    projected = balance.add(pendingSum);
+                                }
+                            }
+                            if (ex != null) {
+                                buffer.handleError(ex);
+                            }
+                            return null;
+                        });
+                flushing = flush;
+                return flush;
+            }
+        }
+
+        /**
+         * Writes the specified net transactions one after another. A failed one is put back to
+         * the pending transactions and does not stop the ones after it.
+         *
+         * @return the balance after the last written transaction, null if none was written
+         */
+        @NotNull
+        private CompletableFuture<BigDecimal> write(@NotNull Map<Cause<?>, Pending> toWrite) {
+            CompletableFuture<BigDecimal> ret = CompletableFuture.completedFuture(null);
+            for (Map.Entry<Cause<?>, Pending> entry : toWrite.entrySet()) {
+                Cause<?> cause = entry.getKey();
+                Pending net = entry.getValue();
+                if (net.net.signum() == 0) {
+                    continue;
+                }
+                EconomyTransaction transaction = EconomyTransaction
+                        .newBuilder()
+                        .withCurrency(currency)
+                        .withCause(cause)
+                        .withReason(net.reason)
+                        .withImportance(net.importance)
+                        .withType(net.net.signum() > 0
+                                ? EconomyTransactionType.DEPOSIT
+                                : EconomyTransactionType.WITHDRAWAL)
+                        .withAmount(net.net.abs())
+                        .build();
+                ret = ret.thenCompose(last -> {
+                    CompletableFuture<BigDecimal> written;
+                    try {
+                        written = delegate.doTransaction(transaction);
+                    } catch (RuntimeException e) {
+                        written = FutureHelper.failedFuture(e);
+                    }
+                    return written.handle((balance, ex) -> {
+                        if (ex == null) {
+                            return balance;
+                        }
+                        retry(cause, net);
+                        buffer.handleError(ex);
+                        return last;
+                    });
+                });
+            }
+            return ret;
+        }
+
+        private void retry(@NotNull Cause<?> cause, @NotNull Pending failed) {
+            if (failed.attempts + 1 >= buffer.getMaxAttempts()) {
+                synchronized (this) {
+                    // the projected balance includes the dropped transaction
+                    projected = null;
+                }
+                buffer.handleError(new TreasuryException(
+                        "Dropped the net transaction of " + failed.net + " " + currency.getIdentifier()
+                                + " by " + cause + " of " + delegate + " after "
+                                + buffer.getMaxAttempts() + " attempts"));
+                return;
+            }
+            synchronized (this) {
+                Pending retried = pending.computeIfAbsent(cause, c -> new Pending(failed.reason));
+                retried.add(failed.net, failed.importance, failed.reason);
+                retried.attempts = Math.max(retried.attempts, failed.attempts + 1);
+                pendingSum = pendingSum.add(failed.net);
+                operations++;
+            }
+            buffer.markDirty(WriteBehindAccount.this);
+        }
+
+    }
+
+    private static final class Pending {
+
+        private BigDecimal net = BigDecimal.ZERO;
+        private EconomyTransactionImportance importance = EconomyTransactionImportance.LOW;
+        private String reason;
+        // the failed attempts to write the net transaction
+        private int attempts = 0;
+
+        private Pending(@Nullable String reason) {
+            this.reason = reason;
+        }
+
+        private void add(
+                @NotNull BigDecimal signed,
+                @NotNull EconomyTransactionImportance importance,
+                @Nullable String reason
+        ) {
+            net = net.add(signed);
+            if (importance.ordinal() > this.importance.ordinal()) {
+                this.importance = importance;
+            }
+            if (this.reason != null && !this.reason.equals(reason)) {
+                // the net transaction cannot carry different reasons
+                this.reason = null;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,308 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.account;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Owns the {@link WriteBehindAccount write-behind accounts} of a plugin and flushes them
+ * periodically.
+ * <p>Plugins doing many small deposits and withdrawals (e.g. jobs or farming plugins) can
+ * {@link #wrap(Account) wrap} the accounts they modify, so that their transactions are
+ * accumulated in memory and written to the economy provider as a single net transaction per
+ * account, currency and cause, at most every {@link Builder#withFlushInterval(long, TimeUnit)
+ * flush interval}. Plugins must call {@link #shutdown()} when disabling, so that no pending
+ * transaction is lost. Net transactions failing to be written are reported to the
+ * {@link Builder#withErrorHandler(Consumer) error handler} and retried on the next flushes, up
+ * to the {@link Builder#withMaxAttempts(int) maximum attempts}.
+ * <p>An account is wrapped once per buffer, so that all the transactions buffered for it are
+ * validated against the same projected balance. The wrappers are kept until the buffer is
+ * shut down.
+ *
+ * @see WriteBehindAccount
+ * @since 2.1.0
+ */
+public final class WriteBehindBuffer {
+
+    /**
+     * Creates a new {@link WriteBehindBuffer.Builder}
+     *
+     * @return new builder
+     */
+    @NotNull
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    private final int maxPendingOperations;
+    private final int maxAttempts;
+    private final Consumer<Throwable> errorHandler;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    private final ScheduledFuture<?> flushTask;
+    private final Set<WriteBehindAccount> dirty = ConcurrentHashMap.newKeySet();
+    // keyed by the account data of player and non-player accounts, else by the account itself
+    private final Map<Object, WriteBehindAccount> accounts = new ConcurrentHashMap<>();
+    private volatile boolean shutdown = false;
+
+    private WriteBehindBuffer(@NotNull Builder builder) {
+        this.maxPendingOperations = builder.maxPendingOperations;
+        this.maxAttempts = builder.maxAttempts;
+        this.errorHandler = builder.errorHandler;
+        if (builder.scheduler != null) {
+            this.scheduler = builder.scheduler;
+            this.ownsScheduler = false;
+        } else {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "Treasury Write-Behind Flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.ownsScheduler = true;
+        }
+        this.flushTask = scheduler.scheduleWithFixedDelay(this::flushAll,
+                builder.flushIntervalMillis,
+                builder.flushIntervalMillis,
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Returns the {@link WriteBehindAccount} of the specified {@link Account}, flushed by this
+     * buffer. Wrapping the same account again, even through another instance, returns the same
+     * write-behind account.
+     *
+     * @param account the account to wrap
+     * @return write-behind account
+     * @throws IllegalStateException if this buffer has been shut down
+     */
+    @NotNull
+    public WriteBehindAccount wrap(@NotNull Account account) {
+        Objects.requireNonNull(account, "account");
+        if (shutdown) {
+            throw new IllegalStateException("Buffer has been shut down");
+        }
+        if (account instanceof WriteBehindAccount && ((WriteBehindAccount) account).getBuffer() == this) {
+            return (WriteBehindAccount) account;
+        }
+        Object key = account instanceof PlayerAccount || account instanceof NonPlayerAccount
+                ? AccountData.forAccount(account)
+                : account;
+        return accounts.computeIfAbsent(key, $ -> new WriteBehindAccount(this, account));
+    }
+
+    /**
+     * Flushes the pending transactions of all the accounts of this buffer.
+     *
+     * @return future, completed when all the pending transactions have been written
+     */
+    @NotNull
+    public CompletableFuture<Void> flushAll() {
+        List<CompletableFuture<Void>> flushes = new ArrayList<>();
+        for (WriteBehindAccount account : dirty) {
+            dirty.remove(account);
+            flushes.add(account.flush());
+        }
+        return CompletableFuture.allOf(flushes.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Stops the periodic flushing and flushes all the pending transactions. Accounts of this
+     * buffer do not buffer anymore afterwards.
+     * <p>Net transactions failing to be written are not retried periodically anymore. They
+     * stay pending, to be written by {@link #flushAll()} or the next transaction of their
+     * account, until their attempts are exhausted.
+     *
+     * @return future, completed when all the pending transactions have been written, or
+     *         completed exceptionally with a {@link TreasuryException} if some could not be
+     *         written
+     */
+    @NotNull
+    public CompletableFuture<Void> shutdown() {
+        shutdown = true;
+        flushTask.cancel(false);
+        CompletableFuture<Void> ret = flushAll().thenCompose($ -> {
+            // failed net transactions mark their accounts dirty again
+            int failed = dirty.size();
+            return failed == 0
+                    ? CompletableFuture.completedFuture(null)
+                    : FutureHelper.failedFuture(new TreasuryException(
+                            "Could not write the pending transactions of " + failed + " accounts"));
+        });
+        accounts.clear();
+        if (ownsScheduler) {
+            scheduler.shutdown();
+        }
+        return ret;
+    }
+
+    boolean isShutdown() {
+        return shutdown;
+    }
+
+    int getMaxPendingOperations() {
+        return maxPendingOperations;
+    }
+
+    int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    void markDirty(@NotNull WriteBehindAccount account) {
+        dirty.add(account);
+    }
+
+    void handleError(@NotNull Throwable error) {
+        errorHandler.accept(error);
+    }
+
+    /**
+     * Represents a builder of {@link WriteBehindBuffer}
+     *
+     * @since 2.1.0
+     */
+    public static final class Builder {
+
+        private long flushIntervalMillis = 5000;
+        private int maxPendingOperations = 100;
+        private int maxAttempts = 3;
+        private ScheduledExecutorService scheduler;
+        private Consumer<Throwable> errorHandler;
+
+        private Builder() {
+        }
+
+        /**
+         * Specify the maximum time pending transactions are held before being written. Defaults
+         * to 5 seconds.
+         *
+         * @param interval flush interval
+         * @param unit     unit of the interval
+         * @return this instance for chaining
+         */
+        @Contract("_, _ -> this")
+        public Builder withFlushInterval(long interval, @NotNull TimeUnit unit) {
+            long millis = Objects.requireNonNull(unit, "unit").toMillis(interval);
+            if (millis <= 0) {
+                throw new IllegalArgumentException("Flush interval must be positive");
+            }
+            this.flushIntervalMillis = millis;
+            return this;
+        }
+
+        /**
+         * Specify the count of pending transactions of an account and currency, at which they
+         * are written without waiting for the flush interval. Defaults to 100.
+         *
+         * @param maxPendingOperations max pending operations
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withMaxPendingOperations(int maxPendingOperations) {
+            if (maxPendingOperations <= 0) {
+                throw new IllegalArgumentException("Max pending operations must be positive");
+            }
+            this.maxPendingOperations = maxPendingOperations;
+            return this;
+        }
+
+        /**
+         * Specify how many times a net transaction is tried to be written, before it is dropped
+         * and reported to the {@link #withErrorHandler(Consumer) error handler} as lost.
+         * Defaults to 3.
+         *
+         * @param maxAttempts max attempts
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withMaxAttempts(int maxAttempts) {
+            if (maxAttempts <= 0) {
+                throw new IllegalArgumentException("Max attempts must be positive");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Specify the scheduler the periodic flushes are run on. If not specified, the buffer
+         * creates its own single daemon thread, which is stopped on {@link #shutdown()}.
+         *
+         * @param scheduler scheduler
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withScheduler(@NotNull ScheduledExecutorService scheduler) {
+            this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+            return this;
+        }
+
+        /**
+         * Specify the handler of the errors of the flushes. It is called once per net
+         * transaction the wrapped account failed to do, which is kept pending and retried on
+         * the next flush, and once more when it is dropped after its
+         * {@link #withMaxAttempts(int) last attempt}. Either this or a
+         * {@link #withLogger(Logger) logger} is required.
+         *
+         * @param errorHandler error handler
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withErrorHandler(@NotNull Consumer<Throwable> errorHandler) {
+            this.errorHandler = Objects.requireNonNull(errorHandler, "errorHandler");
+            return this;
+        }
+
+        /**
+         * Specify the logger the errors of the flushes are logged to, usually the logger of
+         * the plugin owning the buffer. Shorthand for an
+         * {@link #withErrorHandler(Consumer) error handler} logging at {@link Level#SEVERE}.
+         *
+         * @param logger logger
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withLogger(@NotNull Logger logger) {
+            Objects.requireNonNull(logger, "logger");
+            return withErrorHandler(error -> logger.log(Level.SEVERE,
+                    "Could not write pending transactions",
+                    error
+            ));
+        }
+
+        /**
+         * Builds the specified stuff into a new {@link WriteBehindBuffer} and starts its
+         * periodic flushing.
+         *
+         * @return write-behind buffer
+         * @throws IllegalStateException if neither an error handler nor a logger is specified
+         */
+        @NotNull
+        public WriteBehindBuffer build() {
+            if (errorHandler == null) {
+                throw new IllegalStateException("No error handler or logger specified");
+            }
+            return new WriteBehindBuffer(this);
+        }
+
+    }
+
+}
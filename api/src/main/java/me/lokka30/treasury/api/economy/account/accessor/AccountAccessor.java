@@ -4,6 +4,9 @@
 
 package me.lokka30.treasury.api.economy.account.accessor;
 
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import me.lokka30.treasury.api.common.NamespacedKey;
 import me.lokka30.treasury.api.economy.account.NonPlayerAccount;
 import me.lokka30.treasury.api.economy.account.PlayerAccount;
 import org.jetbrains.annotations.NotNull;
@@ -14,7 +17,11 @@ import org.jetbrains.annotations.NotNull;
  * {@link NonPlayerAccount non-player accounts}, through the
  * {@link PlayerAccountAccessor} and
  * {@link NonPlayerAccountAccessor} classes respectively.
+ * <p>The accessors themselves are mutable builders, which shall not be shared between threads.
+ * The {@link #player(UUID)} and {@link #nonPlayer(NamespacedKey)} entry points are safe to call
+ * from any thread.
  *
+ * @see InterningAccountAccessor
  * @author MrIvanPlays
  * @since 2.0.0
  */
@@ -34,4 +41,35 @@ public interface AccountAccessor {
      */
     @NotNull NonPlayerAccountAccessor nonPlayer();
 
+    /**
+     * Gets or creates the {@link PlayerAccount player account} of the specified player.
+     * <p>Unlike {@link #player()}, this has no mutable state and is safe to call from any
+     * thread. The default implementation goes through a short-lived {@link #player()} accessor.
+     * Providers are encouraged to override this without allocating an accessor.
+     *
+     * @param uniqueId account owner uuid
+     * @return the resulting player account
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<PlayerAccount> player(@NotNull UUID uniqueId) {
+        return this.player().withUniqueId(uniqueId).get();
+    }
+
+    /**
+     * Gets or creates the {@link NonPlayerAccount non-player account} with the specified
+     * identifier.
+     * <p>Unlike {@link #nonPlayer()}, this has no mutable state and is safe to call from any
+     * thread. The default implementation goes through a short-lived {@link #nonPlayer()}
+     * accessor. Providers are encouraged to override this without allocating an accessor.
+     *
+     * @param identifier account identifier
+     * @return the resulting non-player account
+     * @since 2.1.0
+     */
+    @NotNull
+    default CompletableFuture<NonPlayerAccount> nonPlayer(@NotNull NamespacedKey identifier) {
+        return this.nonPlayer().withIdentifier(identifier).get();
+    }
+
 }
@@ -0,0 +1,229 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.account.accessor;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import me.lokka30.treasury.api.common.NamespacedKey;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.account.NonPlayerAccount;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An {@link AccountAccessor} in front of another one, which hands out a single account instance
+ * per account.
+ * <p>Concurrent callers asking for the same account share a single in-flight load, and
+ * callers asking for an account, which is still referenced somewhere, get that very instance
+ * without any I/O. The accounts are only weakly referenced, so that accounts nobody uses
+ * anymore can be garbage collected.
+ * <p>An economy provider opts into this by returning an instance from its
+ * {@link EconomyProvider#accountAccessor()}, wrapping its own accessor:
+ * <pre>
+ * private final AccountAccessor accountAccessor = new InterningAccountAccessor(
+ *         this, new MyAccountAccessor());
+ * </pre>
+ *
+ * @since 2.1.0
+ */
+public final class InterningAccountAccessor implements AccountAccessor {
+
+    private final EconomyProvider provider;
+    private final AccountAccessor delegate;
+    private final Interner<UUID, PlayerAccount> players = new Interner<>();
+    private final Interner<NamespacedKey, NonPlayerAccount> nonPlayers = new Interner<>();
+
+    /**
+     * Creates a new {@code InterningAccountAccessor}
+     *
+     * @param provider the economy provider the accounts belong to
+     * @param delegate the accessor actually retrieving the accounts
+     */
+    public InterningAccountAccessor(
+            @NotNull EconomyProvider provider, @NotNull AccountAccessor delegate
+    ) {
+        this.provider = Objects.requireNonNull(provider, "provider");
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    @Override
+    public @NotNull PlayerAccountAccessor player() {
+        return new PlayerAccountAccessor(provider) {
+            @Override
+            protected @NotNull CompletableFuture<PlayerAccount> getOrCreate(@NotNull PlayerAccountCreateContext context) {
+                return player(context.getUniqueId());
+            }
+
+            @Override
+            protected @NotNull CompletableFuture<Optional<PlayerAccount>> findExisting(@NotNull PlayerAccountCreateContext context) {
+                UUID uniqueId = context.getUniqueId();
+                PlayerAccount interned = players.getIfPresent(uniqueId);
+                if (interned != null) {
+                    return CompletableFuture.completedFuture(Optional.of(interned));
+                }
+                return delegate.player().withUniqueId(uniqueId).find().thenApply(found -> found.map(
+                        account -> players.intern(uniqueId, account)));
+            }
+        };
+    }
+
+    @Override
+    public @NotNull NonPlayerAccountAccessor nonPlayer() {
+        return new NonPlayerAccountAccessor(provider) {
+            @Override
+            protected @NotNull CompletableFuture<NonPlayerAccount> getOrCreate(@NotNull NonPlayerAccountCreateContext context) {
+                NamespacedKey identifier = context.getIdentifier();
+                return nonPlayers.get(identifier, () -> delegate
+                        .nonPlayer()
+                        .withIdentifier(identifier)
+                        .withName(context.getName())
+                        .get());
+            }
+
+            @Override
+            protected @NotNull CompletableFuture<Optional<NonPlayerAccount>> findExisting(
+                    @NotNull NonPlayerAccountCreateContext context
+            ) {
+                NamespacedKey identifier = context.getIdentifier();
+                NonPlayerAccount interned = nonPlayers.getIfPresent(identifier);
+                if (interned != null) {
+                    return CompletableFuture.completedFuture(Optional.of(interned));
+                }
+                return delegate.nonPlayer().withIdentifier(identifier).find().thenApply(found -> found.map(
+                        account -> nonPlayers.intern(identifier, account)));
+            }
+        };
+    }
+
+    @Override
+    public @NotNull CompletableFuture<PlayerAccount> player(@NotNull UUID uniqueId) {
+        Objects.requireNonNull(uniqueId, "uniqueId");
+        return players.get(uniqueId, () -> delegate.player(uniqueId));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<NonPlayerAccount> nonPlayer(@NotNull NamespacedKey identifier) {
+        Objects.requireNonNull(identifier, "identifier");
+        return nonPlayers.get(identifier, () -> delegate.nonPlayer(identifier));
+    }
+
+    /**
+     * Forgets the account instance handed out for the specified account, if any, e.g. after the
+     * account has been deleted. The next access loads the account again.
+     *
+     * @param accountData the account to forget
+     */
+    public void invalidate(@NotNull AccountData accountData) {
+        Objects.requireNonNull(accountData, "accountData");
+        accountData.getPlayerIdentifier().ifPresent(players::invalidate);
+        accountData.getNonPlayerIdentifier().ifPresent(nonPlayers::invalidate);
+    }
+
+    private static final class Interner<K, V> {
+
+        private final ConcurrentMap<K, WeakValue<K, V>> interned = new ConcurrentHashMap<>();
+        private final ConcurrentMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+        private final ReferenceQueue<V> collected = new ReferenceQueue<>();
+
+        @Nullable
+        V getIfPresent(@NotNull K key) {
+            purge();
+            WeakValue<K, V> ref = interned.get(key);
+            return ref == null ? null : ref.get();
+        }
+
+        @NotNull
+        CompletableFuture<V> get(@NotNull K key, @NotNull Supplier<CompletableFuture<V>> loader) {
+            V value = getIfPresent(key);
+            if (value != null) {
+                return CompletableFuture.completedFuture(value);
+            }
+            CompletableFuture<V> load = new CompletableFuture<>();
+            CompletableFuture<V> inFlight = loading.putIfAbsent(key, load);
+            if (inFlight != null) {
+                return inFlight;
+            }
+            // a load may have finished between the lookup and claiming the key
+            value = getIfPresent(key);
+            if (value != null) {
+                loading.remove(key, load);
+                load.complete(value);
+                return load;
+            }
+            CompletableFuture<V> loaded;
+            try {
+                loaded = loader.get();
+            } catch (RuntimeException e) {
+                loading.remove(key, load);
+                load.completeExceptionally(e);
+                return load;
+            }
+            loaded.whenComplete((result, ex) -> {
+                loading.remove(key, load);
+                if (ex != null) {
+                    load.completeExceptionally(ex);
+                } else {
+                    load.complete(intern(key, result));
+                }
+            });
+            return load;
+        }
+
+        @NotNull
+        V intern(@NotNull K key, @NotNull V value) {
+            purge();
+            WeakValue<K, V> ref = new WeakValue<>(key, value, collected);
+            while (true) {
+                WeakValue<K, V> existing = interned.putIfAbsent(key, ref);
+                if (existing == null) {
+                    return value;
+                }
+                V current = existing.get();
+                if (current != null) {
+                    return current;
+                }
+                if (interned.replace(key, existing, ref)) {
+                    return value;
+                }
+            }
+        }
+
+        void invalidate(@NotNull K key) {
+            interned.remove(key);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void purge() {
+            Reference<? extends V> ref;
+            while ((ref = collected.poll()) != null) {
+                WeakValue<K, V> value = (WeakValue<K, V>) ref;
+                interned.remove(value.key, value);
+            }
+        }
+
+    }
+
+    private static final class WeakValue<K, V> extends WeakReference<V> {
+
+        private final K key;
+
+        WeakValue(@NotNull K key, @NotNull V value, @NotNull ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+
+    }
+
+}
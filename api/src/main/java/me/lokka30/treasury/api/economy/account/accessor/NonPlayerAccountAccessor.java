@@ -5,10 +5,19 @@
 package me.lokka30.treasury.api.economy.account.accessor;
 
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import me.lokka30.treasury.api.common.NamespacedKey;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.common.service.Service;
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.economy.EconomyProvider;
 import me.lokka30.treasury.api.economy.account.Account;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.account.AccountExistenceFilter;
+import me.lokka30.treasury.api.economy.account.LazyNonPlayerAccount;
 import me.lokka30.treasury.api.economy.account.NonPlayerAccount;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -23,8 +32,28 @@ public abstract class NonPlayerAccountAccessor {
 
     private String name;
     private NamespacedKey identifier;
+    private final EconomyProvider provider;
 
+    /**
+     * Creates a new accessor, whose {@link #find()} falls back to the
+     * {@link EconomyProvider#hasAccount(AccountData) hasAccount} of the economy provider
+     * currently registered in the {@link ServiceRegistry}. Prefer specifying the economy
+     * provider.
+     */
     protected NonPlayerAccountAccessor() {
+        this.provider = null;
+    }
+
+    /**
+     * Creates a new accessor of the accounts of the specified {@link EconomyProvider}, whose
+     * {@link #find()} is by default composed from the
+     * {@link EconomyProvider#hasAccount(AccountData) hasAccount} of the specified provider.
+     *
+     * @param provider the economy provider this accessor belongs to
+     * @since 2.1.0
+     */
+    protected NonPlayerAccountAccessor(@NotNull EconomyProvider provider) {
+        this.provider = Objects.requireNonNull(provider, "provider");
     }
 
     /**
@@ -62,11 +91,44 @@ public abstract class NonPlayerAccountAccessor {
      */
     @NotNull
     public CompletableFuture<NonPlayerAccount> get() {
-        return this.getOrCreate(new NonPlayerAccountCreateContext(Objects.requireNonNull(identifier,
+        return this.get(new NonPlayerAccountCreateContext(Objects.requireNonNull(identifier,
                 "identifier"
         ), name));
     }
 
+    /**
+     * Returns a handle of the {@link NonPlayerAccount non player account} needed, without doing
+     * any I/O. The account is retrieved or created, as if by {@link #get()}, on the first
+     * operation done on the handle, so that a single operation costs a single round trip.
+     * <p>The default implementation returns a {@link LazyNonPlayerAccount}. Providers, which
+     * can fuse loading an account with an operation, may override this to return their own
+     * handle.
+     *
+     * @return a non-player account handle
+     * @since 2.1.0
+     */
+    @NotNull
+    public NonPlayerAccount lazy() {
+        NonPlayerAccountCreateContext context = new NonPlayerAccountCreateContext(Objects.requireNonNull(
+                identifier,
+                "identifier"
+        ), name);
+        return new LazyNonPlayerAccount(context.getIdentifier(), () -> this.get(context));
+    }
+
+    @NotNull
+    private CompletableFuture<NonPlayerAccount> get(@NotNull NonPlayerAccountCreateContext context) {
+        CompletableFuture<NonPlayerAccount> ret = this.getOrCreate(context);
+        Optional<AccountExistenceFilter> filter = this.existenceFilter();
+        if (!filter.isPresent()) {
+            return ret;
+        }
+        return ret.thenApply(account -> {
+            filter.get().created(AccountData.forNonPlayerAccount(account.identifier()));
+            return account;
+        });
+    }
+
     /**
      * Does the same as what {@link #get()} does, but returns a generic {@link Account}
      * interface, rather a specific {@link NonPlayerAccount} interface.
@@ -78,11 +140,76 @@ public abstract class NonPlayerAccountAccessor {
         return this.get().thenApply(Function.identity());
     }
 
+    /**
+     * Retrieves the {@link NonPlayerAccount non player account} needed, if it exists. Unlike
+     * {@link #get()}, this never creates an account. The name, if specified, is ignored.
+     *
+     * @return the resulting non-player account, or an empty optional if there is none
+     * @since 2.1.0
+     */
+    @NotNull
+    public CompletableFuture<Optional<NonPlayerAccount>> find() {
+        return this.findExisting(new NonPlayerAccountCreateContext(Objects.requireNonNull(
+                identifier,
+                "identifier"
+        ), name));
+    }
+
     @NotNull
     protected abstract CompletableFuture<NonPlayerAccount> getOrCreate(
             @NotNull NonPlayerAccountCreateContext context
     );
 
+    /**
+     * Retrieves the {@link NonPlayerAccount non player account} described by the specified
+     * context, if it exists, without creating it.
+     * <p>The default implementation checks whether the account exists and then calls
+     * {@link #getOrCreate(NonPlayerAccountCreateContext)}, which is two round trips. Providers
+     * are encouraged to override this with a single lookup.
+     *
+     * @param context the account context
+     * @return the existing non-player account, or an empty optional if there is none
+     * @since 2.1.0
+     */
+    @NotNull
+    protected CompletableFuture<Optional<NonPlayerAccount>> findExisting(
+            @NotNull NonPlayerAccountCreateContext context
+    ) {
+        return this
+                .hasAccount(AccountData.forNonPlayerAccount(context.getIdentifier()))
+                .thenCompose(exists -> exists
+                        ? this.getOrCreate(context).thenApply(Optional::of)
+                        : CompletableFuture.completedFuture(Optional.empty()));
+    }
+
+    @NotNull
+    private CompletableFuture<Boolean> hasAccount(@NotNull AccountData accountData) {
+        EconomyProvider provider = this.provider();
+        if (provider == null) {
+            return FutureHelper.failedFuture(new TreasuryException(
+                    "No economy provider is registered"));
+        }
+        Optional<AccountExistenceFilter> filter = provider.accountExistenceFilter();
+        return filter.isPresent()
+                ? filter.get().hasAccount(accountData)
+                : provider.hasAccount(accountData);
+    }
+
+    @NotNull
+    private Optional<AccountExistenceFilter> existenceFilter() {
+        EconomyProvider provider = this.provider();
+        return provider == null ? Optional.empty() : provider.accountExistenceFilter();
+    }
+
+    @Nullable
+    private EconomyProvider provider() {
+        if (this.provider != null) {
+            return this.provider;
+        }
+        return ServiceRegistry.INSTANCE.serviceFor(EconomyProvider.class).map(Service::get).orElse(
+                null);
+    }
+
     /**
      * Represents a class, holder of data, needed to create/retrieve a {@link NonPlayerAccount}
      *
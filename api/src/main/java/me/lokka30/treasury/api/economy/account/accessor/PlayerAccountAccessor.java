@@ -5,12 +5,22 @@
 package me.lokka30.treasury.api.economy.account.accessor;
 
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.common.service.Service;
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.economy.EconomyProvider;
 import me.lokka30.treasury.api.economy.account.Account;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.account.AccountExistenceFilter;
+import me.lokka30.treasury.api.economy.account.LazyPlayerAccount;
 import me.lokka30.treasury.api.economy.account.PlayerAccount;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Provides access to {@link PlayerAccount player accounts}.
@@ -21,8 +31,28 @@ import org.jetbrains.annotations.NotNull;
 public abstract class PlayerAccountAccessor {
 
     private UUID uniqueId;
+    private final EconomyProvider provider;
 
+    /**
+     * Creates a new accessor, whose {@link #find()} falls back to the
+     * {@link EconomyProvider#hasAccount(AccountData) hasAccount} of the economy provider
+     * currently registered in the {@link ServiceRegistry}. Prefer specifying the economy
+     * provider.
+     */
     protected PlayerAccountAccessor() {
+        this.provider = null;
+    }
+
+    /**
+     * Creates a new accessor of the accounts of the specified {@link EconomyProvider}, whose
+     * {@link #find()} is by default composed from the
+     * {@link EconomyProvider#hasAccount(AccountData) hasAccount} of the specified provider.
+     *
+     * @param provider the economy provider this accessor belongs to
+     * @since 2.1.0
+     */
+    protected PlayerAccountAccessor(@NotNull EconomyProvider provider) {
+        this.provider = Objects.requireNonNull(provider, "provider");
     }
 
     /**
@@ -46,11 +76,43 @@ public abstract class PlayerAccountAccessor {
      */
     @NotNull
     public CompletableFuture<PlayerAccount> get() {
-        return this.getOrCreate(new PlayerAccountCreateContext(Objects.requireNonNull(uniqueId,
+        return this.get(new PlayerAccountCreateContext(Objects.requireNonNull(uniqueId,
                 "uniqueId"
         )));
     }
 
+    /**
+     * Returns a handle of the {@link PlayerAccount player account} needed, without doing any
+     * I/O. The account is retrieved or created, as if by {@link #get()}, on the first operation
+     * done on the handle, so that a single operation costs a single round trip.
+     * <p>The default implementation returns a {@link LazyPlayerAccount}. Providers, which can
+     * fuse loading an account with an operation, may override this to return their own handle.
+     *
+     * @return a player account handle
+     * @since 2.1.0
+     */
+    @NotNull
+    public PlayerAccount lazy() {
+        PlayerAccountCreateContext context = new PlayerAccountCreateContext(Objects.requireNonNull(
+                uniqueId,
+                "uniqueId"
+        ));
+        return new LazyPlayerAccount(context.getUniqueId(), () -> this.get(context));
+    }
+
+    @NotNull
+    private CompletableFuture<PlayerAccount> get(@NotNull PlayerAccountCreateContext context) {
+        CompletableFuture<PlayerAccount> ret = this.getOrCreate(context);
+        Optional<AccountExistenceFilter> filter = this.existenceFilter();
+        if (!filter.isPresent()) {
+            return ret;
+        }
+        return ret.thenApply(account -> {
+            filter.get().created(AccountData.forPlayerAccount(account.identifier()));
+            return account;
+        });
+    }
+
     /**
      * Does the same as what {@link #get()} does, but returns a generic {@link Account}
      * interface, rather a specific {@link PlayerAccount} interface.
@@ -62,9 +124,71 @@ public abstract class PlayerAccountAccessor {
         return this.get().thenApply(Function.identity());
     }
 
+    /**
+     * Retrieves the {@link PlayerAccount player account} needed, if it exists. Unlike
+     * {@link #get()}, this never creates an account.
+     *
+     * @return the resulting player account, or an empty optional if there is none
+     * @since 2.1.0
+     */
+    @NotNull
+    public CompletableFuture<Optional<PlayerAccount>> find() {
+        return this.findExisting(new PlayerAccountCreateContext(Objects.requireNonNull(uniqueId,
+                "uniqueId"
+        )));
+    }
+
     @NotNull
     protected abstract CompletableFuture<PlayerAccount> getOrCreate(@NotNull PlayerAccountCreateContext context);
 
+    /**
+     * Retrieves the {@link PlayerAccount player account} described by the specified context, if
+     * it exists, without creating it.
+     * <p>The default implementation checks whether the account exists and then calls
+     * {@link #getOrCreate(PlayerAccountCreateContext)}, which is two round trips. Providers are
+     * encouraged to override this with a single lookup.
+     *
+     * @param context the account context
+     * @return the existing player account, or an empty optional if there is none
+     * @since 2.1.0
+     */
+    @NotNull
+    protected CompletableFuture<Optional<PlayerAccount>> findExisting(@NotNull PlayerAccountCreateContext context) {
+        return this
+                .hasAccount(AccountData.forPlayerAccount(context.getUniqueId()))
+                .thenCompose(exists -> exists
+                        ? this.getOrCreate(context).thenApply(Optional::of)
+                        : CompletableFuture.completedFuture(Optional.empty()));
+    }
+
+    @NotNull
+    private CompletableFuture<Boolean> hasAccount(@NotNull AccountData accountData) {
+        EconomyProvider provider = this.provider();
+        if (provider == null) {
+            return FutureHelper.failedFuture(new TreasuryException(
+                    "No economy provider is registered"));
+        }
+        Optional<AccountExistenceFilter> filter = provider.accountExistenceFilter();
+        return filter.isPresent()
+                ? filter.get().hasAccount(accountData)
+                : provider.hasAccount(accountData);
+    }
+
+    @NotNull
+    private Optional<AccountExistenceFilter> existenceFilter() {
+        EconomyProvider provider = this.provider();
+        return provider == null ? Optional.empty() : provider.accountExistenceFilter();
+    }
+
+    @Nullable
+    private EconomyProvider provider() {
+        if (this.provider != null) {
+            return this.provider;
+        }
+        return ServiceRegistry.INSTANCE.serviceFor(EconomyProvider.class).map(Service::get).orElse(
+                null);
+    }
+
     /**
      * Represents a class, holder of data, needed to create/retrieve a {@link PlayerAccount}
      *
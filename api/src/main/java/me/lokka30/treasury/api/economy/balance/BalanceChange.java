@@ -0,0 +1,110 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a committed change of the balance of an account in a single currency, as
+ * delivered to {@link BalanceChangeListener balance change listeners}.
+ *
+ * @see me.lokka30.treasury.api.economy.EconomyProvider#subscribeBalanceChanges(BalanceChangeListener)
+ * @since 2.1.0
+ */
+public final class BalanceChange {
+
+    private final AccountData account;
+    private final String currencyId;
+    private final BigDecimal balance;
+    private final long version;
+
+    /**
+     * Creates a new {@code BalanceChange}
+     *
+     * @param account    the account whose balance changed
+     * @param currencyId the identifier of the currency whose balance changed
+     * @param balance    the new balance
+     * @param version    the version of the balance of the account after the change. Versions
+     *                   of an account increase with every change, so that listeners can detect
+     *                   out of order or missed changes.
+     */
+    public BalanceChange(
+            @NotNull AccountData account,
+            @NotNull String currencyId,
+            @NotNull BigDecimal balance,
+            long version
+    ) {
+        this.account = Objects.requireNonNull(account, "account");
+        this.currencyId = Objects.requireNonNull(currencyId, "currencyId");
+        this.balance = Objects.requireNonNull(balance, "balance");
+        this.version = version;
+    }
+
+    /**
+     * Returns the {@link AccountData} identifying the account whose balance changed.
+     *
+     * @return account data
+     */
+    @NotNull
+    public AccountData getAccount() {
+        return account;
+    }
+
+    /**
+     * Returns the identifier of the currency whose balance changed.
+     *
+     * @return currency id
+     */
+    @NotNull
+    public String getCurrencyId() {
+        return currencyId;
+    }
+
+    /**
+     * Returns the balance after the change.
+     *
+     * @return new balance
+     */
+    @NotNull
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    /**
+     * Returns the version of the balance of the account after the change.
+     *
+     * @return version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BalanceChange)) {
+            return false;
+        }
+        BalanceChange other = (BalanceChange) o;
+        return version == other.version && account.equals(other.account) && currencyId.equals(
+                other.currencyId) && balance.compareTo(other.balance) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(account, currencyId, balance.stripTrailingZeros(), version);
+    }
+
+    @Override
+    public String toString() {
+        return "BalanceChange{" + "account=" + account + ", currencyId='" + currencyId + '\'' + ", balance=" + balance + ", version=" + version + '}';
+    }
+
+}
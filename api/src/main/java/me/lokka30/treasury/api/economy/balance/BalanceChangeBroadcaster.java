@@ -0,0 +1,111 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A helper for economy providers, which keeps track of the
+ * {@link BalanceChangeListener balance change listeners} and delivers the changes they
+ * {@link #emit(BalanceChange) emit} to them.
+ * <p>Providers hold a single instance, return {@link #subscribe(BalanceChangeListener)} from
+ * their {@link me.lokka30.treasury.api.economy.EconomyProvider#subscribeBalanceChanges(BalanceChangeListener)}
+ * implementation and emit every committed balance change.
+ *
+ * @since 2.1.0
+ */
+public final class BalanceChangeBroadcaster {
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Consumer<Throwable> errorHandler;
+
+    /**
+     * Creates a new {@code BalanceChangeBroadcaster}, which prints the stack trace of the errors
+     * thrown by listeners.
+     */
+    public BalanceChangeBroadcaster() {
+        this(Throwable::printStackTrace);
+    }
+
+    /**
+     * Creates a new {@code BalanceChangeBroadcaster}
+     *
+     * @param errorHandler handler of the errors thrown by listeners
+     */
+    public BalanceChangeBroadcaster(@NotNull Consumer<Throwable> errorHandler) {
+        this.errorHandler = Objects.requireNonNull(errorHandler, "errorHandler");
+    }
+
+    /**
+     * Subscribes the specified listener.
+     *
+     * @param listener the listener
+     * @return the subscription of the listener
+     */
+    @NotNull
+    public BalanceSubscription subscribe(@NotNull BalanceChangeListener listener) {
+        Subscription subscription = new Subscription(Objects.requireNonNull(listener, "listener"));
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Returns whether there is at least one subscribed listener. Providers may use this to skip
+     * creating changes nobody listens to.
+     *
+     * @return whether there are listeners
+     */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Delivers the specified change to all the subscribed listeners, on the calling thread. An
+     * error thrown by a listener does not prevent the other listeners from receiving the
+     * change.
+     *
+     * @param change the committed change
+     */
+    public void emit(@NotNull BalanceChange change) {
+        Objects.requireNonNull(change, "change");
+        for (Subscription subscription : subscriptions) {
+            if (subscription.cancelled) {
+                continue;
+            }
+            try {
+                subscription.listener.onBalanceChange(change);
+            } catch (Throwable e) {
+                errorHandler.accept(e);
+            }
+        }
+    }
+
+    private final class Subscription implements BalanceSubscription {
+
+        private final BalanceChangeListener listener;
+        private volatile boolean cancelled = false;
+
+        private Subscription(@NotNull BalanceChangeListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+    }
+
+}
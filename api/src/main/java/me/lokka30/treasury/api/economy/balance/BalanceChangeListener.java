@@ -0,0 +1,27 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a listener of {@link BalanceChange balance changes}.
+ * <p>Listeners are called on the thread committing the change, hence they should return
+ * quickly and hand off any heavy work.
+ *
+ * @see me.lokka30.treasury.api.economy.EconomyProvider#subscribeBalanceChanges(BalanceChangeListener)
+ * @since 2.1.0
+ */
+@FunctionalInterface
+public interface BalanceChangeListener {
+
+    /**
+     * Called after a balance change has been committed.
+     *
+     * @param change the balance change
+     */
+    void onBalanceChange(@NotNull BalanceChange change);
+
+}
@@ -0,0 +1,64 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a function computing the new balance of an account from its current balance, as
+ * applied to many accounts at once by
+ * {@link me.lokka30.treasury.api.economy.EconomyProvider#applyToAll(me.lokka30.treasury.api.economy.currency.Currency, BalanceFunction, me.lokka30.treasury.api.common.Cause, java.util.function.Predicate)}.
+ * <p>The factory methods of this interface describe the common operations (interest, taxes,
+ * resets).
+ *
+ * @since 2.1.0
+ */
+@FunctionalInterface
+public interface BalanceFunction {
+
+    /**
+     * Returns a {@code BalanceFunction} setting every balance to the specified value, e.g. for
+     * season resets.
+     *
+     * @param balance the new balance
+     * @return balance function
+     */
+    @NotNull
+    static BalanceFunction constant(@NotNull BigDecimal balance) {
+        Objects.requireNonNull(balance, "balance");
+        return $ -> balance;
+    }
+
+    /**
+     * Returns a {@code BalanceFunction} multiplying every balance by the specified factor,
+     * rounded to the specified scale, e.g. {@code 1.05} for a 5% interest or {@code 0.98} for
+     * a 2% wealth tax.
+     *
+     * @param factor the factor
+     * @param scale  the scale of the resulting balances
+     * @param mode   the rounding mode of the resulting balances
+     * @return balance function
+     */
+    @NotNull
+    static BalanceFunction multiply(
+            @NotNull BigDecimal factor, int scale, @NotNull RoundingMode mode
+    ) {
+        Objects.requireNonNull(factor, "factor");
+        Objects.requireNonNull(mode, "mode");
+        return balance -> balance.multiply(factor).setScale(scale, mode);
+    }
+
+    /**
+     * Computes the new balance from the specified current balance.
+     *
+     * @param balance the current balance
+     * @return the new balance
+     */
+    @NotNull BigDecimal apply(@NotNull BigDecimal balance);
+
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents an amount reserved from the balance of an account, as placed by
+ * {@link me.lokka30.treasury.api.economy.account.Account#placeHold(BigDecimal, Currency, Duration)}.
+ * <p>While a hold is active, its amount is not available to other holds of the account. A hold
+ * ends by either being {@link #capture(Cause) captured}, which withdraws its amount, being
+ * {@link #release() released}, which writes nothing, or by expiring.
+ * <p>Unless the economy provider supports holds natively, holds are advisory: transactions on
+ * the account do not respect them, so capturing a hold may fail for an insufficient balance.
+ *
+ * @since 2.1.0
+ */
+public interface BalanceHold {
+
+    /**
+     * Returns the unique identifier of this hold.
+     *
+     * @return identifier
+     */
+    @NotNull UUID getIdentifier();
+
+    /**
+     * Returns the reserved amount.
+     *
+     * @return amount
+     */
+    @NotNull BigDecimal getAmount();
+
+    /**
+     * Returns the {@link Currency} of the reserved amount.
+     *
+     * @return currency
+     */
+    @NotNull Currency getCurrency();
+
+    /**
+     * Returns when this hold expires, unless captured or released before.
+     *
+     * @return expiry
+     */
+    @NotNull Instant getExpiresAt();
+
+    /**
+     * Returns whether this hold still reserves its amount, i.e. it has neither been captured,
+     * released nor expired.
+     *
+     * @return whether active
+     */
+    boolean isActive();
+
+    /**
+     * Captures this hold, withdrawing its amount from the account.
+     *
+     * @param cause the cause of the withdrawal
+     * @return future completed with the new balance, or completed exceptionally if this hold is
+     *         no longer active or the withdrawal failed, in which case the hold has ended
+     */
+    @NotNull CompletableFuture<BigDecimal> capture(@NotNull Cause<?> cause);
+
+    /**
+     * Releases this hold, making its amount available again without any transaction.
+     *
+     * @return whether this hold was active and has been released
+     */
+    @NotNull CompletableFuture<Boolean> release();
+
+}
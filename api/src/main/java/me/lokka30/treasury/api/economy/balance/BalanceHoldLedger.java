@@ -0,0 +1,327 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.EconomyProviderService;
+import me.lokka30.treasury.api.economy.account.Account;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Keeps the {@link BalanceHold balance holds} of the accounts of an {@link EconomyProvider} in
+ * memory, for providers which do not support holds natively.
+ * <p>Placing a hold checks the balance of the account against the amount already held and
+ * reserves the amount without any transaction. Only capturing a hold withdraws from the account,
+ * so that a hold, which is released or expires, costs no write and fires no event. Holds are not
+ * persisted and are lost on restart.
+ * <p>Holds kept by a ledger are advisory. The ledger does not see the transactions of the
+ * accounts, so withdrawals may still spend a held amount, in which case capturing the hold
+ * fails like an insufficient withdrawal. Only providers supporting holds natively can enforce
+ * the available balance.
+ * <p>Expired holds stop reserving their amount right away and are removed in batches, at most
+ * once per sweep interval, on the next use of the ledger.
+ *
+ * @see EconomyProvider#balanceHoldLedger()
+ * @since 2.1.0
+ */
+public final class BalanceHoldLedger implements EconomyProviderService {
+
+    private final EconomyProvider provider;
+    private final long sweepIntervalMillis;
+    private final Map<AccountData, List<Hold>> holds = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong();
+
+    /**
+     * Creates a new {@code BalanceHoldLedger}
+     *
+     * @param provider      the economy provider whose accounts this ledger holds balances of
+     * @param sweepInterval the minimum interval between removals of expired holds
+     * @param unit          the unit of the sweep interval
+     */
+    public BalanceHoldLedger(
+            @NotNull EconomyProvider provider, long sweepInterval, @NotNull TimeUnit unit
+    ) {
+        this.provider = Objects.requireNonNull(provider, "provider");
+        this.sweepIntervalMillis = Objects.requireNonNull(unit, "unit").toMillis(Math.max(
+                sweepInterval,
+                0
+        ));
+    }
+
+    /**
+     * Returns the {@link EconomyProvider} whose accounts this ledger holds balances of.
+     *
+     * @return economy provider
+     */
+    @NotNull
+    public EconomyProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Returns whether this ledger covers the accounts of the specified {@link EconomyProvider}.
+     *
+     * @param provider economy provider
+     * @return whether this ledger can be used for the specified provider
+     */
+    @Override
+    public boolean covers(@NotNull EconomyProvider provider) {
+        return this.provider == provider;
+    }
+
+    /**
+     * Places a hold of the specified amount on the specified account.
+     *
+     * @param accountData the identity of the account
+     * @param account     the account, which is withdrawn from on capture
+     * @param amount      the amount to reserve, must be positive
+     * @param currency    the currency of the amount
+     * @param ttl         the time after which the hold expires, must be positive
+     * @return future completed with the hold, or completed exceptionally with a
+     *         {@link TreasuryException} if the available balance is insufficient
+     */
+    @NotNull
+    public CompletableFuture<BalanceHold> placeHold(
+            @NotNull AccountData accountData,
+            @NotNull Account account,
+            @NotNull BigDecimal amount,
+            @NotNull Currency currency,
+            @NotNull Duration ttl
+    ) {
+        Objects.requireNonNull(accountData, "accountData");
+        Objects.requireNonNull(account, "account");
+        Objects.requireNonNull(amount, "amount");
+        Objects.requireNonNull(currency, "currency");
+        Objects.requireNonNull(ttl, "ttl");
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive, got " + amount);
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive, got " + ttl);
+        }
+
+        sweepIfDue();
+        return account.retrieveBalance(currency).thenCompose(balance -> {
+            while (true) {
+                List<Hold> accountHolds = holds.computeIfAbsent(accountData, $ -> new ArrayList<>());
+                synchronized (accountHolds) {
+                    if (holds.get(accountData) != accountHolds) {
+                        // swept away in between
+                        continue;
+                    }
+                    BigDecimal available = balance.subtract(held(accountHolds, currency.getIdentifier()));
+                    if (available.compareTo(amount) < 0) {
+                        return FutureHelper.failedFuture(new TreasuryException(
+                                "Insufficient available balance to hold " + amount + ", available is " + available));
+                    }
+                    Hold hold = new Hold(accountData,
+                            account,
+                            amount,
+                            currency,
+                            Instant.now().plus(ttl)
+                    );
+                    accountHolds.add(hold);
+                    return CompletableFuture.<BalanceHold>completedFuture(hold);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the amount currently held on the specified account in the specified currency.
+     *
+     * @param accountData the identity of the account
+     * @param currencyId  the identifier of the currency
+     * @return held amount
+     */
+    @NotNull
+    public BigDecimal getHeldBalance(@NotNull AccountData accountData, @NotNull String currencyId) {
+        Objects.requireNonNull(accountData, "accountData");
+        Objects.requireNonNull(currencyId, "currencyId");
+
+        sweepIfDue();
+        List<Hold> accountHolds = holds.get(accountData);
+        if (accountHolds == null) {
+            return BigDecimal.ZERO;
+        }
+        synchronized (accountHolds) {
+            return held(accountHolds, currencyId);
+        }
+    }
+
+    /**
+     * Removes all the holds, which have expired, right away.
+     *
+     * @return the number of removed holds
+     */
+    public int sweepExpired() {
+        long now = System.currentTimeMillis();
+        AtomicInteger removed = new AtomicInteger();
+        holds.forEach((accountData, accountHolds) -> {
+            synchronized (accountHolds) {
+                Iterator<Hold> iterator = accountHolds.iterator();
+                while (iterator.hasNext()) {
+                    Hold hold = iterator.next();
+                    if (hold.expireIfDue(now)) {
+                        iterator.remove();
+                        removed.incrementAndGet();
+                    }
+                }
+                if (accountHolds.isEmpty()) {
+                    holds.remove(accountData, accountHolds);
+                }
+            }
+        });
+        return removed.get();
+    }
+
+    private void sweepIfDue() {
+        long now = System.currentTimeMillis();
+        long due = nextSweep.get();
+        if (now >= due && nextSweep.compareAndSet(due, now + sweepIntervalMillis)) {
+            sweepExpired();
+        }
+    }
+
+    private void remove(@NotNull Hold hold) {
+        List<Hold> accountHolds = holds.get(hold.accountData);
+        if (accountHolds == null) {
+            return;
+        }
+        synchronized (accountHolds) {
+            accountHolds.remove(hold);
+            if (accountHolds.isEmpty()) {
+                holds.remove(hold.accountData, accountHolds);
+            }
+        }
+    }
+
+    @NotNull
+    private static BigDecimal held(@NotNull List<Hold> accountHolds, @NotNull String currencyId) {
+        long now = System.currentTimeMillis();
+        BigDecimal held = BigDecimal.ZERO;
+        for (Hold hold : accountHolds) {
+            if (hold.reserves(now) && hold.currency.getIdentifier().equals(currencyId)) {
+                held = held.add(hold.amount);
+            }
+        }
+        return held;
+    }
+
+    private final class Hold implements BalanceHold {
+
+        private static final int ACTIVE = 0;
+        private static final int CAPTURING = 1;
+        private static final int ENDED = 2;
+
+        private final UUID identifier = UUID.randomUUID();
+        private final AccountData accountData;
+        private final Account account;
+        private final BigDecimal amount;
+        private final Currency currency;
+        private final Instant expiresAt;
+        private final AtomicInteger state = new AtomicInteger(ACTIVE);
+
+        private Hold(
+                @NotNull AccountData accountData,
+                @NotNull Account account,
+                @NotNull BigDecimal amount,
+                @NotNull Currency currency,
+                @NotNull Instant expiresAt
+        ) {
+            this.accountData = accountData;
+            this.account = account;
+            this.amount = amount;
+            this.currency = currency;
+            this.expiresAt = expiresAt;
+        }
+
+        @Override
+        public @NotNull UUID getIdentifier() {
+            return identifier;
+        }
+
+        @Override
+        public @NotNull BigDecimal getAmount() {
+            return amount;
+        }
+
+        @Override
+        public @NotNull Currency getCurrency() {
+            return currency;
+        }
+
+        @Override
+        public @NotNull Instant getExpiresAt() {
+            return expiresAt;
+        }
+
+        @Override
+        public boolean isActive() {
+            return state.get() == ACTIVE && !expired(System.currentTimeMillis());
+        }
+
+        @Override
+        public @NotNull CompletableFuture<BigDecimal> capture(@NotNull Cause<?> cause) {
+            Objects.requireNonNull(cause, "cause");
+            if (expired(System.currentTimeMillis()) || !state.compareAndSet(ACTIVE, CAPTURING)) {
+                return FutureHelper.failedFuture(new TreasuryException("Hold " + identifier + " is no longer active"));
+            }
+            // the amount stays reserved until it has been withdrawn
+            return account.withdrawBalance(amount, cause, currency).whenComplete(($, ex) -> {
+                state.set(ENDED);
+                remove(this);
+            });
+        }
+
+        @Override
+        public @NotNull CompletableFuture<Boolean> release() {
+            boolean released = state.compareAndSet(ACTIVE, ENDED);
+            if (released) {
+                remove(this);
+            }
+            return CompletableFuture.completedFuture(released);
+        }
+
+        private boolean reserves(long now) {
+            int state = this.state.get();
+            return state == CAPTURING || (state == ACTIVE && !expired(now));
+        }
+
+        private boolean expired(long now) {
+            return now >= expiresAt.toEpochMilli();
+        }
+
+        private boolean expireIfDue(long now) {
+            return expired(now) && state.compareAndSet(ACTIVE, ENDED);
+        }
+
+        @Override
+        public String toString() {
+            return "BalanceHold{" + "identifier=" + identifier + ", amount=" + amount + ", currency=" + currency.getIdentifier() + ", expiresAt=" + expiresAt + ", active=" + isActive() + '}';
+        }
+
+    }
+
+}
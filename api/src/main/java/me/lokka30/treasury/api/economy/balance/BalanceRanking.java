@@ -0,0 +1,129 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.EconomyProviderService;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a ranking of the balances of all the
+ * {@link me.lokka30.treasury.api.economy.account.PlayerAccount player accounts} of an
+ * {@link EconomyProvider}, which lets
+ * {@link EconomyProvider#retrieveTopBalances(me.lokka30.treasury.api.economy.currency.Currency, int, int)}
+ * and {@link EconomyProvider#retrieveRank(UUID, me.lokka30.treasury.api.economy.currency.Currency)}
+ * answer without reading and sorting the balances of every account.
+ * <p>Treasury maintains a {@link MemoryBalanceRanking} for the economy provider in use.
+ * Providers, which are able to rank balances in their storage (e.g. with an indexed query),
+ * may supply their own ranking by overriding {@link EconomyProvider#balanceRanking()}.
+ * <p>Balances are ranked from the highest to the lowest, players with equal balances are
+ * ordered by their {@link UUID}.
+ *
+ * @see MemoryBalanceRanking
+ * @since 2.1.0
+ */
+public interface BalanceRanking extends EconomyProviderService {
+
+    /**
+     * Ranks the balances of all the player accounts of the specified {@link EconomyProvider} in
+     * the specified {@link Currency}, by reading them page by page. Accounts not holding the
+     * currency are not ranked.
+     * <p>This is the fallback used when no {@code BalanceRanking} covers the provider. It reads
+     * every player account, hence should be avoided for frequent lookups.
+     *
+     * @param provider the provider to read the balances from
+     * @param currency the currency
+     * @return all the ranked balances, from the highest to the lowest
+     */
+    @NotNull
+    static CompletableFuture<List<RankedBalance>> rankAll(
+            @NotNull EconomyProvider provider, @NotNull Currency currency
+    ) {
+        Objects.requireNonNull(provider, "provider");
+        Objects.requireNonNull(currency, "currency");
+
+        Map<UUID, BigDecimal> balances = new ConcurrentHashMap<>();
+        return provider.forEachPlayerAccountIdPage(
+                playerIds -> {
+                    List<CompletableFuture<Void>> futures = new ArrayList<>(playerIds.size());
+                    for (UUID playerId : playerIds) {
+                        futures.add(provider
+                                .accountAccessor()
+                                .player()
+                                .withUniqueId(playerId)
+                                .get()
+                                .thenCompose(account -> account
+                                        .retrieveHeldCurrencies()
+                                        .thenCompose(held -> held.contains(currency.getIdentifier())
+                                                ? account.retrieveBalance(currency)
+                                                : CompletableFuture.completedFuture(null)))
+                                .thenAccept(balance -> {
+                                    if (balance != null) {
+                                        balances.put(playerId, balance);
+                                    }
+                                }));
+                    }
+                    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+                }
+        ).thenApply($ -> {
+            List<Map.Entry<UUID, BigDecimal>> sorted = new ArrayList<>(balances.entrySet());
+            sorted.sort(Map.Entry.<UUID, BigDecimal>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            List<RankedBalance> ret = new ArrayList<>(sorted.size());
+            for (Map.Entry<UUID, BigDecimal> entry : sorted) {
+                ret.add(new RankedBalance(entry.getKey(), entry.getValue(), ret.size() + 1));
+            }
+            return ret;
+        });
+    }
+
+    /**
+     * Returns whether this ranking covers the player accounts of the specified
+     * {@link EconomyProvider} and is ready to be queried.
+     *
+     * @param provider economy provider
+     * @return whether this ranking can be used for the specified provider
+     */
+    @Override
+    boolean covers(@NotNull EconomyProvider provider);
+
+    /**
+     * Request the balances ranked from {@code offset + 1} to {@code offset + limit} in the
+     * currency with the specified identifier.
+     *
+     * @param currencyId the identifier of the currency
+     * @param offset     the count of the highest balances to skip
+     * @param limit      the maximum count of balances to return
+     * @return ranked balances, from the highest to the lowest
+     */
+    @NotNull CompletableFuture<List<RankedBalance>> retrieveTopBalances(
+            @NotNull String currencyId, int offset, int limit
+    );
+
+    /**
+     * Request the rank of the balance of the specified player in the currency with the
+     * specified identifier.
+     *
+     * @param playerId   the player
+     * @param currencyId the identifier of the currency
+     * @return ranked balance, or an empty optional if the player holds no balance in the
+     *         currency
+     */
+    @NotNull CompletableFuture<Optional<RankedBalance>> retrieveRank(
+            @NotNull UUID playerId, @NotNull String currencyId
+    );
+
+}
@@ -0,0 +1,159 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An approximate distribution of balances, which counts the balances in logarithmically sized
+ * buckets. Quantiles are estimated within {@link #RELATIVE_ACCURACY} of the actual balance,
+ * positive and negative balances are counted separately. Unlike a t-digest, balances can be
+ * removed again, which is needed when a balance changes.
+ * <p>Adding and removing a balance take O(1), estimating a quantile takes O(buckets). The
+ * count of buckets grows with the logarithm of the ratio of the highest to the lowest balance,
+ * e.g. about 2300 buckets for balances from {@code 0.0000000001} to {@code 10000000000}.
+ * <p>This class is not thread-safe.
+ *
+ * @since 2.1.0
+ */
+final class BalanceSketch {
+
+    /**
+     * The maximum relative error of the estimated quantiles.
+     */
+    static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private final Buckets positive;
+    private final Buckets negative;
+    private long zeroCount;
+    private long count;
+
+    BalanceSketch() {
+        this.positive = new Buckets();
+        this.negative = new Buckets();
+    }
+
+    private BalanceSketch(@NotNull BalanceSketch other) {
+        this.positive = new Buckets(other.positive);
+        this.negative = new Buckets(other.negative);
+        this.zeroCount = other.zeroCount;
+        this.count = other.count;
+    }
+
+    void add(@NotNull BigDecimal balance) {
+        update(balance, 1);
+    }
+
+    void remove(@NotNull BigDecimal balance) {
+        update(balance, -1);
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    @NotNull
+    BalanceSketch copy() {
+        return new BalanceSketch(this);
+    }
+
+    /**
+     * Estimates the balance at the specified quantile, e.g. {@code 0.5} for the median.
+     *
+     * @param quantile the quantile, from {@code 0} to {@code 1}
+     * @return estimated balance, or {@code 0} if no balance is counted
+     */
+    double quantile(double quantile) {
+        if (count <= 0) {
+            return 0;
+        }
+        long rank = (long) Math.floor(quantile * (count - 1));
+        long seen = 0;
+        // the most negative balance has the highest index
+        for (int i = negative.counts.length - 1; i >= 0; i--) {
+            seen += negative.counts[i];
+            if (seen > rank) {
+                return -value(negative.offset + i);
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < positive.counts.length; i++) {
+            seen += positive.counts[i];
+            if (seen > rank) {
+                return value(positive.offset + i);
+            }
+        }
+        // only reached if the counts are inconsistent
+        return positive.counts.length == 0 ? 0 : value(positive.offset + positive.counts.length - 1);
+    }
+
+    private void update(@NotNull BigDecimal balance, int delta) {
+        int signum = balance.signum();
+        if (signum == 0) {
+            zeroCount += delta;
+        } else if (signum > 0) {
+            positive.add(index(balance.doubleValue()), delta);
+        } else {
+            negative.add(index(-balance.doubleValue()), delta);
+        }
+        count += delta;
+    }
+
+    private static int index(double magnitude) {
+        double clamped = Math.min(Math.max(magnitude, Double.MIN_NORMAL), Double.MAX_VALUE);
+        return (int) Math.ceil(Math.log(clamped) / LOG_GAMMA);
+    }
+
+    private static double value(int index) {
+        // the value within the bucket with the lowest relative error to both of its bounds
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    private static final class Buckets {
+
+        private long[] counts;
+        private int offset;
+
+        Buckets() {
+            this.counts = new long[0];
+        }
+
+        Buckets(@NotNull Buckets other) {
+            this.counts = other.counts.clone();
+            this.offset = other.offset;
+        }
+
+        void add(int index, int delta) {
+            if (counts.length == 0) {
+                counts = new long[16];
+                offset = index - 8;
+            } else if (index < offset || index >= offset + counts.length) {
+                grow(index);
+            }
+            counts[index - offset] += delta;
+        }
+
+        private void grow(int index) {
+            int min = Math.min(offset, index);
+            int max = Math.max(offset + counts.length - 1, index);
+            int length = Math.max(max - min + 1, counts.length * 2);
+            // leave the free room on the side the buckets grew towards
+            int newOffset = index < offset ? max - length + 1 : min;
+            long[] grown = new long[length];
+            System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+            counts = grown;
+            offset = newOffset;
+        }
+
+    }
+
+}
@@ -0,0 +1,28 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+/**
+ * Represents the subscription of a {@link BalanceChangeListener}, which can be cancelled to
+ * stop receiving changes.
+ *
+ * @since 2.1.0
+ */
+public interface BalanceSubscription {
+
+    /**
+     * Cancels this subscription. The listener receives no further changes once this method
+     * returns, apart from the ones already being delivered.
+     */
+    void cancel();
+
+    /**
+     * Returns whether this subscription has been cancelled.
+     *
+     * @return whether cancelled
+     */
+    boolean isCancelled();
+
+}
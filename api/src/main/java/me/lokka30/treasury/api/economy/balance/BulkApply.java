@@ -0,0 +1,202 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.account.Account;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransaction;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransactionImportance;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransactionType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The fallback implementation of
+ * {@link EconomyProvider#applyToAll(Currency, BalanceFunction, Cause, Predicate, Consumer)}
+ * for providers which can't apply a {@link BalanceFunction} in their storage.
+ * <p>Accounts are read {@link Page page} by page, player accounts first. The accounts of a page
+ * are processed concurrently, at most {@link #DEFAULT_PARALLELISM} at a time, and the
+ * progress is reported after every page. Each account's balance is read, the function
+ * applied and the difference deposited or withdrawn, so that transactions happening between
+ * the read and the write are kept.
+ *
+ * @since 2.1.0
+ */
+public final class BulkApply {
+
+    /**
+     * The maximum count of accounts processed at the same time.
+     */
+    public static final int DEFAULT_PARALLELISM = 32;
+
+    private BulkApply() {
+    }
+
+    /**
+     * Applies the specified {@link BalanceFunction} to the balance in the specified
+     * {@link Currency} of all the accounts of the specified {@link EconomyProvider}, which
+     * match the specified filter.
+     *
+     * @param provider         the provider whose accounts are to be updated
+     * @param currency         the currency of the balances
+     * @param function         the function computing the new balances
+     * @param cause            the cause of the transactions
+     * @param filter           the filter accounts have to match
+     * @param progressListener the listener receiving the progress after every page
+     * @return future, completed with the result once all the accounts have been processed
+     */
+    @NotNull
+    public static CompletableFuture<BulkApplyResult> applyToAll(
+            @NotNull EconomyProvider provider,
+            @NotNull Currency currency,
+            @NotNull BalanceFunction function,
+            @NotNull Cause<?> cause,
+            @NotNull Predicate<AccountData> filter,
+            @NotNull Consumer<BulkApplyResult> progressListener
+    ) {
+        Objects.requireNonNull(provider, "provider");
+        Objects.requireNonNull(currency, "currency");
+        Objects.requireNonNull(function, "function");
+        Objects.requireNonNull(cause, "cause");
+        Objects.requireNonNull(filter, "filter");
+        Objects.requireNonNull(progressListener, "progressListener");
+
+        Counters counters = new Counters();
+        Function<AccountData, CompletableFuture<Void>> action = account -> apply(provider,
+                account,
+                currency,
+                function,
+                cause,
+                counters
+        );
+        return provider.forEachPlayerAccountIdPage(
+                playerIds -> {
+                    List<AccountData> accounts = new ArrayList<>(playerIds.size());
+                    playerIds.forEach(id -> accounts.add(AccountData.forPlayerAccount(id)));
+                    return processPage(accounts, filter, action).thenRun(() -> progressListener.accept(
+                            counters.snapshot()));
+                }
+        ).thenCompose($ -> provider.forEachNonPlayerAccountIdPage(
+                identifiers -> {
+                    List<AccountData> accounts = new ArrayList<>(identifiers.size());
+                    identifiers.forEach(id -> accounts.add(AccountData.forNonPlayerAccount(id)));
+                    return processPage(accounts, filter, action).thenRun(() -> progressListener.accept(
+                            counters.snapshot()));
+                }
+        )).thenApply($ -> counters.snapshot());
+    }
+
+    @NotNull
+    private static CompletableFuture<Void> processPage(
+            @NotNull Collection<AccountData> accounts,
+            @NotNull Predicate<AccountData> filter,
+            @NotNull Function<AccountData, CompletableFuture<Void>> action
+    ) {
+        List<AccountData> matching = new ArrayList<>(accounts.size());
+        for (AccountData account : accounts) {
+            if (filter.test(account)) {
+                matching.add(account);
+            }
+        }
+        AtomicInteger next = new AtomicInteger();
+        int workers = Math.min(DEFAULT_PARALLELISM, matching.size());
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(work(matching, next, action));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    // processes accounts one after the other until none is left, looping instead of chaining
+    // while the actions complete synchronously
+    @NotNull
+    private static CompletableFuture<Void> work(
+            @NotNull List<AccountData> accounts,
+            @NotNull AtomicInteger next,
+            @NotNull Function<AccountData, CompletableFuture<Void>> action
+    ) {
+        int index;
+        while ((index = next.getAndIncrement()) < accounts.size()) {
+            CompletableFuture<Void> step = action.apply(accounts.get(index));
+            if (!step.isDone()) {
+                return step.thenCompose($ -> work(accounts, next, action));
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    // never completes exceptionally, failures are counted instead
+    @NotNull
+    private static CompletableFuture<Void> apply(
+            @NotNull EconomyProvider provider,
+            @NotNull AccountData data,
+            @NotNull Currency currency,
+            @NotNull BalanceFunction function,
+            @NotNull Cause<?> cause,
+            @NotNull Counters counters
+    ) {
+        CompletableFuture<? extends Account> accountFuture = data.isPlayerAccount()
+                ? provider.accountAccessor().player(data.getPlayerIdentifier().get())
+                : provider.accountAccessor().nonPlayer(data.getNonPlayerIdentifier().get());
+        // stay on the provider's threads between the calls, if it has a preference
+        Executor executor = provider.preferredExecutor().orElse(null);
+        return FutureHelper.thenComposeOn(accountFuture, executor, account -> FutureHelper.thenComposeOn(
+                account.retrieveBalance(currency),
+                executor,
+                balance -> {
+                    BigDecimal target = function.apply(balance);
+                    int cmp = target.compareTo(balance);
+                    if (cmp == 0) {
+                        counters.unchanged.incrementAndGet();
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return account.doTransaction(EconomyTransaction
+                            .newBuilder()
+                            .withCurrency(currency)
+                            .withCause(cause)
+                            .withAmount(target.subtract(balance).abs())
+                            .withImportance(EconomyTransactionImportance.NORMAL)
+                            .withType(cmp > 0
+                                    ? EconomyTransactionType.DEPOSIT
+                                    : EconomyTransactionType.WITHDRAWAL)
+                            .build()).thenAccept($ -> counters.changed.incrementAndGet());
+                }
+        )).handle(($, ex) -> {
+            if (ex != null) {
+                counters.failed.incrementAndGet();
+            }
+            return null;
+        });
+    }
+
+    private static final class Counters {
+
+        private final AtomicLong changed = new AtomicLong();
+        private final AtomicLong unchanged = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        @NotNull
+        private BulkApplyResult snapshot() {
+            return new BulkApplyResult(changed.get(), unchanged.get(), failed.get());
+        }
+
+    }
+
+}
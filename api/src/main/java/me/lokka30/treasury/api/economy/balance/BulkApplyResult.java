@@ -0,0 +1,95 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+/**
+ * Represents the outcome of a bulk operation applying a {@link BalanceFunction} to many
+ * accounts, or its progress so far when reported while the operation is running.
+ *
+ * @see me.lokka30.treasury.api.economy.EconomyProvider#applyToAll(me.lokka30.treasury.api.economy.currency.Currency, BalanceFunction, me.lokka30.treasury.api.common.Cause, java.util.function.Predicate)
+ * @since 2.1.0
+ */
+public final class BulkApplyResult {
+
+    private final long changed;
+    private final long unchanged;
+    private final long failed;
+
+    /**
+     * Creates a new {@code BulkApplyResult}
+     *
+     * @param changed   the count of accounts whose balance has been changed
+     * @param unchanged the count of accounts whose balance the function left as is
+     * @param failed    the count of accounts the function could not be applied to
+     */
+    public BulkApplyResult(long changed, long unchanged, long failed) {
+        if (changed < 0 || unchanged < 0 || failed < 0) {
+            throw new IllegalArgumentException("Counts must not be negative");
+        }
+        this.changed = changed;
+        this.unchanged = unchanged;
+        this.failed = failed;
+    }
+
+    /**
+     * Returns the count of accounts whose balance has been changed.
+     *
+     * @return changed accounts
+     */
+    public long getChanged() {
+        return changed;
+    }
+
+    /**
+     * Returns the count of accounts whose balance the function left as is.
+     *
+     * @return unchanged accounts
+     */
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * Returns the count of accounts the function could not be applied to, e.g. because
+     * a withdrawal failed.
+     *
+     * @return failed accounts
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns the count of accounts processed.
+     *
+     * @return processed accounts
+     */
+    public long getProcessed() {
+        return changed + unchanged + failed;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BulkApplyResult)) {
+            return false;
+        }
+        BulkApplyResult other = (BulkApplyResult) o;
+        return changed == other.changed && unchanged == other.unchanged && failed == other.failed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(changed) * 961 + Long.hashCode(unchanged) * 31 + Long.hashCode(failed);
+    }
+
+    @Override
+    public String toString() {
+        return "BulkApplyResult{" + "changed=" + changed + ", unchanged=" + unchanged + ", failed=" + failed + '}';
+    }
+
+}
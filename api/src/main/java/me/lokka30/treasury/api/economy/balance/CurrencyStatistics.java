@@ -0,0 +1,116 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A snapshot of the aggregated balances of all the accounts of an economy provider in a single
+ * currency, as maintained by {@link EconomyStatistics}.
+ *
+ * @since 2.1.0
+ */
+public final class CurrencyStatistics {
+
+    private static final MathContext QUANTILE_PRECISION = new MathContext(3);
+
+    private final String currencyId;
+    private final BigDecimal totalSupply;
+    private final long accountCount;
+    private final BalanceSketch distribution;
+
+    CurrencyStatistics(
+            @NotNull String currencyId,
+            @NotNull BigDecimal totalSupply,
+            long accountCount,
+            @NotNull BalanceSketch distribution
+    ) {
+        this.currencyId = Objects.requireNonNull(currencyId, "currencyId");
+        this.totalSupply = Objects.requireNonNull(totalSupply, "totalSupply");
+        this.accountCount = accountCount;
+        this.distribution = Objects.requireNonNull(distribution, "distribution");
+    }
+
+    /**
+     * Returns the identifier of the currency these statistics are of.
+     *
+     * @return currency id
+     */
+    @NotNull
+    public String getCurrencyId() {
+        return currencyId;
+    }
+
+    /**
+     * Returns the sum of the balances of all the accounts holding the currency. Negative
+     * balances reduce the supply.
+     *
+     * @return total supply
+     */
+    @NotNull
+    public BigDecimal getTotalSupply() {
+        return totalSupply;
+    }
+
+    /**
+     * Returns the count of the accounts holding the currency, including accounts with a zero
+     * balance.
+     *
+     * @return account count
+     */
+    public long getAccountCount() {
+        return accountCount;
+    }
+
+    /**
+     * Returns the mean balance of the accounts holding the currency.
+     *
+     * @return mean balance, or {@code 0} if no account holds the currency
+     */
+    @NotNull
+    public BigDecimal getMean() {
+        if (accountCount == 0) {
+            return BigDecimal.ZERO;
+        }
+        return totalSupply.divide(BigDecimal.valueOf(accountCount), MathContext.DECIMAL64);
+    }
+
+    /**
+     * Estimates the balance at the specified quantile of the balances of the accounts holding
+     * the currency, e.g. {@code 0.9} for the balance, which 90% of the accounts do not exceed.
+     * The estimate is within 1% of the actual balance.
+     *
+     * @param quantile the quantile, from {@code 0} to {@code 1}
+     * @return estimated balance, or {@code 0} if no account holds the currency
+     * @throws IllegalArgumentException if the quantile is not from {@code 0} to {@code 1}
+     */
+    @NotNull
+    public BigDecimal estimateQuantile(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("Quantile must be from 0 to 1, got " + quantile);
+        }
+        return new BigDecimal(distribution.quantile(quantile), QUANTILE_PRECISION);
+    }
+
+    /**
+     * Estimates the median balance of the accounts holding the currency.
+     *
+     * @return estimated median balance
+     * @see #estimateQuantile(double)
+     */
+    @NotNull
+    public BigDecimal estimateMedian() {
+        return estimateQuantile(0.5);
+    }
+
+    @Override
+    public String toString() {
+        return "CurrencyStatistics{" + "currencyId='" + currencyId + '\'' + ", totalSupply=" + totalSupply + ", accountCount=" + accountCount + '}';
+    }
+
+}
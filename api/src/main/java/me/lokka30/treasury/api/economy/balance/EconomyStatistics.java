@@ -0,0 +1,52 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.util.Collection;
+import java.util.Optional;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.EconomyProviderService;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents economy-wide statistics of the balances of all the accounts of an
+ * {@link EconomyProvider}, per currency: the total supply, the count of accounts, the mean and
+ * an approximate distribution of the balances. The statistics are maintained incrementally,
+ * so that they can be read e.g. for money supply dashboards without reading every account.
+ * <p>Treasury maintains a {@link MemoryEconomyStatistics} for the economy provider in use.
+ * Providers, which are able to aggregate balances in their storage, may supply their own
+ * statistics by overriding {@link EconomyProvider#economyStatistics()}.
+ *
+ * @see MemoryEconomyStatistics
+ * @since 2.1.0
+ */
+public interface EconomyStatistics extends EconomyProviderService {
+
+    /**
+     * Returns whether these statistics cover the accounts of the specified
+     * {@link EconomyProvider} and are ready to be queried.
+     *
+     * @param provider economy provider
+     * @return whether these statistics can be used for the specified provider
+     */
+    @Override
+    boolean covers(@NotNull EconomyProvider provider);
+
+    /**
+     * Returns the statistics of the currency with the specified identifier.
+     *
+     * @param currencyId the identifier of the currency
+     * @return currency statistics, or an empty optional if no account holds the currency
+     */
+    @NotNull Optional<CurrencyStatistics> getStatistics(@NotNull String currencyId);
+
+    /**
+     * Returns the statistics of all the currencies held by at least one account.
+     *
+     * @return statistics of all the currencies
+     */
+    @NotNull Collection<CurrencyStatistics> getAllStatistics();
+
+}
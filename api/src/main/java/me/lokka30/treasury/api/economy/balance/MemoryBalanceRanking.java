@@ -0,0 +1,302 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.events.AccountTransactionEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link BalanceRanking}, which holds the balances of every
+ * {@link PlayerAccount player account} of an {@link EconomyProvider} in memory, in an
+ * order-statistic tree per currency. Updating a balance, looking up the rank of a player and
+ * listing {@code n} ranked balances take O(log n), respectively O(log n + limit).
+ * <p>The ranking is filled by {@link #build()}, which reads the balances of all the player
+ * accounts once, and is kept up to date via {@link #update(UUID, String, BigDecimal, long)},
+ * usually called from a {@link BalanceChange} or an {@link AccountTransactionEvent}. It only
+ * {@link #covers(EconomyProvider) covers} its provider once built.
+ * <p>Updates carrying a version (a positive number) are ignored, if a greater version of the
+ * same balance has already been applied, so that updates received out of order do not
+ * overwrite newer balances.
+ *
+ * @since 2.1.0
+ */
+public final class MemoryBalanceRanking implements BalanceRanking {
+
+    private final EconomyProvider provider;
+    private final Map<String, CurrencyRanking> rankings = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    /**
+     * Creates a new, empty {@code MemoryBalanceRanking}
+     *
+     * @param provider the provider whose balances are to be ranked
+     */
+    public MemoryBalanceRanking(@NotNull EconomyProvider provider) {
+        this.provider = Objects.requireNonNull(provider, "provider");
+    }
+
+    /**
+     * Returns the {@link EconomyProvider} whose balances this ranking holds.
+     *
+     * @return economy provider
+     */
+    @NotNull
+    public EconomyProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Returns whether this ranking has been built.
+     *
+     * @return whether built
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Fills this ranking with the balances of all the player accounts of the
+     * {@link #getProvider() provider}, reading them page by page. Updates received meanwhile
+     * take precedence over the read balances.
+     *
+     * @return future, completed when the ranking has been built
+     */
+    @NotNull
+    public CompletableFuture<Void> build() {
+        return provider.forEachPlayerAccountIdPage(
+                playerIds -> {
+                    List<CompletableFuture<Void>> futures = new ArrayList<>(playerIds.size());
+                    for (UUID playerId : playerIds) {
+                        futures.add(provider
+                                .accountAccessor()
+                                .player()
+                                .withUniqueId(playerId)
+                                .get()
+                                .thenCompose(account -> scan(playerId, account)));
+                    }
+                    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+                }
+        ).thenRun(() -> ready = true);
+    }
+
+    @NotNull
+    private CompletableFuture<Void> scan(@NotNull UUID playerId, @NotNull PlayerAccount account) {
+        return account.retrieveHeldCurrencies().thenCompose(currencyIds -> {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(currencyIds.size());
+            for (String currencyId : currencyIds) {
+                Optional<Currency> currency = provider.findCurrency(currencyId);
+                if (!currency.isPresent()) {
+                    continue;
+                }
+                futures.add(account
+                        .retrieveBalance(currency.get())
+                        .thenAccept(balance -> ranking(currencyId).scanned(playerId, balance)));
+            }
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        });
+    }
+
+    /**
+     * Sets the balance of the specified player in the specified currency.
+     *
+     * @param playerId   the player
+     * @param currencyId the identifier of the currency
+     * @param balance    the new balance
+     * @param version    the version of the balance, or {@code 0} if unknown, in which case the
+     *                   balance is always applied
+     */
+    public void update(
+            @NotNull UUID playerId,
+            @NotNull String currencyId,
+            @NotNull BigDecimal balance,
+            long version
+    ) {
+        Objects.requireNonNull(playerId, "playerId");
+        Objects.requireNonNull(currencyId, "currencyId");
+        Objects.requireNonNull(balance, "balance");
+
+        ranking(currencyId).update(playerId, balance, version);
+    }
+
+    /**
+     * Applies the specified {@link BalanceChange} to this ranking. Changes of non-player
+     * accounts are ignored.
+     *
+     * @param change the balance change
+     */
+    public void update(@NotNull BalanceChange change) {
+        Objects.requireNonNull(change, "change");
+
+        Optional<UUID> playerId = change.getAccount().getPlayerIdentifier();
+        if (playerId.isPresent()) {
+            update(playerId.get(), change.getCurrencyId(), change.getBalance(), change.getVersion());
+        }
+    }
+
+    /**
+     * Applies the specified {@link AccountTransactionEvent} to this ranking. If the event does
+     * not carry the {@link AccountTransactionEvent#getNewBalance() new balance}, it is
+     * retrieved from the account. Transactions of non-player accounts are ignored.
+     *
+     * @param event the transaction event
+     * @return future, completed when the event has been applied
+     */
+    @NotNull
+    public CompletableFuture<Void> update(@NotNull AccountTransactionEvent event) {
+        Objects.requireNonNull(event, "event");
+
+        if (!(event.getAccount() instanceof PlayerAccount)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        UUID playerId = ((PlayerAccount) event.getAccount()).identifier();
+        String currencyId = event.getTransaction().getCurrencyId();
+        Optional<BigDecimal> newBalance = event.getNewBalance();
+        if (newBalance.isPresent()) {
+            update(playerId, currencyId, newBalance.get(), event.getVersion().orElse(0));
+            return CompletableFuture.completedFuture(null);
+        }
+        Optional<Currency> currency = provider.findCurrency(currencyId);
+        if (!currency.isPresent()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return event
+                .getAccount()
+                .retrieveBalance(currency.get())
+                .thenAccept(balance -> update(playerId, currencyId, balance, 0));
+    }
+
+    /**
+     * Removes all the balances of the specified player, e.g. when their account has been
+     * deleted.
+     *
+     * @param playerId the player
+     */
+    public void remove(@NotNull UUID playerId) {
+        Objects.requireNonNull(playerId, "playerId");
+
+        for (CurrencyRanking ranking : rankings.values()) {
+            ranking.remove(playerId);
+        }
+    }
+
+    @NotNull
+    private CurrencyRanking ranking(@NotNull String currencyId) {
+        return rankings.computeIfAbsent(currencyId, $ -> new CurrencyRanking());
+    }
+
+    @Override
+    public boolean covers(@NotNull EconomyProvider provider) {
+        return ready && this.provider == provider;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<List<RankedBalance>> retrieveTopBalances(
+            @NotNull String currencyId, int offset, int limit
+    ) {
+        Objects.requireNonNull(currencyId, "currencyId");
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Invalid offset " + offset + " or limit " + limit);
+        }
+
+        CurrencyRanking ranking = rankings.get(currencyId);
+        return CompletableFuture.completedFuture(ranking == null
+                ? Collections.emptyList()
+                : ranking.top(offset, limit));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Optional<RankedBalance>> retrieveRank(
+            @NotNull UUID playerId, @NotNull String currencyId
+    ) {
+        Objects.requireNonNull(playerId, "playerId");
+        Objects.requireNonNull(currencyId, "currencyId");
+
+        CurrencyRanking ranking = rankings.get(currencyId);
+        return CompletableFuture.completedFuture(ranking == null
+                ? Optional.empty()
+                : Optional.ofNullable(ranking.rank(playerId)));
+    }
+
+    private static final class CurrencyRanking {
+
+        private final RankTree tree = new RankTree();
+        private final Map<UUID, Entry> entries = new HashMap<>();
+
+        synchronized void scanned(@NotNull UUID playerId, @NotNull BigDecimal balance) {
+            // anything received meanwhile is at least as recent as the scanned balance
+            if (!entries.containsKey(playerId)) {
+                put(playerId, balance, 0);
+            }
+        }
+
+        synchronized void update(@NotNull UUID playerId, @NotNull BigDecimal balance, long version) {
+            Entry entry = entries.get(playerId);
+            if (entry != null && version > 0 && entry.version >= version) {
+                return;
+            }
+            put(playerId, balance, version);
+        }
+
+        synchronized void remove(@NotNull UUID playerId) {
+            Entry entry = entries.remove(playerId);
+            if (entry != null) {
+                tree.remove(playerId, entry.balance);
+            }
+        }
+
+        @NotNull
+        synchronized List<RankedBalance> top(int offset, int limit) {
+            List<RankedBalance> ret = new ArrayList<>(Math.min(limit, Math.max(tree.size() - offset, 0)));
+            tree.collect(offset, limit, ret);
+            return ret;
+        }
+
+        @Nullable
+        synchronized RankedBalance rank(@NotNull UUID playerId) {
+            Entry entry = entries.get(playerId);
+            if (entry == null) {
+                return null;
+            }
+            return new RankedBalance(playerId, entry.balance, tree.indexOf(playerId, entry.balance) + 1);
+        }
+
+        private void put(@NotNull UUID playerId, @NotNull BigDecimal balance, long version) {
+            Entry previous = entries.put(playerId, new Entry(balance, version));
+            if (previous != null) {
+                tree.remove(playerId, previous.balance);
+            }
+            tree.insert(playerId, balance);
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final BigDecimal balance;
+        private final long version;
+
+        private Entry(@NotNull BigDecimal balance, long version) {
+            this.balance = balance;
+            this.version = version;
+        }
+
+    }
+
+}
@@ -0,0 +1,304 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import me.lokka30.treasury.api.common.NamespacedKey;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.account.Account;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.events.AccountTransactionEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An {@link EconomyStatistics}, which aggregates the balances of every account of an
+ * {@link EconomyProvider} in memory. Every update adjusts the total supply, the account count
+ * and the {@link BalanceSketch approximate distribution} of its currency, which takes O(1);
+ * reading the statistics of a currency takes O(1), unless they have changed since last read.
+ * <p>The statistics are filled by {@link #build()}, which reads the balances of all the
+ * accounts once, and are kept up to date via
+ * {@link #update(AccountData, String, BigDecimal, long)}, usually called from a
+ * {@link BalanceChange} or an {@link AccountTransactionEvent}. They only
+ * {@link #covers(EconomyProvider) cover} their provider once built.
+ * <p>The last known balance of every account is kept, so that an update can replace it in the
+ * aggregates. Updates carrying a version (a positive number) are ignored, if a greater version
+ * of the same balance has already been applied.
+ *
+ * @since 2.1.0
+ */
+public final class MemoryEconomyStatistics implements EconomyStatistics {
+
+    private final EconomyProvider provider;
+    private final Map<String, CurrencyAggregate> aggregates = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    /**
+     * Creates new, empty {@code MemoryEconomyStatistics}
+     *
+     * @param provider the provider whose balances are to be aggregated
+     */
+    public MemoryEconomyStatistics(@NotNull EconomyProvider provider) {
+        this.provider = Objects.requireNonNull(provider, "provider");
+    }
+
+    /**
+     * Returns the {@link EconomyProvider} whose balances these statistics aggregate.
+     *
+     * @return economy provider
+     */
+    @NotNull
+    public EconomyProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Returns whether these statistics have been built.
+     *
+     * @return whether built
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Fills these statistics with the balances of all the player and non-player accounts of
+     * the {@link #getProvider() provider}, reading them page by page. Updates received
+     * meanwhile take precedence over the read balances.
+     *
+     * @return future, completed when the statistics have been built
+     */
+    @NotNull
+    public CompletableFuture<Void> build() {
+        return provider.forEachPlayerAccountIdPage(
+                playerIds -> {
+                    List<CompletableFuture<Void>> futures = new ArrayList<>(playerIds.size());
+                    for (UUID playerId : playerIds) {
+                        futures.add(provider
+                                .accountAccessor()
+                                .player(playerId)
+                                .thenCompose(account -> scan(AccountData.forPlayerAccount(playerId),
+                                        account
+                                )));
+                    }
+                    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+                }
+        ).thenCompose($ -> provider.forEachNonPlayerAccountIdPage(
+                identifiers -> {
+                    List<CompletableFuture<Void>> futures = new ArrayList<>(identifiers.size());
+                    for (NamespacedKey identifier : identifiers) {
+                        futures.add(provider
+                                .accountAccessor()
+                                .nonPlayer(identifier)
+                                .thenCompose(account -> scan(AccountData.forNonPlayerAccount(
+                                        identifier), account)));
+                    }
+                    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+                }
+        )).thenRun(() -> ready = true);
+    }
+
+    @NotNull
+    private CompletableFuture<Void> scan(@NotNull AccountData account, @NotNull Account handle) {
+        return handle.retrieveBalances().thenAccept(balances -> {
+            for (Map.Entry<String, BigDecimal> balance : balances.entrySet()) {
+                aggregate(balance.getKey()).scanned(account, balance.getValue());
+            }
+        });
+    }
+
+    /**
+     * Sets the balance of the specified account in the specified currency.
+     *
+     * @param account    the account
+     * @param currencyId the identifier of the currency
+     * @param balance    the new balance
+     * @param version    the version of the balance, or {@code 0} if unknown, in which case the
+     *                   balance is always applied
+     */
+    public void update(
+            @NotNull AccountData account,
+            @NotNull String currencyId,
+            @NotNull BigDecimal balance,
+            long version
+    ) {
+        Objects.requireNonNull(account, "account");
+        Objects.requireNonNull(currencyId, "currencyId");
+        Objects.requireNonNull(balance, "balance");
+
+        aggregate(currencyId).update(account, balance, version);
+    }
+
+    /**
+     * Applies the specified {@link BalanceChange} to these statistics.
+     *
+     * @param change the balance change
+     */
+    public void update(@NotNull BalanceChange change) {
+        Objects.requireNonNull(change, "change");
+
+        update(change.getAccount(), change.getCurrencyId(), change.getBalance(), change.getVersion());
+    }
+
+    /**
+     * Applies the specified {@link AccountTransactionEvent} to these statistics. If the event
+     * does not carry the {@link AccountTransactionEvent#getNewBalance() new balance}, it is
+     * retrieved from the account.
+     *
+     * @param event the transaction event
+     * @return future, completed when the event has been applied
+     */
+    @NotNull
+    public CompletableFuture<Void> update(@NotNull AccountTransactionEvent event) {
+        Objects.requireNonNull(event, "event");
+
+        AccountData account = AccountData.forAccount(event.getAccount());
+        String currencyId = event.getTransaction().getCurrencyId();
+        Optional<BigDecimal> newBalance = event.getNewBalance();
+        if (newBalance.isPresent()) {
+            update(account, currencyId, newBalance.get(), event.getVersion().orElse(0));
+            return CompletableFuture.completedFuture(null);
+        }
+        Optional<Currency> currency = provider.findCurrency(currencyId);
+        if (!currency.isPresent()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return event
+                .getAccount()
+                .retrieveBalance(currency.get())
+                .thenAccept(balance -> update(account, currencyId, balance, 0));
+    }
+
+    /**
+     * Removes all the balances of the specified account, e.g. when it has been deleted.
+     *
+     * @param account the account
+     */
+    public void remove(@NotNull AccountData account) {
+        Objects.requireNonNull(account, "account");
+
+        for (CurrencyAggregate aggregate : aggregates.values()) {
+            aggregate.remove(account);
+        }
+    }
+
+    @NotNull
+    private CurrencyAggregate aggregate(@NotNull String currencyId) {
+        return aggregates.computeIfAbsent(currencyId, CurrencyAggregate::new);
+    }
+
+    @Override
+    public boolean covers(@NotNull EconomyProvider provider) {
+        return ready && this.provider == provider;
+    }
+
+    @Override
+    public @NotNull Optional<CurrencyStatistics> getStatistics(@NotNull String currencyId) {
+        Objects.requireNonNull(currencyId, "currencyId");
+
+        CurrencyAggregate aggregate = aggregates.get(currencyId);
+        return aggregate == null ? Optional.empty() : Optional.ofNullable(aggregate.snapshot());
+    }
+
+    @Override
+    public @NotNull Collection<CurrencyStatistics> getAllStatistics() {
+        List<CurrencyStatistics> ret = new ArrayList<>(aggregates.size());
+        for (CurrencyAggregate aggregate : aggregates.values()) {
+            CurrencyStatistics statistics = aggregate.snapshot();
+            if (statistics != null) {
+                ret.add(statistics);
+            }
+        }
+        return ret;
+    }
+
+    private static final class CurrencyAggregate {
+
+        private final String currencyId;
+        private final Map<AccountData, Entry> entries = new HashMap<>();
+        private final BalanceSketch distribution = new BalanceSketch();
+        private BigDecimal totalSupply = BigDecimal.ZERO;
+        private CurrencyStatistics snapshot;
+
+        CurrencyAggregate(@NotNull String currencyId) {
+            this.currencyId = currencyId;
+        }
+
+        synchronized void scanned(@NotNull AccountData account, @NotNull BigDecimal balance) {
+            // anything received meanwhile is at least as recent as the scanned balance
+            if (!entries.containsKey(account)) {
+                put(account, balance, 0);
+            }
+        }
+
+        synchronized void update(@NotNull AccountData account, @NotNull BigDecimal balance, long version) {
+            Entry entry = entries.get(account);
+            if (entry != null && version > 0 && entry.version >= version) {
+                return;
+            }
+            put(account, balance, version);
+        }
+
+        synchronized void remove(@NotNull AccountData account) {
+            Entry entry = entries.remove(account);
+            if (entry != null) {
+                totalSupply = totalSupply.subtract(entry.balance);
+                distribution.remove(entry.balance);
+                snapshot = null;
+            }
+        }
+
+        @Nullable
+        synchronized CurrencyStatistics snapshot() {
+            if (entries.isEmpty()) {
+                return null;
+            }
+            if (snapshot == null) {
+                snapshot = new CurrencyStatistics(currencyId,
+                        totalSupply,
+                        entries.size(),
+                        distribution.copy()
+                );
+            }
+            return snapshot;
+        }
+
+        private void put(@NotNull AccountData account, @NotNull BigDecimal balance, long version) {
+            Entry previous = entries.put(account, new Entry(balance, version));
+            if (previous != null) {
+                totalSupply = totalSupply.subtract(previous.balance);
+                distribution.remove(previous.balance);
+            }
+            totalSupply = totalSupply.add(balance);
+            distribution.add(balance);
+            snapshot = null;
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final BigDecimal balance;
+        private final long version;
+
+        private Entry(@NotNull BigDecimal balance, long version) {
+            this.balance = balance;
+            this.version = version;
+        }
+
+    }
+
+}
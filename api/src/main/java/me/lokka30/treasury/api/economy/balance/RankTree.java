@@ -0,0 +1,166 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An order-statistic tree (a treap, with subtree sizes) of player balances, ordered from the
+ * highest balance to the lowest, then by player id. Inserting, removing and ranking take
+ * O(log n), listing a range takes O(log n + range size). Not thread safe.
+ */
+final class RankTree {
+
+    private Node root;
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(@NotNull UUID playerId, @NotNull BigDecimal balance) {
+        Node node = new Node(playerId, balance);
+        Node[] split = split(root, node);
+        root = merge(merge(split[0], node), split[1]);
+    }
+
+    void remove(@NotNull UUID playerId, @NotNull BigDecimal balance) {
+        root = remove(root, new Node(playerId, balance));
+    }
+
+    /**
+     * Returns the count of balances ranked before the specified one.
+     */
+    int indexOf(@NotNull UUID playerId, @NotNull BigDecimal balance) {
+        Node key = new Node(playerId, balance);
+        int index = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(key, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                index += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return index + size(node.left);
+            }
+        }
+        return index;
+    }
+
+    void collect(int offset, int limit, @NotNull List<RankedBalance> into) {
+        collect(root, 0, offset, offset + limit, into);
+    }
+
+    // walks the nodes with indexes in [from, to), start being the index of the leftmost node
+    // of the subtree; returns the index following the subtree
+    private static int collect(
+            @Nullable Node node, int start, int from, int to, @NotNull List<RankedBalance> into
+    ) {
+        if (node == null || start >= to) {
+            return start + size(node);
+        }
+        int end = start + node.size;
+        if (end <= from) {
+            return end;
+        }
+        int nodeIndex = collect(node.left, start, from, to, into);
+        if (nodeIndex >= from && nodeIndex < to) {
+            into.add(new RankedBalance(node.playerId, node.balance, nodeIndex + 1));
+        }
+        return collect(node.right, nodeIndex + 1, from, to, into);
+    }
+
+    private static int compare(@NotNull Node a, @NotNull Node b) {
+        int cmp = b.balance.compareTo(a.balance);
+        return cmp != 0 ? cmp : a.playerId.compareTo(b.playerId);
+    }
+
+    private static int size(@Nullable Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    // splits into the nodes ranked before the key and the rest
+    @NotNull
+    private static Node[] split(@Nullable Node node, @NotNull Node key) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(node, key) < 0) {
+            Node[] split = split(node.right, key);
+            node.right = split[0];
+            node.update();
+            split[0] = node;
+            return split;
+        }
+        Node[] split = split(node.left, key);
+        node.left = split[1];
+        node.update();
+        split[1] = node;
+        return split;
+    }
+
+    @Nullable
+    private static Node merge(@Nullable Node left, @Nullable Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    @Nullable
+    private static Node remove(@Nullable Node node, @NotNull Node key) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(key, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, key);
+        } else {
+            node.right = remove(node.right, key);
+        }
+        node.update();
+        return node;
+    }
+
+    private static final class Node {
+
+        private final UUID playerId;
+        private final BigDecimal balance;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(@NotNull UUID playerId, @NotNull BigDecimal balance) {
+            this.playerId = playerId;
+            this.balance = balance;
+        }
+
+        private void update() {
+            size = 1 + RankTree.size(left) + RankTree.size(right);
+        }
+
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.UUID;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents the balance of a {@link me.lokka30.treasury.api.economy.account.PlayerAccount} in a
+ * single currency, along with its rank among the balances of all the player accounts.
+ * <p>Balances are ranked from the highest to the lowest, players with equal balances are
+ * ordered by their {@link UUID}.
+ *
+ * @see me.lokka30.treasury.api.economy.EconomyProvider#retrieveTopBalances(me.lokka30.treasury.api.economy.currency.Currency, int, int)
+ * @since 2.1.0
+ */
+public final class RankedBalance {
+
+    private final UUID playerId;
+    private final BigDecimal balance;
+    private final int rank;
+
+    /**
+     * Creates a new {@code RankedBalance}
+     *
+     * @param playerId the player
+     * @param balance  the balance of the player
+     * @param rank     the rank of the balance, starting from 1 for the highest balance
+     */
+    public RankedBalance(@NotNull UUID playerId, @NotNull BigDecimal balance, int rank) {
+        if (rank <= 0) {
+            throw new IllegalArgumentException("Rank must be positive, got " + rank);
+        }
+        this.playerId = Objects.requireNonNull(playerId, "playerId");
+        this.balance = Objects.requireNonNull(balance, "balance");
+        this.rank = rank;
+    }
+
+    /**
+     * Returns the {@link UUID} of the player.
+     *
+     * @return player id
+     */
+    @NotNull
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * Returns the balance of the player.
+     *
+     * @return balance
+     */
+    @NotNull
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    /**
+     * Returns the rank of the balance, starting from 1 for the highest balance.
+     *
+     * @return rank
+     */
+    public int getRank() {
+        return rank;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RankedBalance)) {
+            return false;
+        }
+        RankedBalance other = (RankedBalance) o;
+        return rank == other.rank && playerId.equals(other.playerId) && balance.compareTo(other.balance) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(playerId, balance.stripTrailingZeros(), rank);
+    }
+
+    @Override
+    public String toString() {
+        return "RankedBalance{" + "playerId=" + playerId + ", balance=" + balance + ", rank=" + rank + '}';
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents the balance of an account in a single currency, together with its version, as
+ * retrieved by {@link me.lokka30.treasury.api.economy.account.Account#retrieveBalanceVersioned(Currency)}.
+ * Conditional transactions on the account are only done while its balance is still this one.
+ *
+ * @since 2.1.0
+ */
+public final class VersionedBalance {
+
+    /**
+     * The version of balances retrieved from providers, which do not keep versions. Such
+     * balances are compared by value.
+     */
+    public static final long UNVERSIONED = 0;
+
+    private final Currency currency;
+    private final BigDecimal balance;
+    private final long version;
+
+    /**
+     * Creates a new {@code VersionedBalance}
+     *
+     * @param currency the currency of the balance
+     * @param balance  the balance
+     * @param version  the version of the balance of the account, as carried by
+     *                 {@link BalanceChange#getVersion() balance changes}, or
+     *                 {@link #UNVERSIONED}
+     */
+    public VersionedBalance(@NotNull Currency currency, @NotNull BigDecimal balance, long version) {
+        if (version < 0) {
+            throw new IllegalArgumentException("Version must not be negative, got " + version);
+        }
+        this.currency = Objects.requireNonNull(currency, "currency");
+        this.balance = Objects.requireNonNull(balance, "balance");
+        this.version = version;
+    }
+
+    /**
+     * Returns the {@link Currency} of the balance.
+     *
+     * @return currency
+     */
+    @NotNull
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Returns the balance.
+     *
+     * @return balance
+     */
+    @NotNull
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    /**
+     * Returns the version of the balance, or {@link #UNVERSIONED}.
+     *
+     * @return version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns whether the specified, more recently retrieved balance is unchanged compared to
+     * this one. Balances are compared by version, when both have one, and by value otherwise.
+     *
+     * @param current the current balance
+     * @return whether unchanged
+     */
+    public boolean isUnchanged(@NotNull VersionedBalance current) {
+        Objects.requireNonNull(current, "current");
+        if (version != UNVERSIONED && current.version != UNVERSIONED) {
+            return version == current.version;
+        }
+        return balance.compareTo(current.balance) == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof VersionedBalance)) {
+            return false;
+        }
+        VersionedBalance other = (VersionedBalance) o;
+        return version == other.version && currency.getIdentifier().equals(other.currency.getIdentifier()) && balance.compareTo(
+                other.balance) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(currency.getIdentifier(), balance.stripTrailingZeros(), version);
+    }
+
+    @Override
+    public String toString() {
+        return "VersionedBalance{" + "currency=" + currency.getIdentifier() + ", balance=" + balance + ", version=" + version + '}';
+    }
+
+}
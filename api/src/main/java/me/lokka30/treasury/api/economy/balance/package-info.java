@@ -0,0 +1,4 @@
+/**
+ * Holds balance related utilities e.g. balance change subscriptions.
+ */
+package me.lokka30.treasury.api.economy.balance;
@@ -0,0 +1,227 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.currency;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Converts amounts between the {@link Currency currencies} of a {@link CurrencyRegistry}.
+ * <p>Unlike {@link Currency#to(Currency, BigDecimal)}, which divides by the conversion rate of
+ * the target currency on every call, this converter precomputes the cross-rate between every
+ * pair of registered currencies once, with an explicit {@link MathContext}, and converts with a
+ * single multiplication. The cross-rates are recomputed lazily, after the registry has been
+ * modified, after a {@link Currency#getConversionRate() conversion rate} has changed or after
+ * {@link #invalidate()} has been called.
+ * <p>Converted amounts are rounded to the {@link Currency#getPrecision() precision} of the
+ * target currency, using the rounding mode of the {@link MathContext}.
+ *
+ * @since 2.1.0
+ */
+public final class CurrencyConverter {
+
+    private final CurrencyRegistry registry;
+    private final MathContext mathContext;
+    private volatile Matrix matrix;
+
+    /**
+     * Creates a new {@code CurrencyConverter} using {@link MathContext#DECIMAL64}.
+     *
+     * @param registry the registry of the currencies to convert between
+     */
+    public CurrencyConverter(@NotNull CurrencyRegistry registry) {
+        this(registry, MathContext.DECIMAL64);
+    }
+
+    /**
+     * Creates a new {@code CurrencyConverter}.
+     *
+     * @param registry    the registry of the currencies to convert between
+     * @param mathContext the math context the cross-rates are computed and applied with
+     */
+    public CurrencyConverter(@NotNull CurrencyRegistry registry, @NotNull MathContext mathContext) {
+        this.registry = Objects.requireNonNull(registry, "registry");
+        this.mathContext = Objects.requireNonNull(mathContext, "mathContext");
+    }
+
+    /**
+     * Returns the {@link MathContext} this converter computes with.
+     *
+     * @return math context
+     */
+    @NotNull
+    public MathContext getMathContext() {
+        return mathContext;
+    }
+
+    /**
+     * Discards the cached cross-rates. They will be recomputed on the next conversion.
+     * <p>Changes of the registry and of the conversion rates are detected automatically, so
+     * calling this is only needed to release memory.
+     */
+    public void invalidate() {
+        matrix = null;
+    }
+
+    /**
+     * Returns the rate an amount of the currency {@code from} shall be multiplied with to
+     * convert it to the currency {@code to}.
+     *
+     * @param from currency to convert from
+     * @param to   currency to convert to
+     * @return cross-rate
+     */
+    @NotNull
+    public BigDecimal getCrossRate(@NotNull Currency from, @NotNull Currency to) {
+        Objects.requireNonNull(from, "from");
+        Objects.requireNonNull(to, "to");
+        if (from == to) {
+            return BigDecimal.ONE;
+        }
+
+        Matrix matrix = currentMatrix();
+        Integer fromIndex = matrix.indexes.get(from);
+        Integer toIndex = matrix.indexes.get(to);
+        if (fromIndex == null || toIndex == null) {
+            // not registered, nothing to cache
+            return crossRate(from.getConversionRate(), to.getConversionRate());
+        }
+        if (!matrix.isCurrent(fromIndex, from) || !matrix.isCurrent(toIndex, to)) {
+            this.matrix = null;
+            return crossRate(from.getConversionRate(), to.getConversionRate());
+        }
+        return matrix.crossRates[fromIndex][toIndex];
+    }
+
+    /**
+     * Converts the specified {@code amount} from the currency {@code from} to the currency
+     * {@code to}.
+     *
+     * @param amount amount to convert
+     * @param from   currency to convert from
+     * @param to     currency to convert to
+     * @return converted amount
+     */
+    @NotNull
+    public BigDecimal convert(
+            @NotNull BigDecimal amount, @NotNull Currency from, @NotNull Currency to
+    ) {
+        Objects.requireNonNull(amount, "amount");
+        return apply(amount, getCrossRate(from, to), to.getPrecision());
+    }
+
+    /**
+     * Converts all the specified {@code amounts} from the currency {@code from} to the currency
+     * {@code to}. The cross-rate is looked up only once.
+     *
+     * @param amounts amounts to convert
+     * @param from    currency to convert from
+     * @param to      currency to convert to
+     * @return converted amounts, in the iteration order of {@code amounts}
+     */
+    @NotNull
+    public List<BigDecimal> convertAll(
+            @NotNull Collection<BigDecimal> amounts, @NotNull Currency from, @NotNull Currency to
+    ) {
+        Objects.requireNonNull(amounts, "amounts");
+        BigDecimal crossRate = getCrossRate(from, to);
+        int precision = to.getPrecision();
+
+        List<BigDecimal> ret = new ArrayList<>(amounts.size());
+        for (BigDecimal amount : amounts) {
+            ret.add(apply(Objects.requireNonNull(amount, "amount"), crossRate, precision));
+        }
+        return ret;
+    }
+
+    /**
+     * Converts the specified {@code amount} from the currency {@code from} to each of the
+     * specified {@code targets}.
+     *
+     * @param amount  amount to convert
+     * @param from    currency to convert from
+     * @param targets currencies to convert to
+     * @return converted amounts, keyed by target currency
+     */
+    @NotNull
+    public Map<Currency, BigDecimal> convertToAll(
+            @NotNull BigDecimal amount, @NotNull Currency from, @NotNull Collection<Currency> targets
+    ) {
+        Objects.requireNonNull(amount, "amount");
+        Objects.requireNonNull(targets, "targets");
+
+        Map<Currency, BigDecimal> ret = new IdentityHashMap<>(targets.size());
+        for (Currency to : targets) {
+            ret.put(to, convert(amount, from, to));
+        }
+        return ret;
+    }
+
+    @NotNull
+    private BigDecimal apply(@NotNull BigDecimal amount, @NotNull BigDecimal crossRate, int precision) {
+        return amount
+                .multiply(crossRate, mathContext)
+                .setScale(precision, mathContext.getRoundingMode());
+    }
+
+    @NotNull
+    private BigDecimal crossRate(@NotNull BigDecimal fromRate, @NotNull BigDecimal toRate) {
+        return fromRate.divide(toRate, mathContext);
+    }
+
+    @NotNull
+    private Matrix currentMatrix() {
+        CurrencyRegistry.Snapshot snapshot = registry.snapshot();
+        Matrix matrix = this.matrix;
+        if (matrix == null || matrix.version != snapshot.getVersion()) {
+            matrix = new Matrix(snapshot);
+            this.matrix = matrix;
+        }
+        return matrix;
+    }
+
+    private final class Matrix {
+
+        private final long version;
+        private final Map<Currency, Integer> indexes = new IdentityHashMap<>();
+        private final BigDecimal[] rates;
+        private final BigDecimal[][] crossRates;
+
+        private Matrix(@NotNull CurrencyRegistry.Snapshot snapshot) {
+            this.version = snapshot.getVersion();
+
+            Collection<Currency> currencies = snapshot.getCurrencies();
+            this.rates = new BigDecimal[currencies.size()];
+            for (Currency currency : currencies) {
+                int index = indexes.size();
+                indexes.put(currency, index);
+                rates[index] = currency.getConversionRate();
+            }
+
+            this.crossRates = new BigDecimal[rates.length][rates.length];
+            for (int from = 0; from < rates.length; from++) {
+                for (int to = 0; to < rates.length; to++) {
+                    crossRates[from][to] = from == to
+                            ? BigDecimal.ONE
+                            : crossRate(rates[from], rates[to]);
+                }
+            }
+        }
+
+        private boolean isCurrent(int index, @NotNull Currency currency) {
+            BigDecimal rate = currency.getConversionRate();
+            return rate == rates[index] || rate.compareTo(rates[index]) == 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,345 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.currency;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import me.lokka30.treasury.api.common.misc.TriState;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A thread-safe registry of {@link Currency currencies}, which economy providers can back their
+ * {@link me.lokka30.treasury.api.economy.EconomyProvider#findCurrency(String) findCurrency},
+ * {@link me.lokka30.treasury.api.economy.EconomyProvider#getCurrencies() getCurrencies},
+ * {@link me.lokka30.treasury.api.economy.EconomyProvider#registerCurrency(Currency) registerCurrency}
+ * and
+ * {@link me.lokka30.treasury.api.economy.EconomyProvider#unregisterCurrency(Currency) unregisterCurrency}
+ * implementations with.
+ * <p>Reads never lock: every modification publishes a new immutable {@link Snapshot}, which
+ * holds a case-insensitive identifier index and the set of registered currencies. Each
+ * currency is also assigned an ordinal, which is stable for as long as the currency stays
+ * registered. Ordinals are dense: an ordinal freed by an unregistration is reused by the next
+ * registration, hence they can be used as indexes of per-currency arrays sized
+ * {@link Snapshot#getOrdinalBound()}.
+ *
+ * @since 2.1.0
+ */
+public final class CurrencyRegistry {
+
+    /**
+     * Represents a listener of the changes of a {@link CurrencyRegistry}.
+     *
+     * @since 2.1.0
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called after a modification of the registry has been published, on the thread which
+         * did the modification.
+         *
+         * @param previous the snapshot before the modification
+         * @param current  the snapshot after the modification
+         */
+        void onChange(@NotNull Snapshot previous, @NotNull Snapshot current);
+
+    }
+
+    private final Object lock = new Object();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Snapshot snapshot = new Snapshot(0, new Currency[0]);
+
+    /**
+     * Returns the current immutable {@link Snapshot} of this registry.
+     *
+     * @return snapshot
+     */
+    @NotNull
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Finds the registered {@link Currency} with the specified identifier, ignoring case.
+     *
+     * @param identifier currency identifier
+     * @return the currency or an empty {@link Optional} if none is registered
+     */
+    @NotNull
+    public Optional<Currency> find(@NotNull String identifier) {
+        return snapshot.find(identifier);
+    }
+
+    /**
+     * Returns an immutable set of all the registered {@link Currency currencies}, in
+     * registration order.
+     *
+     * @return currencies
+     */
+    @NotNull
+    public Set<Currency> getCurrencies() {
+        return snapshot.getCurrencies();
+    }
+
+    /**
+     * Returns the ordinal of the registered {@link Currency} with the specified identifier,
+     * ignoring case.
+     *
+     * @param identifier currency identifier
+     * @return ordinal or {@code -1} if no such currency is registered
+     */
+    public int ordinal(@NotNull String identifier) {
+        return snapshot.ordinal(identifier);
+    }
+
+    /**
+     * Registers the specified {@link Currency}.
+     *
+     * @param currency the currency to register
+     * @return {@link TriState#TRUE} if registered, or {@link TriState#UNSPECIFIED} if a currency
+     *         with the same identifier (ignoring case) is already registered
+     */
+    @NotNull
+    public TriState register(@NotNull Currency currency) {
+        Objects.requireNonNull(currency, "currency");
+        Snapshot previous;
+        Snapshot current;
+        synchronized (lock) {
+            previous = snapshot;
+            if (previous.ordinal(currency.getIdentifier()) != -1) {
+                return TriState.UNSPECIFIED;
+            }
+            Currency[] byOrdinal = previous.byOrdinal;
+            int ordinal = 0;
+            while (ordinal < byOrdinal.length && byOrdinal[ordinal] != null) {
+                ordinal++;
+            }
+            byOrdinal = Arrays.copyOf(byOrdinal, Math.max(byOrdinal.length, ordinal + 1));
+            byOrdinal[ordinal] = currency;
+            current = new Snapshot(previous.version + 1, byOrdinal, previous.order, currency);
+            snapshot = current;
+        }
+        fire(previous, current);
+        return TriState.TRUE;
+    }
+
+    /**
+     * Unregisters the specified {@link Currency}.
+     *
+     * @param currency the currency to unregister
+     * @return {@link TriState#TRUE} if unregistered, or {@link TriState#UNSPECIFIED} if the
+     *         currency is not registered
+     */
+    @NotNull
+    public TriState unregister(@NotNull Currency currency) {
+        return unregister(Objects.requireNonNull(currency, "currency").getIdentifier());
+    }
+
+    /**
+     * Unregisters the {@link Currency} with the specified identifier, ignoring case.
+     *
+     * @param identifier the identifier of the currency to unregister
+     * @return {@link TriState#TRUE} if unregistered, or {@link TriState#UNSPECIFIED} if no such
+     *         currency is registered
+     */
+    @NotNull
+    public TriState unregister(@NotNull String identifier) {
+        Objects.requireNonNull(identifier, "identifier");
+        Snapshot previous;
+        Snapshot current;
+        synchronized (lock) {
+            previous = snapshot;
+            int ordinal = previous.ordinal(identifier);
+            if (ordinal == -1) {
+                return TriState.UNSPECIFIED;
+            }
+            Currency[] byOrdinal = previous.byOrdinal.clone();
+            Currency removed = byOrdinal[ordinal];
+            byOrdinal[ordinal] = null;
+            int length = byOrdinal.length;
+            while (length > 0 && byOrdinal[length - 1] == null) {
+                length--;
+            }
+            LinkedHashSet<Currency> order = new LinkedHashSet<>(previous.order);
+            order.remove(removed);
+            current = new Snapshot(previous.version + 1, Arrays.copyOf(byOrdinal, length), order, null);
+            snapshot = current;
+        }
+        fire(previous, current);
+        return TriState.TRUE;
+    }
+
+    /**
+     * Adds the specified {@link Listener}, which will be called after each modification of this
+     * registry.
+     *
+     * @param listener listener
+     */
+    public void addListener(@NotNull Listener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    /**
+     * Removes the specified {@link Listener}.
+     *
+     * @param listener listener
+     */
+    public void removeListener(@NotNull Listener listener) {
+        listeners.remove(Objects.requireNonNull(listener, "listener"));
+    }
+
+    private void fire(@NotNull Snapshot previous, @NotNull Snapshot current) {
+        for (Listener listener : listeners) {
+            listener.onChange(previous, current);
+        }
+    }
+
+    @NotNull
+    private static String normalize(@NotNull String identifier) {
+        return identifier.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Represents an immutable state of a {@link CurrencyRegistry}.
+     *
+     * @since 2.1.0
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final Currency[] byOrdinal;
+        private final Set<Currency> order;
+        private final Map<String, Integer> ordinals;
+        private final Currency primary;
+
+        private Snapshot(long version, @NotNull Currency[] byOrdinal) {
+            this(version, byOrdinal, Collections.emptySet(), null);
+        }
+
+        private Snapshot(
+                long version,
+                @NotNull Currency[] byOrdinal,
+                @NotNull Set<Currency> previousOrder,
+                @Nullable Currency added
+        ) {
+            this.version = version;
+            this.byOrdinal = byOrdinal;
+
+            LinkedHashSet<Currency> order = new LinkedHashSet<>(previousOrder);
+            if (added != null) {
+                order.add(added);
+            }
+            this.order = Collections.unmodifiableSet(order);
+
+            Map<String, Integer> ordinals = new HashMap<>();
+            for (int i = 0; i < byOrdinal.length; i++) {
+                if (byOrdinal[i] != null) {
+                    ordinals.put(normalize(byOrdinal[i].getIdentifier()), i);
+                }
+            }
+            this.ordinals = ordinals;
+            this.primary = order.stream().filter(Currency::isPrimary).findFirst().orElse(null);
+        }
+
+        /**
+         * Returns the version of this snapshot. The version is incremented by each modification
+         * of the registry.
+         *
+         * @return version
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns an immutable set of the {@link Currency currencies} of this snapshot, in
+         * registration order.
+         *
+         * @return currencies
+         */
+        @NotNull
+        public Set<Currency> getCurrencies() {
+            return order;
+        }
+
+        /**
+         * Finds the {@link Currency} with the specified identifier, ignoring case.
+         *
+         * @param identifier currency identifier
+         * @return the currency or an empty {@link Optional} if there is no such currency
+         */
+        @NotNull
+        public Optional<Currency> find(@NotNull String identifier) {
+            int ordinal = ordinal(identifier);
+            return ordinal == -1 ? Optional.empty() : Optional.of(byOrdinal[ordinal]);
+        }
+
+        /**
+         * Returns the {@link Currency} with the specified ordinal.
+         *
+         * @param ordinal ordinal
+         * @return the currency or an empty {@link Optional} if the ordinal is not assigned
+         */
+        @NotNull
+        public Optional<Currency> byOrdinal(int ordinal) {
+            if (ordinal < 0 || ordinal >= byOrdinal.length) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(byOrdinal[ordinal]);
+        }
+
+        /**
+         * Returns the ordinal of the {@link Currency} with the specified identifier, ignoring
+         * case.
+         *
+         * @param identifier currency identifier
+         * @return ordinal or {@code -1} if there is no such currency
+         */
+        public int ordinal(@NotNull String identifier) {
+            Integer ordinal = ordinals.get(normalize(Objects.requireNonNull(identifier,
+                    "identifier"
+            )));
+            return ordinal == null ? -1 : ordinal;
+        }
+
+        /**
+         * Returns the exclusive upper bound of the ordinals of this snapshot, which is the size
+         * an array indexed by ordinals should have.
+         *
+         * @return ordinal bound
+         */
+        public int getOrdinalBound() {
+            return byOrdinal.length;
+        }
+
+        /**
+         * Returns the first registered {@link Currency#isPrimary() primary} {@link Currency} of
+         * this snapshot.
+         *
+         * @return primary currency or an empty {@link Optional} if there is none
+         */
+        @NotNull
+        public Optional<Currency> getPrimary() {
+            return Optional.ofNullable(primary);
+        }
+
+        @Override
+        public String toString() {
+            return "CurrencyRegistry.Snapshot{version=" + version + ", currencies=" + ordinals.keySet() + '}';
+        }
+
+    }
+
+}
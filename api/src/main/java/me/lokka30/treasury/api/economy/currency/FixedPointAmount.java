@@ -0,0 +1,283 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.currency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents an amount of money, stored as a {@code long} count of minor units at a fixed
+ * precision. For instance, with a precision of {@code 2}, the amount {@code 12.34} is stored
+ * as {@code 1234} minor units.
+ * <p>The precision of an amount is usually the {@link Currency#getPrecision() precision} of the
+ * {@link Currency} it is in. Arithmetic is only allowed between amounts of the same precision
+ * and is overflow checked: instead of silently wrapping around, an {@link ArithmeticException}
+ * is thrown.
+ * <p>Hot paths, which do not want to allocate an object per operation, can use the static
+ * methods of this class, which operate on raw {@code long} minor units.
+ *
+ * @see me.lokka30.treasury.api.economy.account.Account#retrieveMinorUnitBalance(Currency)
+ * @since 2.1.0
+ */
+public final class FixedPointAmount implements Comparable<FixedPointAmount> {
+
+    /**
+     * The maximum supported precision. Higher precisions would not leave any room for whole
+     * units in a {@code long}.
+     */
+    public static final int MAX_PRECISION = 18;
+
+    /**
+     * The {@link RoundingMode} used whenever a {@link BigDecimal} has more fractional digits
+     * than the precision it is converted to and no rounding mode has been specified.
+     */
+    public static final RoundingMode DEFAULT_ROUNDING = RoundingMode.HALF_UP;
+
+    /**
+     * Converts the specified {@code amount} to minor units at the specified {@code precision}.
+     *
+     * @param amount    amount to convert
+     * @param precision count of fractional digits
+     * @param rounding  how to round if the amount has more fractional digits than the precision
+     * @return minor units
+     * @throws ArithmeticException if the amount does not fit in a {@code long} at the given
+     *                             precision, or if rounding is required and the rounding mode is
+     *                             {@link RoundingMode#UNNECESSARY}
+     */
+    public static long toMinorUnits(
+            @NotNull BigDecimal amount, int precision, @NotNull RoundingMode rounding
+    ) {
+        Objects.requireNonNull(amount, "amount");
+        Objects.requireNonNull(rounding, "rounding");
+        validatePrecision(precision);
+
+        return amount.setScale(precision, rounding).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts the specified minor {@code units} at the specified {@code precision} to a
+     * {@link BigDecimal}.
+     *
+     * @param units     minor units
+     * @param precision count of fractional digits
+     * @return big decimal of the same value
+     */
+    @NotNull
+    public static BigDecimal toBigDecimal(long units, int precision) {
+        validatePrecision(precision);
+        return BigDecimal.valueOf(units, precision);
+    }
+
+    /**
+     * Adds two amounts of minor units of the same precision.
+     *
+     * @param a first amount
+     * @param b second amount
+     * @return sum
+     * @throws ArithmeticException if the result overflows
+     */
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * Subtracts two amounts of minor units of the same precision.
+     *
+     * @param a amount to subtract from
+     * @param b amount to subtract
+     * @return difference
+     * @throws ArithmeticException if the result overflows
+     */
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * Creates a new {@code FixedPointAmount}.
+     *
+     * @param units     minor units
+     * @param precision count of fractional digits
+     * @return new amount
+     */
+    @NotNull
+    public static FixedPointAmount of(long units, int precision) {
+        validatePrecision(precision);
+        return new FixedPointAmount(units, precision);
+    }
+
+    /**
+     * Creates a new {@code FixedPointAmount}, rounding the specified {@code amount} with the
+     * {@link #DEFAULT_ROUNDING} if needed.
+     *
+     * @param amount    amount
+     * @param precision count of fractional digits
+     * @return new amount
+     * @throws ArithmeticException if the amount does not fit in a {@code long} at the given
+     *                             precision
+     */
+    @NotNull
+    public static FixedPointAmount of(@NotNull BigDecimal amount, int precision) {
+        return new FixedPointAmount(toMinorUnits(amount, precision, DEFAULT_ROUNDING), precision);
+    }
+
+    /**
+     * Creates a new {@code FixedPointAmount} at the {@link Currency#getPrecision() precision} of
+     * the specified {@link Currency}, rounding the specified {@code amount} with the
+     * {@link #DEFAULT_ROUNDING} if needed.
+     *
+     * @param amount   amount
+     * @param currency currency to take the precision from
+     * @return new amount
+     * @throws ArithmeticException if the amount does not fit in a {@code long} at the
+     *                             currency's precision
+     */
+    @NotNull
+    public static FixedPointAmount of(@NotNull BigDecimal amount, @NotNull Currency currency) {
+        return of(amount, Objects.requireNonNull(currency, "currency").getPrecision());
+    }
+
+    private static void validatePrecision(int precision) {
+        if (precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between 0 and " + MAX_PRECISION + ", got " + precision);
+        }
+    }
+
+    private final long units;
+    private final int precision;
+
+    private FixedPointAmount(long units, int precision) {
+        this.units = units;
+        this.precision = precision;
+    }
+
+    /**
+     * Returns the minor units of this amount.
+     *
+     * @return minor units
+     */
+    public long getMinorUnits() {
+        return units;
+    }
+
+    /**
+     * Returns the precision (count of fractional digits) of this amount.
+     *
+     * @return precision
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Returns the signum of this amount.
+     *
+     * @return -1, 0 or 1 as the value of this amount is negative, zero or positive
+     */
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    /**
+     * Returns the sum of this amount and the specified {@code other} amount.
+     *
+     * @param other amount to add
+     * @return sum
+     * @throws IllegalArgumentException if the precisions differ
+     * @throws ArithmeticException      if the result overflows
+     */
+    @NotNull
+    public FixedPointAmount add(@NotNull FixedPointAmount other) {
+        return new FixedPointAmount(add(units, sameUnits(other)), precision);
+    }
+
+    /**
+     * Returns the difference of this amount and the specified {@code other} amount.
+     *
+     * @param other amount to subtract
+     * @return difference
+     * @throws IllegalArgumentException if the precisions differ
+     * @throws ArithmeticException      if the result overflows
+     */
+    @NotNull
+    public FixedPointAmount subtract(@NotNull FixedPointAmount other) {
+        return new FixedPointAmount(subtract(units, sameUnits(other)), precision);
+    }
+
+    /**
+     * Returns this amount multiplied by the specified {@code multiplier}.
+     *
+     * @param multiplier multiplier
+     * @return product
+     * @throws ArithmeticException if the result overflows
+     */
+    @NotNull
+    public FixedPointAmount multiply(long multiplier) {
+        return new FixedPointAmount(Math.multiplyExact(units, multiplier), precision);
+    }
+
+    /**
+     * Returns the negation of this amount.
+     *
+     * @return negated amount
+     * @throws ArithmeticException if the result overflows
+     */
+    @NotNull
+    public FixedPointAmount negate() {
+        return new FixedPointAmount(Math.negateExact(units), precision);
+    }
+
+    /**
+     * Returns this amount as a {@link BigDecimal}, with a scale equal to the precision.
+     *
+     * @return big decimal
+     */
+    @NotNull
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, precision);
+    }
+
+    private long sameUnits(@NotNull FixedPointAmount other) {
+        Objects.requireNonNull(other, "other");
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Precision mismatch: " + precision + " and " + other.precision);
+        }
+        return other.units;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the precisions differ
+     */
+    @Override
+    public int compareTo(@NotNull FixedPointAmount other) {
+        return Long.compare(units, sameUnits(other));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FixedPointAmount)) {
+            return false;
+        }
+        FixedPointAmount other = (FixedPointAmount) o;
+        return units == other.units && precision == other.precision;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(units) + precision;
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+}
@@ -0,0 +1,505 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.currency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.economy.account.Account;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An immutable, ready to use {@link Currency} implementation.
+ * <p>Economy providers, which do not need custom formatting, can use this instead of
+ * implementing {@link Currency} themselves. Formatting and parsing rules are compiled once per
+ * {@link Locale} and cached, which makes {@link #format(BigDecimal, Locale)} and
+ * {@link #parseNow(String, Locale)} thread-safe and cheap enough to be called on every
+ * placeholder render.
+ * <p>Amounts are formatted as the {@link #getSymbol() symbol}, followed by the amount with its
+ * whole part grouped by thousands and its fractional part separated by the
+ * {@link #getDecimal(Locale) decimal character} of the locale, e.g. {@code $1,234.50}. A
+ * {@code null} locale stands for the {@link Builder#withDefaultLocale(Locale) default locale}
+ * everywhere, so that formatting, parsing and the decimal character always agree.
+ * <p>The singular {@link #getDisplayName(BigDecimal, Locale) display name} is used for exactly
+ * one, e.g. {@code 1 Dollar}, and the plural for any other value, e.g. {@code 0 Dollars} or
+ * {@code 0.5 Dollars}.
+ *
+ * @since 2.1.0
+ */
+public final class StandardCurrency implements Currency {
+
+    /**
+     * Creates a new {@link StandardCurrency.Builder}
+     *
+     * @return new builder
+     */
+    @NotNull
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    private final String identifier;
+    private final String symbol;
+    private final Locale defaultLocale;
+    private final char defaultDecimal;
+    private final Map<Locale, Character> localeDecimalMap;
+    private final DisplayName defaultDisplayName;
+    private final Map<Locale, DisplayName> displayNames;
+    private final int precision;
+    private final boolean primary;
+    private final Function<Account, BigDecimal> startingBalance;
+    private final BigDecimal conversionRate;
+
+    private final Map<Locale, LocaleFormat> formats = new ConcurrentHashMap<>();
+
+    private StandardCurrency(@NotNull Builder builder) {
+        this.identifier = builder.identifier;
+        this.symbol = builder.symbol;
+        this.defaultLocale = builder.defaultLocale;
+        this.defaultDecimal = builder.defaultDecimal;
+        this.localeDecimalMap = Collections.unmodifiableMap(new HashMap<>(builder.localeDecimalMap));
+        // computed here, so that the builder can be reused with another identifier
+        this.defaultDisplayName = builder.defaultDisplayName != null
+                ? builder.defaultDisplayName
+                : new DisplayName(builder.identifier, builder.identifier);
+        this.displayNames = Collections.unmodifiableMap(new HashMap<>(builder.displayNames));
+        this.precision = builder.precision;
+        this.primary = builder.primary;
+        this.startingBalance = builder.startingBalance;
+        this.conversionRate = builder.conversionRate;
+    }
+
+    @Override
+    public @NotNull String getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public @NotNull String getSymbol() {
+        return symbol;
+    }
+
+    @Override
+    public char getDecimal(@Nullable Locale locale) {
+        Character decimal = localeDecimalMap.get(locale == null ? defaultLocale : locale);
+        return decimal == null ? defaultDecimal : decimal;
+    }
+
+    @Override
+    public @NotNull Map<Locale, Character> getLocaleDecimalMap() {
+        return localeDecimalMap;
+    }
+
+    @Override
+    public @NotNull String getDisplayName(@NotNull BigDecimal value, @Nullable Locale locale) {
+        Objects.requireNonNull(value, "value");
+        DisplayName displayName = displayNames.get(locale == null ? defaultLocale : locale);
+        if (displayName == null) {
+            displayName = defaultDisplayName;
+        }
+        return value.compareTo(BigDecimal.ONE) == 0 ? displayName.singular : displayName.plural;
+    }
+
+    @Override
+    public int getPrecision() {
+        return precision;
+    }
+
+    @Override
+    public boolean isPrimary() {
+        return primary;
+    }
+
+    @Override
+    public @NotNull BigDecimal getStartingBalance(@NotNull Account account) {
+        return startingBalance.apply(Objects.requireNonNull(account, "account"));
+    }
+
+    @Override
+    public @NotNull BigDecimal getConversionRate() {
+        return conversionRate;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This never completes asynchronously. Callers which do not need a
+     * {@link CompletableFuture} should use {@link #parseNow(String, Locale)}.
+     */
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> parse(
+            @NotNull String formattedAmount, @Nullable Locale locale
+    ) {
+        try {
+            return CompletableFuture.completedFuture(parseNow(formattedAmount, locale));
+        } catch (TreasuryException e) {
+            return FutureHelper.failedFuture(e);
+        }
+    }
+
+    /**
+     * Synchronously converts a formatted amount string (i.e., one generated via
+     * {@link #format(BigDecimal, Locale)}) into the {@link BigDecimal} value it represents,
+     * according to the specified locale (nullable). Grouping characters and the
+     * {@link #getSymbol() symbol} are optional.
+     *
+     * @param formattedAmount formatted amount string to be parsed
+     * @param locale          the locale the amount was formatted with, or null for the default
+     *                        locale of this currency
+     * @return the parsed value
+     * @throws TreasuryException if the specified string cannot be parsed
+     */
+    @NotNull
+    public BigDecimal parseNow(@NotNull String formattedAmount, @Nullable Locale locale) {
+        Objects.requireNonNull(formattedAmount, "formattedAmount");
+        LocaleFormat format = formatFor(locale);
+
+        String input = formattedAmount.trim();
+        boolean negative = false;
+        if (input.startsWith("-")) {
+            negative = true;
+            input = input.substring(1);
+        }
+        if (!symbol.isEmpty() && input.startsWith(symbol)) {
+            input = input.substring(symbol.length());
+        }
+        if (!negative && input.startsWith("-")) {
+            negative = true;
+            input = input.substring(1);
+        }
+
+        StringBuilder number = new StringBuilder(input.length() + 1);
+        if (negative) {
+            number.append('-');
+        }
+        boolean decimalSeen = false;
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c >= '0' && c <= '9') {
+                number.append(c);
+            } else if (c == format.decimal && !decimalSeen) {
+                decimalSeen = true;
+                number.append('.');
+            } else if (c != format.grouping || decimalSeen) {
+                throw new TreasuryException("Invalid amount '" + formattedAmount + "'");
+            }
+        }
+        if (number.length() == (negative ? 1 : 0)) {
+            throw new TreasuryException("Invalid amount '" + formattedAmount + "'");
+        }
+        try {
+            return new BigDecimal(number.toString());
+        } catch (NumberFormatException e) {
+            throw new TreasuryException("Invalid amount '" + formattedAmount + "'");
+        }
+    }
+
+    @Override
+    public @NotNull String format(@NotNull BigDecimal amount, @Nullable Locale locale) {
+        return format(amount, locale, precision);
+    }
+
+    @Override
+    public @NotNull String format(
+            @NotNull BigDecimal amount, @Nullable Locale locale, int precision
+    ) {
+        Objects.requireNonNull(amount, "amount");
+        LocaleFormat format = formatFor(locale);
+
+        BigDecimal scaled = amount.setScale(Math.max(precision, 0), RoundingMode.HALF_UP);
+        String plain = scaled.abs().toPlainString();
+        int dot = plain.indexOf('.');
+        int wholeLength = dot == -1 ? plain.length() : dot;
+
+        StringBuilder ret = new StringBuilder(symbol.length() + plain.length() + wholeLength / 3 + 1);
+        if (scaled.signum() < 0) {
+            ret.append('-');
+        }
+        ret.append(symbol);
+        for (int i = 0; i < wholeLength; i++) {
+            if (i != 0 && (wholeLength - i) % 3 == 0) {
+                ret.append(format.grouping);
+            }
+            ret.append(plain.charAt(i));
+        }
+        if (dot != -1) {
+            ret.append(format.decimal).append(plain, dot + 1, plain.length());
+        }
+        return ret.toString();
+    }
+
+    @NotNull
+    private LocaleFormat formatFor(@Nullable Locale locale) {
+        return formats.computeIfAbsent(locale == null ? defaultLocale : locale, this::compileFormat);
+    }
+
+    @NotNull
+    private LocaleFormat compileFormat(@NotNull Locale locale) {
+        char decimal = getDecimal(locale);
+        char grouping = DecimalFormatSymbols.getInstance(locale).getGroupingSeparator();
+        if (grouping == decimal) {
+            grouping = decimal == '.' ? ',' : '.';
+        }
+        return new LocaleFormat(decimal, grouping);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StandardCurrency)) {
+            return false;
+        }
+        return identifier.equals(((StandardCurrency) o).identifier);
+    }
+
+    @Override
+    public int hashCode() {
+        return identifier.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "StandardCurrency{identifier='" + identifier + "', symbol='" + symbol + "', precision=" + precision + ", primary=" + primary + '}';
+    }
+
+    private static final class LocaleFormat {
+
+        private final char decimal;
+        private final char grouping;
+
+        private LocaleFormat(char decimal, char grouping) {
+            this.decimal = decimal;
+            this.grouping = grouping;
+        }
+
+    }
+
+    private static final class DisplayName {
+
+        private final String singular;
+        private final String plural;
+
+        private DisplayName(@NotNull String singular, @NotNull String plural) {
+            this.singular = singular;
+            this.plural = plural;
+        }
+
+    }
+
+    /**
+     * Represents a builder of {@link StandardCurrency}
+     *
+     * @since 2.1.0
+     */
+    public static final class Builder {
+
+        private String identifier;
+        private String symbol = "";
+        private Locale defaultLocale = Locale.ENGLISH;
+        private char defaultDecimal = '.';
+        private final Map<Locale, Character> localeDecimalMap = new HashMap<>();
+        private DisplayName defaultDisplayName;
+        private final Map<Locale, DisplayName> displayNames = new HashMap<>();
+        private int precision = 2;
+        private boolean primary;
+        private Function<Account, BigDecimal> startingBalance = $ -> BigDecimal.ZERO;
+        private BigDecimal conversionRate = BigDecimal.ONE;
+
+        private Builder() {
+        }
+
+        /**
+         * Specify the {@link Currency#getIdentifier() identifier} of the currency.
+         *
+         * @param identifier identifier
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withIdentifier(@NotNull String identifier) {
+            this.identifier = Objects.requireNonNull(identifier, "identifier");
+            return this;
+        }
+
+        /**
+         * Specify the {@link Currency#getSymbol() symbol} of the currency. Defaults to no symbol.
+         *
+         * @param symbol symbol
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withSymbol(@NotNull String symbol) {
+            this.symbol = Objects.requireNonNull(symbol, "symbol");
+            return this;
+        }
+
+        /**
+         * Specify the locale which is used whenever a {@code null} locale is given to the
+         * currency. Defaults to {@link Locale#ENGLISH}.
+         *
+         * @param defaultLocale default locale
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withDefaultLocale(@NotNull Locale defaultLocale) {
+            this.defaultLocale = Objects.requireNonNull(defaultLocale, "defaultLocale");
+            return this;
+        }
+
+        /**
+         * Specify the decimal character used for locales without a specific one. Defaults to
+         * {@code '.'}.
+         *
+         * @param decimal decimal character
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withDefaultDecimal(char decimal) {
+            this.defaultDecimal = decimal;
+            return this;
+        }
+
+        /**
+         * Specify the decimal character used for the specified {@link Locale}.
+         *
+         * @param locale  locale
+         * @param decimal decimal character
+         * @return this instance for chaining
+         */
+        @Contract("_, _ -> this")
+        public Builder withDecimal(@NotNull Locale locale, char decimal) {
+            this.localeDecimalMap.put(Objects.requireNonNull(locale, "locale"), decimal);
+            return this;
+        }
+
+        /**
+         * Specify the singular and plural display names used for locales without specific ones.
+         * Defaults to the identifier of the currency.
+         *
+         * @param singular singular display name
+         * @param plural   plural display name
+         * @return this instance for chaining
+         */
+        @Contract("_, _ -> this")
+        public Builder withDefaultDisplayName(@NotNull String singular, @NotNull String plural) {
+            this.defaultDisplayName = new DisplayName(Objects.requireNonNull(singular, "singular"),
+                    Objects.requireNonNull(plural, "plural")
+            );
+            return this;
+        }
+
+        /**
+         * Specify the singular and plural display names used for the specified {@link Locale}.
+         *
+         * @param locale   locale
+         * @param singular singular display name
+         * @param plural   plural display name
+         * @return this instance for chaining
+         */
+        @Contract("_, _, _ -> this")
+        public Builder withDisplayName(
+                @NotNull Locale locale, @NotNull String singular, @NotNull String plural
+        ) {
+            this.displayNames.put(Objects.requireNonNull(locale, "locale"),
+                    new DisplayName(Objects.requireNonNull(singular, "singular"),
+                            Objects.requireNonNull(plural, "plural")
+                    )
+            );
+            return this;
+        }
+
+        /**
+         * Specify the {@link Currency#getPrecision() precision} of the currency. Defaults to
+         * {@code 2}.
+         *
+         * @param precision precision
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withPrecision(int precision) {
+            if (precision < 0) {
+                throw new IllegalArgumentException("Precision cannot be negative");
+            }
+            this.precision = precision;
+            return this;
+        }
+
+        /**
+         * Specify whether the currency is the {@link Currency#isPrimary() primary currency}.
+         * Defaults to {@code false}.
+         *
+         * @param primary whether primary
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withPrimary(boolean primary) {
+            this.primary = primary;
+            return this;
+        }
+
+        /**
+         * Specify the starting balance of all accounts. Defaults to zero.
+         *
+         * @param startingBalance starting balance
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withStartingBalance(@NotNull BigDecimal startingBalance) {
+            Objects.requireNonNull(startingBalance, "startingBalance");
+            this.startingBalance = $ -> startingBalance;
+            return this;
+        }
+
+        /**
+         * Specify a function computing the starting balance of an account.
+         *
+         * @param startingBalance starting balance function
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withStartingBalance(@NotNull Function<Account, BigDecimal> startingBalance) {
+            this.startingBalance = Objects.requireNonNull(startingBalance, "startingBalance");
+            return this;
+        }
+
+        /**
+         * Specify the {@link Currency#getConversionRate() conversion rate} of the currency.
+         * Defaults to {@link BigDecimal#ONE}.
+         *
+         * @param conversionRate conversion rate
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withConversionRate(@NotNull BigDecimal conversionRate) {
+            this.conversionRate = Objects.requireNonNull(conversionRate, "conversionRate");
+            return this;
+        }
+
+        /**
+         * Builds the specified stuff into a new {@link StandardCurrency}
+         *
+         * @return currency
+         */
+        @NotNull
+        public StandardCurrency build() {
+            Objects.requireNonNull(identifier, "identifier");
+            return new StandardCurrency(this);
+        }
+
+    }
+
+}
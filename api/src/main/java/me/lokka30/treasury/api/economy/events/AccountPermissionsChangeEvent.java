@@ -0,0 +1,88 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.events;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import me.lokka30.treasury.api.common.misc.TriState;
+import me.lokka30.treasury.api.economy.account.AccountPermission;
+import me.lokka30.treasury.api.economy.account.NonPlayerAccount;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents an event, called by economy providers after the permissions of a player on a
+ * {@link NonPlayerAccount} have changed.
+ * <p>Treasury uses this event to keep its
+ * {@link me.lokka30.treasury.api.economy.account.MembershipIndex membership index} up to date,
+ * hence providers, which do not supply their own index, should fire it whenever permissions
+ * are changed and declare so via
+ * {@link me.lokka30.treasury.api.economy.EconomyProvider#firesAccountPermissionsChangeEvents()}.
+ *
+ * @since 2.1.0
+ */
+public class AccountPermissionsChangeEvent {
+
+    @NotNull
+    private final NonPlayerAccount account;
+    @NotNull
+    private final UUID playerId;
+    @NotNull
+    private final Map<AccountPermission, TriState> permissions;
+
+    /**
+     * Creates a new {@code AccountPermissionsChangeEvent}
+     *
+     * @param account     the account the permissions are on
+     * @param playerId    the player whose permissions changed
+     * @param permissions all the permissions of the player on the account after the change, not
+     *                    only the changed ones
+     */
+    public AccountPermissionsChangeEvent(
+            @NotNull NonPlayerAccount account,
+            @NotNull UUID playerId,
+            @NotNull Map<AccountPermission, TriState> permissions
+    ) {
+        this.account = Objects.requireNonNull(account, "account");
+        this.playerId = Objects.requireNonNull(playerId, "playerId");
+        Objects.requireNonNull(permissions, "permissions");
+        this.permissions = permissions.isEmpty()
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new EnumMap<>(permissions));
+    }
+
+    /**
+     * Returns the {@link NonPlayerAccount} the permissions are on.
+     *
+     * @return account
+     */
+    @NotNull
+    public NonPlayerAccount getAccount() {
+        return account;
+    }
+
+    /**
+     * Returns the {@link UUID} of the player whose permissions changed.
+     *
+     * @return player id
+     */
+    @NotNull
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * Returns all the permissions of the player on the account after the change.
+     *
+     * @return immutable permissions map
+     */
+    @NotNull
+    public Map<AccountPermission, TriState> getPermissions() {
+        return permissions;
+    }
+
+}
@@ -4,9 +4,14 @@
 
 package me.lokka30.treasury.api.economy.events;
 
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
 import me.lokka30.treasury.api.economy.account.Account;
 import me.lokka30.treasury.api.economy.transaction.EconomyTransaction;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents an event, called when an account does a {@link EconomyTransaction}
@@ -20,12 +25,50 @@ public class AccountTransactionEvent {
     private final EconomyTransaction economyTransaction;
     @NotNull
     private final Account account;
+    @Nullable
+    private final BigDecimal previousBalance;
+    @Nullable
+    private final BigDecimal newBalance;
+    private final long version;
 
     public AccountTransactionEvent(
             @NotNull EconomyTransaction economyTransaction, @NotNull Account account
     ) {
         this.economyTransaction = economyTransaction;
         this.account = account;
+        this.previousBalance = null;
+        this.newBalance = null;
+        this.version = -1;
+    }
+
+    /**
+     * Creates a new {@code AccountTransactionEvent} for a committed transaction. Providers fill
+     * the balances and version in at commit time, so that subscribers do not have to retrieve
+     * the balance again.
+     *
+     * @param economyTransaction the committed transaction
+     * @param account            the account
+     * @param previousBalance    the balance in the transaction currency before the transaction
+     * @param newBalance         the balance in the transaction currency after the transaction
+     * @param version            the version of the balance after the transaction. Versions of
+     *                           an account are positive and increase with every committed change.
+     * @since 2.1.0
+     */
+    public AccountTransactionEvent(
+            @NotNull EconomyTransaction economyTransaction,
+            @NotNull Account account,
+            @NotNull BigDecimal previousBalance,
+            @NotNull BigDecimal newBalance,
+            long version
+    ) {
+        if (version <= 0) {
+            throw new IllegalArgumentException("Version must be positive, got " + version);
+        }
+        this.economyTransaction = economyTransaction;
+        this.account = account;
+        this.previousBalance = Objects.requireNonNull(previousBalance, "previousBalance");
+        this.newBalance = Objects.requireNonNull(newBalance, "newBalance");
+        this.version = version;
     }
 
     /**
@@ -48,4 +91,41 @@ public class AccountTransactionEvent {
         return economyTransaction;
     }
 
+    /**
+     * Returns the balance of the {@link #getAccount() account} in the transaction currency
+     * before the transaction, if the provider specified it.
+     *
+     * @return previous balance or an empty optional
+     * @since 2.1.0
+     */
+    @NotNull
+    public Optional<BigDecimal> getPreviousBalance() {
+        return Optional.ofNullable(previousBalance);
+    }
+
+    /**
+     * Returns the balance of the {@link #getAccount() account} in the transaction currency
+     * after the transaction, if the provider specified it.
+     *
+     * @return new balance or an empty optional
+     * @since 2.1.0
+     */
+    @NotNull
+    public Optional<BigDecimal> getNewBalance() {
+        return Optional.ofNullable(newBalance);
+    }
+
+    /**
+     * Returns the version of the balance of the {@link #getAccount() account} after the
+     * transaction, if the provider specified it. Versions of an account increase with every
+     * committed change, so subscribers can detect events received out of order or missed.
+     *
+     * @return version or an empty optional
+     * @since 2.1.0
+     */
+    @NotNull
+    public OptionalLong getVersion() {
+        return version > 0 ? OptionalLong.of(version) : OptionalLong.empty();
+    }
+
 }
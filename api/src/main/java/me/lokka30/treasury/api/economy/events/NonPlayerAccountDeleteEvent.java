@@ -0,0 +1,47 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.events;
+
+import java.util.Objects;
+import me.lokka30.treasury.api.common.NamespacedKey;
+import me.lokka30.treasury.api.economy.account.NonPlayerAccount;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents an event, called by economy providers after a {@link NonPlayerAccount} has been
+ * deleted.
+ * <p>Treasury uses this event to drop the deleted account from its
+ * {@link me.lokka30.treasury.api.economy.account.MembershipIndex membership index}, hence
+ * providers declaring to
+ * {@link me.lokka30.treasury.api.economy.EconomyProvider#firesAccountPermissionsChangeEvents()
+ * fire permission change events} should fire it as well.
+ *
+ * @since 2.1.0
+ */
+public class NonPlayerAccountDeleteEvent {
+
+    @NotNull
+    private final NamespacedKey identifier;
+
+    /**
+     * Creates a new {@code NonPlayerAccountDeleteEvent}
+     *
+     * @param identifier the identifier of the deleted account
+     */
+    public NonPlayerAccountDeleteEvent(@NotNull NamespacedKey identifier) {
+        this.identifier = Objects.requireNonNull(identifier, "identifier");
+    }
+
+    /**
+     * Returns the identifier of the deleted {@link NonPlayerAccount}.
+     *
+     * @return account identifier
+     */
+    @NotNull
+    public NamespacedKey getIdentifier() {
+        return identifier;
+    }
+
+}
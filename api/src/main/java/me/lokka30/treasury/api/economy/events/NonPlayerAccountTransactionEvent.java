@@ -4,6 +4,7 @@
 
 package me.lokka30.treasury.api.economy.events;
 
+import java.math.BigDecimal;
 import me.lokka30.treasury.api.economy.account.NonPlayerAccount;
 import me.lokka30.treasury.api.economy.transaction.EconomyTransaction;
 import org.jetbrains.annotations.NotNull;
@@ -23,6 +24,27 @@ public class NonPlayerAccountTransactionEvent extends AccountTransactionEvent {
         super(economyTransaction, account);
     }
 
+    /**
+     * Creates a new {@code NonPlayerAccountTransactionEvent} for a committed transaction.
+     *
+     * @param economyTransaction the committed transaction
+     * @param account            the account
+     * @param previousBalance    the balance in the transaction currency before the transaction
+     * @param newBalance         the balance in the transaction currency after the transaction
+     * @param version            the version of the balance after the transaction
+     * @see AccountTransactionEvent#getVersion()
+     * @since 2.1.0
+     */
+    public NonPlayerAccountTransactionEvent(
+            @NotNull EconomyTransaction economyTransaction,
+            @NotNull NonPlayerAccount account,
+            @NotNull BigDecimal previousBalance,
+            @NotNull BigDecimal newBalance,
+            long version
+    ) {
+        super(economyTransaction, account, previousBalance, newBalance, version);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,401 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.transaction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.events.AccountTransactionEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link TransactionActivity}, which keeps its counters in memory, fed via
+ * {@link #record(AccountTransactionEvent)}.
+ * <p>Every window is split into a fixed count of buckets, which are kept in a ring of
+ * primitive arrays per account and currency, along with the running totals of the window. As
+ * time passes, the oldest bucket is dropped from the totals, so that a window covers the
+ * current bucket and the ones before it, i.e. it is accurate to one bucket. Recording a
+ * transaction and querying a window take O(windows) respectively O(1), plus dropping the
+ * buckets passed since the account was last used, at most the bucket count.
+ * <p>Amounts are kept as fixed point numbers with {@value #AMOUNT_SCALE} decimal places, so
+ * that adding and dropping buckets does not accumulate rounding errors. Finer amounts are
+ * rounded half even. The sums are exact as long as they stay within the range of a
+ * {@code long}, i.e. about 9.2 * 10<sup>14</sup>, beyond which they saturate at that value.
+ * <p>Accounts without a transaction within the longest window are evicted, once per bucket of
+ * the longest window, on the next use of the activity. Counters start when the activity is
+ * created, transactions done before are not counted.
+ *
+ * @since 2.1.0
+ */
+public final class MemoryTransactionActivity implements TransactionActivity {
+
+    /**
+     * The windows used by Treasury: 5 minutes, 1 hour and 24 hours.
+     */
+    public static final List<Duration> DEFAULT_WINDOWS = Collections.unmodifiableList(Arrays.asList(
+            Duration.ofMinutes(5),
+            Duration.ofHours(1),
+            Duration.ofHours(24)
+    ));
+
+    /**
+     * The count of the decimal places the amounts are kept with.
+     */
+    public static final int AMOUNT_SCALE = 4;
+
+    // deposits and withdrawals
+    private static final int TYPES = 2;
+
+    private final EconomyProvider provider;
+    private final List<Duration> windows;
+    private final long[] bucketMillis;
+    private final int buckets;
+    private final long idleMillis;
+    private final LongSupplier clock;
+    private final Map<Key, Counters> counters = new ConcurrentHashMap<>();
+    private final AtomicLong nextEviction = new AtomicLong();
+
+    /**
+     * Creates a new, empty {@code MemoryTransactionActivity}
+     *
+     * @param provider the economy provider whose transactions are to be counted
+     * @param windows  the windows to count transactions in
+     * @param buckets  the count of buckets every window is split into, the higher the more
+     *                 accurate and memory consuming
+     * @throws IllegalArgumentException if no window is specified, a window is shorter than the
+     *                                  bucket count in milliseconds, or the bucket count is not
+     *                                  positive
+     */
+    public MemoryTransactionActivity(
+            @NotNull EconomyProvider provider, @NotNull List<Duration> windows, int buckets
+    ) {
+        this(provider, windows, buckets, System::currentTimeMillis);
+    }
+
+    MemoryTransactionActivity(
+            @NotNull EconomyProvider provider,
+            @NotNull List<Duration> windows,
+            int buckets,
+            @NotNull LongSupplier clock
+    ) {
+        this.provider = Objects.requireNonNull(provider, "provider");
+        Objects.requireNonNull(windows, "windows");
+        if (windows.isEmpty() || buckets <= 0) {
+            throw new IllegalArgumentException("Invalid windows " + windows + " or buckets " + buckets);
+        }
+        List<Duration> sorted = new ArrayList<>(windows);
+        Collections.sort(sorted);
+        this.windows = Collections.unmodifiableList(sorted);
+        this.bucketMillis = new long[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            bucketMillis[i] = sorted.get(i).toMillis() / buckets;
+            if (bucketMillis[i] <= 0) {
+                throw new IllegalArgumentException("Window " + sorted.get(i) + " is too short for " + buckets + " buckets");
+            }
+        }
+        this.buckets = buckets;
+        this.idleMillis = sorted.get(sorted.size() - 1).toMillis();
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /**
+     * Returns the {@link EconomyProvider} whose transactions this activity counts.
+     *
+     * @return economy provider
+     */
+    @NotNull
+    public EconomyProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Counts the transaction of the specified {@link AccountTransactionEvent}. Transactions
+     * setting the balance are ignored.
+     *
+     * @param event the transaction event
+     */
+    public void record(@NotNull AccountTransactionEvent event) {
+        Objects.requireNonNull(event, "event");
+
+        EconomyTransaction transaction = event.getTransaction();
+        if (transaction.getType() == EconomyTransactionType.SET) {
+            return;
+        }
+        record(AccountData.forAccount(event.getAccount()),
+                transaction.getCurrencyId(),
+                transaction.getType(),
+                transaction.getAmount()
+        );
+    }
+
+    /**
+     * Counts a transaction of the specified account, done now.
+     *
+     * @param account    the account
+     * @param currencyId the identifier of the currency
+     * @param type       the type of the transaction, either deposit or withdrawal
+     * @param amount     the amount of the transaction
+     * @throws IllegalArgumentException if the type is {@link EconomyTransactionType#SET}
+     */
+    public void record(
+            @NotNull AccountData account,
+            @NotNull String currencyId,
+            @NotNull EconomyTransactionType type,
+            @NotNull BigDecimal amount
+    ) {
+        Objects.requireNonNull(account, "account");
+        Objects.requireNonNull(currencyId, "currencyId");
+        Objects.requireNonNull(amount, "amount");
+        int typeIndex = typeIndex(type);
+        BigDecimal scaled = amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_EVEN);
+        long scaledAmount;
+        try {
+            scaledAmount = scaled.unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            scaledAmount = scaled.signum() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+
+        long now = clock.getAsLong();
+        evictIfDue(now);
+        Key key = new Key(account, currencyId);
+        while (true) {
+            Counters accountCounters = counters.computeIfAbsent(key, $ -> new Counters(now));
+            synchronized (accountCounters) {
+                if (counters.get(key) != accountCounters) {
+                    // evicted in between
+                    continue;
+                }
+                for (int window = 0; window < bucketMillis.length; window++) {
+                    advance(accountCounters, window, now);
+                    int total = window * TYPES + typeIndex;
+                    int slot = total * buckets + (int) (accountCounters.heads[window] % buckets);
+                    accountCounters.counts[slot]++;
+                    accountCounters.amounts[slot] = addSaturated(accountCounters.amounts[slot], scaledAmount);
+                    accountCounters.countTotals[total]++;
+                    accountCounters.amountTotals[total] = addSaturated(accountCounters.amountTotals[total],
+                            scaledAmount
+                    );
+                }
+                accountCounters.lastRecorded = now;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean covers(@NotNull EconomyProvider provider) {
+        return this.provider == provider;
+    }
+
+    @Override
+    public @NotNull List<Duration> getWindows() {
+        return windows;
+    }
+
+    @Override
+    public long countTransactions(
+            @NotNull AccountData account,
+            @NotNull String currencyId,
+            @NotNull EconomyTransactionType type,
+            @NotNull Duration window
+    ) {
+        int total = totalIndex(window, type);
+        long now = clock.getAsLong();
+        evictIfDue(now);
+        Counters accountCounters = counters.get(new Key(account, currencyId));
+        if (accountCounters == null) {
+            return 0;
+        }
+        synchronized (accountCounters) {
+            advance(accountCounters, total / TYPES, now);
+            return accountCounters.countTotals[total];
+        }
+    }
+
+    @Override
+    public @NotNull BigDecimal sumAmounts(
+            @NotNull AccountData account,
+            @NotNull String currencyId,
+            @NotNull EconomyTransactionType type,
+            @NotNull Duration window
+    ) {
+        int total = totalIndex(window, type);
+        long now = clock.getAsLong();
+        evictIfDue(now);
+        Counters accountCounters = counters.get(new Key(account, currencyId));
+        if (accountCounters == null) {
+            return BigDecimal.ZERO;
+        }
+        synchronized (accountCounters) {
+            advance(accountCounters, total / TYPES, now);
+            return BigDecimal.valueOf(accountCounters.amountTotals[total], AMOUNT_SCALE);
+        }
+    }
+
+    /**
+     * Evicts the counters of all the accounts, which did no transaction within the longest
+     * window, right away.
+     *
+     * @return count of the evicted counters
+     */
+    public int evictIdle() {
+        long now = clock.getAsLong();
+        AtomicInteger evicted = new AtomicInteger();
+        counters.forEach((key, accountCounters) -> {
+            synchronized (accountCounters) {
+                if (now - accountCounters.lastRecorded >= idleMillis && counters.remove(key, accountCounters)) {
+                    evicted.incrementAndGet();
+                }
+            }
+        });
+        return evicted.get();
+    }
+
+    /**
+     * Returns the count of the accounts and currencies counters are currently kept for.
+     *
+     * @return count of the kept counters
+     */
+    public int size() {
+        return counters.size();
+    }
+
+    private void evictIfDue(long now) {
+        long due = nextEviction.get();
+        if (now >= due && nextEviction.compareAndSet(due, now + bucketMillis[bucketMillis.length - 1])) {
+            evictIdle();
+        }
+    }
+
+    private void advance(@NotNull Counters accountCounters, int window, long now) {
+        long head = now / bucketMillis[window];
+        long behind = head - accountCounters.heads[window];
+        if (behind <= 0) {
+            return;
+        }
+        int steps = (int) Math.min(behind, buckets);
+        for (int type = 0; type < TYPES; type++) {
+            int total = window * TYPES + type;
+            long amountTotal = accountCounters.amountTotals[total];
+            // a saturated total does not know how much to subtract
+            boolean saturated = amountTotal == Long.MAX_VALUE || amountTotal == Long.MIN_VALUE;
+            for (int step = 1; step <= steps; step++) {
+                int slot = total * buckets + (int) ((accountCounters.heads[window] + step) % buckets);
+                accountCounters.countTotals[total] -= accountCounters.counts[slot];
+                accountCounters.amountTotals[total] -= accountCounters.amounts[slot];
+                accountCounters.counts[slot] = 0;
+                accountCounters.amounts[slot] = 0;
+            }
+            if (saturated) {
+                amountTotal = 0;
+                for (int bucket = 0; bucket < buckets; bucket++) {
+                    amountTotal = addSaturated(amountTotal, accountCounters.amounts[total * buckets + bucket]);
+                }
+                accountCounters.amountTotals[total] = amountTotal;
+            }
+        }
+        accountCounters.heads[window] = head;
+    }
+
+    private static long addSaturated(long a, long b) {
+        long sum = a + b;
+        // overflowed if both have the same sign, which the sum does not
+        if (((a ^ sum) & (b ^ sum)) < 0) {
+            return a < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        return sum;
+    }
+
+    private int totalIndex(@NotNull Duration window, @NotNull EconomyTransactionType type) {
+        Objects.requireNonNull(window, "window");
+        int typeIndex = typeIndex(type);
+        int windowIndex = windows.indexOf(window);
+        if (windowIndex == -1) {
+            throw new IllegalArgumentException("Window " + window + " is not one of " + windows);
+        }
+        return windowIndex * TYPES + typeIndex;
+    }
+
+    private static int typeIndex(@NotNull EconomyTransactionType type) {
+        Objects.requireNonNull(type, "type");
+        switch (type) {
+            case DEPOSIT:
+                return 0;
+            case WITHDRAWAL:
+                return 1;
+            default:
+                throw new IllegalArgumentException("Transactions of type " + type + " are not counted");
+        }
+    }
+
+    private final class Counters {
+
+        // [window][type][bucket]
+        private final int[] counts;
+        private final long[] amounts;
+        // [window][type]
+        private final long[] countTotals;
+        private final long[] amountTotals;
+        // [window], the number of the current bucket since the epoch
+        private final long[] heads;
+        private long lastRecorded;
+
+        Counters(long now) {
+            int totals = bucketMillis.length * TYPES;
+            this.counts = new int[totals * buckets];
+            this.amounts = new long[totals * buckets];
+            this.countTotals = new long[totals];
+            this.amountTotals = new long[totals];
+            this.heads = new long[bucketMillis.length];
+            for (int window = 0; window < bucketMillis.length; window++) {
+                heads[window] = now / bucketMillis[window];
+            }
+            this.lastRecorded = now;
+        }
+
+    }
+
+    private static final class Key {
+
+        private final AccountData account;
+        private final String currencyId;
+
+        Key(@NotNull AccountData account, @NotNull String currencyId) {
+            this.account = Objects.requireNonNull(account, "account");
+            this.currencyId = Objects.requireNonNull(currencyId, "currencyId");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return account.equals(key.account) && currencyId.equals(key.currencyId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(account, currencyId);
+        }
+
+    }
+
+}
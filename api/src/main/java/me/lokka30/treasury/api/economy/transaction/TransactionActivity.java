@@ -0,0 +1,91 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.transaction;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.EconomyProviderService;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents rolling counters of the recent {@link EconomyTransaction transactions} of every
+ * account of an {@link EconomyProvider}, e.g. the count of the deposits of a player in the last
+ * 5 minutes. This lets anti-exploit checks run on every transaction, without
+ * {@link me.lokka30.treasury.api.economy.account.Account#retrieveTransactionHistory(TransactionHistoryQuery)
+ * reading the transaction history}.
+ * <p>Counters are kept for a fixed set of {@link #getWindows() windows}, per account, currency
+ * and {@link EconomyTransactionType#DEPOSIT deposits} respectively
+ * {@link EconomyTransactionType#WITHDRAWAL withdrawals}. Transactions setting the balance are
+ * not counted.
+ * <p>Treasury maintains a {@link MemoryTransactionActivity} for the economy provider in use.
+ * Providers may supply their own by overriding {@link EconomyProvider#transactionActivity()}.
+ *
+ * @see MemoryTransactionActivity
+ * @since 2.1.0
+ */
+public interface TransactionActivity extends EconomyProviderService {
+
+    /**
+     * Returns whether this activity covers the accounts of the specified
+     * {@link EconomyProvider}.
+     *
+     * @param provider economy provider
+     * @return whether this activity can be used for the specified provider
+     */
+    @Override
+    boolean covers(@NotNull EconomyProvider provider);
+
+    /**
+     * Returns the windows, which can be queried, from the shortest to the longest.
+     *
+     * @return windows
+     */
+    @NotNull List<Duration> getWindows();
+
+    /**
+     * Returns the count of the transactions of the specified type, which the specified account
+     * did in the currency with the specified identifier within the specified window.
+     *
+     * @param account    the account
+     * @param currencyId the identifier of the currency
+     * @param type       the type of the transactions, either deposit or withdrawal
+     * @param window     one of the {@link #getWindows() windows}
+     * @return transaction count
+     * @throws IllegalArgumentException if the window is not one of the {@link #getWindows()
+     *                                  windows}, or the type is
+     *                                  {@link EconomyTransactionType#SET}
+     */
+    long countTransactions(
+            @NotNull AccountData account,
+            @NotNull String currencyId,
+            @NotNull EconomyTransactionType type,
+            @NotNull Duration window
+    );
+
+    /**
+     * Returns the sum of the amounts of the transactions of the specified type, which the
+     * specified account did in the currency with the specified identifier within the specified
+     * window.
+     *
+     * @param account    the account
+     * @param currencyId the identifier of the currency
+     * @param type       the type of the transactions, either deposit or withdrawal
+     * @param window     one of the {@link #getWindows() windows}
+     * @return sum of the transaction amounts
+     * @throws IllegalArgumentException if the window is not one of the {@link #getWindows()
+     *                                  windows}, or the type is
+     *                                  {@link EconomyTransactionType#SET}
+     */
+    @NotNull BigDecimal sumAmounts(
+            @NotNull AccountData account,
+            @NotNull String currencyId,
+            @NotNull EconomyTransactionType type,
+            @NotNull Duration window
+    );
+
+}
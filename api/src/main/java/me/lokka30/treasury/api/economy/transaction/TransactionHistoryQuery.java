@@ -0,0 +1,420 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.api.economy.transaction;
+
+import java.time.Instant;
+import java.time.temporal.Temporal;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.misc.Page;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a query of a single {@link Page page} of the {@link EconomyTransaction} history of
+ * an {@link me.lokka30.treasury.api.economy.account.Account Account}.
+ * <p>A query describes the time window, the ordering, the page size and the filters of the
+ * requested transactions. Economy providers are expected to push the filters down to their
+ * storage, so that only the requested page is ever loaded. Note that the default
+ * {@link me.lokka30.treasury.api.economy.account.Account#retrieveTransactionHistory(TransactionHistoryQuery)
+ * implementation} is not bounded: it loads the whole time window for every page.
+ *
+ * @see me.lokka30.treasury.api.economy.account.Account#retrieveTransactionHistory(TransactionHistoryQuery)
+ * @since 2.1.0
+ */
+public final class TransactionHistoryQuery {
+
+    /**
+     * Creates a new {@link TransactionHistoryQuery.Builder}
+     *
+     * @return new builder
+     */
+    @NotNull
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Represents the order in which the transactions are returned.
+     *
+     * @since 2.1.0
+     */
+    public enum Order {
+
+        /**
+         * The most recent transactions are returned first.
+         */
+        NEWEST_FIRST,
+
+        /**
+         * The oldest transactions are returned first.
+         */
+        OLDEST_FIRST;
+
+        /**
+         * Returns a {@link Comparator} sorting transactions by their
+         * {@link EconomyTransaction#getTimestamp() timestamp} in this order. Transactions with
+         * equal timestamps are ordered by their currency, type, amount, cause, reason and
+         * importance, so that the order, and thus the pages, are stable.
+         *
+         * @return comparator
+         */
+        @NotNull
+        public Comparator<EconomyTransaction> comparator() {
+            Comparator<EconomyTransaction> comparator = Comparator
+                    .comparing(EconomyTransaction::getTimestamp)
+                    .thenComparing(EconomyTransaction::getCurrencyId)
+                    .thenComparing(EconomyTransaction::getType)
+                    .thenComparing(EconomyTransaction::getAmount)
+                    .thenComparing(transaction -> String.valueOf(transaction.getCause().identifier()))
+                    .thenComparing(transaction -> transaction.getReason().orElse(""))
+                    .thenComparing(EconomyTransaction::getImportance);
+            return this == OLDEST_FIRST ? comparator : comparator.reversed();
+        }
+    }
+
+    private final Instant from;
+    private final Instant to;
+    private final Order order;
+    private final int pageSize;
+    private final String continuationToken;
+    private final Set<EconomyTransactionType> types;
+    private final Set<String> currencyIds;
+    private final Cause<?> cause;
+
+    private TransactionHistoryQuery(@NotNull Builder builder, @NotNull Instant to) {
+        this.from = builder.from;
+        this.to = to;
+        this.order = builder.order;
+        this.pageSize = builder.pageSize;
+        this.continuationToken = builder.continuationToken;
+        this.types = Collections.unmodifiableSet(EnumSet.copyOf(builder.types));
+        this.currencyIds = Collections.unmodifiableSet(new HashSet<>(builder.currencyIds));
+        this.cause = builder.cause;
+    }
+
+    /**
+     * Returns the timestamp from which (inclusive) transactions are requested.
+     *
+     * @return from timestamp
+     */
+    @NotNull
+    public Instant getFrom() {
+        return from;
+    }
+
+    /**
+     * Returns the timestamp to which (inclusive) transactions are requested.
+     *
+     * @return to timestamp
+     */
+    @NotNull
+    public Instant getTo() {
+        return to;
+    }
+
+    /**
+     * Returns the {@link Order} in which transactions are requested.
+     *
+     * @return order
+     */
+    @NotNull
+    public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns the maximum amount of transactions in the requested page.
+     *
+     * @return page size
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns the {@link Page#getContinuationToken() continuation token} of the previous page,
+     * or an empty {@link Optional} if the first page is requested.
+     *
+     * @return continuation token
+     */
+    @NotNull
+    public Optional<String> getContinuationToken() {
+        return Optional.ofNullable(continuationToken);
+    }
+
+    /**
+     * Returns the {@link EconomyTransactionType types} of the requested transactions. An empty
+     * set means transactions of all types are requested.
+     *
+     * @return immutable set of types
+     */
+    @NotNull
+    public Set<EconomyTransactionType> getTypes() {
+        return types;
+    }
+
+    /**
+     * Returns the {@link Currency#getIdentifier() identifiers} of the currencies of the
+     * requested transactions. An empty set means transactions of all currencies are requested.
+     *
+     * @return immutable set of currency identifiers
+     */
+    @NotNull
+    public Set<String> getCurrencyIds() {
+        return currencyIds;
+    }
+
+    /**
+     * Returns the {@link Cause} of the requested transactions, or an empty {@link Optional} if
+     * transactions of all causes are requested.
+     *
+     * @return cause
+     */
+    @NotNull
+    public Optional<Cause<?>> getCause() {
+        return Optional.ofNullable(cause);
+    }
+
+    /**
+     * Checks whether the specified {@link EconomyTransaction} matches the time window and the
+     * filters of this query. This is a helper for economy providers which cannot push the query
+     * down to their storage.
+     *
+     * @param transaction the transaction to check
+     * @return whether the transaction matches
+     */
+    public boolean matches(@NotNull EconomyTransaction transaction) {
+        Objects.requireNonNull(transaction, "transaction");
+        Instant timestamp = transaction.getTimestamp();
+        if (timestamp.isBefore(from) || timestamp.isAfter(to)) {
+            return false;
+        }
+        if (!types.isEmpty() && !types.contains(transaction.getType())) {
+            return false;
+        }
+        if (!currencyIds.isEmpty() && !currencyIds.contains(transaction.getCurrencyId())) {
+            return false;
+        }
+        return cause == null || cause.equals(transaction.getCause());
+    }
+
+    /**
+     * Creates a {@link Builder} with the same parameters as this query.
+     *
+     * @return builder
+     */
+    @NotNull
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.from = this.from;
+        builder.to = this.to;
+        builder.order = this.order;
+        builder.pageSize = this.pageSize;
+        builder.continuationToken = this.continuationToken;
+        builder.types.addAll(this.types);
+        builder.currencyIds.addAll(this.currencyIds);
+        builder.cause = this.cause;
+        return builder;
+    }
+
+    /**
+     * Returns the query for the page after the specified {@code page}, which must have been
+     * retrieved with this query.
+     *
+     * @param page the page retrieved with this query
+     * @return query for the next page, or an empty {@link Optional} if there is no next page
+     */
+    @NotNull
+    public Optional<TransactionHistoryQuery> next(@NotNull Page<EconomyTransaction> page) {
+        Objects.requireNonNull(page, "page");
+        return page.getContinuationToken().map(token -> this
+                .toBuilder()
+                .withContinuationToken(token)
+                .build());
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionHistoryQuery{from=" + from
+                + ", to=" + to
+                + ", order=" + order
+                + ", pageSize=" + pageSize
+                + ", continuationToken='" + continuationToken + "'"
+                + ", types=" + types
+                + ", currencyIds=" + currencyIds
+                + ", cause=" + (cause == null ? null : cause.identifier())
+                + "}";
+    }
+
+    /**
+     * Represents a builder of {@link TransactionHistoryQuery}
+     *
+     * @since 2.1.0
+     */
+    public static final class Builder {
+
+        private Instant from = Instant.EPOCH;
+        private Instant to;
+        private Order order = Order.NEWEST_FIRST;
+        private int pageSize = Page.DEFAULT_PAGE_SIZE;
+        private String continuationToken;
+        private final Set<EconomyTransactionType> types = EnumSet.noneOf(EconomyTransactionType.class);
+        private final Set<String> currencyIds = new HashSet<>();
+        private Cause<?> cause;
+
+        private Builder() {
+        }
+
+        /**
+         * Specify the timestamp from which (inclusive) transactions are requested. Defaults to
+         * {@link Instant#EPOCH}.
+         *
+         * @param from from timestamp
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withFrom(@NotNull Temporal from) {
+            this.from = toInstant(Objects.requireNonNull(from, "from"));
+            return this;
+        }
+
+        /**
+         * Specify the timestamp to which (inclusive) transactions are requested. Defaults to the
+         * time the query is built at.
+         *
+         * @param to to timestamp
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withTo(@NotNull Temporal to) {
+            this.to = toInstant(Objects.requireNonNull(to, "to"));
+            return this;
+        }
+
+        /**
+         * Specify the {@link Order} of the requested transactions. Defaults to
+         * {@link Order#NEWEST_FIRST}.
+         *
+         * @param order order
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withOrder(@NotNull Order order) {
+            this.order = Objects.requireNonNull(order, "order");
+            return this;
+        }
+
+        /**
+         * Specify the maximum amount of transactions in the requested page. Defaults to
+         * {@link Page#DEFAULT_PAGE_SIZE}.
+         *
+         * @param pageSize page size
+         * @return this instance for chaining
+         * @throws IllegalArgumentException if the page size is not positive
+         */
+        @Contract("_ -> this")
+        public Builder withPageSize(int pageSize) {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("Page size must be positive, got " + pageSize);
+            }
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Specify the {@link Page#getContinuationToken() continuation token} of the previous
+         * page, in order to request the next one.
+         *
+         * @param continuationToken continuation token, or null to request the first page
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withContinuationToken(@Nullable String continuationToken) {
+            this.continuationToken = continuationToken;
+            return this;
+        }
+
+        /**
+         * Specify a {@link EconomyTransactionType type} of the requested transactions. May be
+         * called multiple times to request transactions of multiple types.
+         *
+         * @param type transaction type
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withType(@NotNull EconomyTransactionType type) {
+            this.types.add(Objects.requireNonNull(type, "type"));
+            return this;
+        }
+
+        /**
+         * Specify a {@link Currency} of the requested transactions. May be called multiple times
+         * to request transactions of multiple currencies.
+         *
+         * @param currency currency
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withCurrency(@NotNull Currency currency) {
+            return withCurrencyId(Objects.requireNonNull(currency, "currency").getIdentifier());
+        }
+
+        /**
+         * Specify a {@link Currency#getIdentifier() currency identifier} of the requested
+         * transactions. May be called multiple times to request transactions of multiple
+         * currencies.
+         *
+         * @param currencyId currency id
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withCurrencyId(@NotNull String currencyId) {
+            this.currencyIds.add(Objects.requireNonNull(currencyId, "currencyId"));
+            return this;
+        }
+
+        /**
+         * Specify the {@link Cause} of the requested transactions.
+         *
+         * @param cause cause, or null to request transactions of all causes
+         * @return this instance for chaining
+         */
+        @Contract("_ -> this")
+        public Builder withCause(@Nullable Cause<?> cause) {
+            this.cause = cause;
+            return this;
+        }
+
+        /**
+         * Builds the specified stuff into a new {@link TransactionHistoryQuery}
+         *
+         * @return transaction history query
+         */
+        @NotNull
+        public TransactionHistoryQuery build() {
+            Instant to = this.to == null ? Instant.now() : this.to;
+            if (from.isAfter(to)) {
+                throw new IllegalArgumentException("from is after to");
+            }
+            return new TransactionHistoryQuery(this, to);
+        }
+
+        @NotNull
+        private static Instant toInstant(@NotNull Temporal temporal) {
+            return temporal instanceof Instant ? (Instant) temporal : Instant.from(temporal);
+        }
+
+    }
+
+}
@@ -0,0 +1,32 @@
+package me.lokka30.treasury.api.common.misc;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FutureHelperTest {
+
+    @Test
+    void testContinueOn() {
+        ExecutorService executor = Executors.newSingleThreadExecutor(task -> new Thread(task,
+                "provider"
+        ));
+        try {
+            CompletableFuture<String> done = CompletableFuture.completedFuture("done");
+            Assertions.assertSame(done, FutureHelper.continueOn(done, executor));
+
+            CompletableFuture<String> pending = new CompletableFuture<>();
+            CompletableFuture<String> thread = FutureHelper.thenComposeOn(pending,
+                    executor,
+                    $ -> CompletableFuture.completedFuture(Thread.currentThread().getName())
+            );
+            pending.complete("pending");
+            Assertions.assertEquals("provider", thread.join());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+package me.lokka30.treasury.api.common.misc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PageTest {
+
+    private static final List<Integer> ALL = Arrays.asList(1, 2, 3, 4, 5);
+
+    @Test
+    void testSlice() {
+        Page<Integer> first = Page.slice(ALL, 2, null);
+        Assertions.assertEquals(Arrays.asList(1, 2), first.getItems());
+        Assertions.assertTrue(first.hasNext());
+
+        Page<Integer> second = Page.slice(ALL, 2, first.getContinuationToken().orElse(null));
+        Assertions.assertEquals(Arrays.asList(3, 4), second.getItems());
+
+        Page<Integer> last = Page.slice(ALL, 2, second.getContinuationToken().orElse(null));
+        Assertions.assertEquals(Arrays.asList(5), last.getItems());
+        Assertions.assertFalse(last.hasNext());
+    }
+
+    @Test
+    void testSliceInvalidToken() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Page.slice(ALL, 2, "foo"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Page.slice(ALL, 0, null));
+    }
+
+    @Test
+    void testAfter() {
+        List<String> all = new ArrayList<>(Arrays.asList("d", "b", "e", "a", "c"));
+        Page<String> first = Page.after(all, Function.identity(), 2, null);
+        Assertions.assertEquals(Arrays.asList("a", "b"), first.getItems());
+        Assertions.assertEquals(Optional.of("b"), first.getContinuationToken());
+
+        // items added or removed between pages neither shift nor repeat the others
+        all.remove("a");
+        all.add("aa");
+        Page<String> second = Page.after(all, Function.identity(), 2, "b");
+        Assertions.assertEquals(Arrays.asList("c", "d"), second.getItems());
+
+        Page<String> last = Page.after(all, Function.identity(), 2, "d");
+        Assertions.assertEquals(Arrays.asList("e"), last.getItems());
+        Assertions.assertFalse(last.hasNext());
+
+        Page<String> exact = Page.after(all, Function.identity(), 5, null);
+        Assertions.assertEquals(Arrays.asList("aa", "b", "c", "d", "e"), exact.getItems());
+        Assertions.assertFalse(exact.hasNext());
+    }
+
+    @Test
+    void testForEachPage() {
+        List<Integer> collected = new ArrayList<>();
+        Page.forEachPage(
+                token -> CompletableFuture.completedFuture(Page.slice(ALL, 2, token)),
+                items -> {
+                    Assertions.assertTrue(items.size() <= 2);
+                    collected.addAll(items);
+                    return CompletableFuture.completedFuture(null);
+                }
+        ).join();
+
+        Assertions.assertEquals(ALL, collected);
+    }
+
+    @Test
+    void testForEachPageManyPages() {
+        // pages completing right away must not deepen the stack
+        List<Integer> all = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            all.add(i);
+        }
+        AtomicInteger counted = new AtomicInteger();
+        Page.forEachPage(all, 1, items -> {
+            counted.addAndGet(items.size());
+            return CompletableFuture.completedFuture(null);
+        }).join();
+
+        Assertions.assertEquals(all.size(), counted.get());
+    }
+
+    @Test
+    void testForEachPageFailure() {
+        IllegalStateException error = new IllegalStateException("test");
+        CompletableFuture<Void> future = Page.forEachPage(ALL, 2, items -> {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(error);
+            return failed;
+        });
+
+        CompletionException thrown = Assertions.assertThrows(CompletionException.class,
+                future::join
+        );
+        Assertions.assertSame(error, thrown.getCause());
+    }
+
+}
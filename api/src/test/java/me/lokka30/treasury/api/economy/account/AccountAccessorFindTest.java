@@ -0,0 +1,44 @@
+package me.lokka30.treasury.api.economy.account;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.lokka30.treasury.api.economy.account.accessor.PlayerAccountAccessor;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AccountAccessorFindTest {
+
+    @Test
+    void testFindNeverCreates() {
+        UUID existing = UUID.randomUUID();
+        NoAccountsProvider provider = new NoAccountsProvider() {
+            @Override
+            public @NotNull CompletableFuture<Boolean> hasAccount(@NotNull AccountData accountData) {
+                return CompletableFuture.completedFuture(accountData
+                        .getPlayerIdentifier()
+                        .filter(existing::equals)
+                        .isPresent());
+            }
+        };
+        AtomicInteger created = new AtomicInteger();
+        PlayerAccountAccessor accessor = new PlayerAccountAccessor(provider) {
+            @Override
+            protected @NotNull CompletableFuture<PlayerAccount> getOrCreate(@NotNull PlayerAccountCreateContext context) {
+                if (!context.getUniqueId().equals(existing)) {
+                    created.incrementAndGet();
+                }
+                return CompletableFuture.completedFuture(new MemoryPlayerAccount(context.getUniqueId()));
+            }
+        };
+
+        Optional<PlayerAccount> found = accessor.withUniqueId(existing).find().join();
+        Assertions.assertTrue(found.isPresent());
+        Assertions.assertEquals(existing, found.get().identifier());
+        Assertions.assertFalse(accessor.withUniqueId(UUID.randomUUID()).find().join().isPresent());
+        Assertions.assertEquals(0, created.get());
+    }
+
+}
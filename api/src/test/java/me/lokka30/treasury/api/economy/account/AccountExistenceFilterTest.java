@@ -0,0 +1,92 @@
+package me.lokka30.treasury.api.economy.account;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AccountExistenceFilterTest {
+
+    @Test
+    void testMissesShortCircuit() {
+        AtomicInteger queries = new AtomicInteger();
+        MemoryEconomyProvider provider = new MemoryEconomyProvider() {
+            @Override
+            public @NotNull CompletableFuture<Boolean> hasAccount(@NotNull AccountData accountData) {
+                queries.incrementAndGet();
+                return super.hasAccount(accountData);
+            }
+        };
+        UUID existing = UUID.randomUUID();
+        provider.player(existing);
+        for (int i = 0; i < 500; i++) {
+            provider.player(UUID.randomUUID());
+        }
+
+        AccountExistenceFilter filter = AccountExistenceFilter
+                .newBuilder()
+                .withRebuildInterval(0, TimeUnit.SECONDS)
+                .build(provider);
+        filter.build().join();
+        Assertions.assertTrue(filter.isReady());
+
+        Assertions.assertTrue(filter.hasAccount(AccountData.forPlayerAccount(existing)).join());
+        Assertions.assertEquals(1, queries.get());
+
+        int misses = 0;
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertFalse(filter.hasAccount(AccountData.forPlayerAccount(UUID.randomUUID())).join());
+            misses++;
+        }
+        // only false positives of the bloom filter reach the provider
+        Assertions.assertTrue(queries.get() - 1 < misses / 20, "queries: " + queries.get());
+
+        // accounts created after the build are known once reported
+        UUID created = UUID.randomUUID();
+        provider.player(created);
+        filter.created(AccountData.forPlayerAccount(created));
+        Assertions.assertTrue(filter.hasAccount(AccountData.forPlayerAccount(created)).join());
+
+        // deleted accounts are remembered as missing
+        filter.deleted(AccountData.forPlayerAccount(existing));
+        int before = queries.get();
+        Assertions.assertFalse(filter.hasAccount(AccountData.forPlayerAccount(existing)).join());
+        Assertions.assertEquals(before, queries.get());
+    }
+
+    @Test
+    void testAccessorsUseRegisteredFilter() {
+        MemoryEconomyProvider provider = new MemoryEconomyProvider();
+        UUID created = UUID.randomUUID();
+        AccountExistenceFilter filter = AccountExistenceFilter
+                .newBuilder()
+                .withRebuildInterval(0, TimeUnit.SECONDS)
+                .build(provider);
+        filter.build().join();
+
+        MemoryEconomyProvider filtered = new MemoryEconomyProvider() {
+            @Override
+            public @NotNull Optional<AccountExistenceFilter> accountExistenceFilter() {
+                return Optional.of(filter);
+            }
+
+            @Override
+            public @NotNull MemoryPlayerAccount player(@NotNull UUID playerId) {
+                return provider.player(playerId);
+            }
+
+            @Override
+            public @NotNull CompletableFuture<Boolean> hasAccount(@NotNull AccountData accountData) {
+                return provider.hasAccount(accountData);
+            }
+        };
+        Assertions.assertFalse(filtered.accountAccessor().player().withUniqueId(created).find().join().isPresent());
+        filtered.accountAccessor().player().withUniqueId(created).get().join();
+        Assertions.assertTrue(filtered.accountAccessor().player().withUniqueId(created).find().join().isPresent());
+    }
+
+}
@@ -0,0 +1,58 @@
+package me.lokka30.treasury.api.economy.account;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.economy.balance.VersionedBalance;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.currency.StandardCurrency;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CompareAndSetBalanceTest {
+
+    @Test
+    void testCompareAndSet() {
+        Currency currency = StandardCurrency.newBuilder().withIdentifier("coins").build();
+        MemoryPlayerAccount account = new MemoryPlayerAccount(UUID.randomUUID());
+        account.balances.put("coins", BigDecimal.TEN);
+
+        VersionedBalance displayed = account.retrieveBalanceVersioned(currency).join();
+        Assertions.assertEquals(VersionedBalance.UNVERSIONED, displayed.getVersion());
+        Assertions.assertTrue(account.compareAndSetBalance(displayed, BigDecimal.ONE, Cause.SERVER).join());
+        Assertions.assertEquals(0, BigDecimal.ONE.compareTo(account.balances.get("coins")));
+
+        // the displayed balance is stale now
+        Assertions.assertFalse(account.compareAndSetBalance(displayed, BigDecimal.ZERO, Cause.SERVER).join());
+        Assertions.assertEquals(0, BigDecimal.ONE.compareTo(account.balances.get("coins")));
+    }
+
+    @Test
+    void testUnsupportedByDefault() {
+        Currency currency = StandardCurrency.newBuilder().withIdentifier("coins").build();
+        MemoryAccount account = new MemoryAccount();
+        account.balances.put("coins", BigDecimal.TEN);
+
+        VersionedBalance displayed = account.retrieveBalanceVersioned(currency).join();
+        CompletionException e = Assertions.assertThrows(CompletionException.class,
+                () -> account.compareAndSetBalance(displayed, BigDecimal.ONE, Cause.SERVER).join()
+        );
+        Assertions.assertTrue(e.getCause() instanceof TreasuryException);
+        Assertions.assertEquals(0, BigDecimal.TEN.compareTo(account.balances.get("coins")));
+    }
+
+    @Test
+    void testVersionsWinOverValues() {
+        Currency currency = StandardCurrency.newBuilder().withIdentifier("coins").build();
+        VersionedBalance first = new VersionedBalance(currency, BigDecimal.TEN, 4);
+        Assertions.assertTrue(first.isUnchanged(new VersionedBalance(currency, BigDecimal.TEN, 4)));
+        Assertions.assertFalse(first.isUnchanged(new VersionedBalance(currency, BigDecimal.TEN, 6)));
+        Assertions.assertTrue(first.isUnchanged(new VersionedBalance(currency,
+                new BigDecimal("10.00"),
+                VersionedBalance.UNVERSIONED
+        )));
+    }
+
+}
@@ -0,0 +1,57 @@
+package me.lokka30.treasury.api.economy.account;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.lokka30.treasury.api.economy.account.accessor.AccountAccessor;
+import me.lokka30.treasury.api.economy.account.accessor.InterningAccountAccessor;
+import me.lokka30.treasury.api.economy.account.accessor.NonPlayerAccountAccessor;
+import me.lokka30.treasury.api.economy.account.accessor.PlayerAccountAccessor;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class InterningAccountAccessorTest {
+
+    @Test
+    void testSingleFlightAndInterning() {
+        MemoryEconomyProvider provider = new MemoryEconomyProvider();
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<Void> storage = new CompletableFuture<>();
+        InterningAccountAccessor accessor = new InterningAccountAccessor(provider, new AccountAccessor() {
+            @Override
+            public @NotNull PlayerAccountAccessor player() {
+                return new PlayerAccountAccessor(provider) {
+                    @Override
+                    protected @NotNull CompletableFuture<PlayerAccount> getOrCreate(@NotNull PlayerAccountCreateContext context) {
+                        loads.incrementAndGet();
+                        // a fresh instance per load, as providers usually do
+                        return storage.thenApply($ -> new MemoryPlayerAccount(context.getUniqueId()));
+                    }
+                };
+            }
+
+            @Override
+            public @NotNull NonPlayerAccountAccessor nonPlayer() {
+                return provider.accountAccessor().nonPlayer();
+            }
+        });
+
+        UUID playerId = UUID.randomUUID();
+        CompletableFuture<PlayerAccount> first = accessor.player(playerId);
+        CompletableFuture<PlayerAccount> second = accessor.player().withUniqueId(playerId).get();
+        Assertions.assertFalse(first.isDone());
+        Assertions.assertEquals(1, loads.get());
+
+        storage.complete(null);
+        PlayerAccount account = first.join();
+        Assertions.assertSame(account, second.join());
+        Assertions.assertSame(account, accessor.player(playerId).join());
+        Assertions.assertEquals(1, loads.get());
+
+        accessor.invalidate(AccountData.forPlayerAccount(playerId));
+        Assertions.assertNotSame(account, accessor.player(playerId).join());
+        Assertions.assertEquals(2, loads.get());
+    }
+
+}
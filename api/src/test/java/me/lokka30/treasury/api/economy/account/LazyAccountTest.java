@@ -0,0 +1,53 @@
+package me.lokka30.treasury.api.economy.account;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.economy.account.accessor.PlayerAccountAccessor;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LazyAccountTest {
+
+    @Test
+    void testLoadsOnceOnFirstOperation() {
+        MemoryEconomyProvider provider = new MemoryEconomyProvider();
+        AtomicInteger loads = new AtomicInteger();
+        PlayerAccountAccessor accessor = new PlayerAccountAccessor(provider) {
+            @Override
+            protected @NotNull CompletableFuture<PlayerAccount> getOrCreate(@NotNull PlayerAccountCreateContext context) {
+                loads.incrementAndGet();
+                return CompletableFuture.completedFuture(provider.player(context.getUniqueId()));
+            }
+        };
+
+        UUID playerId = UUID.randomUUID();
+        PlayerAccount account = accessor.withUniqueId(playerId).lazy();
+        Assertions.assertEquals(playerId, account.identifier());
+        Assertions.assertEquals(0, loads.get());
+        Assertions.assertTrue(provider.players.isEmpty());
+
+        Assertions.assertTrue(account.retrieveHeldCurrencies().join().isEmpty());
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertTrue(provider.players.containsKey(playerId));
+    }
+
+    @Test
+    void testRetriesFailedLoad() {
+        AtomicInteger loads = new AtomicInteger();
+        UUID playerId = UUID.randomUUID();
+        LazyPlayerAccount account = new LazyPlayerAccount(playerId, () -> loads.incrementAndGet() == 1
+                ? FutureHelper.failedFuture(new TreasuryException("Storage unavailable"))
+                : CompletableFuture.completedFuture(new MemoryPlayerAccount(playerId)));
+
+        Assertions.assertTrue(account.retrieveHeldCurrencies().isCompletedExceptionally());
+        Assertions.assertFalse(account.isLoaded());
+        Assertions.assertTrue(account.retrieveHeldCurrencies().join().isEmpty());
+        Assertions.assertTrue(account.isLoaded());
+        Assertions.assertEquals(2, loads.get());
+    }
+
+}
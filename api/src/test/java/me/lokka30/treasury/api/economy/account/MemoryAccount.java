@@ -0,0 +1,138 @@
+package me.lokka30.treasury.api.economy.account;
+
+import java.math.BigDecimal;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.misc.TriState;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransaction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A minimal in-memory account used by the account tests.
+ */
+public class MemoryAccount implements Account {
+
+    final Map<String, BigDecimal> balances = new ConcurrentHashMap<>();
+    final List<EconomyTransaction> transactions = Collections.synchronizedList(new ArrayList<>());
+    final Map<UUID, Map<AccountPermission, TriState>> permissions = new ConcurrentHashMap<>();
+
+    @Override
+    public @NotNull Optional<String> getName() {
+        return Optional.empty();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> setName(@Nullable String name) {
+        return CompletableFuture.completedFuture(false);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> retrieveBalance(@NotNull Currency currency) {
+        return CompletableFuture.completedFuture(balances.getOrDefault(currency.getIdentifier(),
+                BigDecimal.ZERO
+        ));
+    }
+
+    @Override
+    public synchronized @NotNull CompletableFuture<BigDecimal> doTransaction(@NotNull EconomyTransaction economyTransaction) {
+        BigDecimal balance = balances.getOrDefault(economyTransaction.getCurrencyId(),
+                BigDecimal.ZERO
+        );
+        switch (economyTransaction.getType()) {
+            case DEPOSIT:
+                balance = balance.add(economyTransaction.getAmount());
+                break;
+            case WITHDRAWAL:
+                balance = balance.subtract(economyTransaction.getAmount());
+                if (balance.signum() < 0) {
+                    return FutureHelper.failedFuture(new TreasuryException("Insufficient balance"));
+                }
+                break;
+            case SET:
+                balance = economyTransaction.getAmount();
+                break;
+        }
+        balances.put(economyTransaction.getCurrencyId(), balance);
+        transactions.add(economyTransaction);
+        return CompletableFuture.completedFuture(balance);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> deleteAccount() {
+        balances.clear();
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<String>> retrieveHeldCurrencies() {
+        return CompletableFuture.completedFuture(new ArrayList<>(balances.keySet()));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<EconomyTransaction>> retrieveTransactionHistory(
+            int transactionCount, @NotNull Temporal from, @NotNull Temporal to
+    ) {
+        return CompletableFuture.completedFuture(new ArrayList<>(transactions));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<UUID>> retrieveMemberIds() {
+        return CompletableFuture.completedFuture(new ArrayList<>(permissions.keySet()));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> isMember(@NotNull UUID player) {
+        return CompletableFuture.completedFuture(permissions.containsKey(player));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> setPermissions(
+            @NotNull UUID player, @NotNull Map<AccountPermission, TriState> permissionsMap
+    ) {
+        permissions.computeIfAbsent(player, k -> new ConcurrentHashMap<>()).putAll(permissionsMap);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Map<AccountPermission, TriState>> retrievePermissions(@NotNull UUID player) {
+        return CompletableFuture.completedFuture(permissions.getOrDefault(player,
+                Collections.emptyMap()
+        ));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Map<UUID, Map<AccountPermission, TriState>>> retrievePermissionsMap() {
+        return CompletableFuture.completedFuture(permissions);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TriState> hasPermissions(
+            @NotNull UUID player, @NotNull AccountPermission @NotNull ... permissions
+    ) {
+        Map<AccountPermission, TriState> map = this.permissions.get(player);
+        if (map == null) {
+            return CompletableFuture.completedFuture(TriState.UNSPECIFIED);
+        }
+        TriState ret = TriState.TRUE;
+        for (AccountPermission permission : permissions) {
+            TriState value = map.getOrDefault(permission, TriState.UNSPECIFIED);
+            if (value != TriState.TRUE) {
+                return CompletableFuture.completedFuture(value);
+            }
+        }
+        return CompletableFuture.completedFuture(ret);
+    }
+
+}
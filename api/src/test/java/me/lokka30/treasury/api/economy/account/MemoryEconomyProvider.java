@@ -0,0 +1,72 @@
+package me.lokka30.treasury.api.economy.account;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.economy.account.accessor.AccountAccessor;
+import me.lokka30.treasury.api.economy.account.accessor.NonPlayerAccountAccessor;
+import me.lokka30.treasury.api.economy.account.accessor.PlayerAccountAccessor;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An economy provider holding {@link MemoryPlayerAccount player accounts} in memory, used by
+ * the tests. It has no non-player accounts and no currencies.
+ */
+public class MemoryEconomyProvider extends NoAccountsProvider {
+
+    public final Map<UUID, MemoryPlayerAccount> players = new ConcurrentHashMap<>();
+
+    @NotNull
+    public MemoryPlayerAccount player(@NotNull UUID playerId) {
+        return players.computeIfAbsent(playerId, MemoryPlayerAccount::new);
+    }
+
+    @Override
+    public @NotNull AccountAccessor accountAccessor() {
+        MemoryEconomyProvider provider = this;
+        return new AccountAccessor() {
+            @Override
+            public @NotNull PlayerAccountAccessor player() {
+                return new PlayerAccountAccessor(provider) {
+                    @Override
+                    protected @NotNull CompletableFuture<PlayerAccount> getOrCreate(
+                            @NotNull PlayerAccountCreateContext context
+                    ) {
+                        return CompletableFuture.completedFuture(provider.player(context.getUniqueId()));
+                    }
+                };
+            }
+
+            @Override
+            public @NotNull NonPlayerAccountAccessor nonPlayer() {
+                return new NonPlayerAccountAccessor(provider) {
+                    @Override
+                    protected @NotNull CompletableFuture<NonPlayerAccount> getOrCreate(
+                            @NotNull NonPlayerAccountCreateContext context
+                    ) {
+                        return FutureHelper.failedFuture(new TreasuryException("No non-player accounts"));
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> hasAccount(@NotNull AccountData accountData) {
+        return CompletableFuture.completedFuture(accountData
+                .getPlayerIdentifier()
+                .filter(players::containsKey)
+                .isPresent());
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<UUID>> retrievePlayerAccountIds() {
+        return CompletableFuture.completedFuture(new ArrayList<>(players.keySet()));
+    }
+
+}
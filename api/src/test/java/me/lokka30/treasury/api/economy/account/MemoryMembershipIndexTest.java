@@ -0,0 +1,131 @@
+package me.lokka30.treasury.api.economy.account;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import me.lokka30.treasury.api.common.NamespacedKey;
+import me.lokka30.treasury.api.common.misc.TriState;
+import me.lokka30.treasury.api.economy.events.NonPlayerAccountDeleteEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MemoryMembershipIndexTest {
+
+    private static Map<AccountPermission, TriState> permissions(
+            TriState value, AccountPermission... permissions
+    ) {
+        Map<AccountPermission, TriState> ret = new EnumMap<>(AccountPermission.class);
+        for (AccountPermission permission : permissions) {
+            ret.put(permission, value);
+        }
+        return ret;
+    }
+
+    @Test
+    void testLookups() {
+        MemoryMembershipIndex index = new MemoryMembershipIndex(new NoAccountsProvider());
+        UUID player = UUID.randomUUID();
+        NamespacedKey town = NamespacedKey.of("towny", "town");
+        NamespacedKey guild = NamespacedKey.of("guilds", "guild");
+
+        index.update(town, player, permissions(TriState.TRUE,
+                AccountPermission.BALANCE,
+                AccountPermission.DEPOSIT
+        ));
+        index.update(guild, player, permissions(TriState.TRUE, AccountPermission.BALANCE));
+
+        Collection<NamespacedKey> memberOf = index.retrieveAccountIdsPlayerIsMemberOf(player).join();
+        Assertions.assertEquals(2, memberOf.size());
+        Assertions.assertEquals(
+                Collections.singletonList(town),
+                index.retrieveAccountIdsPlayerHasPermissions(player,
+                        AccountPermission.BALANCE,
+                        AccountPermission.DEPOSIT
+                ).join()
+        );
+        Assertions.assertTrue(index
+                .retrieveAccountIdsPlayerIsMemberOf(UUID.randomUUID())
+                .join()
+                .isEmpty());
+    }
+
+    @Test
+    void testUpdatesAndRemoval() {
+        MemoryMembershipIndex index = new MemoryMembershipIndex(new NoAccountsProvider());
+        UUID player = UUID.randomUUID();
+        NamespacedKey town = NamespacedKey.of("towny", "town");
+        NamespacedKey guild = NamespacedKey.of("guilds", "guild");
+
+        index.update(town, player, permissions(TriState.TRUE, AccountPermission.WITHDRAW));
+        index.update(guild, player, permissions(TriState.TRUE, AccountPermission.WITHDRAW));
+
+        // no allowed permission left means no membership
+        index.update(town, player, permissions(TriState.FALSE, AccountPermission.WITHDRAW));
+        Assertions.assertEquals(
+                Collections.singletonList(guild),
+                index.retrieveAccountIdsPlayerIsMemberOf(player).join()
+        );
+
+        index.remove(guild);
+        Assertions.assertTrue(index.retrieveAccountIdsPlayerIsMemberOf(player).join().isEmpty());
+    }
+
+    @Test
+    void testRemovalKeepsOtherAccounts() {
+        MemoryMembershipIndex index = new MemoryMembershipIndex(new NoAccountsProvider());
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        NamespacedKey town = NamespacedKey.of("towny", "town");
+        NamespacedKey guild = NamespacedKey.of("guilds", "guild");
+
+        index.update(town, first, permissions(TriState.TRUE, AccountPermission.BALANCE));
+        index.update(town, second, permissions(TriState.TRUE, AccountPermission.BALANCE));
+        index.update(guild, second, permissions(TriState.TRUE, AccountPermission.BALANCE));
+
+        index.remove(town);
+        Assertions.assertTrue(index.retrieveAccountIdsPlayerIsMemberOf(first).join().isEmpty());
+        Assertions.assertEquals(
+                Collections.singletonList(guild),
+                index.retrieveAccountIdsPlayerIsMemberOf(second).join()
+        );
+    }
+
+    @Test
+    void testDeleteEventRemovesAccount() {
+        MemoryMembershipIndex index = new MemoryMembershipIndex(new NoAccountsProvider());
+        UUID player = UUID.randomUUID();
+        NamespacedKey town = NamespacedKey.of("towny", "town");
+
+        index.update(town, player, permissions(TriState.TRUE, AccountPermission.BALANCE));
+        index.update(new NonPlayerAccountDeleteEvent(town));
+        Assertions.assertTrue(index.retrieveAccountIdsPlayerIsMemberOf(player).join().isEmpty());
+    }
+
+    @Test
+    void testCoversOnlyOnceBuilt() {
+        NoAccountsProvider provider = new NoAccountsProvider() {
+            @Override
+            public boolean firesAccountPermissionsChangeEvents() {
+                return true;
+            }
+        };
+        MemoryMembershipIndex index = new MemoryMembershipIndex(provider);
+        Assertions.assertFalse(index.covers(provider));
+
+        index.build().join();
+        Assertions.assertTrue(index.covers(provider));
+        Assertions.assertFalse(index.covers(new NoAccountsProvider()));
+    }
+
+    @Test
+    void testCoversOnlyProvidersFiringEvents() {
+        NoAccountsProvider provider = new NoAccountsProvider();
+        MemoryMembershipIndex index = new MemoryMembershipIndex(provider);
+
+        index.build().join();
+        Assertions.assertFalse(index.covers(provider));
+    }
+
+}
@@ -0,0 +1,41 @@
+package me.lokka30.treasury.api.economy.account;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import me.lokka30.treasury.api.economy.balance.VersionedBalance;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransaction;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A minimal in-memory player account used by the account tests.
+ */
+public class MemoryPlayerAccount extends MemoryAccount implements PlayerAccount {
+
+    private final UUID identifier;
+
+    public MemoryPlayerAccount(@NotNull UUID identifier) {
+        this.identifier = identifier;
+    }
+
+    @Override
+    public @NotNull UUID identifier() {
+        return identifier;
+    }
+
+    @Override
+    public synchronized @NotNull CompletableFuture<Optional<BigDecimal>> doTransactionIfUnchanged(
+            @NotNull VersionedBalance expected, @NotNull EconomyTransaction economyTransaction
+    ) {
+        VersionedBalance current = new VersionedBalance(expected.getCurrency(),
+                balances.getOrDefault(economyTransaction.getCurrencyId(), BigDecimal.ZERO),
+                VersionedBalance.UNVERSIONED
+        );
+        if (!expected.isUnchanged(current)) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return doTransaction(economyTransaction).thenApply(Optional::of);
+    }
+
+}
@@ -0,0 +1,66 @@
+package me.lokka30.treasury.api.economy.account;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import me.lokka30.treasury.api.common.NamespacedKey;
+import me.lokka30.treasury.api.common.misc.TriState;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.account.accessor.AccountAccessor;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An economy provider without any accounts or currencies, used by the account tests.
+ */
+public class NoAccountsProvider implements EconomyProvider {
+
+    @Override
+    public @NotNull AccountAccessor accountAccessor() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> hasAccount(@NotNull AccountData accountData) {
+        return CompletableFuture.completedFuture(false);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<UUID>> retrievePlayerAccountIds() {
+        return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<NamespacedKey>> retrieveNonPlayerAccountIds() {
+        return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+
+    @Override
+    public @NotNull Currency getPrimaryCurrency() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull Optional<Currency> findCurrency(@NotNull String identifier) {
+        return Optional.empty();
+    }
+
+    @Override
+    public @NotNull Set<Currency> getCurrencies() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TriState> registerCurrency(@NotNull Currency currency) {
+        return CompletableFuture.completedFuture(TriState.FALSE);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TriState> unregisterCurrency(@NotNull Currency currency) {
+        return CompletableFuture.completedFuture(TriState.FALSE);
+    }
+
+}
@@ -0,0 +1,64 @@
+package me.lokka30.treasury.api.economy.account;
+
+import java.util.EnumMap;
+import java.util.Map;
+import me.lokka30.treasury.api.common.misc.TriState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PermissionSetTest {
+
+    @Test
+    void testHasPermissions() {
+        PermissionSet set = PermissionSet
+                .of(TriState.TRUE, AccountPermission.BALANCE, AccountPermission.DEPOSIT)
+                .with(AccountPermission.WITHDRAW, TriState.FALSE);
+
+        Assertions.assertEquals(TriState.TRUE,
+                set.hasPermissions(AccountPermission.BALANCE, AccountPermission.DEPOSIT)
+        );
+        Assertions.assertEquals(TriState.FALSE,
+                set.hasPermissions(AccountPermission.BALANCE, AccountPermission.WITHDRAW)
+        );
+        Assertions.assertEquals(TriState.UNSPECIFIED,
+                set.hasPermissions(AccountPermission.BALANCE, AccountPermission.MODIFY_PERMISSIONS)
+        );
+        // FALSE takes priority over UNSPECIFIED
+        Assertions.assertEquals(TriState.FALSE, set.hasPermissions(AccountPermission.values()));
+        Assertions.assertTrue(set.isMember());
+        Assertions.assertFalse(PermissionSet
+                .of(TriState.FALSE, AccountPermission.values())
+                .isMember());
+    }
+
+    @Test
+    void testMapRoundTrip() {
+        Map<AccountPermission, TriState> map = new EnumMap<>(AccountPermission.class);
+        map.put(AccountPermission.WITHDRAW, TriState.TRUE);
+        map.put(AccountPermission.MODIFY_PERMISSIONS, TriState.FALSE);
+        map.put(AccountPermission.BALANCE, TriState.UNSPECIFIED);
+
+        PermissionSet set = PermissionSet.fromMap(map);
+        map.remove(AccountPermission.BALANCE);
+        Assertions.assertEquals(map, set.toMap());
+        Assertions.assertSame(set, PermissionSet.fromBits(set.toBits()));
+        Assertions.assertSame(PermissionSet.ALL, PermissionSet.fromMap(PlayerAccount.ALL_PERMISSIONS_MAP));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PermissionSet.fromBits(0b11));
+    }
+
+    @Test
+    void testMerge() {
+        PermissionSet current = PermissionSet
+                .of(TriState.TRUE, AccountPermission.BALANCE, AccountPermission.WITHDRAW);
+        PermissionSet changes = PermissionSet
+                .of(TriState.FALSE, AccountPermission.WITHDRAW)
+                .with(AccountPermission.DEPOSIT, TriState.TRUE);
+
+        PermissionSet merged = current.merge(changes);
+        Assertions.assertEquals(TriState.TRUE, merged.get(AccountPermission.BALANCE));
+        Assertions.assertEquals(TriState.FALSE, merged.get(AccountPermission.WITHDRAW));
+        Assertions.assertEquals(TriState.TRUE, merged.get(AccountPermission.DEPOSIT));
+        Assertions.assertEquals(TriState.UNSPECIFIED, merged.get(AccountPermission.MODIFY_PERMISSIONS));
+    }
+
+}
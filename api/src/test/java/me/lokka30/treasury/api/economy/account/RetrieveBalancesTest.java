@@ -0,0 +1,94 @@
+package me.lokka30.treasury.api.economy.account;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.common.service.ServicePriority;
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.currency.StandardCurrency;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RetrieveBalancesTest {
+
+    private final Currency dollars = StandardCurrency.newBuilder().withIdentifier("dollars").build();
+    private final Currency gems = StandardCurrency.newBuilder().withIdentifier("gems").build();
+
+    @Test
+    void testRetrieveBalances() {
+        MemoryEconomyProvider provider = new MemoryEconomyProvider() {
+            @Override
+            public @NotNull Optional<Currency> findCurrency(@NotNull String identifier) {
+                if (identifier.equals("dollars")) {
+                    return Optional.of(dollars);
+                }
+                if (identifier.equals("gems")) {
+                    return Optional.of(gems);
+                }
+                return Optional.empty();
+            }
+        };
+        MemoryPlayerAccount account = new MemoryPlayerAccount(UUID.randomUUID()) {
+            @Override
+            public @NotNull Optional<EconomyProvider> getProvider() {
+                return Optional.of(provider);
+            }
+        };
+        account.depositBalance(BigDecimal.valueOf(100), Cause.SERVER, dollars).join();
+        account.depositBalance(BigDecimal.valueOf(5), Cause.SERVER, gems).join();
+        // not known to the provider
+        account.balances.put("tokens", BigDecimal.ONE);
+
+        Map<String, BigDecimal> balances = account.retrieveBalances().join();
+        Assertions.assertEquals(2, balances.size());
+        Assertions.assertEquals(0, BigDecimal.valueOf(100).compareTo(balances.get("dollars")));
+        Assertions.assertEquals(0, BigDecimal.valueOf(5).compareTo(balances.get("gems")));
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> balances.put("gems", BigDecimal.ZERO)
+        );
+    }
+
+    @Test
+    void testFallsBackToRegisteredProvider() {
+        MemoryEconomyProvider provider = new MemoryEconomyProvider() {
+            @Override
+            public @NotNull Optional<Currency> findCurrency(@NotNull String identifier) {
+                return identifier.equals("dollars") ? Optional.of(dollars) : Optional.empty();
+            }
+        };
+        MemoryPlayerAccount account = new MemoryPlayerAccount(UUID.randomUUID());
+        account.depositBalance(BigDecimal.TEN, Cause.SERVER, dollars).join();
+
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                provider,
+                "RetrieveBalancesTest",
+                ServicePriority.HIGH
+        );
+        try {
+            Map<String, BigDecimal> balances = account.retrieveBalances().join();
+            Assertions.assertEquals(1, balances.size());
+            Assertions.assertEquals(0, BigDecimal.TEN.compareTo(balances.get("dollars")));
+        } finally {
+            ServiceRegistry.INSTANCE.unregister(EconomyProvider.class, provider);
+        }
+    }
+
+    @Test
+    void testNoProvider() {
+        MemoryPlayerAccount account = new MemoryPlayerAccount(UUID.randomUUID());
+        account.depositBalance(BigDecimal.ONE, Cause.SERVER, dollars).join();
+
+        CompletionException error = Assertions.assertThrows(CompletionException.class,
+                () -> account.retrieveBalances().join()
+        );
+        Assertions.assertInstanceOf(TreasuryException.class, error.getCause());
+    }
+
+}
@@ -0,0 +1,70 @@
+package me.lokka30.treasury.api.economy.account;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransaction;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransactionType;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SyncAccountTest {
+
+    @Test
+    void testDetection() {
+        UUID playerId = UUID.randomUUID();
+        SyncPlayerAccount account = new SyncPlayerAccount(playerId);
+        Assertions.assertSame(account, account.sync().orElse(null));
+        Assertions.assertFalse(new MemoryPlayerAccount(playerId).sync().isPresent());
+
+        LazyPlayerAccount lazy = new LazyPlayerAccount(playerId,
+                () -> CompletableFuture.completedFuture(account)
+        );
+        Assertions.assertFalse(lazy.sync().isPresent());
+        lazy.load().join();
+        Assertions.assertSame(account, lazy.sync().orElse(null));
+    }
+
+    private static final class SyncPlayerAccount extends MemoryPlayerAccount implements SyncAccount {
+
+        SyncPlayerAccount(@NotNull UUID identifier) {
+            super(identifier);
+        }
+
+        @Override
+        public @NotNull BigDecimal balanceNow(@NotNull Currency currency) {
+            return balances.getOrDefault(currency.getIdentifier(), BigDecimal.ZERO);
+        }
+
+        @Override
+        public boolean tryDeposit(
+                @NotNull BigDecimal amount, @NotNull Cause<?> cause, @NotNull Currency currency
+        ) {
+            return !doTransaction(EconomyTransaction
+                    .newBuilder()
+                    .withCurrency(currency)
+                    .withAmount(amount)
+                    .withType(EconomyTransactionType.DEPOSIT)
+                    .withCause(cause)
+                    .build()).isCompletedExceptionally();
+        }
+
+        @Override
+        public boolean tryWithdraw(
+                @NotNull BigDecimal amount, @NotNull Cause<?> cause, @NotNull Currency currency
+        ) {
+            return !doTransaction(EconomyTransaction
+                    .newBuilder()
+                    .withCurrency(currency)
+                    .withAmount(amount)
+                    .withType(EconomyTransactionType.WITHDRAWAL)
+                    .withCause(cause)
+                    .build()).isCompletedExceptionally();
+        }
+
+    }
+
+}
@@ -0,0 +1,216 @@
+package me.lokka30.treasury.api.economy.account;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.currency.StandardCurrency;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransaction;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransactionImportance;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class WriteBehindAccountTest {
+
+    private final Currency currency = StandardCurrency.newBuilder().withIdentifier("dollars").build();
+    private final Cause<?> cause = Cause.SERVER;
+    private final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+
+    private WriteBehindBuffer buffer(int maxPendingOperations) {
+        return WriteBehindBuffer
+                .newBuilder()
+                .withFlushInterval(1, TimeUnit.HOURS)
+                .withMaxPendingOperations(maxPendingOperations)
+                .withErrorHandler(errors::add)
+                .build();
+    }
+
+    @Test
+    void testErrorHandlerRequired() {
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> WriteBehindBuffer.newBuilder().build()
+        );
+    }
+
+    @Test
+    void testFailedWriteIsRetried() {
+        Cause<?> player = Cause.player(UUID.randomUUID());
+        FailingAccount memory = new FailingAccount(cause, 1);
+        WriteBehindBuffer buffer = buffer(100);
+        WriteBehindAccount account = buffer.wrap(memory);
+
+        account.depositBalance(new BigDecimal(5), cause, currency).join();
+        account.depositBalance(new BigDecimal(2), player, currency).join();
+        account.flush().join();
+
+        // the other cause is written regardless of the failed one
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertEquals(new BigDecimal(2), memory.balances.get("dollars"));
+        Assertions.assertEquals(new BigDecimal(7), account.retrieveBalance(currency).join());
+
+        account.depositBalance(BigDecimal.ONE, cause, currency).join();
+        buffer.shutdown().join();
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertEquals(new BigDecimal(8), memory.balances.get("dollars"));
+        Assertions.assertEquals(2, memory.transactions.size());
+    }
+
+    @Test
+    void testFailedWritesAreDroppedAfterMaxAttempts() {
+        FailingAccount memory = new FailingAccount(cause, 10);
+        WriteBehindBuffer buffer = WriteBehindBuffer
+                .newBuilder()
+                .withFlushInterval(1, TimeUnit.HOURS)
+                .withMaxAttempts(2)
+                .withErrorHandler(errors::add)
+                .build();
+        WriteBehindAccount account = buffer.wrap(memory);
+
+        account.depositBalance(new BigDecimal(5), cause, currency).join();
+        account.flush().join();
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertEquals(new BigDecimal(5), account.retrieveBalance(currency).join());
+
+        account.flush().join();
+        // the failure and the drop
+        Assertions.assertEquals(3, errors.size());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(account.retrieveBalance(currency).join()));
+        buffer.shutdown().join();
+        Assertions.assertEquals(3, errors.size());
+    }
+
+    @Test
+    void testShutdownReportsUnwrittenTransactions() {
+        FailingAccount memory = new FailingAccount(cause, 1);
+        WriteBehindBuffer buffer = buffer(100);
+        WriteBehindAccount account = buffer.wrap(memory);
+
+        account.depositBalance(new BigDecimal(5), cause, currency).join();
+        CompletionException e = Assertions.assertThrows(CompletionException.class,
+                () -> buffer.shutdown().join()
+        );
+        Assertions.assertTrue(e.getCause() instanceof TreasuryException);
+        Assertions.assertNull(memory.balances.get("dollars"));
+
+        buffer.flushAll().join();
+        Assertions.assertEquals(new BigDecimal(5), memory.balances.get("dollars"));
+    }
+
+    @Test
+    void testWrapIsInterned() {
+        UUID playerId = UUID.randomUUID();
+        MemoryPlayerAccount memory = new MemoryPlayerAccount(playerId);
+        WriteBehindBuffer buffer = buffer(100);
+        WriteBehindAccount account = buffer.wrap(memory);
+
+        Assertions.assertSame(account, buffer.wrap(new MemoryPlayerAccount(playerId)));
+        Assertions.assertSame(account, buffer.wrap(account));
+        Assertions.assertNotSame(account, buffer.wrap(new MemoryPlayerAccount(UUID.randomUUID())));
+
+        // both wraps validate against the same projected balance
+        account.depositBalance(new BigDecimal(5), cause, currency).join();
+        buffer.wrap(memory).withdrawBalance(new BigDecimal(4), cause, currency).join();
+        Assertions.assertThrows(CompletionException.class,
+                () -> buffer.wrap(memory).withdrawBalance(new BigDecimal(4), cause, currency).join()
+        );
+        buffer.shutdown().join();
+        Assertions.assertEquals(BigDecimal.ONE, memory.balances.get("dollars"));
+    }
+
+    @Test
+    void testCoalescesDeposits() {
+        MemoryAccount memory = new MemoryAccount();
+        WriteBehindBuffer buffer = buffer(100);
+        WriteBehindAccount account = buffer.wrap(memory);
+
+        for (int i = 0; i < 10; i++) {
+            account.depositBalance(BigDecimal.ONE, cause, currency).join();
+        }
+        account.withdrawBalance(new BigDecimal(3), cause, currency).join();
+
+        Assertions.assertEquals(new BigDecimal(7), account.retrieveBalance(currency).join());
+        Assertions.assertTrue(memory.transactions.isEmpty());
+
+        buffer.shutdown().join();
+        Assertions.assertEquals(1, memory.transactions.size());
+        Assertions.assertEquals(new BigDecimal(7), memory.balances.get("dollars"));
+    }
+
+    @Test
+    void testFlushesAfterMaxOperations() {
+        MemoryAccount memory = new MemoryAccount();
+        WriteBehindBuffer buffer = buffer(3);
+        WriteBehindAccount account = buffer.wrap(memory);
+
+        for (int i = 0; i < 3; i++) {
+            account.depositBalance(BigDecimal.ONE, cause, currency).join();
+        }
+        account.flush().join();
+        Assertions.assertEquals(1, memory.transactions.size());
+        Assertions.assertEquals(new BigDecimal(3), memory.balances.get("dollars"));
+        buffer.shutdown().join();
+    }
+
+    @Test
+    void testWithdrawalValidatedAgainstProjectedBalance() {
+        MemoryAccount memory = new MemoryAccount();
+        WriteBehindBuffer buffer = buffer(100);
+        WriteBehindAccount account = buffer.wrap(memory);
+
+        account.depositBalance(new BigDecimal(5), cause, currency).join();
+        CompletionException e = Assertions.assertThrows(CompletionException.class,
+                () -> account.withdrawBalance(new BigDecimal(6), cause, currency).join()
+        );
+        Assertions.assertTrue(e.getCause() instanceof TreasuryException);
+        Assertions.assertEquals(new BigDecimal(5), account.retrieveBalance(currency).join());
+        buffer.shutdown().join();
+    }
+
+    @Test
+    void testHighImportanceIsWrittenDirectly() {
+        MemoryAccount memory = new MemoryAccount();
+        WriteBehindBuffer buffer = buffer(100);
+        WriteBehindAccount account = buffer.wrap(memory);
+
+        account.depositBalance(BigDecimal.ONE, cause, currency).join();
+        account
+                .depositBalance(BigDecimal.TEN, cause, currency, EconomyTransactionImportance.HIGH)
+                .join();
+
+        // the pending deposit is written before the important one
+        Assertions.assertEquals(2, memory.transactions.size());
+        Assertions.assertEquals(new BigDecimal(11), account.retrieveBalance(currency).join());
+        buffer.shutdown().join();
+    }
+
+    private static final class FailingAccount extends MemoryAccount {
+
+        private final Cause<?> failing;
+        private int failures;
+
+        FailingAccount(@NotNull Cause<?> failing, int failures) {
+            this.failing = failing;
+            this.failures = failures;
+        }
+
+        @Override
+        public synchronized @NotNull CompletableFuture<BigDecimal> doTransaction(@NotNull EconomyTransaction economyTransaction) {
+            if (economyTransaction.getCause().equals(failing) && failures > 0) {
+                failures--;
+                return FutureHelper.failedFuture(new TreasuryException("Storage unavailable"));
+            }
+            return super.doTransaction(economyTransaction);
+        }
+
+    }
+
+}
@@ -0,0 +1,42 @@
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BalanceChangeBroadcasterTest {
+
+    @Test
+    void testDeliveryAndCancellation() {
+        List<Throwable> errors = new ArrayList<>();
+        BalanceChangeBroadcaster broadcaster = new BalanceChangeBroadcaster(errors::add);
+        List<BalanceChange> received = new ArrayList<>();
+
+        broadcaster.subscribe(change -> {
+            throw new IllegalStateException("broken listener");
+        });
+        BalanceSubscription subscription = broadcaster.subscribe(received::add);
+        Assertions.assertTrue(broadcaster.hasSubscribers());
+
+        BalanceChange change = new BalanceChange(
+                AccountData.forPlayerAccount(UUID.randomUUID()),
+                "dollars",
+                BigDecimal.TEN,
+                1
+        );
+        broadcaster.emit(change);
+        Assertions.assertEquals(1, received.size());
+        Assertions.assertEquals(change, received.get(0));
+        Assertions.assertEquals(1, errors.size());
+
+        subscription.cancel();
+        Assertions.assertTrue(subscription.isCancelled());
+        broadcaster.emit(change);
+        Assertions.assertEquals(1, received.size());
+    }
+
+}
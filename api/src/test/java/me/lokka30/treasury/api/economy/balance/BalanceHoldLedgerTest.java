@@ -0,0 +1,127 @@
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.account.MemoryEconomyProvider;
+import me.lokka30.treasury.api.economy.account.MemoryPlayerAccount;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.currency.StandardCurrency;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BalanceHoldLedgerTest {
+
+    private final Currency currency = StandardCurrency.newBuilder().withIdentifier("dollars").build();
+
+    @Test
+    void testHoldCaptureRelease() {
+        MemoryEconomyProvider provider = new MemoryEconomyProvider();
+        BalanceHoldLedger ledger = new BalanceHoldLedger(provider, 1, TimeUnit.MINUTES);
+        UUID playerId = UUID.randomUUID();
+        MemoryPlayerAccount account = provider.player(playerId);
+        AccountData accountData = AccountData.forPlayerAccount(playerId);
+        account.depositBalance(BigDecimal.valueOf(100), Cause.SERVER, currency).join();
+
+        BalanceHold first = ledger.placeHold(accountData,
+                account,
+                BigDecimal.valueOf(60),
+                currency,
+                Duration.ofMinutes(5)
+        ).join();
+        CompletionException error = Assertions.assertThrows(CompletionException.class,
+                () -> ledger.placeHold(accountData,
+                        account,
+                        BigDecimal.valueOf(50),
+                        currency,
+                        Duration.ofMinutes(5)
+                ).join()
+        );
+        Assertions.assertInstanceOf(TreasuryException.class, error.getCause());
+        Assertions.assertEquals(0, BigDecimal.valueOf(60).compareTo(ledger.getHeldBalance(accountData,
+                "dollars"
+        )));
+
+        // releasing writes nothing
+        Assertions.assertTrue(first.release().join());
+        Assertions.assertFalse(first.isActive());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(ledger.getHeldBalance(accountData, "dollars")));
+        Assertions.assertEquals(0, BigDecimal.valueOf(100).compareTo(account.retrieveBalance(currency).join()));
+
+        BalanceHold second = ledger.placeHold(accountData,
+                account,
+                BigDecimal.valueOf(90),
+                currency,
+                Duration.ofMinutes(5)
+        ).join();
+        Assertions.assertEquals(0, BigDecimal.TEN.compareTo(second.capture(Cause.SERVER).join()));
+        Assertions.assertThrows(CompletionException.class, () -> second.capture(Cause.SERVER).join());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(ledger.getHeldBalance(accountData, "dollars")));
+    }
+
+    @Test
+    void testAccountUsesLedgerOfItsProvider() {
+        BalanceHoldLedger[] ledger = new BalanceHoldLedger[1];
+        MemoryEconomyProvider provider = new MemoryEconomyProvider() {
+            @Override
+            public @NotNull Optional<BalanceHoldLedger> balanceHoldLedger() {
+                return Optional.of(ledger[0]);
+            }
+        };
+        ledger[0] = new BalanceHoldLedger(provider, 1, TimeUnit.MINUTES);
+        UUID playerId = UUID.randomUUID();
+        MemoryPlayerAccount account = new MemoryPlayerAccount(playerId) {
+            @Override
+            public @NotNull Optional<EconomyProvider> getProvider() {
+                return Optional.of(provider);
+            }
+        };
+        account.depositBalance(BigDecimal.TEN, Cause.SERVER, currency).join();
+
+        account.placeHold(BigDecimal.valueOf(4), currency, Duration.ofMinutes(5)).join();
+        Assertions.assertEquals(0, BigDecimal.valueOf(4).compareTo(account.retrieveHeldBalance(currency).join()));
+        Assertions.assertEquals(0, BigDecimal.valueOf(4).compareTo(ledger[0].getHeldBalance(
+                AccountData.forPlayerAccount(playerId),
+                "dollars"
+        )));
+
+        // without a known provider, there is no ledger to keep the hold in
+        MemoryPlayerAccount unknown = new MemoryPlayerAccount(playerId);
+        CompletionException error = Assertions.assertThrows(CompletionException.class,
+                () -> unknown.placeHold(BigDecimal.ONE, currency, Duration.ofMinutes(5)).join()
+        );
+        Assertions.assertInstanceOf(TreasuryException.class, error.getCause());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(unknown.retrieveHeldBalance(currency).join()));
+    }
+
+    @Test
+    void testExpiry() throws InterruptedException {
+        MemoryEconomyProvider provider = new MemoryEconomyProvider();
+        BalanceHoldLedger ledger = new BalanceHoldLedger(provider, 0, TimeUnit.SECONDS);
+        UUID playerId = UUID.randomUUID();
+        MemoryPlayerAccount account = provider.player(playerId);
+        AccountData accountData = AccountData.forPlayerAccount(playerId);
+        account.depositBalance(BigDecimal.valueOf(100), Cause.SERVER, currency).join();
+
+        BalanceHold hold = ledger.placeHold(accountData,
+                account,
+                BigDecimal.valueOf(100),
+                currency,
+                Duration.ofMillis(20)
+        ).join();
+        Thread.sleep(50);
+        Assertions.assertFalse(hold.isActive());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(ledger.getHeldBalance(accountData, "dollars")));
+        Assertions.assertEquals(0, ledger.sweepExpired());
+        Assertions.assertThrows(CompletionException.class, () -> hold.capture(Cause.SERVER).join());
+    }
+
+}
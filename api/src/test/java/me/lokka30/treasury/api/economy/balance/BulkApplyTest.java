@@ -0,0 +1,67 @@
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.economy.account.MemoryEconomyProvider;
+import me.lokka30.treasury.api.economy.account.MemoryPlayerAccount;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.currency.StandardCurrency;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BulkApplyTest {
+
+    private final Currency currency = StandardCurrency.newBuilder().withIdentifier("dollars").build();
+
+    @Test
+    void testInterestAndReset() {
+        MemoryEconomyProvider provider = new MemoryEconomyProvider();
+        UUID excluded = UUID.randomUUID();
+        provider.player(excluded).depositBalance(BigDecimal.valueOf(100), Cause.SERVER, currency).join();
+        for (int i = 1; i < 2500; i++) {
+            provider
+                    .player(UUID.randomUUID())
+                    .depositBalance(BigDecimal.valueOf(i % 2 == 0 ? 100 : 0), Cause.SERVER, currency)
+                    .join();
+        }
+
+        List<BulkApplyResult> progress = new ArrayList<>();
+        BulkApplyResult result = provider.applyToAll(currency,
+                BalanceFunction.multiply(new BigDecimal("1.05"), 2, RoundingMode.DOWN),
+                Cause.SERVER,
+                account -> !account.getPlayerIdentifier().get().equals(excluded),
+                progress::add
+        ).join();
+
+        Assertions.assertEquals(new BulkApplyResult(1249, 1250, 0), result);
+        // at least one report per page of player accounts
+        Assertions.assertTrue(progress.size() >= 3);
+        Assertions.assertEquals(result, progress.get(progress.size() - 1));
+        Assertions.assertEquals(0,
+                BigDecimal.valueOf(100).compareTo(provider.player(excluded).retrieveBalance(currency).join())
+        );
+        for (MemoryPlayerAccount account : provider.players.values()) {
+            BigDecimal balance = account.retrieveBalance(currency).join();
+            if (account.identifier().equals(excluded) || balance.signum() == 0) {
+                continue;
+            }
+            Assertions.assertEquals(0, new BigDecimal("105").compareTo(balance));
+        }
+
+        result = provider.applyToAll(currency,
+                BalanceFunction.constant(BigDecimal.ZERO),
+                Cause.SERVER,
+                account -> true
+        ).join();
+        Assertions.assertEquals(1250, result.getChanged());
+        Assertions.assertEquals(1250, result.getUnchanged());
+        for (MemoryPlayerAccount account : provider.players.values()) {
+            Assertions.assertEquals(0, account.retrieveBalance(currency).join().signum());
+        }
+    }
+
+}
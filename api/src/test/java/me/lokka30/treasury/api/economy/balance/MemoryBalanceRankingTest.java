@@ -0,0 +1,88 @@
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import me.lokka30.treasury.api.economy.account.NoAccountsProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MemoryBalanceRankingTest {
+
+    @Test
+    void testRanking() {
+        MemoryBalanceRanking ranking = new MemoryBalanceRanking(new NoAccountsProvider());
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        ranking.update(first, "dollars", BigDecimal.valueOf(300), 1);
+        ranking.update(second, "dollars", BigDecimal.valueOf(200), 1);
+        ranking.update(third, "dollars", BigDecimal.valueOf(100), 1);
+
+        List<RankedBalance> top = ranking.retrieveTopBalances("dollars", 0, 10).join();
+        Assertions.assertEquals(3, top.size());
+        Assertions.assertEquals(first, top.get(0).getPlayerId());
+        Assertions.assertEquals(1, top.get(0).getRank());
+        Assertions.assertEquals(third, top.get(2).getPlayerId());
+        Assertions.assertEquals(3, top.get(2).getRank());
+
+        // stale update is ignored
+        ranking.update(third, "dollars", BigDecimal.valueOf(1000), 1);
+        Assertions.assertEquals(3, ranking.retrieveRank(third, "dollars").join().get().getRank());
+
+        ranking.update(third, "dollars", BigDecimal.valueOf(1000), 2);
+        Assertions.assertEquals(1, ranking.retrieveRank(third, "dollars").join().get().getRank());
+        Assertions.assertEquals(3, ranking.retrieveRank(second, "dollars").join().get().getRank());
+
+        List<RankedBalance> page = ranking.retrieveTopBalances("dollars", 1, 1).join();
+        Assertions.assertEquals(1, page.size());
+        Assertions.assertEquals(first, page.get(0).getPlayerId());
+        Assertions.assertEquals(2, page.get(0).getRank());
+
+        ranking.remove(third);
+        Assertions.assertFalse(ranking.retrieveRank(third, "dollars").join().isPresent());
+        Assertions.assertFalse(ranking.retrieveRank(first, "euros").join().isPresent());
+        Assertions.assertTrue(ranking.retrieveTopBalances("dollars", 5, 10).join().isEmpty());
+    }
+
+    @Test
+    void testRandomUpdatesMatchSorting() {
+        MemoryBalanceRanking ranking = new MemoryBalanceRanking(new NoAccountsProvider());
+        Random random = new Random(42);
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            players.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            UUID player = players.get(random.nextInt(players.size()));
+            if (random.nextInt(10) == 0) {
+                ranking.remove(player);
+                balances.remove(player);
+            } else {
+                BigDecimal balance = BigDecimal.valueOf(random.nextInt(50));
+                ranking.update(player, "dollars", balance, 0);
+                balances.put(player, balance);
+            }
+        }
+
+        List<Map.Entry<UUID, BigDecimal>> expected = new ArrayList<>(balances.entrySet());
+        expected.sort(Map.Entry.<UUID, BigDecimal>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<RankedBalance> actual = ranking.retrieveTopBalances("dollars", 0, 1000).join();
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            UUID player = expected.get(i).getKey();
+            Assertions.assertEquals(player, actual.get(i).getPlayerId());
+            Assertions.assertEquals(i + 1, actual.get(i).getRank());
+            Assertions.assertEquals(i + 1, ranking.retrieveRank(player, "dollars").join().get().getRank());
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package me.lokka30.treasury.api.economy.balance;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.service.ServicePriority;
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.account.MemoryEconomyProvider;
+import me.lokka30.treasury.api.economy.account.NoAccountsProvider;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.currency.StandardCurrency;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MemoryEconomyStatisticsTest {
+
+    @Test
+    void testAggregates() {
+        MemoryEconomyStatistics statistics = new MemoryEconomyStatistics(new NoAccountsProvider());
+        AccountData first = AccountData.forPlayerAccount(UUID.randomUUID());
+        AccountData second = AccountData.forPlayerAccount(UUID.randomUUID());
+
+        statistics.update(first, "dollars", BigDecimal.valueOf(100), 1);
+        statistics.update(second, "dollars", BigDecimal.valueOf(300), 1);
+        CurrencyStatistics dollars = statistics.getStatistics("dollars").get();
+        Assertions.assertEquals(0, BigDecimal.valueOf(400).compareTo(dollars.getTotalSupply()));
+        Assertions.assertEquals(2, dollars.getAccountCount());
+        Assertions.assertEquals(0, BigDecimal.valueOf(200).compareTo(dollars.getMean()));
+
+        // stale update is ignored
+        statistics.update(first, "dollars", BigDecimal.valueOf(1000), 1);
+        Assertions.assertSame(dollars, statistics.getStatistics("dollars").get());
+
+        statistics.update(first, "dollars", BigDecimal.valueOf(-50), 2);
+        dollars = statistics.getStatistics("dollars").get();
+        Assertions.assertEquals(0, BigDecimal.valueOf(250).compareTo(dollars.getTotalSupply()));
+        Assertions.assertEquals(2, dollars.getAccountCount());
+        Assertions.assertTrue(dollars.estimateQuantile(0).signum() < 0);
+
+        statistics.remove(first);
+        dollars = statistics.getStatistics("dollars").get();
+        Assertions.assertEquals(1, dollars.getAccountCount());
+        Assertions.assertEquals(0, BigDecimal.valueOf(300).compareTo(dollars.getTotalSupply()));
+        Assertions.assertFalse(statistics.getStatistics("euros").isPresent());
+
+        statistics.remove(second);
+        Assertions.assertFalse(statistics.getStatistics("dollars").isPresent());
+        Assertions.assertTrue(statistics.getAllStatistics().isEmpty());
+    }
+
+    @Test
+    void testQuantilesWithinRelativeAccuracy() {
+        MemoryEconomyStatistics statistics = new MemoryEconomyStatistics(new NoAccountsProvider());
+        Random random = new Random(42);
+        List<Double> balances = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            double balance = Math.exp(random.nextGaussian() * 4);
+            balances.add(balance);
+            statistics.update(AccountData.forPlayerAccount(new UUID(random.nextLong(), random.nextLong())),
+                    "dollars",
+                    BigDecimal.valueOf(balance),
+                    0
+            );
+        }
+        Collections.sort(balances);
+
+        CurrencyStatistics dollars = statistics.getStatistics("dollars").get();
+        for (double quantile : new double[]{0, 0.1, 0.5, 0.9, 0.99, 1}) {
+            double expected = balances.get((int) Math.floor(quantile * (balances.size() - 1)));
+            double actual = dollars.estimateQuantile(quantile).doubleValue();
+            Assertions.assertEquals(expected, actual, expected * 0.02, "quantile " + quantile);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> dollars.estimateQuantile(1.5));
+    }
+
+    @Test
+    void testBuild() {
+        Currency currency = StandardCurrency.newBuilder().withIdentifier("dollars").build();
+        MemoryEconomyProvider provider = new MemoryEconomyProvider() {
+            @Override
+            public @NotNull Optional<Currency> findCurrency(@NotNull String identifier) {
+                return identifier.equals("dollars") ? Optional.of(currency) : Optional.empty();
+            }
+        };
+        for (int i = 1; i <= 10; i++) {
+            provider.player(UUID.randomUUID()).depositBalance(BigDecimal.valueOf(i), Cause.SERVER, currency).join();
+        }
+        ServiceRegistry.INSTANCE.registerService(EconomyProvider.class,
+                provider,
+                "MemoryEconomyStatisticsTest",
+                ServicePriority.HIGH
+        );
+        try {
+            MemoryEconomyStatistics statistics = new MemoryEconomyStatistics(provider);
+            Assertions.assertFalse(statistics.covers(provider));
+            statistics.build().join();
+            Assertions.assertTrue(statistics.covers(provider));
+
+            CurrencyStatistics dollars = statistics.getStatistics("dollars").get();
+            Assertions.assertEquals(10, dollars.getAccountCount());
+            Assertions.assertEquals(0, BigDecimal.valueOf(55).compareTo(dollars.getTotalSupply()));
+            Assertions.assertEquals(0, new BigDecimal("5.5").compareTo(dollars.getMean()));
+        } finally {
+            ServiceRegistry.INSTANCE.unregister(EconomyProvider.class, provider);
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package me.lokka30.treasury.api.economy.currency;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CurrencyConverterTest {
+
+    private static StandardCurrency currency(String identifier, String rate) {
+        return StandardCurrency
+                .newBuilder()
+                .withIdentifier(identifier)
+                .withConversionRate(new BigDecimal(rate))
+                .build();
+    }
+
+    @Test
+    void testConvert() {
+        CurrencyRegistry registry = new CurrencyRegistry();
+        Currency bgn = currency("bgn", "0.511292");
+        Currency eur = currency("eur", "0.884059");
+        registry.register(bgn);
+        registry.register(eur);
+
+        CurrencyConverter converter = new CurrencyConverter(registry,
+                new MathContext(16, RoundingMode.HALF_EVEN)
+        );
+        Assertions.assertEquals(new BigDecimal("0.58"), converter.convert(BigDecimal.ONE, bgn, eur));
+        Assertions.assertEquals(new BigDecimal("1.73"), converter.convert(BigDecimal.ONE, eur, bgn));
+        Assertions.assertEquals(BigDecimal.ONE, converter.getCrossRate(eur, eur));
+
+        List<BigDecimal> converted = converter.convertAll(Arrays.asList(BigDecimal.ONE,
+                BigDecimal.TEN
+        ), bgn, eur);
+        Assertions.assertEquals(Arrays.asList(new BigDecimal("0.58"), new BigDecimal("5.78")),
+                converted
+        );
+    }
+
+    @Test
+    void testInvalidatesOnRegistryChange() {
+        CurrencyRegistry registry = new CurrencyRegistry();
+        Currency a = currency("a", "1");
+        Currency b = currency("b", "2");
+        registry.register(a);
+        registry.register(b);
+
+        CurrencyConverter converter = new CurrencyConverter(registry);
+        Assertions.assertEquals(0, new BigDecimal("0.5").compareTo(converter.getCrossRate(a, b)));
+
+        registry.unregister(b);
+        Currency newB = currency("b", "4");
+        registry.register(newB);
+        Assertions.assertEquals(0, new BigDecimal("0.25").compareTo(converter.getCrossRate(a, newB)));
+    }
+
+}
@@ -0,0 +1,69 @@
+package me.lokka30.treasury.api.economy.currency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import me.lokka30.treasury.api.common.misc.TriState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CurrencyRegistryTest {
+
+    private static Currency currency(String identifier, boolean primary) {
+        return StandardCurrency.newBuilder().withIdentifier(identifier).withPrimary(primary).build();
+    }
+
+    @Test
+    void testRegisterAndFind() {
+        CurrencyRegistry registry = new CurrencyRegistry();
+        Currency dollars = currency("Dollars", true);
+        Currency gems = currency("gems", false);
+
+        Assertions.assertEquals(TriState.TRUE, registry.register(dollars));
+        Assertions.assertEquals(TriState.TRUE, registry.register(gems));
+        Assertions.assertEquals(TriState.UNSPECIFIED, registry.register(currency("DOLLARS", false)));
+
+        Assertions.assertSame(dollars, registry.find("dollars").orElse(null));
+        Assertions.assertSame(gems, registry.find("GEMS").orElse(null));
+        Assertions.assertFalse(registry.find("euros").isPresent());
+        Assertions.assertEquals(Arrays.asList(dollars, gems), new ArrayList<>(registry.getCurrencies()));
+        Assertions.assertSame(dollars, registry.snapshot().getPrimary().orElse(null));
+    }
+
+    @Test
+    void testOrdinalsAreReused() {
+        CurrencyRegistry registry = new CurrencyRegistry();
+        registry.register(currency("a", false));
+        registry.register(currency("b", false));
+        registry.register(currency("c", false));
+        Assertions.assertEquals(1, registry.ordinal("b"));
+
+        Assertions.assertEquals(TriState.TRUE, registry.unregister("B"));
+        Assertions.assertEquals(TriState.UNSPECIFIED, registry.unregister("b"));
+        Assertions.assertEquals(-1, registry.ordinal("b"));
+        Assertions.assertEquals(2, registry.ordinal("c"));
+
+        registry.register(currency("d", false));
+        Assertions.assertEquals(1, registry.ordinal("d"));
+        Assertions.assertEquals(3, registry.snapshot().getOrdinalBound());
+    }
+
+    @Test
+    void testSnapshotsAndListeners() {
+        CurrencyRegistry registry = new CurrencyRegistry();
+        List<Long> versions = new ArrayList<>();
+        registry.addListener((previous, current) -> {
+            Assertions.assertEquals(previous.getVersion() + 1, current.getVersion());
+            versions.add(current.getVersion());
+        });
+
+        CurrencyRegistry.Snapshot before = registry.snapshot();
+        registry.register(currency("a", false));
+        Assertions.assertTrue(before.getCurrencies().isEmpty());
+        Assertions.assertEquals(1, registry.getCurrencies().size());
+
+        registry.unregister("a");
+        Assertions.assertEquals(Arrays.asList(1L, 2L), versions);
+    }
+
+}
@@ -0,0 +1,65 @@
+package me.lokka30.treasury.api.economy.currency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.economy.account.MemoryAccount;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FixedPointAmountTest {
+
+    @Test
+    void testConversion() {
+        FixedPointAmount amount = FixedPointAmount.of(new BigDecimal("12.345"), 2);
+
+        Assertions.assertEquals(1235, amount.getMinorUnits());
+        Assertions.assertEquals(new BigDecimal("12.35"), amount.toBigDecimal());
+        Assertions.assertEquals(
+                1234,
+                FixedPointAmount.toMinorUnits(new BigDecimal("12.345"), 2, RoundingMode.DOWN)
+        );
+    }
+
+    @Test
+    void testAccountBalancesAreRoundedDown() {
+        Currency dollars = StandardCurrency.newBuilder().withIdentifier("dollars").build();
+        MemoryAccount account = new MemoryAccount();
+
+        account.depositBalance(new BigDecimal("0.005"), Cause.SERVER, dollars).join();
+        Assertions.assertEquals(0, account.retrieveMinorUnitBalance(dollars).join());
+        Assertions.assertEquals(100, account.depositMinorUnits(100, Cause.SERVER, dollars).join());
+        Assertions.assertEquals(0, account.withdrawMinorUnits(100, Cause.SERVER, dollars).join());
+    }
+
+    @Test
+    void testArithmetic() {
+        FixedPointAmount a = FixedPointAmount.of(150, 2);
+        FixedPointAmount b = FixedPointAmount.of(75, 2);
+
+        Assertions.assertEquals(FixedPointAmount.of(225, 2), a.add(b));
+        Assertions.assertEquals(FixedPointAmount.of(75, 2), a.subtract(b));
+        Assertions.assertEquals(FixedPointAmount.of(450, 2), a.multiply(3));
+        Assertions.assertTrue(a.compareTo(b) > 0);
+    }
+
+    @Test
+    void testOverflow() {
+        FixedPointAmount max = FixedPointAmount.of(Long.MAX_VALUE, 2);
+
+        Assertions.assertThrows(ArithmeticException.class, () -> max.add(FixedPointAmount.of(1, 2)));
+        Assertions.assertThrows(
+                ArithmeticException.class,
+                () -> FixedPointAmount.of(new BigDecimal("1e30"), 2)
+        );
+    }
+
+    @Test
+    void testPrecisionMismatch() {
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> FixedPointAmount.of(1, 2).add(FixedPointAmount.of(1, 3))
+        );
+    }
+
+}
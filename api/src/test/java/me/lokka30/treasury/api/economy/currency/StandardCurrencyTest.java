@@ -0,0 +1,80 @@
+package me.lokka30.treasury.api.economy.currency;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class StandardCurrencyTest {
+
+    private final StandardCurrency currency = StandardCurrency
+            .newBuilder()
+            .withIdentifier("dollars")
+            .withSymbol("$")
+            .withDecimal(Locale.GERMANY, ',')
+            .withDefaultDisplayName("Dollar", "Dollars")
+            .withDisplayName(Locale.GERMANY, "Taler", "Taler")
+            .build();
+
+    @Test
+    void testFormat() {
+        Assertions.assertEquals("$1,234,567.89", currency.format(new BigDecimal("1234567.891"), null));
+        Assertions.assertEquals("-$0.50", currency.format(new BigDecimal("-0.5"), null));
+        Assertions.assertEquals("$100", currency.format(new BigDecimal("99.5"), null, 0));
+        Assertions.assertEquals("$1.234,50", currency.format(new BigDecimal("1234.5"), Locale.GERMANY));
+    }
+
+    @Test
+    void testParse() {
+        Assertions.assertEquals(new BigDecimal("1234567.89"), currency.parseNow("$1,234,567.89", null));
+        Assertions.assertEquals(new BigDecimal("-0.50"), currency.parseNow("-$0.50", null));
+        Assertions.assertEquals(new BigDecimal("1234.50"), currency.parseNow("1.234,50", Locale.GERMANY));
+        Assertions.assertThrows(TreasuryException.class, () -> currency.parseNow("12a", null));
+        Assertions.assertThrows(TreasuryException.class, () -> currency.parseNow("$", null));
+        Assertions.assertTrue(currency.parse("abc", null).isCompletedExceptionally());
+    }
+
+    @Test
+    void testDisplayName() {
+        Assertions.assertEquals("Dollar", currency.getDisplayName(BigDecimal.ONE, null));
+        Assertions.assertEquals("Dollar", currency.getDisplayName(new BigDecimal("1.00"), null));
+        Assertions.assertEquals("Dollars", currency.getDisplayName(BigDecimal.ZERO, null));
+        Assertions.assertEquals("Dollars", currency.getDisplayName(new BigDecimal("0.5"), null));
+        Assertions.assertEquals("Dollars", currency.getDisplayName(new BigDecimal(-5), null));
+        Assertions.assertEquals("Dollars", currency.getDisplayName(BigDecimal.TEN, Locale.FRANCE));
+        Assertions.assertEquals("Taler", currency.getDisplayName(BigDecimal.TEN, Locale.GERMANY));
+    }
+
+    @Test
+    void testNullLocaleIsDefaultLocale() {
+        StandardCurrency german = StandardCurrency
+                .newBuilder()
+                .withIdentifier("euros")
+                .withSymbol("€")
+                .withDefaultLocale(Locale.GERMANY)
+                .withDecimal(Locale.GERMANY, ',')
+                .withDefaultDisplayName("Euro", "Euros")
+                .withDisplayName(Locale.GERMANY, "Euro", "Euro")
+                .build();
+
+        Assertions.assertEquals(',', german.getDecimal(null));
+        Assertions.assertEquals(german.getDecimal(Locale.GERMANY), german.getDecimal(null));
+        Assertions.assertEquals('.', german.getDecimal(Locale.FRANCE));
+        String formatted = german.format(new BigDecimal("1234.5"), null);
+        Assertions.assertEquals("€1.234,50", formatted);
+        Assertions.assertEquals(new BigDecimal("1234.50"), german.parseNow(formatted, null));
+        Assertions.assertEquals("Euro", german.getDisplayName(BigDecimal.TEN, null));
+    }
+
+    @Test
+    void testBuilderReuseKeepsFallbackDisplayName() {
+        StandardCurrency.Builder builder = StandardCurrency.newBuilder().withIdentifier("dollars");
+        StandardCurrency dollars = builder.build();
+        StandardCurrency gems = builder.withIdentifier("gems").build();
+
+        Assertions.assertEquals("dollars", dollars.getDisplayName(BigDecimal.TEN, null));
+        Assertions.assertEquals("gems", gems.getDisplayName(BigDecimal.TEN, null));
+    }
+
+}
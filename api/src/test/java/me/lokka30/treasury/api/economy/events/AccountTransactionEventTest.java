@@ -0,0 +1,54 @@
+package me.lokka30.treasury.api.economy.events;
+
+import java.math.BigDecimal;
+import java.util.OptionalLong;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.economy.account.MemoryAccount;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransaction;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransactionImportance;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AccountTransactionEventTest {
+
+    private final EconomyTransaction transaction = EconomyTransaction
+            .newBuilder()
+            .withCurrencyId("dollars")
+            .withCause(Cause.SERVER)
+            .withImportance(EconomyTransactionImportance.NORMAL)
+            .withType(EconomyTransactionType.DEPOSIT)
+            .withAmount(BigDecimal.ONE)
+            .build();
+
+    @Test
+    void testCommittedBalances() {
+        AccountTransactionEvent event = new AccountTransactionEvent(transaction,
+                new MemoryAccount(),
+                BigDecimal.TEN,
+                new BigDecimal(11),
+                7
+        );
+        Assertions.assertEquals(BigDecimal.TEN, event.getPreviousBalance().orElse(null));
+        Assertions.assertEquals(new BigDecimal(11), event.getNewBalance().orElse(null));
+        Assertions.assertEquals(OptionalLong.of(7), event.getVersion());
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new AccountTransactionEvent(transaction,
+                        new MemoryAccount(),
+                        BigDecimal.TEN,
+                        BigDecimal.TEN,
+                        0
+                )
+        );
+    }
+
+    @Test
+    void testLegacyEvent() {
+        AccountTransactionEvent event = new AccountTransactionEvent(transaction, new MemoryAccount());
+        Assertions.assertFalse(event.getPreviousBalance().isPresent());
+        Assertions.assertFalse(event.getNewBalance().isPresent());
+        Assertions.assertFalse(event.getVersion().isPresent());
+    }
+
+}
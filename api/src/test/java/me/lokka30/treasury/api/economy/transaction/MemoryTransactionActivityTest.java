@@ -0,0 +1,142 @@
+package me.lokka30.treasury.api.economy.transaction;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.account.NoAccountsProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MemoryTransactionActivityTest {
+
+    private static final Duration FIVE_MINUTES = Duration.ofMinutes(5);
+    private static final Duration ONE_HOUR = Duration.ofHours(1);
+
+    @Test
+    void testRollingWindows() {
+        AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toMillis(1000));
+        MemoryTransactionActivity activity = new MemoryTransactionActivity(new NoAccountsProvider(),
+                Arrays.asList(ONE_HOUR, FIVE_MINUTES),
+                12,
+                clock::get
+        );
+        Assertions.assertEquals(Arrays.asList(FIVE_MINUTES, ONE_HOUR), activity.getWindows());
+        AccountData account = AccountData.forPlayerAccount(UUID.randomUUID());
+
+        activity.record(account, "dollars", EconomyTransactionType.DEPOSIT, BigDecimal.TEN);
+        activity.record(account, "dollars", EconomyTransactionType.DEPOSIT, BigDecimal.ONE);
+        activity.record(account, "dollars", EconomyTransactionType.WITHDRAWAL, BigDecimal.ONE);
+        Assertions.assertEquals(2,
+                activity.countTransactions(account, "dollars", EconomyTransactionType.DEPOSIT, FIVE_MINUTES)
+        );
+        Assertions.assertEquals(0, new BigDecimal("11").compareTo(
+                activity.sumAmounts(account, "dollars", EconomyTransactionType.DEPOSIT, ONE_HOUR)
+        ));
+        Assertions.assertEquals(1,
+                activity.countTransactions(account, "dollars", EconomyTransactionType.WITHDRAWAL, ONE_HOUR)
+        );
+        Assertions.assertEquals(0,
+                activity.countTransactions(account, "euros", EconomyTransactionType.DEPOSIT, ONE_HOUR)
+        );
+
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(10));
+        activity.record(account, "dollars", EconomyTransactionType.DEPOSIT, BigDecimal.ONE);
+        Assertions.assertEquals(1,
+                activity.countTransactions(account, "dollars", EconomyTransactionType.DEPOSIT, FIVE_MINUTES)
+        );
+        Assertions.assertEquals(3,
+                activity.countTransactions(account, "dollars", EconomyTransactionType.DEPOSIT, ONE_HOUR)
+        );
+
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(55));
+        Assertions.assertEquals(0,
+                activity.countTransactions(account, "dollars", EconomyTransactionType.DEPOSIT, FIVE_MINUTES)
+        );
+        Assertions.assertEquals(1,
+                activity.countTransactions(account, "dollars", EconomyTransactionType.DEPOSIT, ONE_HOUR)
+        );
+        Assertions.assertEquals(0, new BigDecimal("1").compareTo(
+                activity.sumAmounts(account, "dollars", EconomyTransactionType.DEPOSIT, ONE_HOUR)
+        ));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> activity.countTransactions(account, "dollars", EconomyTransactionType.SET, ONE_HOUR)
+        );
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> activity.countTransactions(account,
+                        "dollars",
+                        EconomyTransactionType.DEPOSIT,
+                        Duration.ofMinutes(10)
+                )
+        );
+    }
+
+    @Test
+    void testSumsStayExact() {
+        AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toMillis(1000));
+        MemoryTransactionActivity activity = new MemoryTransactionActivity(new NoAccountsProvider(),
+                Arrays.asList(FIVE_MINUTES),
+                5,
+                clock::get
+        );
+        AccountData account = AccountData.forPlayerAccount(UUID.randomUUID());
+
+        for (int i = 0; i < 3; i++) {
+            activity.record(account, "dollars", EconomyTransactionType.DEPOSIT, new BigDecimal("0.1"));
+        }
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(1));
+        activity.record(account, "dollars", EconomyTransactionType.DEPOSIT, new BigDecimal("0.2"));
+        Assertions.assertEquals(new BigDecimal("0.5000"),
+                activity.sumAmounts(account, "dollars", EconomyTransactionType.DEPOSIT, FIVE_MINUTES)
+        );
+
+        // the first bucket is dropped, leaving no rounding error behind
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(4));
+        Assertions.assertEquals(new BigDecimal("0.2000"),
+                activity.sumAmounts(account, "dollars", EconomyTransactionType.DEPOSIT, FIVE_MINUTES)
+        );
+
+        // beyond the range of a long, the sum saturates until the huge amount is dropped
+        activity.record(account, "dollars", EconomyTransactionType.DEPOSIT, new BigDecimal("1e20"));
+        activity.record(account, "dollars", EconomyTransactionType.DEPOSIT, BigDecimal.ONE);
+        Assertions.assertEquals(BigDecimal.valueOf(Long.MAX_VALUE, MemoryTransactionActivity.AMOUNT_SCALE),
+                activity.sumAmounts(account, "dollars", EconomyTransactionType.DEPOSIT, FIVE_MINUTES)
+        );
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(5));
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(
+                activity.sumAmounts(account, "dollars", EconomyTransactionType.DEPOSIT, FIVE_MINUTES)
+        ));
+    }
+
+    @Test
+    void testIdleAccountsAreEvicted() {
+        AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toMillis(1000));
+        MemoryTransactionActivity activity = new MemoryTransactionActivity(new NoAccountsProvider(),
+                MemoryTransactionActivity.DEFAULT_WINDOWS,
+                12,
+                clock::get
+        );
+        AccountData idle = AccountData.forPlayerAccount(UUID.randomUUID());
+        AccountData active = AccountData.forPlayerAccount(UUID.randomUUID());
+
+        activity.record(idle, "dollars", EconomyTransactionType.DEPOSIT, BigDecimal.ONE);
+        clock.addAndGet(TimeUnit.HOURS.toMillis(12));
+        activity.record(active, "dollars", EconomyTransactionType.DEPOSIT, BigDecimal.ONE);
+        Assertions.assertEquals(2, activity.size());
+
+        clock.addAndGet(TimeUnit.HOURS.toMillis(12));
+        Assertions.assertEquals(1, activity.evictIdle());
+        Assertions.assertEquals(1, activity.size());
+        Assertions.assertEquals(0,
+                activity.countTransactions(idle, "dollars", EconomyTransactionType.DEPOSIT, Duration.ofHours(24))
+        );
+        Assertions.assertEquals(1,
+                activity.countTransactions(active, "dollars", EconomyTransactionType.DEPOSIT, Duration.ofHours(24))
+        );
+    }
+
+}
@@ -0,0 +1,154 @@
+package me.lokka30.treasury.api.economy.transaction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.misc.Page;
+import me.lokka30.treasury.api.economy.account.MemoryPlayerAccount;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TransactionHistoryQueryTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void testMatches() {
+        TransactionHistoryQuery query = TransactionHistoryQuery
+                .newBuilder()
+                .withFrom(START.plusSeconds(10))
+                .withTo(START.plusSeconds(20))
+                .withType(EconomyTransactionType.DEPOSIT)
+                .withCurrencyId("dollars")
+                .withCause(Cause.SERVER)
+                .build();
+
+        Assertions.assertTrue(query.matches(transaction(10, "dollars", EconomyTransactionType.DEPOSIT, 1)));
+        Assertions.assertTrue(query.matches(transaction(20, "dollars", EconomyTransactionType.DEPOSIT, 1)));
+        Assertions.assertFalse(query.matches(transaction(9, "dollars", EconomyTransactionType.DEPOSIT, 1)));
+        Assertions.assertFalse(query.matches(transaction(21, "dollars", EconomyTransactionType.DEPOSIT, 1)));
+        Assertions.assertFalse(query.matches(transaction(15, "gems", EconomyTransactionType.DEPOSIT, 1)));
+        Assertions.assertFalse(query.matches(transaction(15, "dollars", EconomyTransactionType.WITHDRAWAL, 1)));
+        Assertions.assertFalse(query.matches(EconomyTransaction
+                .newBuilder()
+                .withCurrencyId("dollars")
+                .withType(EconomyTransactionType.DEPOSIT)
+                .withAmount(BigDecimal.ONE)
+                .withTimestamp(START.plusSeconds(15))
+                .withCause(Cause.player(UUID.randomUUID()))
+                .withImportance(EconomyTransactionImportance.NORMAL)
+                .build()));
+    }
+
+    @Test
+    void testOrderBreaksTies() {
+        EconomyTransaction first = transaction(0, "dollars", EconomyTransactionType.DEPOSIT, 1);
+        EconomyTransaction second = transaction(0, "dollars", EconomyTransactionType.DEPOSIT, 2);
+        EconomyTransaction third = transaction(0, "gems", EconomyTransactionType.DEPOSIT, 1);
+        EconomyTransaction later = transaction(1, "dollars", EconomyTransactionType.DEPOSIT, 1);
+
+        List<EconomyTransaction> oldestFirst = new ArrayList<>(Arrays.asList(later, third, second, first));
+        oldestFirst.sort(TransactionHistoryQuery.Order.OLDEST_FIRST.comparator());
+        Assertions.assertEquals(Arrays.asList(first, second, third, later), oldestFirst);
+
+        List<EconomyTransaction> newestFirst = new ArrayList<>(Arrays.asList(second, first, later, third));
+        newestFirst.sort(TransactionHistoryQuery.Order.NEWEST_FIRST.comparator());
+        Assertions.assertEquals(Arrays.asList(later, third, second, first), newestFirst);
+    }
+
+    @Test
+    void testBuilderDoesNotFreezeTo() throws InterruptedException {
+        TransactionHistoryQuery.Builder builder = TransactionHistoryQuery.newBuilder();
+        TransactionHistoryQuery first = builder.build();
+        Thread.sleep(5);
+        TransactionHistoryQuery second = builder.build();
+
+        Assertions.assertTrue(second.getTo().isAfter(first.getTo()));
+    }
+
+    @Test
+    void testInvalidWindow() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TransactionHistoryQuery
+                .newBuilder()
+                .withFrom(START.plusSeconds(1))
+                .withTo(START)
+                .build());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> TransactionHistoryQuery.newBuilder().withPageSize(0)
+        );
+    }
+
+    @Test
+    void testPagesAndNext() {
+        MemoryPlayerAccount account = new MemoryPlayerAccount(UUID.randomUUID());
+        // 5 matching deposits, two of them at the same time, and some not matching
+        for (int i = 0; i < 4; i++) {
+            account.doTransaction(transaction(i, "dollars", EconomyTransactionType.DEPOSIT, 10)).join();
+        }
+        account.doTransaction(transaction(3, "dollars", EconomyTransactionType.DEPOSIT, 20)).join();
+        account.doTransaction(transaction(2, "dollars", EconomyTransactionType.WITHDRAWAL, 1)).join();
+        account.doTransaction(transaction(2, "gems", EconomyTransactionType.DEPOSIT, 1)).join();
+
+        TransactionHistoryQuery query = TransactionHistoryQuery
+                .newBuilder()
+                .withTo(START.plusSeconds(60))
+                .withType(EconomyTransactionType.DEPOSIT)
+                .withCurrencyId("dollars")
+                .withOrder(TransactionHistoryQuery.Order.NEWEST_FIRST)
+                .withPageSize(2)
+                .build();
+
+        List<EconomyTransaction> all = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        Optional<TransactionHistoryQuery> next = Optional.of(query);
+        while (next.isPresent()) {
+            Page<EconomyTransaction> page = account.retrieveTransactionHistory(next.get()).join();
+            all.addAll(page.getItems());
+            pageSizes.add(page.getItems().size());
+            next = next.get().next(page);
+        }
+
+        Assertions.assertEquals(Arrays.asList(2, 2, 1), pageSizes);
+        Assertions.assertEquals(5, all.size());
+        Assertions.assertEquals(START.plusSeconds(3), all.get(0).getTimestamp());
+        Assertions.assertEquals(0, all.get(0).getAmount().compareTo(BigDecimal.valueOf(20)));
+        Assertions.assertEquals(START.plusSeconds(3), all.get(1).getTimestamp());
+        Assertions.assertEquals(START, all.get(4).getTimestamp());
+        for (EconomyTransaction transaction : all) {
+            Assertions.assertTrue(query.matches(transaction));
+        }
+    }
+
+    @Test
+    void testNextOfLastPage() {
+        TransactionHistoryQuery query = TransactionHistoryQuery.newBuilder().build();
+
+        Assertions.assertFalse(query.next(Page.last(new ArrayList<>())).isPresent());
+        Optional<TransactionHistoryQuery> next = query.next(Page.of(new ArrayList<>(), "2"));
+        Assertions.assertTrue(next.isPresent());
+        Assertions.assertEquals(Optional.of("2"), next.get().getContinuationToken());
+        Assertions.assertEquals(query.getTo(), next.get().getTo());
+    }
+
+    @NotNull
+    private static EconomyTransaction transaction(
+            int second, @NotNull String currencyId, @NotNull EconomyTransactionType type, int amount
+    ) {
+        return EconomyTransaction
+                .newBuilder()
+                .withCurrencyId(currencyId)
+                .withType(type)
+                .withAmount(BigDecimal.valueOf(amount))
+                .withTimestamp(START.plusSeconds(second))
+                .withCause(Cause.SERVER)
+                .withImportance(EconomyTransactionImportance.NORMAL)
+                .build();
+    }
+
+}
@@ -17,6 +17,15 @@ import me.lokka30.treasury.api.common.service.ServiceRegistry;
 import me.lokka30.treasury.api.economy.EconomyProvider;
 import me.lokka30.treasury.plugin.core.command.subcommand.economy.migrate.EconomyMigrateSub;
 import me.lokka30.treasury.plugin.core.config.ConfigAdapter;
+import me.lokka30.treasury.plugin.core.config.settings.Settings;
+import me.lokka30.treasury.plugin.core.economy.AccountExistenceFilterManager;
+import me.lokka30.treasury.plugin.core.economy.BalanceHoldManager;
+import me.lokka30.treasury.plugin.core.economy.BalanceRankingManager;
+import me.lokka30.treasury.plugin.core.economy.CachingEconomyProvider;
+import me.lokka30.treasury.plugin.core.economy.EconomyCacheManager;
+import me.lokka30.treasury.plugin.core.economy.EconomyStatisticsManager;
+import me.lokka30.treasury.plugin.core.economy.MembershipIndexManager;
+import me.lokka30.treasury.plugin.core.economy.TransactionActivityManager;
 import me.lokka30.treasury.plugin.core.logging.Logger;
 import me.lokka30.treasury.plugin.core.schedule.Scheduler;
 import me.lokka30.treasury.plugin.core.utils.PluginVersion;
@@ -138,6 +147,7 @@ public abstract class TreasuryPlugin {
             economyProviderRegistrars = Collections.emptyList();
         } else {
             economyProviderRegistrars = services.stream()
+                    .filter(service -> !(service.get() instanceof CachingEconomyProvider))
                     .map(Service::registrarName)
                     .collect(Collectors.toList());
         }
@@ -187,6 +197,23 @@ public abstract class TreasuryPlugin {
         }
     }
 
+    /**
+     * Applies the specified, freshly loaded, {@link Settings} to the economy services Treasury
+     * maintains. Called by every platform whenever it (re)loads its settings.
+     *
+     * @param settings settings
+     */
+    public void applySettings(@NotNull Settings settings) {
+        Objects.requireNonNull(settings, "settings");
+        EconomyCacheManager.INSTANCE.configure(settings.getEconomyCache());
+        MembershipIndexManager.INSTANCE.configure(settings.getMembershipIndex());
+        BalanceRankingManager.INSTANCE.configure(settings.getBalanceRanking());
+        AccountExistenceFilterManager.INSTANCE.configure(settings.getAccountFilter());
+        BalanceHoldManager.INSTANCE.configure(settings.getBalanceHolds());
+        EconomyStatisticsManager.INSTANCE.configure(settings.getEconomyStatistics());
+        TransactionActivityManager.INSTANCE.configure(settings.getTransactionActivity());
+    }
+
     /**
      * Due to the shut-down logic being the same on all the platforms, the disable method has
      * been abstracted into here.
@@ -211,6 +238,14 @@ public abstract class TreasuryPlugin {
             psShutdownCode.run();
         }
 
+        EconomyCacheManager.INSTANCE.shutdown();
+        MembershipIndexManager.INSTANCE.shutdown();
+        BalanceRankingManager.INSTANCE.shutdown();
+        AccountExistenceFilterManager.INSTANCE.shutdown();
+        BalanceHoldManager.INSTANCE.shutdown();
+        EconomyStatisticsManager.INSTANCE.shutdown();
+        TransactionActivityManager.INSTANCE.shutdown();
+
         if (!noColors) {
             this
                     .logger()
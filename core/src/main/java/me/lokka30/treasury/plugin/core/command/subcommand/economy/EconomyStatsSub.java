@@ -0,0 +1,122 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.command.subcommand.economy;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import me.lokka30.treasury.api.common.service.Service;
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.balance.CurrencyStatistics;
+import me.lokka30.treasury.api.economy.balance.EconomyStatistics;
+import me.lokka30.treasury.plugin.core.command.CommandSource;
+import me.lokka30.treasury.plugin.core.command.Subcommand;
+import me.lokka30.treasury.plugin.core.config.messaging.Message;
+import me.lokka30.treasury.plugin.core.config.messaging.MessageKey;
+import me.lokka30.treasury.plugin.core.config.messaging.MessagePlaceholder;
+import me.lokka30.treasury.plugin.core.utils.Utils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static me.lokka30.treasury.plugin.core.config.messaging.MessagePlaceholder.placeholder;
+
+// "/treasury economy stats [currency]"
+public class EconomyStatsSub implements Subcommand {
+
+    @Override
+    public void execute(
+            @NotNull final CommandSource sender,
+            @NotNull final String label,
+            final @NotNull String[] args
+    ) {
+        if (!Utils.checkPermissionForCommand(sender, "treasury.command.treasury.economy.stats")) {
+            return;
+        }
+
+        if (args.length > 1) {
+            sender.sendMessage(Message.of(
+                    MessageKey.ECONOMY_STATS_INVALID_USAGE,
+                    MessagePlaceholder.placeholder("label", label)
+            ));
+            return;
+        }
+
+        Optional<EconomyStatistics> statistics = findStatistics();
+        if (!statistics.isPresent()) {
+            sender.sendMessage(Message.of(MessageKey.ECONOMY_STATS_UNAVAILABLE));
+            return;
+        }
+
+        Collection<CurrencyStatistics> toSend;
+        if (args.length == 1) {
+            Optional<CurrencyStatistics> currency = statistics.get().getStatistics(args[0]);
+            if (!currency.isPresent()) {
+                sender.sendMessage(Message.of(
+                        MessageKey.ECONOMY_STATS_UNKNOWN_CURRENCY,
+                        placeholder("currency", args[0])
+                ));
+                return;
+            }
+            toSend = Collections.singletonList(currency.get());
+        } else {
+            toSend = statistics.get().getAllStatistics();
+            if (toSend.isEmpty()) {
+                sender.sendMessage(Message.of(MessageKey.ECONOMY_STATS_NO_BALANCES));
+                return;
+            }
+        }
+
+        for (CurrencyStatistics currency : toSend) {
+            sender.sendMessage(Message.of(
+                    MessageKey.ECONOMY_STATS_CURRENCY,
+                    placeholder("currency", currency.getCurrencyId()),
+                    placeholder("total-supply", currency.getTotalSupply().toPlainString()),
+                    placeholder("accounts", currency.getAccountCount()),
+                    placeholder("mean", currency.getMean().setScale(2, RoundingMode.HALF_EVEN).toPlainString()),
+                    placeholder("median", currency.estimateMedian().toPlainString()),
+                    placeholder("p90", currency.estimateQuantile(0.9).toPlainString()),
+                    placeholder("p99", currency.estimateQuantile(0.99).toPlainString())
+            ));
+        }
+    }
+
+    @Nullable
+    @Override
+    public List<String> complete(
+            @NotNull CommandSource source, @NotNull String label, @NotNull String[] args
+    ) {
+        if (args.length != 1 || !source.hasPermission("treasury.command.treasury.economy.stats")) {
+            return Collections.emptyList();
+        }
+        Optional<EconomyStatistics> statistics = findStatistics();
+        if (!statistics.isPresent()) {
+            return Collections.emptyList();
+        }
+        String lastArg = args[0].toLowerCase(Locale.ROOT);
+        List<String> currencyIds = new ArrayList<>();
+        for (CurrencyStatistics currency : statistics.get().getAllStatistics()) {
+            currencyIds.add(currency.getCurrencyId());
+        }
+        return currencyIds
+                .stream()
+                .filter(id -> id.toLowerCase(Locale.ROOT).startsWith(lastArg))
+                .collect(Collectors.toList());
+    }
+
+    @NotNull
+    private Optional<EconomyStatistics> findStatistics() {
+        return ServiceRegistry.INSTANCE
+                .serviceFor(EconomyProvider.class)
+                .map(Service::get)
+                .flatMap(EconomyProvider::economyStatistics);
+    }
+
+}
@@ -36,6 +36,7 @@ public final class EconomySubcommand implements Subcommand {
         registerSubcommand("info", new EconomyInfoSub());
         registerSubcommand("help", new EconomyHelpSub());
         registerSubcommand("migrate", new EconomyMigrateSub());
+        registerSubcommand("stats", new EconomyStatsSub());
     }
 
     /**
@@ -85,7 +86,8 @@ public final class EconomySubcommand implements Subcommand {
     @NotNull
     public static final List<String> SUBCOMMAND_COMPLETIONS = Arrays.asList("info",
             "help",
-            "migrate"
+            "migrate",
+            "stats"
     );
 
     @Nullable
@@ -6,7 +6,6 @@ package me.lokka30.treasury.plugin.core.command.subcommand.economy.migrate;
 
 import com.mrivanplays.process.Process;
 import com.mrivanplays.process.ProcessException;
-import com.mrivanplays.process.ProcessesCompletion;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -15,12 +14,13 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import me.lokka30.treasury.api.common.Cause;
-import me.lokka30.treasury.api.common.NamespacedKey;
 import me.lokka30.treasury.api.common.response.TreasuryException;
 import me.lokka30.treasury.api.common.service.Service;
 import me.lokka30.treasury.api.common.service.ServicePriority;
@@ -33,6 +33,7 @@ import me.lokka30.treasury.plugin.core.config.messaging.Message;
 import me.lokka30.treasury.plugin.core.config.messaging.MessageKey;
 import me.lokka30.treasury.plugin.core.debug.DebugCategory;
 import me.lokka30.treasury.plugin.core.debug.DebugHandler;
+import me.lokka30.treasury.plugin.core.economy.CachingEconomyProvider;
 import me.lokka30.treasury.plugin.core.utils.Utils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -58,6 +59,8 @@ public class EconomyMigrateSub implements Subcommand {
 
         Set<Service<EconomyProvider>> serviceProviders = ServiceRegistry.INSTANCE.allServicesFor(
                 EconomyProvider.class);
+        // migrate between the providers themselves, not their caches
+        serviceProviders.removeIf(service -> service.get() instanceof CachingEconomyProvider);
 
         if (args.length != 2) {
             sender.sendMessage(Message.of(MessageKey.MIGRATE_INVALID_USAGE,
@@ -203,46 +206,35 @@ public class EconomyMigrateSub implements Subcommand {
                     ));
                 };
 
-                ProcessesCompletion playerCompletion = this.migratePlayerAccounts(cause,
+                CompletableFuture<Set<ProcessException>> playerErrors = this.migratePlayerAccounts(
+                        cause,
                         migration
                 );
-
-                if (playerCompletion == null) {
-                    // Weird. No player accounts to migrate.
-                    // let's try to migrate just non player accounts
-                    ProcessesCompletion nonPlayerCompletion = this.migrateNonPlayerAccounts(cause,
-                            migration
-                    );
-                    if (nonPlayerCompletion == null) {
-                        // Also weird. just call done with no errors
-                        callback.accept(Collections.emptySet());
-                    } else {
-                        nonPlayerCompletion.whenDone(callback);
-                    }
-                    return;
-                }
-
-                ProcessesCompletion nonPlayerCompletion = this.migrateNonPlayerAccounts(cause,
+                CompletableFuture<Set<ProcessException>> nonPlayerErrors = this.migrateNonPlayerAccounts(
+                        cause,
                         migration
                 );
 
-                if (nonPlayerCompletion == null) {
-                    // No non player accounts to migrate.
-                    playerCompletion.whenDone(callback);
-                    return;
-                }
-
-                ProcessesCompletion.whenAllDone(false,
-                        callback,
-                        playerCompletion,
-                        nonPlayerCompletion
-                );
+                playerErrors.thenCombine(nonPlayerErrors, (first, second) -> {
+                    Set<ProcessException> errors = new HashSet<>(first);
+                    errors.addAll(second);
+                    return errors;
+                }).whenComplete((errors, ex) -> {
+                    if (ex != null) {
+                        ServiceRegistry.INSTANCE.unregister(EconomyProvider.class, dummyEconomy);
+                        Throwable error = ex instanceof CompletionException ? ex.getCause() : ex;
+                        if (error instanceof TreasuryException) {
+                            sender.sendMessage(error.getMessage());
+                        } else {
+                            sender.sendMessage(Message.of(MessageKey.MIGRATE_INTERNAL_ERROR));
+                            error.printStackTrace();
+                        }
+                        return;
+                    }
+                    callback.accept(errors);
+                });
             } catch (TreasuryException e) {
                 sender.sendMessage(e.getMessage());
-            } catch (InterruptedException e) {
-                sender.sendMessage(Message.of(MessageKey.MIGRATE_INTERNAL_ERROR));
-                TreasuryPlugin.getInstance().logger().error("Interrupted whilst migrating");
-                Thread.currentThread().interrupt();
             } catch (Throwable e) {
                 sender.sendMessage(Message.of(MessageKey.MIGRATE_INTERNAL_ERROR));
                 e.printStackTrace();
@@ -271,46 +263,51 @@ public class EconomyMigrateSub implements Subcommand {
         return Collections.emptyList();
     }
 
-    private ProcessesCompletion migratePlayerAccounts(
+    private CompletableFuture<Set<ProcessException>> migratePlayerAccounts(
             @NotNull Cause<?> cause, @NotNull MigrationData migration
-    ) throws InterruptedException, ExecutionException {
-        Collection<UUID> accountIds = migration
-                .from()
-                .retrievePlayerAccountIds()
-                .get();
-        if (accountIds.isEmpty()) {
-            return null;
-        }
-        List<Process> processes = new ArrayList<>(accountIds.size());
-        for (UUID uuid : accountIds) {
-            processes.add(new PlayerAccountMigrationProcess(cause, uuid.toString(), migration));
-        }
-
-        return TreasuryPlugin
-                .getInstance()
-                .processScheduler()
-                .runProcesses(processes.toArray(new Process[0]));
+    ) {
+        return this.migrateInPages(
+                migration.from()::forEachPlayerAccountIdPage,
+                uuid -> new PlayerAccountMigrationProcess(cause, uuid.toString(), migration)
+        );
     }
 
-    private ProcessesCompletion migrateNonPlayerAccounts(
+    private CompletableFuture<Set<ProcessException>> migrateNonPlayerAccounts(
             @NotNull Cause<?> cause, @NotNull MigrationData migration
-    ) throws InterruptedException, ExecutionException {
-        Collection<NamespacedKey> accountIds = migration
-                .from()
-                .retrieveNonPlayerAccountIds()
-                .get();
-        if (accountIds.isEmpty()) {
-            return null;
-        }
-        List<Process> processes = new ArrayList<>(accountIds.size());
-        for (NamespacedKey id : accountIds) {
-            processes.add(new NonPlayerAccountMigrationProcess(cause, id.toString(), migration));
-        }
+    ) {
+        return this.migrateInPages(
+                migration.from()::forEachNonPlayerAccountIdPage,
+                id -> new NonPlayerAccountMigrationProcess(cause, id.toString(), migration)
+        );
+    }
 
-        return TreasuryPlugin
-                .getInstance()
-                .processScheduler()
-                .runProcesses(processes.toArray(new Process[0]));
+    // Migrates one page of accounts at a time, so that the processes of all the accounts are never
+    // held in memory at once.
+    private <T> CompletableFuture<Set<ProcessException>> migrateInPages(
+            @NotNull Function<Function<Collection<T>, CompletableFuture<?>>, CompletableFuture<Void>> forEachPage,
+            @NotNull Function<T, Process> processFactory
+    ) {
+        Set<ProcessException> errors = ConcurrentHashMap.newKeySet();
+        return forEachPage.apply(accountIds -> {
+            if (accountIds.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            List<Process> processes = new ArrayList<>(accountIds.size());
+            for (T id : accountIds) {
+                processes.add(processFactory.apply(id));
+            }
+
+            CompletableFuture<Void> pageDone = new CompletableFuture<>();
+            TreasuryPlugin
+                    .getInstance()
+                    .processScheduler()
+                    .runProcesses(processes.toArray(new Process[0]))
+                    .whenDone(pageErrors -> {
+                        errors.addAll(pageErrors);
+                        pageDone.complete(null);
+                    });
+            return pageDone;
+        }).thenApply($ -> errors);
     }
 
 }
@@ -128,7 +128,7 @@ class MigrationEconomy implements EconomyProvider {
         this.accountAccessor = new AccountAccessor() {
             @Override
             public @NotNull PlayerAccountAccessor player() {
-                return new PlayerAccountAccessor() {
+                return new PlayerAccountAccessor(MigrationEconomy.this) {
                     @Override
                     protected @NotNull CompletableFuture<PlayerAccount> getOrCreate(
                             @NotNull PlayerAccountCreateContext context
@@ -140,7 +140,7 @@ class MigrationEconomy implements EconomyProvider {
 
             @Override
             public @NotNull NonPlayerAccountAccessor nonPlayer() {
-                return new NonPlayerAccountAccessor() {
+                return new NonPlayerAccountAccessor(MigrationEconomy.this) {
                     @Override
                     protected @NotNull CompletableFuture<NonPlayerAccount> getOrCreate(
                             @NotNull NonPlayerAccountCreateContext context
@@ -34,6 +34,11 @@ public enum MessageKey {
             "commands.treasury.subcommands.economy.info.economy-provider-unavailable"),
     ECONOMY_INFO_ECONOMY_PROVIDER_AVAILABLE(
             "commands.treasury.subcommands.economy.info.economy-provider-available"),
+    ECONOMY_STATS_INVALID_USAGE("commands.treasury.subcommands.economy.stats.invalid-usage"),
+    ECONOMY_STATS_UNAVAILABLE("commands.treasury.subcommands.economy.stats.unavailable"),
+    ECONOMY_STATS_NO_BALANCES("commands.treasury.subcommands.economy.stats.no-balances"),
+    ECONOMY_STATS_UNKNOWN_CURRENCY("commands.treasury.subcommands.economy.stats.unknown-currency"),
+    ECONOMY_STATS_CURRENCY("commands.treasury.subcommands.economy.stats.currency"),
     HELP_INVALID_USAGE("commands.treasury.subcommands.help.invalid-usage"),
     HELP_AVAILABLE_COMMANDS("commands.treasury.subcommands.help.available-commands"),
     INFO_INVALID_USAGE("commands.treasury.subcommands.info.invalid-usage"),
@@ -159,6 +159,39 @@ public class Messages {
                     " "
             );
 
+            @Comment("Placeholders: %prefix%, %label%")
+            @Key("subcommands.economy.stats.invalid-usage")
+            private List<String> statsEconomyInvalidUsage = Collections.singletonList(
+                    "%prefix% Invalid usage, try '&b/%label% economy stats [currency]&7'.");
+
+            @Comment("Placeholders: %prefix%")
+            @Key("subcommands.economy.stats.unavailable")
+            private List<String> statsEconomyUnavailable = Collections.singletonList(
+                    "%prefix% Economy statistics are not available. They may be disabled, or still being built.");
+
+            @Comment("Placeholders: %prefix%")
+            @Key("subcommands.economy.stats.no-balances")
+            private List<String> statsEconomyNoBalances = Collections.singletonList(
+                    "%prefix% No account holds a balance yet.");
+
+            @Comment("Placeholders: %prefix%, %currency%")
+            @Key("subcommands.economy.stats.unknown-currency")
+            private List<String> statsEconomyUnknownCurrency = Collections.singletonList(
+                    "%prefix% No account holds a balance in currency '&b%currency%&7'.");
+
+            @Comment("Placeholders: %prefix%, %currency%, %total-supply%, %accounts%,")
+            @Comment("              %mean%, %median%, %p90%, %p99%")
+            @Key("subcommands.economy.stats.currency")
+            private List<String> statsEconomyCurrency = Arrays.asList(
+                    "&f&nCurrency %currency%",
+                    "&8 &m->&7 Total supply: &b%total-supply%",
+                    "&8 &m->&7 Accounts: &b%accounts%",
+                    "&8 &m->&7 Mean balance: &b%mean%",
+                    "&8 &m->&7 Median balance: &b~%median%",
+                    "&8 &m->&7 90th / 99th percentile: &b~%p90%&7 / &b~%p99%",
+                    " "
+            );
+
             @Comment("Placeholders: %prefix%, %label%")
             @Key("subcommands.economy.help.invalid-usage")
             private List<String> helpEconomyInvalidUsage = Collections.singletonList(
@@ -170,6 +203,7 @@ public class Messages {
                     "%prefix% Available commands:",
                     " &8&m->&b /treasury economy help &8- &7view a list of Treasury's commands.",
                     " &8&m->&b /treasury economy info &8- &7view info about Treasury.",
+                    " &8&m->&b /treasury economy stats &8- &7view statistics of the balances of all accounts.",
                     " &8&m->&b /treasury economy migrate &8- &7migrate from one economy provider to another."
             );
 
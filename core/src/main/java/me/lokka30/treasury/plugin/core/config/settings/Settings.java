@@ -98,6 +98,236 @@ public class Settings {
     @Key("download-platform")
     private DownloadPlatform downloadPlatform = DownloadPlatform.MRIVANPLAYS;
 
+    @Key("economy-cache")
+    @ConfigObject
+    private EconomyCacheSettings economyCache = new EconomyCacheSettings();
+
+    @Comment("## Settings regarding the economy cache.")
+    @Comment("When enabled, Treasury places a cache in front of your economy")
+    @Comment("provider, so that plugins which read the same balances many times")
+    @Comment("per second do not hit your economy provider's storage each time.")
+    @Comment("Balances are updated instantly whenever a transaction happens.")
+    public static class EconomyCacheSettings {
+
+        @Comment("## Should the economy cache be enabled?")
+        @Comment("Type: Boolean | Default: `false`")
+        private boolean enabled = false;
+
+        @Comment("## After how many seconds should a cached value expire?")
+        @Comment("Type: Integer | Default: `30`")
+        @Key("expire-after-seconds")
+        private int expireAfterSeconds = 30;
+
+        @Comment("## After how many seconds should a cached value be reloaded in the background?")
+        @Comment("A value, which is read after this time, is still returned from the")
+        @Comment("cache, but is reloaded so that it doesn't expire.")
+        @Comment("Set to `0` to disable.")
+        @Comment("Type: Integer | Default: `20`")
+        @Key("refresh-after-seconds")
+        private int refreshAfterSeconds = 20;
+
+        @Comment("## How many accounts and balances at most should be cached?")
+        @Comment("When the cache is full, the least recently used values are discarded.")
+        @Comment("Type: Integer | Default: `10000`")
+        @Key("maximum-size")
+        private int maximumSize = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public int getExpireAfterSeconds() {
+            return Math.max(expireAfterSeconds, 1);
+        }
+
+        public int getRefreshAfterSeconds() {
+            return Math.max(refreshAfterSeconds, 0);
+        }
+
+        public int getMaximumSize() {
+            return Math.max(maximumSize, 1);
+        }
+
+    }
+
+    @Key("membership-index")
+    @ConfigObject
+    private MembershipIndexSettings membershipIndex = new MembershipIndexSettings();
+
+    @Comment("## Settings regarding the membership index.")
+    @Comment("When enabled, Treasury keeps track in memory of which shared accounts")
+    @Comment("(e.g. towns or guilds) each player is a member of, so that plugins")
+    @Comment("listing the accounts of a player do not have to check every single")
+    @Comment("shared account. The index is built once on startup.")
+    @Comment("It is only used if your economy provider announces every change of")
+    @Comment("the members of shared accounts and every deleted shared account, as")
+    @Comment("declared by `firesAccountPermissionsChangeEvents()`. Otherwise this")
+    @Comment("setting has no effect.")
+    public static class MembershipIndexSettings {
+
+        @Comment("## Should the membership index be enabled?")
+        @Comment("Type: Boolean | Default: `false`")
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+    }
+
+    @Key("account-filter")
+    @ConfigObject
+    private AccountFilterSettings accountFilter = new AccountFilterSettings();
+
+    @Comment("## Settings regarding the account filter.")
+    @Comment("When enabled, Treasury remembers which accounts exist, so that")
+    @Comment("plugins checking many players who never used the economy do not")
+    @Comment("make your economy provider query its storage for each of them.")
+    @Comment("Only enable it if your economy provider creates accounts through")
+    @Comment("Treasury, otherwise new accounts are reported missing until the")
+    @Comment("next rebuild.")
+    public static class AccountFilterSettings {
+
+        @Comment("## Should the account filter be enabled?")
+        @Comment("Type: Boolean | Default: `false`")
+        private boolean enabled = false;
+
+        @Comment("## For how many seconds should a missing account be remembered as missing?")
+        @Comment("Set to `0` to disable.")
+        @Comment("Type: Integer | Default: `30`")
+        @Key("negative-cache-seconds")
+        private int negativeCacheSeconds = 30;
+
+        @Comment("## Every how many minutes should the filter be rebuilt?")
+        @Comment("Accounts your economy provider creates on its own (e.g. when a")
+        @Comment("player joins) may only be noticed after the next rebuild.")
+        @Comment("Set to `0` to disable.")
+        @Comment("Type: Integer | Default: `10`")
+        @Key("rebuild-interval-minutes")
+        private int rebuildIntervalMinutes = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public int getNegativeCacheSeconds() {
+            return Math.max(negativeCacheSeconds, 0);
+        }
+
+        public int getRebuildIntervalMinutes() {
+            return Math.max(rebuildIntervalMinutes, 0);
+        }
+
+    }
+
+    @Key("balance-ranking")
+    @ConfigObject
+    private BalanceRankingSettings balanceRanking = new BalanceRankingSettings();
+
+    @Comment("## Settings regarding the balance ranking.")
+    @Comment("When enabled, Treasury keeps the balances of all players sorted")
+    @Comment("in memory, so that leaderboards (e.g. baltop) and rank lookups")
+    @Comment("do not have to read every single account. The ranking is built")
+    @Comment("once on startup and updated whenever a transaction happens.")
+    public static class BalanceRankingSettings {
+
+        @Comment("## Should the balance ranking be enabled?")
+        @Comment("Type: Boolean | Default: `false`")
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+    }
+
+    @Key("economy-statistics")
+    @ConfigObject
+    private EconomyStatisticsSettings economyStatistics = new EconomyStatisticsSettings();
+
+    @Comment("## Settings regarding the economy statistics.")
+    @Comment("When enabled, Treasury keeps the total supply, the account count,")
+    @Comment("the mean and the approximate distribution of the balances of every")
+    @Comment("currency up to date, so that they can be read (e.g. via")
+    @Comment("`/treasury economy stats`) without reading every single account.")
+    @Comment("The statistics are built once on startup.")
+    public static class EconomyStatisticsSettings {
+
+        @Comment("## Should the economy statistics be enabled?")
+        @Comment("Type: Boolean | Default: `false`")
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+    }
+
+    @Key("transaction-activity")
+    @ConfigObject
+    private TransactionActivitySettings transactionActivity = new TransactionActivitySettings();
+
+    @Comment("## Settings regarding the transaction activity.")
+    @Comment("When enabled, Treasury counts the deposits and withdrawals of every")
+    @Comment("account in the last 5 minutes, 1 hour and 24 hours, so that plugins")
+    @Comment("(e.g. anti-exploit tools) can check them on every transaction. The")
+    @Comment("counters are kept in memory and start over on restart. Counting")
+    @Comment("adds a little work to every transaction.")
+    public static class TransactionActivitySettings {
+
+        @Comment("## Should the transaction activity be enabled?")
+        @Comment("Type: Boolean | Default: `false`")
+        private boolean enabled = false;
+
+        @Comment("## Into how many buckets should every window be split?")
+        @Comment("The counts are accurate to one bucket, e.g. to 5 minutes of the")
+        @Comment("1 hour window with 12 buckets. More buckets use more memory.")
+        @Comment("Type: Integer | Default: `12`")
+        @Key("buckets-per-window")
+        private int bucketsPerWindow = 12;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public int getBucketsPerWindow() {
+            return Math.max(bucketsPerWindow, 1);
+        }
+
+    }
+
+    @Key("balance-holds")
+    @ConfigObject
+    private BalanceHoldSettings balanceHolds = new BalanceHoldSettings();
+
+    @Comment("## Settings regarding balance holds.")
+    @Comment("When enabled, Treasury lets plugins reserve an amount of a balance")
+    @Comment("(e.g. the bid of an auction) and only withdraw it later, even if")
+    @Comment("your economy provider does not support this on its own. Holds are")
+    @Comment("kept in memory and are dropped on restart. Holds are advisory:")
+    @Comment("plugins withdrawing directly from an account do not respect them.")
+    public static class BalanceHoldSettings {
+
+        @Comment("## Should balance holds be enabled?")
+        @Comment("Type: Boolean | Default: `false`")
+        private boolean enabled = false;
+
+        @Comment("## Every how many seconds at most should expired holds be removed?")
+        @Comment("Expired holds stop reserving their amount right away either way.")
+        @Comment("Type: Integer | Default: `60`")
+        @Key("sweep-interval-seconds")
+        private int sweepIntervalSeconds = 60;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public int getSweepIntervalSeconds() {
+            return Math.max(sweepIntervalSeconds, 1);
+        }
+
+    }
+
     @ConfigObject
     private DebugSettings debug = new DebugSettings();
 
@@ -159,6 +389,34 @@ public class Settings {
         return downloadPlatform;
     }
 
+    public EconomyCacheSettings getEconomyCache() {
+        return economyCache;
+    }
+
+    public MembershipIndexSettings getMembershipIndex() {
+        return membershipIndex;
+    }
+
+    public AccountFilterSettings getAccountFilter() {
+        return accountFilter;
+    }
+
+    public BalanceRankingSettings getBalanceRanking() {
+        return balanceRanking;
+    }
+
+    public BalanceHoldSettings getBalanceHolds() {
+        return balanceHolds;
+    }
+
+    public EconomyStatisticsSettings getEconomyStatistics() {
+        return economyStatistics;
+    }
+
+    public TransactionActivitySettings getTransactionActivity() {
+        return transactionActivity;
+    }
+
     @Ignore
     private List<DebugCategory> enabledCategories;
 
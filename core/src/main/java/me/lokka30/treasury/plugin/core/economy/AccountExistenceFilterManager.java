@@ -0,0 +1,85 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.economy;
+
+import java.util.concurrent.TimeUnit;
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.account.Account;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.account.AccountExistenceFilter;
+import me.lokka30.treasury.api.economy.account.NonPlayerAccount;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import me.lokka30.treasury.api.economy.events.AccountTransactionEvent;
+import me.lokka30.treasury.plugin.core.TreasuryPlugin;
+import me.lokka30.treasury.plugin.core.config.settings.Settings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Maintains an {@link AccountExistenceFilter} for the currently used {@link EconomyProvider},
+ * when enabled in the settings.
+ * <p>The filter is registered in the {@link ServiceRegistry}, where the default
+ * {@link EconomyProvider#accountExistenceFilter()} implementation picks it up, and learns
+ * about accounts from {@link AccountTransactionEvent}s besides the account accessors.
+ * Providers opting out of the filter are not filtered.
+ *
+ * @since 2.1.0
+ */
+public final class AccountExistenceFilterManager extends ProviderServiceManager<Settings.AccountFilterSettings, AccountExistenceFilter, AccountExistenceFilter> {
+
+    public static final AccountExistenceFilterManager INSTANCE = new AccountExistenceFilterManager();
+
+    private AccountExistenceFilterManager() {
+        super(AccountExistenceFilter.class, Settings.AccountFilterSettings::isEnabled);
+    }
+
+    @Override
+    protected void subscribeEvents() {
+        whenInstalled(AccountTransactionEvent.class,
+                (filter, event) -> filter.created(accountData(event.getAccount()))
+        );
+    }
+
+    @Override
+    protected @Nullable AccountExistenceFilter create(
+            @NotNull EconomyProvider provider, @NotNull Settings.AccountFilterSettings settings
+    ) {
+        return AccountExistenceFilter
+                .newBuilder()
+                .withNegativeCacheDuration(settings.getNegativeCacheSeconds(), TimeUnit.SECONDS)
+                .withRebuildInterval(settings.getRebuildIntervalMinutes(), TimeUnit.MINUTES)
+                .build(provider);
+    }
+
+    @Override
+    protected @NotNull EconomyProvider providerOf(@NotNull AccountExistenceFilter filter) {
+        return filter.getProvider();
+    }
+
+    @Override
+    protected void installed(@NotNull AccountExistenceFilter filter, @NotNull EconomyProvider provider) {
+        if (!provider.accountExistenceFilter().isPresent()) {
+            // the provider opted out of the filter
+            uninstall();
+            return;
+        }
+        filter.build().whenComplete(($, ex) -> {
+            if (ex != null) {
+                TreasuryPlugin.getInstance().logger().warn(
+                        "Could not build the account filter of economy provider " + provider + ": " + ex.getMessage());
+            }
+        });
+    }
+
+    @NotNull
+    private static AccountData accountData(@NotNull Account account) {
+        if (account instanceof PlayerAccount) {
+            return AccountData.forPlayerAccount(((PlayerAccount) account).identifier());
+        }
+        return AccountData.forNonPlayerAccount(((NonPlayerAccount) account).identifier());
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.economy;
+
+import java.util.concurrent.TimeUnit;
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.balance.BalanceHoldLedger;
+import me.lokka30.treasury.plugin.core.config.settings.Settings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Maintains a {@link BalanceHoldLedger} for the currently used {@link EconomyProvider}, when
+ * enabled in the settings.
+ * <p>The ledger is registered in the {@link ServiceRegistry}, where the default
+ * {@link EconomyProvider#balanceHoldLedger()} implementation picks it up. Whenever the economy
+ * provider changes, the holds of the previous one are dropped.
+ *
+ * @since 2.1.0
+ */
+public final class BalanceHoldManager extends ProviderServiceManager<Settings.BalanceHoldSettings, BalanceHoldLedger, BalanceHoldLedger> {
+
+    public static final BalanceHoldManager INSTANCE = new BalanceHoldManager();
+
+    private BalanceHoldManager() {
+        super(BalanceHoldLedger.class, Settings.BalanceHoldSettings::isEnabled);
+    }
+
+    @Override
+    protected @Nullable BalanceHoldLedger create(
+            @NotNull EconomyProvider provider, @NotNull Settings.BalanceHoldSettings settings
+    ) {
+        return new BalanceHoldLedger(provider, settings.getSweepIntervalSeconds(), TimeUnit.SECONDS);
+    }
+
+    @Override
+    protected @NotNull EconomyProvider providerOf(@NotNull BalanceHoldLedger ledger) {
+        return ledger.getProvider();
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.economy;
+
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.balance.BalanceRanking;
+import me.lokka30.treasury.api.economy.balance.BalanceSubscription;
+import me.lokka30.treasury.api.economy.balance.MemoryBalanceRanking;
+import me.lokka30.treasury.api.economy.events.AccountTransactionEvent;
+import me.lokka30.treasury.plugin.core.TreasuryPlugin;
+import me.lokka30.treasury.plugin.core.config.settings.Settings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Maintains a {@link MemoryBalanceRanking} for the currently used {@link EconomyProvider},
+ * when enabled in the settings.
+ * <p>The ranking is registered in the {@link ServiceRegistry} as a {@link BalanceRanking}
+ * service, where the default {@link EconomyProvider#balanceRanking()} implementation picks it
+ * up, and is kept up to date via {@link AccountTransactionEvent}s and, if the provider
+ * supports them, its {@link EconomyProvider#subscribeBalanceChanges balance changes}. Providers
+ * supplying their own ranking are not ranked.
+ *
+ * @since 2.1.0
+ */
+public final class BalanceRankingManager extends ProviderServiceManager<Settings.BalanceRankingSettings, BalanceRanking, MemoryBalanceRanking> {
+
+    public static final BalanceRankingManager INSTANCE = new BalanceRankingManager();
+
+    private BalanceSubscription subscription;
+
+    private BalanceRankingManager() {
+        super(BalanceRanking.class, Settings.BalanceRankingSettings::isEnabled);
+    }
+
+    @Override
+    protected boolean requiresReinstall(
+            @NotNull Settings.BalanceRankingSettings previous,
+            @NotNull Settings.BalanceRankingSettings settings
+    ) {
+        return false;
+    }
+
+    @Override
+    protected void subscribeEvents() {
+        whenInstalled(AccountTransactionEvent.class, MemoryBalanceRanking::update);
+    }
+
+    @Override
+    protected @Nullable MemoryBalanceRanking create(
+            @NotNull EconomyProvider provider, @NotNull Settings.BalanceRankingSettings settings
+    ) {
+        // unless the provider supplies its own ranking
+        return provider.balanceRanking().isPresent() ? null : new MemoryBalanceRanking(provider);
+    }
+
+    @Override
+    protected @NotNull EconomyProvider providerOf(@NotNull MemoryBalanceRanking ranking) {
+        return ranking.getProvider();
+    }
+
+    @Override
+    protected void installed(@NotNull MemoryBalanceRanking ranking, @NotNull EconomyProvider provider) {
+        subscription = provider.subscribeBalanceChanges(ranking::update).orElse(null);
+        ranking.build().whenComplete(($, ex) -> {
+            if (ex != null) {
+                TreasuryPlugin.getInstance().logger().warn(
+                        "Could not build the balance ranking of economy provider " + provider + ": " + ex.getMessage());
+            }
+        });
+    }
+
+    @Override
+    protected void uninstalled(@NotNull MemoryBalanceRanking ranking) {
+        if (subscription != null) {
+            subscription.cancel();
+            subscription = null;
+        }
+    }
+
+}
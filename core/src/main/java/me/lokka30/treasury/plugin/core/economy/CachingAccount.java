@@ -0,0 +1,375 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.economy;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.misc.Page;
+import me.lokka30.treasury.api.common.misc.TriState;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.account.Account;
+import me.lokka30.treasury.api.economy.account.AccountPermission;
+import me.lokka30.treasury.api.economy.account.PermissionSet;
+import me.lokka30.treasury.api.economy.account.SyncAccount;
+import me.lokka30.treasury.api.economy.balance.BalanceHold;
+import me.lokka30.treasury.api.economy.balance.VersionedBalance;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransaction;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransactionImportance;
+import me.lokka30.treasury.api.economy.transaction.TransactionHistoryQuery;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An {@link Account} reading its balances through the caches of a
+ * {@link CachingEconomyProvider} and writing the balances resulting from its transactions
+ * into them.
+ *
+ * @param <A> type of the wrapped account
+ * @since 2.1.0
+ */
+abstract class CachingAccount<A extends Account> implements Account {
+
+    protected final CachingEconomyProvider provider;
+    protected final A delegate;
+
+    CachingAccount(@NotNull CachingEconomyProvider provider, @NotNull A delegate) {
+        this.provider = provider;
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns the identifier the balances of this account are cached under.
+     *
+     * @return identifier
+     */
+    @NotNull
+    abstract Object cacheIdentifier();
+
+    @Override
+    public @NotNull Optional<EconomyProvider> getProvider() {
+        return Optional.of(provider);
+    }
+
+    @NotNull
+    A getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public @NotNull Optional<String> getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> setName(@Nullable String name) {
+        return delegate.setName(name);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> retrieveBalance(@NotNull Currency currency) {
+        return provider.cachedBalance(cacheIdentifier(),
+                currency.getIdentifier(),
+                () -> delegate.retrieveBalance(currency)
+        );
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> withdrawBalance(
+            @NotNull BigDecimal amount,
+            @NotNull Cause<?> cause,
+            @NotNull Currency currency,
+            @NotNull EconomyTransactionImportance importance,
+            @Nullable String reason
+    ) {
+        return writeThrough(currency.getIdentifier(),
+                () -> delegate.withdrawBalance(amount, cause, currency, importance, reason)
+        );
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> depositBalance(
+            @NotNull BigDecimal amount,
+            @NotNull Cause<?> cause,
+            @NotNull Currency currency,
+            @NotNull EconomyTransactionImportance importance,
+            @Nullable String reason
+    ) {
+        return writeThrough(currency.getIdentifier(),
+                () -> delegate.depositBalance(amount, cause, currency, importance, reason)
+        );
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Long> withdrawMinorUnits(
+            long units, @NotNull Cause<?> cause, @NotNull Currency currency
+    ) {
+        return invalidating(currency.getIdentifier(),
+                delegate.withdrawMinorUnits(units, cause, currency)
+        );
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Long> depositMinorUnits(
+            long units, @NotNull Cause<?> cause, @NotNull Currency currency
+    ) {
+        return invalidating(currency.getIdentifier(),
+                delegate.depositMinorUnits(units, cause, currency)
+        );
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> doTransaction(@NotNull EconomyTransaction economyTransaction) {
+        return writeThrough(economyTransaction.getCurrencyId(),
+                () -> delegate.doTransaction(economyTransaction)
+        );
+    }
+
+    @Override
+    public @NotNull CompletableFuture<VersionedBalance> retrieveBalanceVersioned(@NotNull Currency currency) {
+        // cached balances carry no version
+        return delegate.retrieveBalanceVersioned(currency);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Optional<BigDecimal>> doTransactionIfUnchanged(
+            @NotNull VersionedBalance expected, @NotNull EconomyTransaction economyTransaction
+    ) {
+        String currencyId = economyTransaction.getCurrencyId();
+        long stamp = provider.balanceStamp();
+        return delegate.doTransactionIfUnchanged(expected, economyTransaction).whenComplete((balance, ex) -> {
+            if (ex == null && balance.isPresent()) {
+                provider.putBalance(cacheIdentifier(), currencyId, balance.get(), stamp);
+            } else {
+                // the balance has changed behind the cache
+                provider.invalidateBalance(cacheIdentifier(), currencyId);
+            }
+        });
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> compareAndSetBalance(
+            @NotNull VersionedBalance expected,
+            @NotNull BigDecimal newBalance,
+            @NotNull Cause<?> cause
+    ) {
+        return invalidating(expected.getCurrency().getIdentifier(),
+                delegate.compareAndSetBalance(expected, newBalance, cause)
+        );
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BalanceHold> placeHold(
+            @NotNull BigDecimal amount, @NotNull Currency currency, @NotNull Duration ttl
+    ) {
+        // captures withdraw from the wrapped account and reach the cache as transaction events
+        return delegate.placeHold(amount, currency, ttl);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> retrieveHeldBalance(@NotNull Currency currency) {
+        return delegate.retrieveHeldBalance(currency);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> resetBalance(
+            @NotNull Cause<?> cause,
+            @NotNull Currency currency,
+            @NotNull EconomyTransactionImportance importance,
+            @Nullable String reason
+    ) {
+        return writeThrough(currency.getIdentifier(),
+                () -> delegate.resetBalance(cause, currency, importance, reason)
+        );
+    }
+
+    @NotNull
+    private CompletableFuture<BigDecimal> writeThrough(
+            @NotNull String currencyId, @NotNull Supplier<CompletableFuture<BigDecimal>> transaction
+    ) {
+        // taken before the transaction starts, so that the balance it returns can't replace a
+        // newer one
+        long stamp = provider.balanceStamp();
+        return transaction.get().whenComplete((balance, ex) -> {
+            if (ex == null && balance != null) {
+                provider.putBalance(cacheIdentifier(), currencyId, balance, stamp);
+            } else {
+                provider.invalidateBalance(cacheIdentifier(), currencyId);
+            }
+        });
+    }
+
+    @NotNull
+    private <T> CompletableFuture<T> invalidating(
+            @NotNull String currencyId, @NotNull CompletableFuture<T> transaction
+    ) {
+        return transaction.whenComplete(($, ex) -> provider.invalidateBalance(cacheIdentifier(),
+                currencyId
+        ));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> deleteAccount() {
+        return delegate.deleteAccount().whenComplete(($, ex) -> provider.invalidateAccount(
+                cacheIdentifier()));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<String>> retrieveHeldCurrencies() {
+        return delegate.retrieveHeldCurrencies();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Map<String, BigDecimal>> retrieveBalances() {
+        long stamp = provider.balanceStamp();
+        return delegate.retrieveBalances().thenApply(balances -> {
+            balances.forEach((currencyId, balance) -> provider.putBalance(cacheIdentifier(),
+                    currencyId,
+                    balance,
+                    stamp
+            ));
+            return balances;
+        });
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<EconomyTransaction>> retrieveTransactionHistory(
+            int transactionCount, @NotNull Temporal from, @NotNull Temporal to
+    ) {
+        return delegate.retrieveTransactionHistory(transactionCount, from, to);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Page<EconomyTransaction>> retrieveTransactionHistory(
+            @NotNull TransactionHistoryQuery query
+    ) {
+        return delegate.retrieveTransactionHistory(query);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<UUID>> retrieveMemberIds() {
+        return delegate.retrieveMemberIds();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> isMember(@NotNull UUID player) {
+        return delegate.isMember(player);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> setPermissions(
+            @NotNull UUID player, @NotNull Map<AccountPermission, TriState> permissionsMap
+    ) {
+        return delegate.setPermissions(player, permissionsMap);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Map<AccountPermission, TriState>> retrievePermissions(@NotNull UUID player) {
+        return delegate.retrievePermissions(player);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Map<UUID, Map<AccountPermission, TriState>>> retrievePermissionsMap() {
+        return delegate.retrievePermissionsMap();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> setPermissions(
+            @NotNull UUID player, @NotNull PermissionSet permissions
+    ) {
+        return delegate.setPermissions(player, permissions);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<PermissionSet> retrievePermissionSet(@NotNull UUID player) {
+        return delegate.retrievePermissionSet(player);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Map<UUID, PermissionSet>> retrievePermissionSets() {
+        return delegate.retrievePermissionSets();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TriState> hasPermissions(
+            @NotNull UUID player, @NotNull AccountPermission @NotNull ... permissions
+    ) {
+        return delegate.hasPermissions(player, permissions);
+    }
+
+    @Override
+    public @NotNull Optional<SyncAccount> sync() {
+        // the synchronous view reads the provider's memory, which is fresher than the cache, and
+        // its writes discard the cached balance
+        return delegate.sync().map(CachingSyncAccount::new);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CachingAccount)) {
+            return false;
+        }
+        return delegate.equals(((CachingAccount<?>) o).delegate);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "CachingAccount{" + delegate + '}';
+    }
+
+    private final class CachingSyncAccount implements SyncAccount {
+
+        private final SyncAccount view;
+
+        CachingSyncAccount(@NotNull SyncAccount view) {
+            this.view = view;
+        }
+
+        @Override
+        public @NotNull BigDecimal balanceNow(@NotNull Currency currency) {
+            return view.balanceNow(currency);
+        }
+
+        @Override
+        public boolean tryDeposit(
+                @NotNull BigDecimal amount, @NotNull Cause<?> cause, @NotNull Currency currency
+        ) {
+            try {
+                return view.tryDeposit(amount, cause, currency);
+            } finally {
+                provider.invalidateBalance(cacheIdentifier(), currency.getIdentifier());
+            }
+        }
+
+        @Override
+        public boolean tryWithdraw(
+                @NotNull BigDecimal amount, @NotNull Cause<?> cause, @NotNull Currency currency
+        ) {
+            try {
+                return view.tryWithdraw(amount, cause, currency);
+            } finally {
+                provider.invalidateBalance(cacheIdentifier(), currency.getIdentifier());
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,510 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.economy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.NamespacedKey;
+import me.lokka30.treasury.api.common.misc.Page;
+import me.lokka30.treasury.api.common.misc.TriState;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.EconomyProviderService;
+import me.lokka30.treasury.api.economy.account.Account;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.account.AccountExistenceFilter;
+import me.lokka30.treasury.api.economy.account.AccountPermission;
+import me.lokka30.treasury.api.economy.account.MembershipIndex;
+import me.lokka30.treasury.api.economy.account.NonPlayerAccount;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import me.lokka30.treasury.api.economy.account.accessor.AccountAccessor;
+import me.lokka30.treasury.api.economy.account.accessor.NonPlayerAccountAccessor;
+import me.lokka30.treasury.api.economy.account.accessor.PlayerAccountAccessor;
+import me.lokka30.treasury.api.economy.balance.BalanceChange;
+import me.lokka30.treasury.api.economy.balance.BalanceChangeListener;
+import me.lokka30.treasury.api.economy.balance.BalanceFunction;
+import me.lokka30.treasury.api.economy.balance.BalanceHoldLedger;
+import me.lokka30.treasury.api.economy.balance.BalanceRanking;
+import me.lokka30.treasury.api.economy.balance.BalanceSubscription;
+import me.lokka30.treasury.api.economy.balance.BulkApplyResult;
+import me.lokka30.treasury.api.economy.balance.EconomyStatistics;
+import me.lokka30.treasury.api.economy.balance.RankedBalance;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.events.AccountTransactionEvent;
+import me.lokka30.treasury.api.economy.transaction.TransactionActivity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An {@link EconomyProvider} decorator, which caches the account handles and the per-currency
+ * balances of another {@link EconomyProvider}.
+ * <p>Balances are written into the cache whenever a transaction is done through this
+ * decorator and are discarded whenever an {@link AccountTransactionEvent} is fired or a
+ * {@link BalanceChange} is delivered for them, so that transactions done directly on the
+ * wrapped provider are picked up as well. A balance returned by a transaction is only cached
+ * if its key has not been written or discarded since the transaction started, so that it can't
+ * replace a newer balance.
+ *
+ * @see EconomyCacheManager
+ * @since 2.1.0
+ */
+public class CachingEconomyProvider implements EconomyProvider {
+
+    private final EconomyProvider delegate;
+    private final ExpiringCache<UUID, PlayerAccount> playerAccounts;
+    private final ExpiringCache<NamespacedKey, NonPlayerAccount> nonPlayerAccounts;
+    private final ExpiringCache<BalanceKey, BigDecimal> balances;
+    private final AccountAccessor accountAccessor;
+    private final BalanceSubscription balanceSubscription;
+
+    /**
+     * Creates a new {@code CachingEconomyProvider}
+     *
+     * @param delegate     the provider to cache
+     * @param expireAfter  time after which a cached value expires
+     * @param refreshAfter time after which a read cached value is reloaded in the background,
+     *                     or 0 to disable
+     * @param unit         the unit of the times
+     * @param maximumSize  maximum count of cached accounts, and of cached balances
+     */
+    public CachingEconomyProvider(
+            @NotNull EconomyProvider delegate,
+            long expireAfter,
+            long refreshAfter,
+            @NotNull TimeUnit unit,
+            int maximumSize
+    ) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.playerAccounts = new ExpiringCache<>(expireAfter, refreshAfter, unit, maximumSize);
+        this.nonPlayerAccounts = new ExpiringCache<>(expireAfter, refreshAfter, unit, maximumSize);
+        this.balances = new ExpiringCache<>(expireAfter, refreshAfter, unit, maximumSize);
+        this.accountAccessor = new CachingAccountAccessor();
+        this.balanceSubscription = delegate
+                .subscribeBalanceChanges(this::handleBalanceChange)
+                .orElse(null);
+    }
+
+    /**
+     * Returns the {@link EconomyProvider} this decorator caches.
+     *
+     * @return wrapped provider
+     */
+    @NotNull
+    public EconomyProvider getDelegate() {
+        return delegate;
+    }
+
+    @NotNull
+    CompletableFuture<BigDecimal> cachedBalance(
+            @NotNull Object accountId,
+            @NotNull String currencyId,
+            @NotNull Supplier<CompletableFuture<BigDecimal>> loader
+    ) {
+        return balances.get(new BalanceKey(accountId, currencyId), $ -> loader.get());
+    }
+
+    long balanceStamp() {
+        return balances.stamp();
+    }
+
+    void putBalance(
+            @NotNull Object accountId,
+            @NotNull String currencyId,
+            @NotNull BigDecimal balance,
+            long stamp
+    ) {
+        balances.put(new BalanceKey(accountId, currencyId), balance, stamp);
+    }
+
+    void invalidateBalance(@NotNull Object accountId, @NotNull String currencyId) {
+        balances.invalidate(new BalanceKey(accountId, currencyId));
+    }
+
+    void invalidateAccount(@NotNull Object accountId) {
+        if (accountId instanceof UUID) {
+            playerAccounts.invalidate((UUID) accountId);
+        } else if (accountId instanceof NamespacedKey) {
+            nonPlayerAccounts.invalidate((NamespacedKey) accountId);
+        }
+        balances.invalidateIf(key -> key.accountId.equals(accountId));
+    }
+
+    /**
+     * Discards the cached balance the specified {@link AccountTransactionEvent} modified.
+     *
+     * @param event the transaction event
+     */
+    public void handleTransaction(@NotNull AccountTransactionEvent event) {
+        Object accountId = identifierOf(event.getAccount());
+        if (accountId != null) {
+            invalidateBalance(accountId, event.getTransaction().getCurrencyId());
+        }
+    }
+
+    private void handleBalanceChange(@NotNull BalanceChange change) {
+        AccountData account = change.getAccount();
+        Object accountId = account.isPlayerAccount()
+                ? account.getPlayerIdentifier().orElse(null)
+                : account.getNonPlayerIdentifier().orElse(null);
+        if (accountId != null) {
+            // changes may be delivered out of order, hence the balance is reloaded
+            invalidateBalance(accountId, change.getCurrencyId());
+        }
+    }
+
+    /**
+     * Stops listening to the balance changes of the wrapped provider. Called once this
+     * decorator is not used anymore.
+     */
+    public void close() {
+        if (balanceSubscription != null) {
+            balanceSubscription.cancel();
+        }
+    }
+
+    /**
+     * Discards all the cached values.
+     */
+    public void invalidateAll() {
+        playerAccounts.invalidateAll();
+        nonPlayerAccounts.invalidateAll();
+        balances.invalidateAll();
+    }
+
+    @Nullable
+    private static Object identifierOf(@NotNull Account account) {
+        if (account instanceof PlayerAccount) {
+            return ((PlayerAccount) account).identifier();
+        }
+        if (account instanceof NonPlayerAccount) {
+            return ((NonPlayerAccount) account).identifier();
+        }
+        return null;
+    }
+
+    @NotNull
+    private NonPlayerAccount wrap(@NotNull NonPlayerAccount account) {
+        return account instanceof CachingNonPlayerAccount
+                ? account
+                : new CachingNonPlayerAccount(this, account);
+    }
+
+    @NotNull
+    private Collection<NonPlayerAccount> wrap(@NotNull Collection<NonPlayerAccount> accounts) {
+        List<NonPlayerAccount> ret = new ArrayList<>(accounts.size());
+        for (NonPlayerAccount account : accounts) {
+            ret.add(wrap(account));
+        }
+        return ret;
+    }
+
+    @Override
+    public @NotNull AccountAccessor accountAccessor() {
+        return accountAccessor;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> hasAccount(@NotNull AccountData accountData) {
+        Optional<AccountExistenceFilter> filter = delegate.accountExistenceFilter();
+        return filter.isPresent()
+                ? filter.get().hasAccount(accountData)
+                : delegate.hasAccount(accountData);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<UUID>> retrievePlayerAccountIds() {
+        return delegate.retrievePlayerAccountIds();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<NamespacedKey>> retrieveNonPlayerAccountIds() {
+        return delegate.retrieveNonPlayerAccountIds();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Page<UUID>> retrievePlayerAccountIds(
+            int pageSize, @Nullable String continuationToken
+    ) {
+        return delegate.retrievePlayerAccountIds(pageSize, continuationToken);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Page<NamespacedKey>> retrieveNonPlayerAccountIds(
+            int pageSize, @Nullable String continuationToken
+    ) {
+        return delegate.retrieveNonPlayerAccountIds(pageSize, continuationToken);
+    }
+
+    @Override
+    public boolean supportsAccountIdPaging() {
+        return delegate.supportsAccountIdPaging();
+    }
+
+    @Override
+    public boolean firesAccountPermissionsChangeEvents() {
+        return delegate.firesAccountPermissionsChangeEvents();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<NonPlayerAccount>> retrieveAllAccountsPlayerIsMemberOf(
+            @NotNull UUID playerId
+    ) {
+        return delegate.retrieveAllAccountsPlayerIsMemberOf(playerId).thenApply(this::wrap);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<NonPlayerAccount>> retrieveAllAccountsPlayerHasPermissions(
+            @NotNull UUID playerId, @NotNull AccountPermission @NotNull ... permissions
+    ) {
+        return delegate
+                .retrieveAllAccountsPlayerHasPermissions(playerId, permissions)
+                .thenApply(this::wrap);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<NonPlayerAccount>> filterNonPlayerAccounts(
+            @NotNull Function<NonPlayerAccount, CompletableFuture<TriState>> filter
+    ) {
+        return delegate.filterNonPlayerAccounts(filter).thenApply(this::wrap);
+    }
+
+    @Override
+    public @NotNull Optional<BalanceSubscription> subscribeBalanceChanges(@NotNull BalanceChangeListener listener) {
+        return delegate.subscribeBalanceChanges(listener);
+    }
+
+    @Override
+    public @NotNull Optional<Executor> preferredExecutor() {
+        return delegate.preferredExecutor();
+    }
+
+    @Override
+    public @NotNull Optional<BalanceHoldLedger> balanceHoldLedger() {
+        return delegate.balanceHoldLedger();
+    }
+
+    @Override
+    public @NotNull Optional<AccountExistenceFilter> accountExistenceFilter() {
+        return delegate.accountExistenceFilter();
+    }
+
+    @Override
+    public @NotNull Optional<MembershipIndex> membershipIndex() {
+        return delegate.membershipIndex();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<List<RankedBalance>> retrieveTopBalances(
+            @NotNull Currency currency, int offset, int limit
+    ) {
+        return delegate.retrieveTopBalances(currency, offset, limit);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Optional<RankedBalance>> retrieveRank(
+            @NotNull UUID playerId, @NotNull Currency currency
+    ) {
+        return delegate.retrieveRank(playerId, currency);
+    }
+
+    @Override
+    public @NotNull Optional<BalanceRanking> balanceRanking() {
+        return delegate.balanceRanking();
+    }
+
+    @Override
+    public @NotNull Optional<EconomyStatistics> economyStatistics() {
+        return delegate.economyStatistics();
+    }
+
+    @Override
+    public @NotNull Optional<TransactionActivity> transactionActivity() {
+        return delegate.transactionActivity();
+    }
+
+    @Override
+    public <T extends EconomyProviderService> @NotNull Optional<T> providerService(@NotNull Class<T> serviceType) {
+        return delegate.providerService(serviceType);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BulkApplyResult> applyToAll(
+            @NotNull Currency currency,
+            @NotNull BalanceFunction function,
+            @NotNull Cause<?> cause,
+            @NotNull Predicate<AccountData> filter,
+            @NotNull Consumer<BulkApplyResult> progressListener
+    ) {
+        String currencyId = currency.getIdentifier();
+        return delegate
+                .applyToAll(currency, function, cause, filter, progressListener)
+                .whenComplete(($, ex) -> balances.invalidateIf(key -> key.currencyId.equals(
+                        currencyId)));
+    }
+
+    @Override
+    public @NotNull Currency getPrimaryCurrency() {
+        return delegate.getPrimaryCurrency();
+    }
+
+    @Override
+    public @NotNull Optional<Currency> findCurrency(@NotNull String identifier) {
+        return delegate.findCurrency(identifier);
+    }
+
+    @Override
+    public @NotNull Set<Currency> getCurrencies() {
+        return delegate.getCurrencies();
+    }
+
+    @Override
+    public @NotNull String getPrimaryCurrencyId() {
+        return delegate.getPrimaryCurrencyId();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TriState> registerCurrency(@NotNull Currency currency) {
+        return delegate.registerCurrency(currency);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TriState> unregisterCurrency(@NotNull Currency currency) {
+        String currencyId = currency.getIdentifier();
+        return delegate.unregisterCurrency(currency).whenComplete(($, ex) -> balances.invalidateIf(
+                key -> key.currencyId.equals(currencyId)));
+    }
+
+    @Override
+    public String toString() {
+        return "CachingEconomyProvider{" + delegate + '}';
+    }
+
+    private final class CachingAccountAccessor implements AccountAccessor {
+
+        @Override
+        public @NotNull PlayerAccountAccessor player() {
+            return new PlayerAccountAccessor(CachingEconomyProvider.this) {
+                @Override
+                protected @NotNull CompletableFuture<PlayerAccount> getOrCreate(@NotNull PlayerAccountCreateContext context) {
+                    return CachingAccountAccessor.this.player(context.getUniqueId());
+                }
+
+                @Override
+                protected @NotNull CompletableFuture<Optional<PlayerAccount>> findExisting(@NotNull PlayerAccountCreateContext context) {
+                    UUID uuid = context.getUniqueId();
+                    return delegate
+                            .accountAccessor()
+                            .player()
+                            .withUniqueId(uuid)
+                            .find()
+                            .thenApply(found -> found.map(account -> {
+                                PlayerAccount caching = new CachingPlayerAccount(
+                                        CachingEconomyProvider.this,
+                                        account
+                                );
+                                playerAccounts.put(uuid, caching);
+                                return caching;
+                            }));
+                }
+            };
+        }
+
+        @Override
+        public @NotNull NonPlayerAccountAccessor nonPlayer() {
+            return new NonPlayerAccountAccessor(CachingEconomyProvider.this) {
+                @Override
+                protected @NotNull CompletableFuture<NonPlayerAccount> getOrCreate(@NotNull NonPlayerAccountCreateContext context) {
+                    return nonPlayerAccounts.get(context.getIdentifier(), identifier -> delegate
+                            .accountAccessor()
+                            .nonPlayer()
+                            .withIdentifier(identifier)
+                            .withName(context.getName())
+                            .get()
+                            .thenApply(CachingEconomyProvider.this::wrap));
+                }
+
+                @Override
+                protected @NotNull CompletableFuture<Optional<NonPlayerAccount>> findExisting(
+                        @NotNull NonPlayerAccountCreateContext context
+                ) {
+                    NamespacedKey identifier = context.getIdentifier();
+                    return delegate
+                            .accountAccessor()
+                            .nonPlayer()
+                            .withIdentifier(identifier)
+                            .find()
+                            .thenApply(found -> found.map(account -> {
+                                NonPlayerAccount caching = wrap(account);
+                                nonPlayerAccounts.put(identifier, caching);
+                                return caching;
+                            }));
+                }
+            };
+        }
+
+        @Override
+        public @NotNull CompletableFuture<PlayerAccount> player(@NotNull UUID uniqueId) {
+            return playerAccounts.get(uniqueId, uuid -> delegate
+                    .accountAccessor()
+                    .player(uuid)
+                    .thenApply(account -> new CachingPlayerAccount(
+                            CachingEconomyProvider.this,
+                            account
+                    )));
+        }
+
+        @Override
+        public @NotNull CompletableFuture<NonPlayerAccount> nonPlayer(@NotNull NamespacedKey identifier) {
+            return nonPlayerAccounts.get(identifier, key -> delegate
+                    .accountAccessor()
+                    .nonPlayer(key)
+                    .thenApply(CachingEconomyProvider.this::wrap));
+        }
+
+    }
+
+    private static final class BalanceKey {
+
+        private final Object accountId;
+        private final String currencyId;
+
+        private BalanceKey(@NotNull Object accountId, @NotNull String currencyId) {
+            this.accountId = accountId;
+            this.currencyId = currencyId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BalanceKey)) {
+                return false;
+            }
+            BalanceKey other = (BalanceKey) o;
+            return accountId.equals(other.accountId) && currencyId.equals(other.currencyId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * accountId.hashCode() + currencyId.hashCode();
+        }
+
+    }
+
+}
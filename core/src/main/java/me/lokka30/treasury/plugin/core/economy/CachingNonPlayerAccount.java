@@ -0,0 +1,34 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.economy;
+
+import me.lokka30.treasury.api.common.NamespacedKey;
+import me.lokka30.treasury.api.economy.account.NonPlayerAccount;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link NonPlayerAccount} wrapped by a {@link CachingEconomyProvider}.
+ *
+ * @since 2.1.0
+ */
+final class CachingNonPlayerAccount extends CachingAccount<NonPlayerAccount> implements NonPlayerAccount {
+
+    CachingNonPlayerAccount(
+            @NotNull CachingEconomyProvider provider, @NotNull NonPlayerAccount delegate
+    ) {
+        super(provider, delegate);
+    }
+
+    @Override
+    @NotNull Object cacheIdentifier() {
+        return delegate.identifier();
+    }
+
+    @Override
+    public @NotNull NamespacedKey identifier() {
+        return delegate.identifier();
+    }
+
+}
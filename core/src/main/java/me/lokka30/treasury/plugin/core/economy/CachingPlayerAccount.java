@@ -0,0 +1,32 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.economy;
+
+import java.util.UUID;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link PlayerAccount} wrapped by a {@link CachingEconomyProvider}.
+ *
+ * @since 2.1.0
+ */
+final class CachingPlayerAccount extends CachingAccount<PlayerAccount> implements PlayerAccount {
+
+    CachingPlayerAccount(@NotNull CachingEconomyProvider provider, @NotNull PlayerAccount delegate) {
+        super(provider, delegate);
+    }
+
+    @Override
+    @NotNull Object cacheIdentifier() {
+        return delegate.identifier();
+    }
+
+    @Override
+    public @NotNull UUID identifier() {
+        return delegate.identifier();
+    }
+
+}
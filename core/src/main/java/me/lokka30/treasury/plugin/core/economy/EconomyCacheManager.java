@@ -0,0 +1,99 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.economy;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import me.lokka30.treasury.api.common.service.Service;
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.events.AccountTransactionEvent;
+import me.lokka30.treasury.plugin.core.config.settings.Settings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps a {@link CachingEconomyProvider} in front of the currently used {@link EconomyProvider},
+ * when enabled in the settings.
+ * <p>The decorator is registered in the {@link ServiceRegistry} under the registrar name and
+ * the priority of the provider it wraps, which places it in front of that provider. Whenever
+ * the economy providers change, the decorator is replaced accordingly.
+ *
+ * @since 2.1.0
+ */
+public final class EconomyCacheManager extends ProviderServiceManager<Settings.EconomyCacheSettings, EconomyProvider, CachingEconomyProvider> {
+
+    public static final EconomyCacheManager INSTANCE = new EconomyCacheManager();
+
+    private EconomyCacheManager() {
+        super(EconomyProvider.class, Settings.EconomyCacheSettings::isEnabled);
+    }
+
+    @Override
+    protected void subscribeEvents() {
+        whenInstalled(AccountTransactionEvent.class, CachingEconomyProvider::handleTransaction);
+    }
+
+    @Override
+    protected boolean triggersRefresh(@NotNull Object service) {
+        return service instanceof EconomyProvider && !(service instanceof CachingEconomyProvider);
+    }
+
+    @Override
+    protected @Nullable CachingEconomyProvider create(
+            @NotNull EconomyProvider provider, @NotNull Settings.EconomyCacheSettings settings
+    ) {
+        return new CachingEconomyProvider(provider,
+                settings.getExpireAfterSeconds(),
+                settings.getRefreshAfterSeconds(),
+                TimeUnit.SECONDS,
+                settings.getMaximumSize()
+        );
+    }
+
+    @Override
+    protected @NotNull EconomyProvider providerOf(@NotNull CachingEconomyProvider caching) {
+        return caching.getDelegate();
+    }
+
+    @Override
+    protected void uninstalled(@NotNull CachingEconomyProvider caching) {
+        caching.close();
+    }
+
+    @Override
+    protected synchronized void refresh() {
+        Settings.EconomyCacheSettings settings = settings();
+        if (settings == null) {
+            return;
+        }
+        ServiceRegistry registry = ServiceRegistry.INSTANCE;
+        Optional<Service<EconomyProvider>> serviceOpt = registry.serviceFor(EconomyProvider.class);
+        if (!serviceOpt.isPresent()) {
+            uninstall();
+            return;
+        }
+
+        Service<EconomyProvider> service = serviceOpt.get();
+        if (service.get() instanceof CachingEconomyProvider) {
+            EconomyProvider delegate = ((CachingEconomyProvider) service.get()).getDelegate();
+            if (registry
+                    .allServicesFor(EconomyProvider.class)
+                    .stream()
+                    .anyMatch(s -> s.get() == delegate)) {
+                return;
+            }
+            // the wrapped provider is gone
+            uninstall();
+            refresh();
+            return;
+        }
+
+        // placed in front of the provider it wraps
+        uninstall();
+        install(create(service.get(), settings), service.registrarName(), service.priority());
+    }
+
+}
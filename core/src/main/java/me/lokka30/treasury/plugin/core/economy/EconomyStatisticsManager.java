@@ -0,0 +1,86 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.economy;
+
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.balance.BalanceSubscription;
+import me.lokka30.treasury.api.economy.balance.EconomyStatistics;
+import me.lokka30.treasury.api.economy.balance.MemoryEconomyStatistics;
+import me.lokka30.treasury.api.economy.events.AccountTransactionEvent;
+import me.lokka30.treasury.plugin.core.TreasuryPlugin;
+import me.lokka30.treasury.plugin.core.config.settings.Settings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Maintains {@link MemoryEconomyStatistics} for the currently used {@link EconomyProvider},
+ * when enabled in the settings.
+ * <p>The statistics are registered in the {@link ServiceRegistry} as an
+ * {@link EconomyStatistics} service, where the default
+ * {@link EconomyProvider#economyStatistics()} implementation picks them up. They are built
+ * once from all the accounts and then kept up to date via {@link AccountTransactionEvent}s
+ * and, if the provider supports them, its
+ * {@link EconomyProvider#subscribeBalanceChanges balance changes}. Providers supplying their
+ * own statistics are not aggregated.
+ *
+ * @since 2.1.0
+ */
+public final class EconomyStatisticsManager extends ProviderServiceManager<Settings.EconomyStatisticsSettings, EconomyStatistics, MemoryEconomyStatistics> {
+
+    public static final EconomyStatisticsManager INSTANCE = new EconomyStatisticsManager();
+
+    private BalanceSubscription subscription;
+
+    private EconomyStatisticsManager() {
+        super(EconomyStatistics.class, Settings.EconomyStatisticsSettings::isEnabled);
+    }
+
+    @Override
+    protected boolean requiresReinstall(
+            @NotNull Settings.EconomyStatisticsSettings previous,
+            @NotNull Settings.EconomyStatisticsSettings settings
+    ) {
+        return false;
+    }
+
+    @Override
+    protected void subscribeEvents() {
+        whenInstalled(AccountTransactionEvent.class, MemoryEconomyStatistics::update);
+    }
+
+    @Override
+    protected @Nullable MemoryEconomyStatistics create(
+            @NotNull EconomyProvider provider, @NotNull Settings.EconomyStatisticsSettings settings
+    ) {
+        // unless the provider supplies its own statistics
+        return provider.economyStatistics().isPresent() ? null : new MemoryEconomyStatistics(provider);
+    }
+
+    @Override
+    protected @NotNull EconomyProvider providerOf(@NotNull MemoryEconomyStatistics statistics) {
+        return statistics.getProvider();
+    }
+
+    @Override
+    protected void installed(@NotNull MemoryEconomyStatistics statistics, @NotNull EconomyProvider provider) {
+        subscription = provider.subscribeBalanceChanges(statistics::update).orElse(null);
+        statistics.build().whenComplete(($, ex) -> {
+            if (ex != null) {
+                TreasuryPlugin.getInstance().logger().warn(
+                        "Could not build the economy statistics of economy provider " + provider + ": " + ex.getMessage());
+            }
+        });
+    }
+
+    @Override
+    protected void uninstalled(@NotNull MemoryEconomyStatistics statistics) {
+        if (subscription != null) {
+            subscription.cancel();
+            subscription = null;
+        }
+    }
+
+}
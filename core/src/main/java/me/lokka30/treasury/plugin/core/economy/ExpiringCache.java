@@ -0,0 +1,268 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.economy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A size bounded cache of asynchronously loaded values.
+ * <p>Entries expire a fixed time after they have been loaded. Once an entry is older than the
+ * refresh time, the next read returns the cached value and reloads it in the background, so
+ * that frequently read entries never expire. When the cache is full, the least recently used
+ * entry is evicted. Concurrent reads of a missing entry share the same load.
+ * <p>Every write and invalidation of a key is given a generation. Values computed outside of
+ * the cache, e.g. the balance returned by a transaction, are written with
+ * {@link #put(Object, Object, long)} along with the {@link #stamp() stamp} taken before they
+ * were computed, and are discarded if the key has been written or invalidated since, so that a
+ * slow write can never replace a newer value or resurrect an invalidated one. Loads and
+ * refreshes only ever complete their own entry, which an invalidation replaces.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @since 2.1.0
+ */
+public final class ExpiringCache<K, V> {
+
+    private final long expireAfterNanos;
+    private final long refreshAfterNanos;
+    private final Map<K, Entry<V>> entries;
+    // guarded by entries
+    private long generation;
+    // stamps older than this predate an evicted or bulk-invalidated entry
+    private long floor;
+
+    /**
+     * Creates a new {@code ExpiringCache}
+     *
+     * @param expireAfter  time after which a loaded entry expires
+     * @param refreshAfter time after which a loaded entry is reloaded on read, or 0 to disable
+     * @param unit         the unit of the times
+     * @param maximumSize  the maximum count of entries
+     */
+    public ExpiringCache(long expireAfter, long refreshAfter, @NotNull TimeUnit unit, int maximumSize) {
+        Objects.requireNonNull(unit, "unit");
+        if (expireAfter <= 0) {
+            throw new IllegalArgumentException("expireAfter must be positive");
+        }
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        this.expireAfterNanos = unit.toNanos(expireAfter);
+        this.refreshAfterNanos = refreshAfter > 0 && refreshAfter < expireAfter
+                ? unit.toNanos(refreshAfter)
+                : 0;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= maximumSize) {
+                    return false;
+                }
+                floor = Math.max(floor, eldest.getValue().generation);
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the value of the specified {@code key}, loading it with the specified
+     * {@code loader} if it is not cached. Failed loads are not cached.
+     *
+     * @param key    key
+     * @param loader loader of the value
+     * @return future with the value
+     */
+    @NotNull
+    public CompletableFuture<V> get(
+            @NotNull K key, @NotNull Function<K, CompletableFuture<V>> loader
+    ) {
+        long now = System.nanoTime();
+        Entry<V> entry;
+        boolean load = false;
+        boolean refresh = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && (entry.value == null || now - entry.loadedAt >= expireAfterNanos)) {
+                // invalidated or expired
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry<>(++generation, now, new CompletableFuture<>());
+                entries.put(key, entry);
+                load = true;
+            } else if (refreshAfterNanos != 0 && !entry.refreshing && entry.value.isDone() && now - entry.loadedAt >= refreshAfterNanos) {
+                entry.refreshing = true;
+                refresh = true;
+            }
+        }
+
+        if (load) {
+            Entry<V> loading = entry;
+            load(key, loader).whenComplete((value, ex) -> {
+                if (ex != null) {
+                    synchronized (entries) {
+                        entries.remove(key, loading);
+                    }
+                    loading.value.completeExceptionally(ex);
+                } else {
+                    loading.value.complete(value);
+                }
+            });
+        } else if (refresh) {
+            Entry<V> stale = entry;
+            load(key, loader).whenComplete((value, ex) -> {
+                synchronized (entries) {
+                    // any write or invalidation meanwhile has replaced the stale entry
+                    if (ex == null && entries.get(key) == stale) {
+                        entries.put(key, new Entry<>(++generation,
+                                System.nanoTime(),
+                                CompletableFuture.completedFuture(value)
+                        ));
+                    } else {
+                        stale.refreshing = false;
+                    }
+                }
+            });
+        }
+        return entry.value.thenApply(Function.identity());
+    }
+
+    @NotNull
+    private CompletableFuture<V> load(
+            @NotNull K key, @NotNull Function<K, CompletableFuture<V>> loader
+    ) {
+        try {
+            return loader.apply(key);
+        } catch (RuntimeException e) {
+            CompletableFuture<V> ret = new CompletableFuture<>();
+            ret.completeExceptionally(e);
+            return ret;
+        }
+    }
+
+    /**
+     * Caches the specified {@code value} unconditionally, replacing any cached or loading value
+     * of the specified {@code key}. Meant for values which can't be outdated, e.g. handles.
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void put(@NotNull K key, @NotNull V value) {
+        synchronized (entries) {
+            entries.put(key, new Entry<>(++generation,
+                    System.nanoTime(),
+                    CompletableFuture.completedFuture(value)
+            ));
+        }
+    }
+
+    /**
+     * Returns the current stamp of this cache, to be passed to
+     * {@link #put(Object, Object, long)} along with a value computed afterwards.
+     *
+     * @return stamp
+     */
+    public long stamp() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * Caches the specified {@code value}, replacing any cached or loading value of the
+     * specified {@code key}, unless the key has been written or invalidated after the specified
+     * {@code stamp} was taken. In that case the value may be outdated, hence the key is
+     * invalidated instead.
+     *
+     * @param key   key
+     * @param value value
+     * @param stamp the {@link #stamp() stamp} taken before the value was computed
+     * @return whether the value has been cached
+     */
+    public boolean put(@NotNull K key, @NotNull V value, long stamp) {
+        synchronized (entries) {
+            Entry<V> current = entries.get(key);
+            if (stamp < floor || (current != null && current.generation > stamp)) {
+                entries.put(key, new Entry<>(++generation, System.nanoTime(), null));
+                return false;
+            }
+            entries.put(key, new Entry<>(++generation,
+                    System.nanoTime(),
+                    CompletableFuture.completedFuture(value)
+            ));
+            return true;
+        }
+    }
+
+    /**
+     * Discards the value of the specified {@code key}. Values computed before are not cached
+     * afterwards.
+     *
+     * @param key key
+     */
+    public void invalidate(@NotNull K key) {
+        synchronized (entries) {
+            // keep the generation of the invalidation, for put
+            entries.put(key, new Entry<>(++generation, System.nanoTime(), null));
+        }
+    }
+
+    /**
+     * Discards the values of all the keys matching the specified {@code filter}.
+     *
+     * @param filter key filter
+     */
+    public void invalidateIf(@NotNull Predicate<K> filter) {
+        synchronized (entries) {
+            entries.keySet().removeIf(filter);
+            floor = ++generation;
+        }
+    }
+
+    /**
+     * Discards all the values.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            floor = ++generation;
+        }
+    }
+
+    /**
+     * Returns the count of cached, loading and invalidated entries.
+     *
+     * @return size
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final long generation;
+        private final long loadedAt;
+        // null once invalidated
+        private final CompletableFuture<V> value;
+        private boolean refreshing;
+
+        private Entry(long generation, long loadedAt, @Nullable CompletableFuture<V> value) {
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+            this.value = value;
+        }
+
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.economy;
+
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.account.MembershipIndex;
+import me.lokka30.treasury.api.economy.account.MemoryMembershipIndex;
+import me.lokka30.treasury.api.economy.events.AccountPermissionsChangeEvent;
+import me.lokka30.treasury.api.economy.events.NonPlayerAccountDeleteEvent;
+import me.lokka30.treasury.plugin.core.TreasuryPlugin;
+import me.lokka30.treasury.plugin.core.config.settings.Settings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Maintains a {@link MemoryMembershipIndex} for the currently used {@link EconomyProvider},
+ * when enabled in the settings.
+ * <p>The index is registered in the {@link ServiceRegistry} as a {@link MembershipIndex}
+ * service, where the default {@link EconomyProvider#membershipIndex()} implementation picks it
+ * up, and is kept up to date via {@link AccountPermissionsChangeEvent}s and
+ * {@link NonPlayerAccountDeleteEvent}s. Providers supplying
+ * their own index, or not {@link EconomyProvider#firesAccountPermissionsChangeEvents() firing
+ * these events}, are not indexed.
+ *
+ * @since 2.1.0
+ */
+public final class MembershipIndexManager extends ProviderServiceManager<Settings.MembershipIndexSettings, MembershipIndex, MemoryMembershipIndex> {
+
+    public static final MembershipIndexManager INSTANCE = new MembershipIndexManager();
+
+    private MembershipIndexManager() {
+        super(MembershipIndex.class, Settings.MembershipIndexSettings::isEnabled);
+    }
+
+    @Override
+    protected boolean requiresReinstall(
+            @NotNull Settings.MembershipIndexSettings previous,
+            @NotNull Settings.MembershipIndexSettings settings
+    ) {
+        return false;
+    }
+
+    @Override
+    protected void subscribeEvents() {
+        whenInstalled(AccountPermissionsChangeEvent.class, MemoryMembershipIndex::update);
+        whenInstalled(NonPlayerAccountDeleteEvent.class, MemoryMembershipIndex::update);
+    }
+
+    @Override
+    protected @Nullable MemoryMembershipIndex create(
+            @NotNull EconomyProvider provider, @NotNull Settings.MembershipIndexSettings settings
+    ) {
+        if (!provider.firesAccountPermissionsChangeEvents()) {
+            // the index would miss the changes it is not told about
+            return null;
+        }
+        // unless the provider supplies its own index
+        return provider.membershipIndex().isPresent() ? null : new MemoryMembershipIndex(provider);
+    }
+
+    @Override
+    protected @NotNull EconomyProvider providerOf(@NotNull MemoryMembershipIndex index) {
+        return index.getProvider();
+    }
+
+    @Override
+    protected void installed(@NotNull MemoryMembershipIndex index, @NotNull EconomyProvider provider) {
+        index.build().whenComplete(($, ex) -> {
+            if (ex != null) {
+                TreasuryPlugin.getInstance().logger().warn(
+                        "Could not build the membership index of economy provider " + provider + ": " + ex.getMessage());
+            }
+        });
+    }
+
+}
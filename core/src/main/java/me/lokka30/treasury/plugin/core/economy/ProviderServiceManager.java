@@ -0,0 +1,279 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.economy;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import me.lokka30.treasury.api.common.event.EventBus;
+import me.lokka30.treasury.api.common.event.EventPriority;
+import me.lokka30.treasury.api.common.service.Service;
+import me.lokka30.treasury.api.common.service.ServicePriority;
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.common.service.event.ServiceRegisteredEvent;
+import me.lokka30.treasury.api.common.service.event.ServiceUnregisteredEvent;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Maintains a service for the currently used {@link EconomyProvider}, when enabled in the
+ * settings.
+ * <p>The service is created for the provider on top of the {@link ServiceRegistry}, unwrapping
+ * the {@link CachingEconomyProvider} if any, and registered under the name "Treasury", where
+ * the default implementations of the {@link EconomyProvider} methods pick it up. Whenever the
+ * economy providers change, the service is replaced accordingly.
+ *
+ * @param <C> type of the settings
+ * @param <S> type the service is registered as
+ * @param <T> type of the maintained service
+ * @since 2.1.0
+ */
+public abstract class ProviderServiceManager<C, S, T extends S> {
+
+    private final Class<S> serviceType;
+    private final Predicate<C> enabled;
+    private final AtomicBoolean subscribed = new AtomicBoolean(false);
+    private C settings;
+    private volatile T installed;
+
+    /**
+     * Creates a new {@code ProviderServiceManager}
+     *
+     * @param serviceType the type the service is registered as
+     * @param enabled     whether the settings enable the service
+     */
+    protected ProviderServiceManager(@NotNull Class<S> serviceType, @NotNull Predicate<C> enabled) {
+        this.serviceType = Objects.requireNonNull(serviceType, "serviceType");
+        this.enabled = Objects.requireNonNull(enabled, "enabled");
+    }
+
+    /**
+     * Applies the specified settings, enabling, reconfiguring or disabling the service.
+     *
+     * @param settings the settings
+     */
+    public void configure(@NotNull C settings) {
+        Objects.requireNonNull(settings, "settings");
+        if (subscribed.compareAndSet(false, true)) {
+            subscribe();
+        }
+        synchronized (this) {
+            C previous = this.settings;
+            this.settings = enabled.test(settings) ? settings : null;
+            if (this.settings == null || previous == null || requiresReinstall(previous, settings)) {
+                uninstall();
+            }
+            refresh();
+        }
+    }
+
+    /**
+     * Disables the service, unregistering it if registered.
+     */
+    public synchronized void shutdown() {
+        this.settings = null;
+        uninstall();
+    }
+
+    /**
+     * Returns the currently registered service, if any.
+     *
+     * @return service or null
+     */
+    @Nullable
+    public T getInstalled() {
+        return installed;
+    }
+
+    /**
+     * Returns whether the service has to be recreated when the settings change from the
+     * specified previous to the specified new ones, both enabling the service. Defaults to
+     * {@code true}.
+     *
+     * @param previous the previous settings
+     * @param settings the new settings
+     * @return whether to recreate the service
+     */
+    protected boolean requiresReinstall(@NotNull C previous, @NotNull C settings) {
+        return true;
+    }
+
+    /**
+     * Creates the service of the specified provider.
+     *
+     * @param provider the economy provider, never a {@link CachingEconomyProvider}
+     * @param settings the settings
+     * @return new service, or null if the provider is not to be served, e.g. because it
+     *         supplies its own
+     */
+    @Nullable
+    protected abstract T create(@NotNull EconomyProvider provider, @NotNull C settings);
+
+    /**
+     * Returns the provider the specified service has been created for.
+     *
+     * @param service the service
+     * @return economy provider
+     */
+    @NotNull
+    protected abstract EconomyProvider providerOf(@NotNull T service);
+
+    /**
+     * Called once the specified service has been registered, e.g. to start building it.
+     *
+     * @param service  the service
+     * @param provider the provider it has been created for
+     */
+    protected void installed(@NotNull T service, @NotNull EconomyProvider provider) {
+    }
+
+    /**
+     * Called once the specified service has been unregistered, e.g. to release its resources.
+     *
+     * @param service the service
+     */
+    protected void uninstalled(@NotNull T service) {
+    }
+
+    /**
+     * Subscribes the events the service is kept up to date with, called once on the first
+     * {@link #configure(Object) configuration}. Implementations usually call
+     * {@link #whenInstalled(Class, BiConsumer)}.
+     */
+    protected void subscribeEvents() {
+    }
+
+    /**
+     * Subscribes the specified handler to the events of the specified type, called with the
+     * currently registered service, if any.
+     *
+     * @param eventClass the type of the events
+     * @param handler    the handler
+     * @param <E>        event type
+     */
+    protected final <E> void whenInstalled(
+            @NotNull Class<E> eventClass, @NotNull BiConsumer<T, E> handler
+    ) {
+        EventBus eventBus = EventBus.INSTANCE;
+        eventBus.subscribe(eventBus
+                .subscriptionFor(eventClass)
+                .withPriority(EventPriority.LOWEST)
+                .whenCalled(event -> {
+                    T service = installed;
+                    if (service != null) {
+                        handler.accept(service, event);
+                    }
+                })
+                .completeSubscription());
+    }
+
+    /**
+     * Returns whether the (un)registration of the specified service changes the provider to
+     * be served. Defaults to whether it is an {@link EconomyProvider}.
+     *
+     * @param service the (un)registered service
+     * @return whether to refresh
+     */
+    protected boolean triggersRefresh(@NotNull Object service) {
+        return service instanceof EconomyProvider;
+    }
+
+    /**
+     * Returns the current settings.
+     *
+     * @return settings, or null if disabled
+     */
+    @Nullable
+    protected final C settings() {
+        return settings;
+    }
+
+    /**
+     * Replaces the service with one for the provider on top of the {@link ServiceRegistry}, if
+     * it changed.
+     */
+    protected synchronized void refresh() {
+        C settings = this.settings;
+        if (settings == null) {
+            return;
+        }
+        Optional<Service<EconomyProvider>> serviceOpt = ServiceRegistry.INSTANCE.serviceFor(
+                EconomyProvider.class);
+        if (!serviceOpt.isPresent()) {
+            uninstall();
+            return;
+        }
+
+        EconomyProvider provider = serviceOpt.get().get();
+        if (provider instanceof CachingEconomyProvider) {
+            provider = ((CachingEconomyProvider) provider).getDelegate();
+        }
+        T current = installed;
+        if (current != null && providerOf(current) == provider) {
+            return;
+        }
+
+        uninstall();
+        T service = create(provider, settings);
+        if (service == null) {
+            return;
+        }
+        install(service, "Treasury", ServicePriority.NORMAL);
+        installed(service, provider);
+    }
+
+    /**
+     * Registers the specified service under the specified registrar name and priority.
+     *
+     * @param service   the service
+     * @param registrar registrar name
+     * @param priority  priority
+     */
+    protected final synchronized void install(
+            @NotNull T service, @NotNull String registrar, @NotNull ServicePriority priority
+    ) {
+        installed = service;
+        ServiceRegistry.INSTANCE.registerService(serviceType, service, registrar, priority);
+    }
+
+    /**
+     * Unregisters the service, if registered.
+     */
+    protected final synchronized void uninstall() {
+        T service = installed;
+        if (service != null) {
+            installed = null;
+            ServiceRegistry.INSTANCE.unregister(serviceType, service);
+            uninstalled(service);
+        }
+    }
+
+    private void subscribe() {
+        EventBus eventBus = EventBus.INSTANCE;
+        eventBus.subscribe(eventBus
+                .subscriptionFor(ServiceRegisteredEvent.class)
+                .withPriority(EventPriority.LOWEST)
+                .whenCalled(event -> {
+                    if (triggersRefresh(event.getService().get())) {
+                        refresh();
+                    }
+                })
+                .completeSubscription());
+        eventBus.subscribe(eventBus
+                .subscriptionFor(ServiceUnregisteredEvent.class)
+                .withPriority(EventPriority.LOWEST)
+                .whenCalled(event -> {
+                    if (triggersRefresh(event.getService().get())) {
+                        refresh();
+                    }
+                })
+                .completeSubscription());
+        subscribeEvents();
+    }
+
+}
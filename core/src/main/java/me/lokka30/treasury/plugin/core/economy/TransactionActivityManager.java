@@ -0,0 +1,66 @@
+/*
+ * This file is/was part of Treasury. To read more information about Treasury such as its licensing, see <https://github.com/ArcanePlugins/Treasury>.
+ */
+
+package me.lokka30.treasury.plugin.core.economy;
+
+import me.lokka30.treasury.api.common.service.ServiceRegistry;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.events.AccountTransactionEvent;
+import me.lokka30.treasury.api.economy.transaction.MemoryTransactionActivity;
+import me.lokka30.treasury.api.economy.transaction.TransactionActivity;
+import me.lokka30.treasury.plugin.core.config.settings.Settings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Maintains a {@link MemoryTransactionActivity} for the currently used {@link EconomyProvider},
+ * when enabled in the settings.
+ * <p>The activity is registered in the {@link ServiceRegistry} as a
+ * {@link TransactionActivity} service, where the default
+ * {@link EconomyProvider#transactionActivity()} implementation picks it up, and counts the
+ * transactions of every {@link AccountTransactionEvent}. Providers supplying their own
+ * activity are not counted.
+ *
+ * @since 2.1.0
+ */
+public final class TransactionActivityManager extends ProviderServiceManager<Settings.TransactionActivitySettings, TransactionActivity, MemoryTransactionActivity> {
+
+    public static final TransactionActivityManager INSTANCE = new TransactionActivityManager();
+
+    private TransactionActivityManager() {
+        super(TransactionActivity.class, Settings.TransactionActivitySettings::isEnabled);
+    }
+
+    @Override
+    protected boolean requiresReinstall(
+            @NotNull Settings.TransactionActivitySettings previous,
+            @NotNull Settings.TransactionActivitySettings settings
+    ) {
+        return previous.getBucketsPerWindow() != settings.getBucketsPerWindow();
+    }
+
+    @Override
+    protected void subscribeEvents() {
+        whenInstalled(AccountTransactionEvent.class, MemoryTransactionActivity::record);
+    }
+
+    @Override
+    protected @Nullable MemoryTransactionActivity create(
+            @NotNull EconomyProvider provider, @NotNull Settings.TransactionActivitySettings settings
+    ) {
+        // unless the provider supplies its own activity
+        return provider.transactionActivity().isPresent()
+                ? null
+                : new MemoryTransactionActivity(provider,
+                        MemoryTransactionActivity.DEFAULT_WINDOWS,
+                        settings.getBucketsPerWindow()
+                );
+    }
+
+    @Override
+    protected @NotNull EconomyProvider providerOf(@NotNull MemoryTransactionActivity activity) {
+        return activity.getProvider();
+    }
+
+}
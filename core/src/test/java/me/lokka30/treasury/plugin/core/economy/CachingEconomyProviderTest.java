@@ -0,0 +1,99 @@
+package me.lokka30.treasury.plugin.core.economy;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import me.lokka30.treasury.api.economy.account.SyncAccount;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.currency.StandardCurrency;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CachingEconomyProviderTest {
+
+    private final Currency dollars = StandardCurrency.newBuilder().withIdentifier("dollars").build();
+    private final TestEconomyProvider delegate = new TestEconomyProvider(dollars);
+    private final CachingEconomyProvider provider = new CachingEconomyProvider(delegate,
+            1,
+            0,
+            TimeUnit.HOURS,
+            100
+    );
+    private final UUID playerId = UUID.randomUUID();
+
+    @Test
+    void testBalanceIsCachedAndWrittenThrough() {
+        TestPlayerAccount backing = delegate.player(playerId);
+        backing.balances.put("dollars", BigDecimal.TEN);
+        PlayerAccount account = provider.accountAccessor().player(playerId).join();
+
+        Assertions.assertEquals(0, BigDecimal.TEN.compareTo(account.retrieveBalance(dollars).join()));
+        Assertions.assertEquals(0, BigDecimal.TEN.compareTo(account.retrieveBalance(dollars).join()));
+        Assertions.assertEquals(1, backing.balanceReads.get());
+
+        account.depositBalance(BigDecimal.ONE, Cause.SERVER, dollars).join();
+        Assertions.assertEquals(0, BigDecimal.valueOf(11).compareTo(account.retrieveBalance(dollars).join()));
+        // the balance returned by the transaction has been cached
+        Assertions.assertEquals(1, backing.balanceReads.get());
+    }
+
+    @Test
+    void testSlowTransactionDoesNotReplaceNewerBalance() {
+        TestPlayerAccount backing = delegate.player(playerId);
+        PlayerAccount account = provider.accountAccessor().player(playerId).join();
+        CompletableFuture<Void> gate = new CompletableFuture<>();
+        backing.transactionGate = gate;
+
+        CompletableFuture<BigDecimal> slow = account.depositBalance(BigDecimal.ONE, Cause.SERVER, dollars);
+        backing.transactionGate = null;
+        account.depositBalance(BigDecimal.ONE, Cause.SERVER, dollars).join();
+        gate.complete(null);
+
+        Assertions.assertEquals(0, BigDecimal.ONE.compareTo(slow.join()));
+        // the older balance of the slow transaction has not been cached
+        Assertions.assertEquals(0, BigDecimal.valueOf(2).compareTo(account.retrieveBalance(dollars).join()));
+    }
+
+    @Test
+    void testChangesBehindTheCacheAreReloaded() {
+        TestPlayerAccount backing = delegate.player(playerId);
+        PlayerAccount account = provider.accountAccessor().player(playerId).join();
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(account.retrieveBalance(dollars).join()));
+
+        backing.balances.put("dollars", BigDecimal.TEN);
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(account.retrieveBalance(dollars).join()));
+        provider.invalidateAll();
+        Assertions.assertEquals(0, BigDecimal.TEN.compareTo(account.retrieveBalance(dollars).join()));
+        Assertions.assertEquals(2, backing.balanceReads.get());
+    }
+
+    @Test
+    void testSyncWritesInvalidate() {
+        delegate.player(playerId);
+        PlayerAccount account = provider.accountAccessor().player(playerId).join();
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(account.retrieveBalance(dollars).join()));
+
+        SyncAccount sync = account.sync().orElseThrow(IllegalStateException::new);
+        Assertions.assertTrue(sync.tryDeposit(BigDecimal.TEN, Cause.SERVER, dollars));
+        Assertions.assertEquals(0, BigDecimal.TEN.compareTo(account.retrieveBalance(dollars).join()));
+        Assertions.assertFalse(sync.tryWithdraw(BigDecimal.valueOf(11), Cause.SERVER, dollars));
+        Assertions.assertTrue(sync.tryWithdraw(BigDecimal.valueOf(4), Cause.SERVER, dollars));
+        Assertions.assertEquals(0, BigDecimal.valueOf(6).compareTo(account.retrieveBalance(dollars).join()));
+    }
+
+    @Test
+    void testDeletionInvalidatesAccount() {
+        TestPlayerAccount backing = delegate.player(playerId);
+        backing.balances.put("dollars", BigDecimal.TEN);
+        PlayerAccount account = provider.accountAccessor().player(playerId).join();
+        Assertions.assertEquals(0, BigDecimal.TEN.compareTo(account.retrieveBalance(dollars).join()));
+
+        Assertions.assertTrue(account.deleteAccount().join());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(account.retrieveBalance(dollars).join()));
+        Assertions.assertNotSame(account, provider.accountAccessor().player(playerId).join());
+    }
+
+}
@@ -0,0 +1,107 @@
+package me.lokka30.treasury.plugin.core.economy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ExpiringCacheTest {
+
+    @Test
+    void testLoadsOnce() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(1, 0, TimeUnit.HOURS, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        Assertions.assertEquals(1, cache.get("a", $ -> CompletableFuture.completedFuture(loads.incrementAndGet())).join());
+        Assertions.assertEquals(1, cache.get("a", $ -> CompletableFuture.completedFuture(loads.incrementAndGet())).join());
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(1, 0, TimeUnit.HOURS, 10);
+
+        Assertions.assertThrows(Exception.class,
+                () -> cache.get("a", $ -> FutureHelper.failedFuture(new IllegalStateException())).join()
+        );
+        Assertions.assertEquals(2, cache.get("a", $ -> CompletableFuture.completedFuture(2)).join());
+    }
+
+    @Test
+    void testStaleWriteIsRejected() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(1, 0, TimeUnit.HOURS, 10);
+
+        long before = cache.stamp();
+        Assertions.assertTrue(cache.put("a", 2, cache.stamp()));
+        // computed before the newer value was written
+        Assertions.assertFalse(cache.put("a", 1, before));
+        // the key is invalidated, rather than keeping a value which may be outdated
+        Assertions.assertEquals(3, cache.get("a", $ -> CompletableFuture.completedFuture(3)).join());
+    }
+
+    @Test
+    void testWriteAfterInvalidationIsRejected() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(1, 0, TimeUnit.HOURS, 10);
+        cache.put("a", 1);
+
+        long before = cache.stamp();
+        cache.invalidate("a");
+        Assertions.assertFalse(cache.put("a", 1, before));
+
+        before = cache.stamp();
+        cache.invalidateAll();
+        Assertions.assertFalse(cache.put("a", 1, before));
+        Assertions.assertTrue(cache.put("a", 2, cache.stamp()));
+        Assertions.assertEquals(2, cache.get("a", $ -> CompletableFuture.completedFuture(3)).join());
+    }
+
+    @Test
+    void testInvalidationDiscardsLoadingValue() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(1, 0, TimeUnit.HOURS, 10);
+        CompletableFuture<Integer> slowLoad = new CompletableFuture<>();
+
+        CompletableFuture<Integer> first = cache.get("a", $ -> slowLoad);
+        cache.invalidate("a");
+        slowLoad.complete(1);
+
+        Assertions.assertEquals(1, first.join());
+        Assertions.assertEquals(2, cache.get("a", $ -> CompletableFuture.completedFuture(2)).join());
+    }
+
+    @Test
+    void testRefresh() throws InterruptedException {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(1, 1, TimeUnit.HOURS, 10);
+        ExpiringCache<String, Integer> refreshing = new ExpiringCache<>(1000, 1, TimeUnit.MILLISECONDS, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        // refreshing after the expiry is disabled
+        Assertions.assertEquals(1, cache.get("a", $ -> CompletableFuture.completedFuture(1)).join());
+        Assertions.assertEquals(1, cache.get("a", $ -> CompletableFuture.completedFuture(2)).join());
+
+        Assertions.assertEquals(1, refreshing.get("a", $ -> CompletableFuture.completedFuture(loads.incrementAndGet())).join());
+        Thread.sleep(5);
+        // the stale value is returned while it is reloaded
+        Assertions.assertEquals(1, refreshing.get("a", $ -> CompletableFuture.completedFuture(loads.incrementAndGet())).join());
+        Assertions.assertEquals(2, refreshing.get("a", $ -> CompletableFuture.completedFuture(-1)).join());
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(1, 0, TimeUnit.HOURS, 2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a", $ -> CompletableFuture.completedFuture(-1)).join();
+        long before = cache.stamp();
+        cache.put("c", 3);
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, cache.get("a", $ -> CompletableFuture.completedFuture(-1)).join());
+        Assertions.assertEquals(-1, cache.get("b", $ -> CompletableFuture.completedFuture(-1)).join());
+        // b may have been written in between, as it was evicted
+        Assertions.assertFalse(cache.put("b", 2, before));
+    }
+
+}
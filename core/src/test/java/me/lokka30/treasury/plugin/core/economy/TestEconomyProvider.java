@@ -0,0 +1,117 @@
+package me.lokka30.treasury.plugin.core.economy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import me.lokka30.treasury.api.common.NamespacedKey;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.misc.TriState;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.account.NonPlayerAccount;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import me.lokka30.treasury.api.economy.account.accessor.AccountAccessor;
+import me.lokka30.treasury.api.economy.account.accessor.NonPlayerAccountAccessor;
+import me.lokka30.treasury.api.economy.account.accessor.PlayerAccountAccessor;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An economy provider holding {@link TestPlayerAccount player accounts} of a single currency
+ * in memory, used by the cache tests.
+ */
+class TestEconomyProvider implements EconomyProvider {
+
+    final Map<UUID, TestPlayerAccount> players = new ConcurrentHashMap<>();
+    private final Currency currency;
+
+    TestEconomyProvider(@NotNull Currency currency) {
+        this.currency = currency;
+    }
+
+    @NotNull
+    TestPlayerAccount player(@NotNull UUID playerId) {
+        return players.computeIfAbsent(playerId, TestPlayerAccount::new);
+    }
+
+    @Override
+    public @NotNull AccountAccessor accountAccessor() {
+        TestEconomyProvider provider = this;
+        return new AccountAccessor() {
+            @Override
+            public @NotNull PlayerAccountAccessor player() {
+                return new PlayerAccountAccessor(provider) {
+                    @Override
+                    protected @NotNull CompletableFuture<PlayerAccount> getOrCreate(
+                            @NotNull PlayerAccountCreateContext context
+                    ) {
+                        return CompletableFuture.completedFuture(provider.player(context.getUniqueId()));
+                    }
+                };
+            }
+
+            @Override
+            public @NotNull NonPlayerAccountAccessor nonPlayer() {
+                return new NonPlayerAccountAccessor(provider) {
+                    @Override
+                    protected @NotNull CompletableFuture<NonPlayerAccount> getOrCreate(
+                            @NotNull NonPlayerAccountCreateContext context
+                    ) {
+                        return FutureHelper.failedFuture(new TreasuryException("No non-player accounts"));
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> hasAccount(@NotNull AccountData accountData) {
+        return CompletableFuture.completedFuture(accountData
+                .getPlayerIdentifier()
+                .filter(players::containsKey)
+                .isPresent());
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<UUID>> retrievePlayerAccountIds() {
+        return CompletableFuture.completedFuture(new ArrayList<>(players.keySet()));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<NamespacedKey>> retrieveNonPlayerAccountIds() {
+        return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+
+    @Override
+    public @NotNull Currency getPrimaryCurrency() {
+        return currency;
+    }
+
+    @Override
+    public @NotNull Optional<Currency> findCurrency(@NotNull String identifier) {
+        return currency.getIdentifier().equals(identifier) ? Optional.of(currency) : Optional.empty();
+    }
+
+    @Override
+    public @NotNull Set<Currency> getCurrencies() {
+        return Collections.singleton(currency);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TriState> registerCurrency(@NotNull Currency currency) {
+        return CompletableFuture.completedFuture(TriState.FALSE);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TriState> unregisterCurrency(@NotNull Currency currency) {
+        return CompletableFuture.completedFuture(TriState.FALSE);
+    }
+
+}
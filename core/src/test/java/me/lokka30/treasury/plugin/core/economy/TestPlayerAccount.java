@@ -0,0 +1,127 @@
+package me.lokka30.treasury.plugin.core.economy;
+
+import java.math.BigDecimal;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.lokka30.treasury.api.common.Cause;
+import me.lokka30.treasury.api.common.misc.FutureHelper;
+import me.lokka30.treasury.api.common.response.TreasuryException;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import me.lokka30.treasury.api.economy.account.SyncAccount;
+import me.lokka30.treasury.api.economy.currency.Currency;
+import me.lokka30.treasury.api.economy.transaction.EconomyTransaction;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A minimal in-memory player account used by the cache tests, counting the balance reads and
+ * optionally holding back the results of its transactions.
+ */
+class TestPlayerAccount implements PlayerAccount, SyncAccount {
+
+    final Map<String, BigDecimal> balances = new ConcurrentHashMap<>();
+    final AtomicInteger balanceReads = new AtomicInteger();
+    // when set, transactions complete once this future does
+    volatile CompletableFuture<Void> transactionGate;
+    private final UUID identifier;
+
+    TestPlayerAccount(@NotNull UUID identifier) {
+        this.identifier = identifier;
+    }
+
+    @Override
+    public @NotNull UUID identifier() {
+        return identifier;
+    }
+
+    @Override
+    public @NotNull Optional<String> getName() {
+        return Optional.empty();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> retrieveBalance(@NotNull Currency currency) {
+        balanceReads.incrementAndGet();
+        return CompletableFuture.completedFuture(balanceNow(currency));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<BigDecimal> doTransaction(@NotNull EconomyTransaction economyTransaction) {
+        BigDecimal balance;
+        synchronized (this) {
+            balance = balances.getOrDefault(economyTransaction.getCurrencyId(), BigDecimal.ZERO);
+            switch (economyTransaction.getType()) {
+                case DEPOSIT:
+                    balance = balance.add(economyTransaction.getAmount());
+                    break;
+                case WITHDRAWAL:
+                    balance = balance.subtract(economyTransaction.getAmount());
+                    if (balance.signum() < 0) {
+                        return FutureHelper.failedFuture(new TreasuryException("Insufficient balance"));
+                    }
+                    break;
+                case SET:
+                    balance = economyTransaction.getAmount();
+                    break;
+            }
+            balances.put(economyTransaction.getCurrencyId(), balance);
+        }
+        CompletableFuture<Void> gate = transactionGate;
+        BigDecimal result = balance;
+        return gate == null
+                ? CompletableFuture.completedFuture(result)
+                : gate.thenApply($ -> result);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> deleteAccount() {
+        balances.clear();
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<String>> retrieveHeldCurrencies() {
+        return CompletableFuture.completedFuture(new ArrayList<>(balances.keySet()));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<EconomyTransaction>> retrieveTransactionHistory(
+            int transactionCount, @NotNull Temporal from, @NotNull Temporal to
+    ) {
+        return CompletableFuture.completedFuture(new ArrayList<>());
+    }
+
+    @Override
+    public @NotNull BigDecimal balanceNow(@NotNull Currency currency) {
+        return balances.getOrDefault(currency.getIdentifier(), BigDecimal.ZERO);
+    }
+
+    @Override
+    public boolean tryDeposit(
+            @NotNull BigDecimal amount, @NotNull Cause<?> cause, @NotNull Currency currency
+    ) {
+        balances.merge(currency.getIdentifier(), amount, BigDecimal::add);
+        return true;
+    }
+
+    @Override
+    public boolean tryWithdraw(
+            @NotNull BigDecimal amount, @NotNull Cause<?> cause, @NotNull Currency currency
+    ) {
+        synchronized (this) {
+            BigDecimal balance = balanceNow(currency);
+            if (balance.compareTo(amount) < 0) {
+                return false;
+            }
+            balances.put(currency.getIdentifier(), balance.subtract(amount));
+            return true;
+        }
+    }
+
+}
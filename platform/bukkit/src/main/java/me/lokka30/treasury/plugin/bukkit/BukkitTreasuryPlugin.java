@@ -87,6 +87,7 @@ public class BukkitTreasuryPlugin extends TreasuryPlugin implements ConfigAdapte
 
     public void loadSettings() {
         settings = Settings.load(settingsFile);
+        applySettings(settings);
     }
 
     @Override
@@ -4,21 +4,20 @@
 
 package me.lokka30.treasury.plugin.bukkit.hooks.papi.economy;
 
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.TreeSet;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import me.lokka30.treasury.api.economy.EconomyProvider;
+import me.lokka30.treasury.api.economy.balance.RankedBalance;
 import me.lokka30.treasury.api.economy.currency.Currency;
 import me.lokka30.treasury.plugin.bukkit.TreasuryBukkit;
 import me.lokka30.treasury.plugin.core.TreasuryPlugin;
 import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -29,25 +28,16 @@ public class BalTop extends BukkitRunnable {
     private final int topSize;
     private final int taskDelay;
     private final AtomicReference<EconomyProvider> providerRef;
-    private final BalanceCache balanceCache;
 
-    private final Multimap<String, TopPlayer> baltop;
+    private final Map<String, List<TopPlayer>> baltop = new ConcurrentHashMap<>();
 
     public BalTop(
-            boolean enabled,
-            int topSize,
-            int taskDelay,
-            BalanceCache balanceCache,
-            AtomicReference<EconomyProvider> provider
+            boolean enabled, int topSize, int taskDelay, AtomicReference<EconomyProvider> provider
     ) {
         this.enabled = enabled;
         this.topSize = topSize;
         this.taskDelay = taskDelay;
-        this.balanceCache = balanceCache;
         this.providerRef = provider;
-        this.baltop = Multimaps.newSortedSetMultimap(new HashMap<>(),
-                () -> new TreeSet<>(TopPlayer::compareTo)
-        );
     }
 
     public void start(TreasuryBukkit plugin) {
@@ -61,7 +51,7 @@ public class BalTop extends BukkitRunnable {
     public String getPositionAsString(String currencyId, String playerName) {
         int positionInt = 0;
         boolean found = false;
-        for (TopPlayer player : baltop.get(currencyId)) {
+        for (TopPlayer player : get(currencyId)) {
             positionInt++;
             if (player.getName().equalsIgnoreCase(playerName)) {
                 found = true;
@@ -77,8 +67,7 @@ public class BalTop extends BukkitRunnable {
 
     public String getTopPlayer(String currencyId, int position) {
         position = normalizePosition(position);
-        return baltop
-                .get(currencyId)
+        return get(currencyId)
                 .stream()
                 .skip(position)
                 .findFirst()
@@ -88,8 +77,7 @@ public class BalTop extends BukkitRunnable {
 
     public @Nullable BigDecimal getTopBalance(String currencyId, int position) {
         position = normalizePosition(position);
-        return baltop
-                .get(currencyId)
+        return get(currencyId)
                 .stream()
                 .skip(position)
                 .findFirst()
@@ -97,6 +85,10 @@ public class BalTop extends BukkitRunnable {
                 .orElse(null);
     }
 
+    private List<TopPlayer> get(String currencyId) {
+        return baltop.getOrDefault(currencyId, Collections.emptyList());
+    }
+
     private int normalizePosition(int position) {
         if (position == 0) {
             return position;
@@ -114,55 +106,28 @@ public class BalTop extends BukkitRunnable {
         if (provider == null) {
             return;
         }
-        if (!balanceCache.available()) {
+
+        for (Currency currency : provider.getCurrencies()) {
+            List<RankedBalance> top;
             try {
-                balanceCache.await();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-            if (!balanceCache.available()) {
+                top = provider.retrieveTopBalances(currency, 0, topSize).join();
+            } catch (CompletionException e) {
                 // We'll just wait for the next cycle to update the baltop
-                // Also print a warning that it failed to update the baltop
                 TreasuryPlugin
                         .getInstance()
                         .logger()
                         .warn("Couldn't update baltop placeholders for PlaceholderAPI!");
                 return;
             }
-        }
-        baltop.clear();
-
-        for (OfflinePlayer player : Bukkit.getOfflinePlayers()) {
-            String playerName = player.getName();
-            if (playerName == null) {
-                continue;
-            }
-            for (Currency currency : provider.getCurrencies()) {
-                BigDecimal balance = balanceCache.getBalance(player.getUniqueId(),
-                        currency.getIdentifier()
-                );
-                if (balance == null) {
+            List<TopPlayer> players = new ArrayList<>(top.size());
+            for (RankedBalance balance : top) {
+                String playerName = Bukkit.getOfflinePlayer(balance.getPlayerId()).getName();
+                if (playerName == null) {
                     continue;
                 }
-                baltop.put(currency.getIdentifier(), new TopPlayer(playerName, balance));
-            }
-        }
-
-        for (String key : baltop.keys()) {
-            Collection<TopPlayer> currentPlayers = baltop.get(key);
-            if (currentPlayers.isEmpty() || currentPlayers.size() <= topSize) {
-                continue;
-            }
-            List<TopPlayer> newPlayers = new ArrayList<>();
-            int count = 0;
-            for (TopPlayer player : currentPlayers) {
-                newPlayers.add(player);
-                count++;
-                if (count == topSize) {
-                    break;
-                }
+                players.add(new TopPlayer(playerName, balance.getBalance()));
             }
-            baltop.replaceValues(key, newPlayers);
+            baltop.put(currency.getIdentifier(), players);
         }
     }
 
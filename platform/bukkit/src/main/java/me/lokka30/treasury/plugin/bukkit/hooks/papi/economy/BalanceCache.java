@@ -4,24 +4,29 @@
 
 package me.lokka30.treasury.plugin.bukkit.hooks.papi.economy;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
 import java.math.BigDecimal;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicReference;
 import me.lokka30.treasury.api.common.misc.FutureHelper;
 import me.lokka30.treasury.api.common.misc.TriState;
 import me.lokka30.treasury.api.common.response.TreasuryException;
 import me.lokka30.treasury.api.economy.EconomyProvider;
-import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.account.PlayerAccount;
+import me.lokka30.treasury.api.economy.balance.BalanceChange;
+import me.lokka30.treasury.api.economy.balance.BalanceSubscription;
 import me.lokka30.treasury.api.economy.currency.Currency;
 import me.lokka30.treasury.plugin.bukkit.TreasuryBukkit;
 import me.lokka30.treasury.plugin.core.TreasuryPlugin;
@@ -32,11 +37,17 @@ import org.jetbrains.annotations.Nullable;
 
 public class BalanceCache extends BukkitRunnable {
 
-    private final Multimap<UUID, Map.Entry<String, BigDecimal>> balances = HashMultimap.create();
+    // keyed by the lower case currency identifiers
+    private final Map<UUID, Map<String, BigDecimal>> balances = new ConcurrentHashMap<>();
+    // the currencies changed since the cache started filling, which the scan must not overwrite
+    private final Map<UUID, Set<String>> changed = new ConcurrentHashMap<>();
     private final int delay;
     private final AtomicReference<EconomyProvider> providerRef;
     private final AtomicReference<CountDownLatch> doneLatch = new AtomicReference<>(new CountDownLatch(
             1));
+    private EconomyProvider subscribedProvider;
+    private BalanceSubscription subscription;
+    private volatile boolean populated = false;
 
     public BalanceCache(int delay, AtomicReference<EconomyProvider> providerRef) {
         this.delay = delay;
@@ -48,17 +59,11 @@ public class BalanceCache extends BukkitRunnable {
     }
 
     public @Nullable BigDecimal getBalance(UUID uuid, String currencyId) {
-        Collection<Map.Entry<String, BigDecimal>> collection = balances.get(uuid);
-        // optimise
-        if (collection.isEmpty()) {
+        Map<String, BigDecimal> playerBalances = balances.get(uuid);
+        if (playerBalances == null) {
             return null;
         }
-        return collection
-                .stream()
-                .filter(e -> e.getKey().equalsIgnoreCase(currencyId))
-                .findFirst()
-                .map(Map.Entry::getValue)
-                .orElse(null);
+        return playerBalances.get(currencyId.toLowerCase(Locale.ROOT));
     }
 
     public boolean available() {
@@ -75,6 +80,18 @@ public class BalanceCache extends BukkitRunnable {
         if (provider == null) {
             return;
         }
+        if (provider != subscribedProvider) {
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            subscribedProvider = provider;
+            subscription = provider.subscribeBalanceChanges(this::handleBalanceChange).orElse(null);
+            populated = false;
+        } else if (subscription != null && populated) {
+            // balances are kept up to date by the subscription
+            return;
+        }
+        changed.clear();
         balances.clear();
         this.proceed(0, Arrays.asList(Bukkit.getOfflinePlayers()), provider);
         CountDownLatch latch = this.doneLatch.get();
@@ -87,6 +104,44 @@ public class BalanceCache extends BukkitRunnable {
         }
     }
 
+    private void handleBalanceChange(BalanceChange change) {
+        if (!change.getAccount().isPlayerAccount()) {
+            return;
+        }
+        UUID uuid = change.getAccount().getPlayerIdentifier().orElseThrow(IllegalStateException::new);
+        String currencyId = change.getCurrencyId().toLowerCase(Locale.ROOT);
+        // computing on the player serializes with the scan storing their balances
+        balances.compute(uuid, (key, playerBalances) -> {
+            changed.computeIfAbsent(uuid, $ -> ConcurrentHashMap.newKeySet()).add(currencyId);
+            Map<String, BigDecimal> ret = playerBalances != null
+                    ? playerBalances
+                    : new ConcurrentHashMap<>();
+            if (change.getBalance().signum() != 0) {
+                ret.put(currencyId, change.getBalance());
+            } else {
+                ret.remove(currencyId);
+            }
+            return ret.isEmpty() ? null : ret;
+        });
+    }
+
+    private void putScanned(UUID uuid, Collection<Map.Entry<String, BigDecimal>> scanned) {
+        balances.compute(uuid, (key, playerBalances) -> {
+            Set<String> changedCurrencies = changed.getOrDefault(uuid, Collections.emptySet());
+            Map<String, BigDecimal> ret = playerBalances != null
+                    ? playerBalances
+                    : new ConcurrentHashMap<>();
+            for (Map.Entry<String, BigDecimal> balance : scanned) {
+                String currencyId = balance.getKey().toLowerCase(Locale.ROOT);
+                // a change received meanwhile is newer than the scanned balance
+                if (!changedCurrencies.contains(currencyId)) {
+                    ret.put(currencyId, balance.getValue());
+                }
+            }
+            return ret.isEmpty() ? null : ret;
+        });
+    }
+
     private void proceed(
             int currentIndex, List<OfflinePlayer> players, EconomyProvider provider
     ) {
@@ -96,33 +151,38 @@ public class BalanceCache extends BukkitRunnable {
             doneLatch.set(latch);
         }
         if (currentIndex == players.size()) {
+            populated = true;
             // java can be weird sometimes
             this.doneLatch.get().countDown();
             return;
         }
         OfflinePlayer player = players.get(currentIndex);
-        provider.hasAccount(AccountData.forPlayerAccount(player.getUniqueId())).thenCompose(res -> {
-            if (res) {
-                return provider.accountAccessor().player().withUniqueId(player.getUniqueId()).get();
-            }
-            return FutureHelper.failedFuture(new TreasuryException("accountNotExists"));
-        }).whenComplete((account, ex) -> {
+        // stay on the provider's threads while walking the players, if it has a preference
+        Executor executor = provider.preferredExecutor().orElse(null);
+        FutureHelper.continueOn(provider
+                .accountAccessor()
+                .player()
+                .withUniqueId(player.getUniqueId())
+                .find(), executor).whenComplete((accountOpt, ex) -> {
             if (ex != null) {
                 if (ex instanceof TreasuryException) {
-                    if (!ex.getMessage().equalsIgnoreCase("accountNotExists")) {
-                        // log the problem and proceed with next entry
-                        TreasuryPlugin.getInstance().logger().error(
-                                "Error whilst trying to update balance cache for " + (player.getName() != null
-                                        ? player.getName()
-                                        : player
-                                                .getUniqueId()
-                                                .toString()) + ": " + ex.getMessage());
-                    }
+                    // log the problem and proceed with next entry
+                    TreasuryPlugin.getInstance().logger().error(
+                            "Error whilst trying to update balance cache for " + (player.getName() != null
+                                    ? player.getName()
+                                    : player
+                                            .getUniqueId()
+                                            .toString()) + ": " + ex.getMessage());
                     proceed(currentIndex + 1, players, provider);
                     return;
                 }
                 throw new RuntimeException("An error occurred whilst updating balance cache", ex);
             }
+            if (!accountOpt.isPresent()) {
+                proceed(currentIndex + 1, players, provider);
+                return;
+            }
+            PlayerAccount account = accountOpt.get();
 
             List<CompletableFuture<Map.Entry<String, BigDecimal>>> balanceFutures = new ArrayList<>();
             for (Currency currency : provider.getCurrencies()) {
@@ -146,16 +206,17 @@ public class BalanceCache extends BukkitRunnable {
             }
 
             FutureHelper
-                    .joinAndFilter(bal -> CompletableFuture.completedFuture(TriState.fromBoolean(bal.getValue() != null && !bal
-                            .getValue()
-                            .equals(BigDecimal.ZERO))), balanceFutures)
+                    .continueOn(FutureHelper.joinAndFilter(bal -> CompletableFuture.completedFuture(
+                            TriState.fromBoolean(bal.getValue() != null && !bal
+                                    .getValue()
+                                    .equals(BigDecimal.ZERO))), balanceFutures), executor)
                     .whenComplete((balances, ex1) -> {
                         if (ex1 != null) {
                             throw new RuntimeException("An error occurred whilst updating balance cache",
                                     ex1
                             );
                         }
-                        this.balances.putAll(player.getUniqueId(), balances);
+                        putScanned(player.getUniqueId(), balances);
                         proceed(currentIndex + 1, players, provider);
                     });
         });
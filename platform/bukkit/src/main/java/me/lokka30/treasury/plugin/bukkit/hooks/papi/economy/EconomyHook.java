@@ -161,7 +161,6 @@ public class EconomyHook implements TreasuryPapiHook {
         this.baltop = new BalTop(expansion.getBoolean("baltop.enabled", false),
                 expansion.getInt("baltop.cache_size", 100),
                 expansion.getInt("baltop.cache_delay", 30),
-                balanceCache,
                 providerRef
         );
         if (this.baltop.isEnabled()) {
@@ -83,6 +83,7 @@ public class BungeeTreasuryPlugin extends TreasuryPlugin implements Logger, Sche
 
     public void loadSettings() {
         settings = Settings.load(settingsFile);
+        applySettings(settings);
     }
 
     @Override
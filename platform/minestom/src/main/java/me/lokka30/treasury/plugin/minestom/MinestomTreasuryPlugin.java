@@ -85,6 +85,7 @@ public class MinestomTreasuryPlugin extends TreasuryPlugin implements Logger, Sc
 
     public void loadSettings() {
         settings = Settings.load(settingsFile);
+        applySettings(settings);
     }
 
     @Override
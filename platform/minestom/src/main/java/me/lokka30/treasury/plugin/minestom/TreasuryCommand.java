@@ -59,6 +59,8 @@ public class TreasuryCommand extends Command {
                 } else if (args.length > 2) {
                     if (args[0].equalsIgnoreCase("economy") && args[1].equalsIgnoreCase("migrate")) {
                         permissionToCheck = "treasury.command.treasury.economy.migrate";
+                    } else if (args[0].equalsIgnoreCase("economy") && args[1].equalsIgnoreCase("stats")) {
+                        permissionToCheck = "treasury.command.treasury.economy.stats";
                     }
                 }
             }
@@ -101,19 +103,25 @@ public class TreasuryCommand extends Command {
                     ArgumentType.Literal("migrate"),
                     ArgumentType
                             .String("plugin1")
-                            .setSuggestionCallback(this.getSuggestionCallback(parent)),
+                            .setSuggestionCallback(this.getSuggestionCallback(parent, "migrate")),
                     ArgumentType
                             .String("plugin2")
-                            .setSuggestionCallback(this.getSuggestionCallback(parent))
+                            .setSuggestionCallback(this.getSuggestionCallback(parent, "migrate"))
+            );
+            this.addSyntax(this.getDefaultExecutor(),
+                    ArgumentType.Literal("stats"),
+                    ArgumentType
+                            .String("currency")
+                            .setSuggestionCallback(this.getSuggestionCallback(parent, "stats"))
             );
         }
 
-        private SuggestionCallback getSuggestionCallback(TreasuryCommand parent) {
+        private SuggestionCallback getSuggestionCallback(TreasuryCommand parent, String sub) {
             return (sender, context, suggestion) -> {
                 List<String> completions = parent.baseCommand.complete(
                         parent.sources.obtainSource(sender),
                         "treasury",
-                        new String[]{"economy", "migrate", suggestion.getInput()}
+                        new String[]{"economy", sub, suggestion.getInput()}
                 );
 
                 if (completions == null || completions.isEmpty()) {
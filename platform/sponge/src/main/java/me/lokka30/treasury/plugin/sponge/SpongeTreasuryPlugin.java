@@ -91,6 +91,7 @@ public class SpongeTreasuryPlugin extends TreasuryPlugin implements Logger, Sche
 
     public void loadSettings() {
         settings = SpongeSettings.loadSponge(settingsFile);
+        applySettings(settings);
     }
 
     @Override
@@ -65,7 +65,7 @@ public class TreasuryCommand {
     private Command.Parameterized buildEconomy() {
         Map<String, Command.Parameterized> temp = new HashMap<>();
         for (String sub : EconomySubcommand.SUBCOMMAND_COMPLETIONS) {
-            if (sub.equalsIgnoreCase("migrate")) {
+            if (sub.equalsIgnoreCase("migrate") || sub.equalsIgnoreCase("stats")) {
                 continue;
             }
             //@formatter:off
@@ -117,6 +117,31 @@ public class TreasuryCommand {
                 })
                 .terminal(true)
                 .build();
+
+        Parameter.Value<String> currencyParam;
+        Command.Parameterized stats = Command.builder()
+                .permission("treasury.command.treasury.economy.stats")
+                .shortDescription(Component.text("/treasury economy stats [currency]"))
+                .addParameter(
+                        currencyParam = Parameter
+                                .string()
+                                .key("currency")
+                                .optional()
+                                .completer((context, input) -> this.complete(
+                                        context,
+                                        new String[] {"economy", "stats", input}
+                                ))
+                                .build()
+                )
+                .executor(ctx -> {
+                    Optional<String> currency = ctx.one(currencyParam);
+                    if (!currency.isPresent()) {
+                        return this.execute(ctx, new String[] {"economy", "stats"});
+                    }
+                    return this.execute(ctx, new String[] {"economy", "stats", currency.get()});
+                })
+                .terminal(true)
+                .build();
         //@formatter:on
 
         Command.Builder builder = Command
@@ -125,6 +150,7 @@ public class TreasuryCommand {
                 .shortDescription(Component.text("/treasury economy <sub> [args]"))
                 .terminal(true);
         builder.addChild(migrate, "migrate");
+        builder.addChild(stats, "stats");
         try {
             for (Map.Entry<String, Command.Parameterized> e : temp.entrySet()) {
                 builder.addChild(e.getValue(), e.getKey());
@@ -106,14 +106,14 @@ public abstract class AbstractAccountImpl implements Account {
     @Override
     public Map<Currency, BigDecimal> balances(final Cause cause) {
         SpongeUtil.checkMainThread("balances", getCallerClassName());
-        Collection<String> heldCurrencies = delegateAccount.retrieveHeldCurrencies().join();
-        if (heldCurrencies.isEmpty()) {
+        Map<String, BigDecimal> balances = delegateAccount.retrieveBalances().join();
+        if (balances.isEmpty()) {
             return Collections.emptyMap();
         }
         Map<Currency, BigDecimal> ret = new HashMap<>();
-        for (String id : heldCurrencies) {
+        for (Map.Entry<String, BigDecimal> entry : balances.entrySet()) {
             me.lokka30.treasury.api.economy.currency.Currency treasuryCurrency = delegateProvider
-                    .findCurrency(id)
+                    .findCurrency(entry.getKey())
                     .orElse(null);
             if (treasuryCurrency == null) {
                 continue;
@@ -124,7 +124,7 @@ public abstract class AbstractAccountImpl implements Account {
             } else {
                 sponge = new SpongeCurrencyImpl(treasuryCurrency);
             }
-            ret.put(sponge, this.balance(sponge));
+            ret.put(sponge, entry.getValue());
         }
         return ret;
     }
@@ -15,6 +15,7 @@ import me.lokka30.treasury.api.common.misc.FutureHelper;
 import me.lokka30.treasury.api.common.misc.TriState;
 import me.lokka30.treasury.api.economy.EconomyProvider;
 import me.lokka30.treasury.api.economy.account.AccountData;
+import me.lokka30.treasury.api.economy.account.AccountExistenceFilter;
 import me.lokka30.treasury.api.economy.account.NonPlayerAccount;
 import me.lokka30.treasury.api.economy.account.PlayerAccount;
 import me.lokka30.treasury.plugin.sponge.util.SpongeUtil;
@@ -38,14 +39,21 @@ public class EconomyServiceImpl implements EconomyService {
     @Override
     public boolean hasAccount(final UUID uuid) {
         SpongeUtil.checkMainThread("hasAccount", getCallerClassName());
-        return getHandle().hasAccount(AccountData.forPlayerAccount(uuid)).join();
+        return hasAccount(AccountData.forPlayerAccount(uuid)).join();
     }
 
     @Override
     public boolean hasAccount(final String identifier) {
         SpongeUtil.checkMainThread("hasAccount", getCallerClassName());
-        return getHandle().hasAccount(AccountData.forNonPlayerAccount(NamespacedKey.fromString(
-                identifier))).join();
+        return hasAccount(AccountData.forNonPlayerAccount(NamespacedKey.fromString(identifier))).join();
+    }
+
+    private CompletableFuture<Boolean> hasAccount(AccountData accountData) {
+        EconomyProvider provider = getHandle();
+        Optional<AccountExistenceFilter> filter = provider.accountExistenceFilter();
+        return filter.isPresent()
+                ? filter.get().hasAccount(accountData)
+                : provider.hasAccount(accountData);
     }
 
     @Override
@@ -116,13 +124,16 @@ public class EconomyServiceImpl implements EconomyService {
     @Override
     public AccountDeletionResultType deleteAccount(final UUID uuid) {
         SpongeUtil.checkMainThread("deleteAccount", getCallerClassName());
-        PlayerAccount account = getHandle()
+        Optional<PlayerAccount> account = getHandle()
                 .accountAccessor()
                 .player()
                 .withUniqueId(uuid)
-                .get()
+                .find()
                 .join();
-        boolean result = account.deleteAccount().join();
+        if (!account.isPresent()) {
+            return AccountDeletionResultTypes.ABSENT.get();
+        }
+        boolean result = account.get().deleteAccount().join();
         return result
                 ? AccountDeletionResultTypes.SUCCESS.get()
                 : AccountDeletionResultTypes.FAILED.get();
@@ -131,9 +142,12 @@ public class EconomyServiceImpl implements EconomyService {
     @Override
     public AccountDeletionResultType deleteAccount(final String identifier) {
         SpongeUtil.checkMainThread("deleteAccount", getCallerClassName());
-        NonPlayerAccount account = getHandle().accountAccessor().nonPlayer().withIdentifier(
-                NamespacedKey.fromString(identifier)).get().join();
-        boolean result = account.deleteAccount().join();
+        Optional<NonPlayerAccount> account = getHandle().accountAccessor().nonPlayer().withIdentifier(
+                NamespacedKey.fromString(identifier)).find().join();
+        if (!account.isPresent()) {
+            return AccountDeletionResultTypes.ABSENT.get();
+        }
+        boolean result = account.get().deleteAccount().join();
         return result
                 ? AccountDeletionResultTypes.SUCCESS.get()
                 : AccountDeletionResultTypes.FAILED.get();
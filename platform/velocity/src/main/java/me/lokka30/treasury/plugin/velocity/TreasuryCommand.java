@@ -79,6 +79,33 @@ public class TreasuryCommand {
                                                 .executes(constructCommand(base, sources,
                                                         "economy help"))
                                 )
+                                .then(
+                                        LiteralArgumentBuilder.<CommandSource>literal("stats")
+                                                .requires(source -> source.hasPermission(
+                                                        "treasury.command.treasury.economy.stats"))
+                                                .executes(constructCommand(base, sources,
+                                                        "economy stats"))
+                                                .then(
+                                                        RequiredArgumentBuilder
+                                                                .<CommandSource, String>argument(
+                                                                        "currency",
+                                                                        StringArgumentType.word()
+                                                                )
+                                                                .executes(context -> {
+                                                                    String[] args = ("economy stats " + context.getArgument(
+                                                                            "currency",
+                                                                            String.class
+                                                                    )).split(" ");
+                                                                    base.execute(
+                                                                            sources.obtainSource(
+                                                                                    context.getSource()),
+                                                                            "treasury",
+                                                                            args
+                                                                    );
+                                                                    return Command.SINGLE_SUCCESS;
+                                                                })
+                                                )
+                                )
                                 .then(
                                         LiteralArgumentBuilder.<CommandSource>literal("migrate")
                                                 .requires(source -> source.hasPermission(
@@ -92,6 +92,7 @@ public class VelocityTreasuryPlugin extends TreasuryPlugin implements Logger, Sc
 
     public void loadSettings() {
         settings = Settings.load(settingsFile);
+        applySettings(settings);
     }
 
     @Override